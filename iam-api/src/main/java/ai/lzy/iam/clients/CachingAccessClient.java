@@ -0,0 +1,178 @@
+package ai.lzy.iam.clients;
+
+import ai.lzy.iam.config.IamClientConfiguration;
+import ai.lzy.iam.resources.AuthPermission;
+import ai.lzy.iam.resources.AuthResource;
+import ai.lzy.iam.resources.subjects.Subject;
+import ai.lzy.util.auth.credentials.Credentials;
+import ai.lzy.util.auth.exceptions.AuthException;
+import ai.lzy.util.auth.exceptions.AuthNotFoundException;
+import ai.lzy.util.auth.exceptions.AuthPermissionDeniedException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Caches access decisions of the delegate client for (subject, resource, permission).
+ * Granted decisions live for {@code ttl}, denied ones (including NOT_FOUND) for {@code negativeTtl}.
+ * Clients obtained via {@link #withToken} share the same cache.
+ *
+ * <p>Binding changes made elsewhere are not seen until the entry expires: a revoked permission stays granted
+ * for up to {@code ttl}, a new one stays denied for up to {@code negativeTtl}. Services tune both via
+ * {@link IamClientConfiguration}, and callers changing bindings themselves should {@link #invalidate} the resource.
+ */
+public class CachingAccessClient implements AccessClient {
+    private static final Logger LOG = LogManager.getLogger(CachingAccessClient.class);
+
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(5);
+    public static final Duration DEFAULT_NEGATIVE_TTL = Duration.ofSeconds(1);
+    public static final long DEFAULT_MAX_SIZE = 10_000;
+
+    private record Key(String subjectId, String resourceType, String resourceId, AuthPermission permission) {
+        static Key of(Subject subject, AuthResource resource, AuthPermission permission) {
+            return new Key(subject.id(), resource.type(), resource.resourceId(), permission);
+        }
+    }
+
+    private enum Decision {
+        DENIED,
+        NOT_FOUND,
+        PERMISSION_DENIED
+    }
+
+    private record Caches(Cache<Key, Boolean> granted, Cache<Key, Decision> denied) {}
+
+    private final AccessClient delegate;
+    private final Caches caches;
+
+    public CachingAccessClient(AccessClient delegate, Duration ttl, Duration negativeTtl, long maxSize) {
+        this(delegate, new Caches(
+            CacheBuilder.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build(),
+            CacheBuilder.newBuilder()
+                .expireAfterWrite(negativeTtl)
+                .maximumSize(maxSize)
+                .build()));
+    }
+
+    private CachingAccessClient(AccessClient delegate, Caches caches) {
+        this.delegate = delegate;
+        this.caches = caches;
+    }
+
+    public static CachingAccessClient wrap(AccessClient client) {
+        if (client instanceof CachingAccessClient caching) {
+            return caching;
+        }
+        return new CachingAccessClient(client, DEFAULT_TTL, DEFAULT_NEGATIVE_TTL, DEFAULT_MAX_SIZE);
+    }
+
+    public static CachingAccessClient wrap(AccessClient client, IamClientConfiguration config) {
+        return new CachingAccessClient(client, config.getAccessCacheTtl(), config.getAccessCacheNegativeTtl(),
+            DEFAULT_MAX_SIZE);
+    }
+
+    @Override
+    public AccessClient withToken(Supplier<Credentials> tokenSupplier) {
+        return new CachingAccessClient(delegate.withToken(tokenSupplier), caches);
+    }
+
+    @Override
+    public boolean hasResourcePermission(Subject subject, AuthResource resource, AuthPermission permission)
+        throws AuthException
+    {
+        var key = Key.of(subject, resource, permission);
+
+        if (caches.granted.getIfPresent(key) != null) {
+            return true;
+        }
+
+        var denied = caches.denied.getIfPresent(key);
+        if (denied != null) {
+            LOG.debug("Use cached {} decision for {} to {}", denied, subject, resource);
+            return switch (denied) {
+                case DENIED -> false;
+                case NOT_FOUND -> throw new AuthNotFoundException("Resource: " + resource.resourceId() + " not found");
+                case PERMISSION_DENIED -> throw new AuthPermissionDeniedException(
+                    "Access denied to resource: " + resource.resourceId());
+            };
+        }
+
+        boolean granted;
+        try {
+            granted = delegate.hasResourcePermission(subject, resource, permission);
+        } catch (AuthNotFoundException e) {
+            caches.denied.put(key, Decision.NOT_FOUND);
+            throw e;
+        } catch (AuthPermissionDeniedException e) {
+            caches.denied.put(key, Decision.PERMISSION_DENIED);
+            throw e;
+        }
+
+        put(key, granted);
+        return granted;
+    }
+
+    @Override
+    public List<Boolean> hasResourcePermissions(Subject subject, List<? extends AuthResource> resources,
+                                                AuthPermission permission) throws AuthException
+    {
+        var result = new Boolean[resources.size()];
+        var missedIdx = new ArrayList<Integer>();
+        var missed = new ArrayList<AuthResource>();
+
+        for (int i = 0; i < resources.size(); ++i) {
+            var key = Key.of(subject, resources.get(i), permission);
+            if (caches.granted.getIfPresent(key) != null) {
+                result[i] = true;
+            } else if (caches.denied.getIfPresent(key) != null) {
+                result[i] = false;
+            } else {
+                missedIdx.add(i);
+                missed.add(resources.get(i));
+            }
+        }
+
+        if (!missed.isEmpty()) {
+            var decisions = delegate.hasResourcePermissions(subject, missed, permission);
+            for (int i = 0; i < missed.size(); ++i) {
+                boolean granted = decisions.get(i);
+                put(Key.of(subject, missed.get(i), permission), granted);
+                result[missedIdx.get(i)] = granted;
+            }
+        }
+
+        return Arrays.asList(result);
+    }
+
+    public void invalidate(AuthResource resource) {
+        caches.granted.asMap().keySet().removeIf(key -> matches(key, resource));
+        caches.denied.asMap().keySet().removeIf(key -> matches(key, resource));
+    }
+
+    public void invalidateAll() {
+        caches.granted.invalidateAll();
+        caches.denied.invalidateAll();
+    }
+
+    private void put(Key key, boolean granted) {
+        if (granted) {
+            caches.granted.put(key, true);
+        } else {
+            caches.denied.put(key, Decision.DENIED);
+        }
+    }
+
+    private static boolean matches(Key key, AuthResource resource) {
+        return key.resourceId().equals(resource.resourceId()) && key.resourceType().equals(resource.type());
+    }
+}
@@ -12,6 +12,11 @@ public final class IamClientConfiguration {
     private String internalUserName;
     private String internalUserPrivateKey;
 
+    // access decisions are cached by services, so a revoked permission keeps working for up to accessCacheTtl
+    // and a newly granted one may be denied for up to accessCacheNegativeTtl, zero disables caching
+    private Duration accessCacheTtl = Duration.ofSeconds(5);
+    private Duration accessCacheNegativeTtl = Duration.ofSeconds(1);
+
     public RenewableJwt createRenewableToken(Clock clock) {
         try {
             return new RenewableJwt(internalUserName, AuthProvider.INTERNAL.name(), Duration.ofDays(1),
@@ -37,6 +42,14 @@ public final class IamClientConfiguration {
         return internalUserPrivateKey;
     }
 
+    public Duration getAccessCacheTtl() {
+        return accessCacheTtl;
+    }
+
+    public Duration getAccessCacheNegativeTtl() {
+        return accessCacheNegativeTtl;
+    }
+
     public void setAddress(String address) {
         this.address = address;
     }
@@ -49,11 +62,21 @@ public final class IamClientConfiguration {
         this.internalUserPrivateKey = internalUserPrivateKey;
     }
 
+    public void setAccessCacheTtl(Duration accessCacheTtl) {
+        this.accessCacheTtl = accessCacheTtl;
+    }
+
+    public void setAccessCacheNegativeTtl(Duration accessCacheNegativeTtl) {
+        this.accessCacheNegativeTtl = accessCacheNegativeTtl;
+    }
+
     @Override
     public String toString() {
         return "IamClientConfiguration{" +
                "address='" + address + '\'' +
                ", internalUserName='" + internalUserName + '\'' +
+               ", accessCacheTtl=" + accessCacheTtl +
+               ", accessCacheNegativeTtl=" + accessCacheNegativeTtl +
                '}';
     }
 }
@@ -14,6 +14,7 @@ import ai.lzy.v1.iam.LzyAccessServiceGrpc;
 import io.grpc.Channel;
 import io.grpc.StatusRuntimeException;
 
+import java.util.List;
 import java.util.function.Supplier;
 
 public class AccessServiceGrpcClient implements AccessClient {
@@ -52,4 +53,24 @@ public class AccessServiceGrpcClient implements AccessClient {
             throw AuthException.fromStatusRuntimeException(e);
         }
     }
+
+    @Override
+    public List<Boolean> hasResourcePermissions(Subject subject, List<? extends AuthResource> resources,
+                                                AuthPermission permission) throws AuthException
+    {
+        if (resources.isEmpty()) {
+            return List.of();
+        }
+
+        try {
+            var response = accessService.authorizeMany(LACS.AuthorizeManyRequest.newBuilder()
+                .setSubject(ProtoConverter.from(subject))
+                .setPermission(permission.permission())
+                .addAllResources(resources.stream().map(ProtoConverter::from).toList())
+                .build());
+            return response.getGrantedList();
+        } catch (StatusRuntimeException e) {
+            throw AuthException.fromStatusRuntimeException(e);
+        }
+    }
 }
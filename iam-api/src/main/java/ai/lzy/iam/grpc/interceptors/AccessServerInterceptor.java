@@ -1,6 +1,7 @@
 package ai.lzy.iam.grpc.interceptors;
 
 import ai.lzy.iam.clients.AccessClient;
+import ai.lzy.iam.clients.CachingAccessClient;
 import ai.lzy.iam.grpc.context.AuthenticationContext;
 import ai.lzy.iam.resources.AuthPermission;
 import ai.lzy.iam.resources.AuthResource;
@@ -58,7 +59,9 @@ public class AccessServerInterceptor implements ServerInterceptor {
                                     @Nullable AuthConf authConf)
     {
         this.tokenSupplier = tokenSupplier;
-        this.accessServiceClient = accessServiceClient.withToken(tokenSupplier);
+        // access decisions are cached for a short time, so hot streaming calls don't hit IAM on each request;
+        // a client already wrapped by the service keeps its configured TTLs
+        this.accessServiceClient = CachingAccessClient.wrap(accessServiceClient).withToken(tokenSupplier);
         this.exceptMethods = exceptMethods;
         this.authConf = new AtomicReference<>(authConf);
     }
@@ -119,6 +122,7 @@ public class AccessServerInterceptor implements ServerInterceptor {
 
         return permissionDenied(call, subject);
     }
+
     private <ReqT, RespT> ServerCall.Listener<ReqT> permissionDenied(ServerCall<ReqT, RespT> call, Subject subject) {
         LOG.warn("Subject '{}' is not authorized to {}", subject, authConf.get());
 
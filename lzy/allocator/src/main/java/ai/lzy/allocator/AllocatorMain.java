@@ -9,6 +9,7 @@ import ai.lzy.allocator.services.AllocatorPrivateService;
 import ai.lzy.allocator.services.AllocatorService;
 import ai.lzy.allocator.services.DiskService;
 import ai.lzy.allocator.services.VmPoolService;
+import ai.lzy.common.StartupTimer;
 import ai.lzy.iam.clients.AccessClient;
 import ai.lzy.iam.clients.AuthenticateService;
 import ai.lzy.iam.grpc.interceptors.AccessServerInterceptor;
@@ -17,7 +18,6 @@ import ai.lzy.iam.resources.AuthPermission;
 import ai.lzy.iam.resources.impl.Root;
 import ai.lzy.longrunning.OperationsService;
 import ai.lzy.metrics.MetricReporter;
-import ai.lzy.metrics.MetricsGrpcInterceptor;
 import ai.lzy.util.auth.credentials.RenewableToken;
 import ai.lzy.v1.AllocatorPrivateGrpc;
 import com.google.common.net.HostAndPort;
@@ -39,6 +39,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.LockSupport;
 
+import static ai.lzy.util.grpc.GrpcUtils.addMetrics;
 import static ai.lzy.util.grpc.GrpcUtils.newGrpcServer;
 
 @Singleton
@@ -92,8 +93,7 @@ public class AllocatorMain {
                 AllocatorPrivateGrpc.getHeartbeatMethod(),
                 AllocatorPrivateGrpc.getRegisterMethod());
 
-        var builder = newGrpcServer("0.0.0.0", address.getPort(), auth)
-            .intercept(MetricsGrpcInterceptor.server(APP));
+        var builder = addMetrics(newGrpcServer("0.0.0.0", address.getPort(), auth), APP);
 
         var internalOnly =
             new AccessServerInterceptor(accessClient, token::get, Root.INSTANCE, AuthPermission.INTERNAL_AUTHORIZE);
@@ -186,12 +186,15 @@ public class AllocatorMain {
     public static void main(String[] args) throws IOException, InterruptedException {
         System.out.println("Current path is:: " + System.getProperty("user.dir"));
 
+        var startupTimer = new StartupTimer(APP);
+
         final var context = Micronaut.build(args)
             .banner(true)
             .eagerInitSingletons(true)
             .mainClass(AllocatorMain.class)
             .defaultEnvironments("local")
             .start();
+        startupTimer.phase("context");
 
         Properties props = System.getProperties();
         props.setProperty("kubernetes.disable.autoConfig", "true");
@@ -199,6 +202,8 @@ public class AllocatorMain {
 
         final var main = context.getBean(AllocatorMain.class);
         main.start();
+        startupTimer.phase("start");
+        LOG.info(startupTimer.report());
 
         Signal.handle(new Signal("TERM"), sig -> {
             main.stop(true);
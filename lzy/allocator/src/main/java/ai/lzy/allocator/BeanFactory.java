@@ -32,7 +32,6 @@ import io.grpc.ManagedChannel;
 import io.micronaut.context.annotation.Bean;
 import io.micronaut.context.annotation.Factory;
 import io.micronaut.context.annotation.Requires;
-import io.prometheus.client.CollectorRegistry;
 import io.prometheus.client.Counter;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
@@ -48,6 +47,12 @@ public class BeanFactory {
     public static final String TEST_ENV_NAME = "local-test";
     private static final Duration YC_CALL_TIMEOUT = Duration.ofSeconds(30);
 
+    // registered once per process, so it survives recreation of the application context
+    private static final Counter EXECUTOR_ERRORS = Counter
+        .build("executor_errors", "Executor unexpected errors")
+        .subsystem("allocator")
+        .register();
+
     @Singleton
     @Named("AllocatorIdGenerator")
     public IdGenerator idGenerator() {
@@ -101,8 +106,6 @@ public class BeanFactory {
     @Bean(preDestroy = "stop")
     @Named("AllocatorMetricReporter")
     public MetricReporter metricReporter(ServiceConfig.MetricsConfig config) {
-        CollectorRegistry.defaultRegistry.clear();
-
         return switch (config.getKind()) {
             case Disabled -> new DummyMetricReporter();
             case Logger -> new LogMetricReporter(config.getLoggerName(),
@@ -158,12 +161,8 @@ public class BeanFactory {
                                                  VmDao vmDao, DiskDao diskDao, DiskOpDao diskOpDao,
                                                  @Named("AllocatorMetricReporter") MetricReporter mr)
     {
-        final Counter errors = Counter
-            .build("executor_errors", "Executor unexpected errors")
-            .subsystem("allocator")
-            .register();
-
-        return new OperationsExecutor(5, 20, errors::inc, e -> e instanceof InjectedFailures.TerminateException);
+        return new OperationsExecutor(5, 20, EXECUTOR_ERRORS::inc,
+            e -> e instanceof InjectedFailures.TerminateException);
     }
 
     @Singleton
@@ -24,6 +24,7 @@ public final class AllocateVmAction extends OperationRunnerBase {
     private static final Duration WAIT_VM_PERIOD = Duration.ofMillis(1500);
     private static final Duration WAIT_VM_POLL_START = Duration.ofSeconds(3);
     private static final Duration WAIT_VM_POLL_PERIOD = Duration.ofSeconds(10);
+    private static final Duration WAIT_VM_WATCHED_POLL_PERIOD = Duration.ofMinutes(1);
 
     private Vm vm;
     private final AllocationContext allocationContext;
@@ -33,6 +34,8 @@ public final class AllocateVmAction extends OperationRunnerBase {
     private DeleteVmAction deleteVmAction = null;
     @Nullable
     private Instant vmLastPollTimestamp = null;
+    private boolean vmStatusWatched = false;
+    private volatile boolean vmStatusChanged = false;
 
     public AllocateVmAction(Vm vm, AllocationContext allocationContext, boolean restore) {
         super(vm.allocOpId(), "VM " + vm.vmId(), allocationContext.storage(), allocationContext.operationsDao(),
@@ -70,6 +73,11 @@ public final class AllocateVmAction extends OperationRunnerBase {
     protected void notifyFinished() {
         allocationContext.metrics().runningAllocations.labels(vm.poolLabel()).dec();
 
+        if (vmStatusWatched) {
+            allocationContext.allocator().unwatchVmAllocationStatus(vm);
+            vmStatusWatched = false;
+        }
+
         if (deleteVmAction != null) {
             log().info("{} Submit DeleteVmAction operation {}", logPrefix(), deleteVmAction.id());
             allocationContext.startNew(deleteVmAction);
@@ -167,10 +175,15 @@ public final class AllocateVmAction extends OperationRunnerBase {
 
         if (vmLastPollTimestamp == null) {
             vmLastPollTimestamp = now.plus(WAIT_VM_POLL_START);
+            vmStatusWatched = allocationContext.allocator().watchVmAllocationStatus(vm, () -> vmStatusChanged = true);
             return StepResult.RESTART.after(WAIT_VM_PERIOD);
         }
 
-        if (now.isAfter(vmLastPollTimestamp.plus(WAIT_VM_POLL_PERIOD))) {
+        // status changes are pushed by the allocator if it's watched, so poll it rarely, just in case
+        var pollPeriod = vmStatusWatched ? WAIT_VM_WATCHED_POLL_PERIOD : WAIT_VM_POLL_PERIOD;
+
+        if (vmStatusChanged || now.isAfter(vmLastPollTimestamp.plus(pollPeriod))) {
+            vmStatusChanged = false;
             try {
                 final var result = allocationContext.allocator().getVmAllocationStatus(vm);
                 if (result.code() != VmAllocator.Result.Code.SUCCESS) {
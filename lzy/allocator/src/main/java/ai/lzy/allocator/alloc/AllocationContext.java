@@ -44,6 +44,7 @@ public record AllocationContext(
     VolumeManager volumeManager,
     DynamicMountDao dynamicMountDao,
     ServiceConfig.MountConfig mountConfig,
+    DynamicMountBatcher mountBatcher,
     NetworkPolicyManager networkPolicyManager
 ) {
     public void startNew(Runnable action) {
@@ -53,6 +54,14 @@ public record AllocationContext(
     public String startDeleteVmAction(Vm vm, String description, String reqid, Logger log) throws Exception {
         log.info("About to delete VM {}: {}", vm.vmId(), description);
         var action = createDeleteVmAction(vm, description, reqid, log);
+        startDeleteVmAction(vm, action);
+        return action.id();
+    }
+
+    /**
+     * Starts action created by {@link #createDeleteVmAction} in the committed transaction
+     */
+    public void startDeleteVmAction(Vm vm, DeleteVmAction action) {
         startNew(action);
 
         switch (vm.status()) {
@@ -65,8 +74,6 @@ public record AllocationContext(
                     .inc(Duration.between(vm.idleState().idleSice(), Instant.now()).getSeconds());
             }
         }
-
-        return action.id();
     }
 
     public DeleteVmAction createDeleteVmAction(Vm vm, String description, String reqid, Logger log) throws Exception {
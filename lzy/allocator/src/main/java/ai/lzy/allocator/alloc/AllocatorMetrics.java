@@ -1,9 +1,11 @@
 package ai.lzy.allocator.alloc;
 
 import ai.lzy.metrics.MetricReporter;
+import io.prometheus.client.CollectorRegistry;
 import io.prometheus.client.Counter;
 import io.prometheus.client.Gauge;
 import io.prometheus.client.Histogram;
+import jakarta.annotation.PreDestroy;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 
@@ -134,4 +136,80 @@ public class AllocatorMetrics {
         .labelNames(VM_POOL_LABEL)
         .register();
 
+    // warm pool
+
+    public final Counter warmPoolAllocations = Counter
+        .build("warm_pool_allocations", "VMs allocated ahead of demand by sessions warm pools")
+        .subsystem(ALLOCATOR)
+        .labelNames(VM_POOL_LABEL)
+        .register();
+
+    public final Counter warmPoolHits = Counter
+        .build("warm_pool_hits", "Allocations served by VMs from warm pool")
+        .subsystem(ALLOCATOR)
+        .labelNames(VM_POOL_LABEL)
+        .register();
+
+    public final Counter warmPoolMisses = Counter
+        .build("warm_pool_misses", "New VMs allocations in sessions with warm pool")
+        .subsystem(ALLOCATOR)
+        .labelNames(VM_POOL_LABEL)
+        .register();
+
+    public final Counter warmPoolIdleTime = Counter
+        .build("warm_pool_idle_time", "Time spent by warm pool VMs in cache before use (sec)")
+        .subsystem(ALLOCATOR)
+        .labelNames(VM_POOL_LABEL)
+        .register();
+
+    // gc
+
+    public final Gauge gcExpiredVms = Gauge
+        .build("gc_expired_vms", "Expired VMs waiting for deletion")
+        .subsystem(ALLOCATOR)
+        .register();
+
+    public final Counter gcReclaimedVms = Counter
+        .build("gc_reclaimed_vms", "Expired VMs scheduled for deletion by GC")
+        .subsystem(ALLOCATOR)
+        .register();
+
+    public final Histogram gcReclaimDelay = Histogram
+        .build("gc_reclaim_delay", "Delay between VM expiration and its deletion start (sec)")
+        .subsystem(ALLOCATOR)
+        .buckets(1.0, 5.0, 10.0, 30.0, 60.0, 120.0, 300.0, 600.0, 1200.0, 3600.0)
+        .register();
+
+    @PreDestroy
+    public void unregister() {
+        var registry = CollectorRegistry.defaultRegistry;
+        registry.unregister(activeSessions);
+        registry.unregister(createSessionError);
+        registry.unregister(deleteSessionError);
+        registry.unregister(allocateVmFromCache);
+        registry.unregister(allocateVmNew);
+        registry.unregister(allocationError);
+        registry.unregister(allocationTimeout);
+        registry.unregister(allocateNewDuration);
+        registry.unregister(allocateFromCacheDuration);
+        registry.unregister(removeNodeError);
+        registry.unregister(deleteVmErrors);
+        registry.unregister(nodeReadinessError);
+        registry.unregister(registerSuccess);
+        registry.unregister(registerFail);
+        registry.unregister(hbUnknownVm);
+        registry.unregister(hbInvalidVm);
+        registry.unregister(hbFail);
+        registry.unregister(runningVms);
+        registry.unregister(runningAllocations);
+        registry.unregister(cachedVms);
+        registry.unregister(cachedVmsTime);
+        registry.unregister(warmPoolAllocations);
+        registry.unregister(warmPoolHits);
+        registry.unregister(warmPoolMisses);
+        registry.unregister(warmPoolIdleTime);
+        registry.unregister(gcExpiredVms);
+        registry.unregister(gcReclaimedVms);
+        registry.unregister(gcReclaimDelay);
+    }
 }
@@ -0,0 +1,157 @@
+package ai.lzy.allocator.alloc;
+
+import ai.lzy.allocator.configs.ServiceConfig;
+import ai.lzy.allocator.model.ClusterPod;
+import ai.lzy.allocator.model.DynamicMount;
+import io.grpc.Status;
+import jakarta.annotation.Nullable;
+import jakarta.inject.Singleton;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Coalesces dynamic mounts of the same VM, which arrive within the configured window, into one batch.
+ * The first mount action which closes the batch becomes its leader: it creates a single mount holder pod
+ * with all mounts of the batch and publishes it to the other members (followers), so N mounts cost one
+ * pod cycle instead of N. Batches of the VM are processed one by one, because each new mount holder pod
+ * must contain all mounts of the previous one.
+ * <p>
+ * The state is in-memory only: after restart mount actions start from the beginning and join new batches.
+ */
+@Singleton
+public class DynamicMountBatcher {
+    private static final Logger LOG = LogManager.getLogger(DynamicMountBatcher.class);
+
+    private final ServiceConfig.MountConfig mountConfig;
+
+    // vmId -> batches in order of creation, the last one can be open
+    private final Map<String, Deque<Batch>> batches = new HashMap<>();
+
+    public DynamicMountBatcher(ServiceConfig.MountConfig mountConfig) {
+        this.mountConfig = mountConfig;
+    }
+
+    public synchronized Batch join(DynamicMount mount) {
+        var vmBatches = batches.computeIfAbsent(mount.vmId(), x -> new ArrayDeque<>());
+
+        var batch = vmBatches.peekLast();
+        if (batch == null || batch.closed) {
+            batch = new Batch(mount.vmId(), Instant.now().plus(mountConfig.getBatchWindow()));
+            vmBatches.addLast(batch);
+        }
+
+        batch.mounts.add(mount);
+        batch.active.add(mount.id());
+
+        LOG.debug("Mount {} joined batch of VM {} with {} mounts", mount.id(), mount.vmId(), batch.mounts.size());
+        return batch;
+    }
+
+    /**
+     * Tries to close the batch. The first member, which succeeds, becomes the batch leader.
+     *
+     * @return time to wait before the next attempt, or {@link Duration#ZERO} if the batch is closed
+     */
+    public synchronized Duration close(Batch batch, String mountId) {
+        if (batch.closed) {
+            return Duration.ZERO;
+        }
+
+        var now = Instant.now();
+        if (now.isBefore(batch.closeAt)) {
+            return Duration.between(now, batch.closeAt);
+        }
+
+        var vmBatches = batches.get(batch.vmId);
+        if (vmBatches != null && vmBatches.peekFirst() != batch) {
+            // previous batch of the VM is still in progress
+            return Duration.ofMillis(500);
+        }
+
+        batch.closed = true;
+        batch.leaderId = mountId;
+
+        LOG.info("Close batch of VM {} with mounts {}, leader {}", batch.vmId,
+            batch.mounts.stream().map(DynamicMount::id).toList(), mountId);
+        return Duration.ZERO;
+    }
+
+    public synchronized void complete(Batch batch, ClusterPod mountPod) {
+        batch.mountPod = mountPod;
+    }
+
+    public synchronized void fail(Batch batch, Status status) {
+        if (batch.mountPod == null && batch.error == null) {
+            batch.error = status;
+        }
+    }
+
+    public synchronized void leave(Batch batch, String mountId) {
+        if (!batch.active.remove(mountId)) {
+            return;
+        }
+
+        if (mountId.equals(batch.leaderId) && batch.mountPod == null && batch.error == null) {
+            batch.error = Status.CANCELLED.withDescription("Mount holder pod was not created");
+        }
+
+        if (batch.active.isEmpty()) {
+            var vmBatches = batches.get(batch.vmId);
+            if (vmBatches != null) {
+                vmBatches.remove(batch);
+                if (vmBatches.isEmpty()) {
+                    batches.remove(batch.vmId);
+                }
+            }
+        }
+    }
+
+    public static final class Batch {
+        private final String vmId;
+        private final Instant closeAt;
+        private final List<DynamicMount> mounts = new ArrayList<>();
+        private final Set<String> active = new HashSet<>();
+        private boolean closed = false;
+        @Nullable
+        private volatile String leaderId;
+        @Nullable
+        private volatile ClusterPod mountPod;
+        @Nullable
+        private volatile Status error;
+
+        private Batch(String vmId, Instant closeAt) {
+            this.vmId = vmId;
+            this.closeAt = closeAt;
+        }
+
+        public boolean isLeader(String mountId) {
+            return mountId.equals(leaderId);
+        }
+
+        // members are not changed after the batch is closed
+        public List<DynamicMount> mounts() {
+            return List.copyOf(mounts);
+        }
+
+        @Nullable
+        public ClusterPod mountPod() {
+            return mountPod;
+        }
+
+        @Nullable
+        public Status error() {
+            return error;
+        }
+    }
+}
@@ -17,6 +17,7 @@ import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -26,9 +27,12 @@ import java.util.function.Supplier;
 import static ai.lzy.model.db.DbHelper.withRetries;
 
 public final class MountDynamicDiskAction extends OperationRunnerBase {
+    private static final Duration WAIT_MOUNT_BATCH_PERIOD = Duration.ofMillis(500);
+
     private final AllocationContext allocationContext;
     private final VolumeManager volumeManager;
     private final MountHolderManager mountHolderManager;
+    private final DynamicMountBatcher mountBatcher;
     @Nonnull
     private Vm vm;
     private DynamicMount dynamicMount;
@@ -42,6 +46,9 @@ public final class MountDynamicDiskAction extends OperationRunnerBase {
     private List<DynamicMount> activeMounts;
     private Long nextId;
     private boolean mountPodsDeleted;
+    @Nullable
+    private DynamicMountBatcher.Batch batch;
+    private boolean batchClosed = false;
 
     public MountDynamicDiskAction(Vm vm, DynamicMount dynamicMount, AllocationContext allocationContext) {
         super(dynamicMount.mountOperationId(), String.format("Mount %s to VM %s", dynamicMount.mountName(), vm.vmId()),
@@ -51,6 +58,7 @@ public final class MountDynamicDiskAction extends OperationRunnerBase {
         this.allocationContext = allocationContext;
         this.volumeManager = allocationContext.volumeManager();
         this.mountHolderManager = allocationContext.mountHolderManager();
+        this.mountBatcher = allocationContext.mountBatcher();
 
         log().info("{} Mount disk...", logPrefix());
     }
@@ -58,8 +66,9 @@ public final class MountDynamicDiskAction extends OperationRunnerBase {
     @Override
     protected List<Supplier<StepResult>> steps() {
         return List.of(this::createVolumeIfNotExists, this::createVolumeClaimIfNotExists, this::setVolumeInfo,
-            this::prepareActiveMounts, this::getNextMountPodId, this::createNewMountPod, this::waitForPod,
-            this::updateVmMountPod, this::bindMountInsideVm, this::deleteOldMountPods, this::checkIfVmStillExists,
+            this::joinMountBatch, this::closeMountBatch, this::prepareActiveMounts, this::getNextMountPodId,
+            this::createNewMountPod, this::waitForPod, this::updateVmMountPod, this::waitBatchMountPod,
+            this::bindMountInsideVm, this::deleteOldMountPods, this::checkIfVmStillExists,
             this::setDynamicMountReady);
     }
 
@@ -70,6 +79,10 @@ public final class MountDynamicDiskAction extends OperationRunnerBase {
 
     @Override
     protected void notifyFinished() {
+        if (batch != null) {
+            mountBatcher.leave(batch, dynamicMount.id());
+        }
+
         if (unmountAction != null) {
             log().error("{} Failed to mount dynamic disk", logPrefix());
             try {
@@ -83,6 +96,10 @@ public final class MountDynamicDiskAction extends OperationRunnerBase {
     }
 
     private void fail(Status status) {
+        if (isBatchLeader()) {
+            mountBatcher.fail(batch, status);
+        }
+
         try {
             unmountAction = withRetries(log(), () -> {
                 try (var tx = TransactionHandle.create(allocationContext.storage())) {
@@ -187,8 +204,40 @@ public final class MountDynamicDiskAction extends OperationRunnerBase {
         return StepResult.CONTINUE;
     }
 
+    private boolean isBatchLeader() {
+        return batch != null && batch.isLeader(dynamicMount.id());
+    }
+
+    private StepResult joinMountBatch() {
+        if (batch != null) {
+            return StepResult.ALREADY_DONE;
+        }
+
+        batch = mountBatcher.join(dynamicMount);
+        return StepResult.CONTINUE;
+    }
+
+    private StepResult closeMountBatch() {
+        if (batchClosed) {
+            return StepResult.ALREADY_DONE;
+        }
+
+        var delay = mountBatcher.close(batch, dynamicMount.id());
+        if (!delay.isZero()) {
+            return StepResult.RESTART.after(delay);
+        }
+
+        batchClosed = true;
+        if (isBatchLeader()) {
+            log().info("{} Leading batch of {} mounts", logPrefix(), batch.mounts().size());
+        } else {
+            log().info("{} Waiting for mount pod of the batch", logPrefix());
+        }
+        return StepResult.CONTINUE;
+    }
+
     private StepResult prepareActiveMounts() {
-        if (activeMounts != null) {
+        if (activeMounts != null || !isBatchLeader()) {
             return StepResult.ALREADY_DONE;
         }
 
@@ -204,7 +253,7 @@ public final class MountDynamicDiskAction extends OperationRunnerBase {
     }
 
     private StepResult getNextMountPodId() {
-        if (nextId != null) {
+        if (nextId != null || !isBatchLeader()) {
             return StepResult.ALREADY_DONE;
         }
         try {
@@ -219,15 +268,16 @@ public final class MountDynamicDiskAction extends OperationRunnerBase {
     }
 
     private StepResult createNewMountPod() {
-        if (mountPod != null) {
+        if (mountPod != null || !isBatchLeader()) {
             return StepResult.ALREADY_DONE;
         }
 
-        var dynamicMounts = new ArrayList<DynamicMount>(activeMounts.size() + 1);
-        dynamicMounts.add(dynamicMount);
+        var batchMounts = batch.mounts();
+        var dynamicMounts = new ArrayList<DynamicMount>(activeMounts.size() + batchMounts.size());
+        dynamicMounts.addAll(batchMounts);
         dynamicMounts.addAll(activeMounts);
 
-        log().info("{} Attaching mount {}", logPrefix(), dynamicMount.id());
+        log().info("{} Attaching mounts {}", logPrefix(), batchMounts.stream().map(DynamicMount::id).toList());
         try {
             mountPod = allocationContext.mountHolderManager().allocateMountHolder(vm.spec(), dynamicMounts,
                 nextId.toString());
@@ -245,7 +295,7 @@ public final class MountDynamicDiskAction extends OperationRunnerBase {
     }
 
     private StepResult waitForPod() {
-        if (podStarted) {
+        if (podStarted || !isBatchLeader()) {
             return StepResult.ALREADY_DONE;
         }
         PodPhase podPhase;
@@ -277,7 +327,7 @@ public final class MountDynamicDiskAction extends OperationRunnerBase {
     }
 
     private StepResult updateVmMountPod() {
-        if (Objects.equals(vm.instanceProperties().mountPodName(), mountPod.podName())) {
+        if (!isBatchLeader() || Objects.equals(vm.instanceProperties().mountPodName(), mountPod.podName())) {
             return StepResult.ALREADY_DONE;
         }
 
@@ -289,13 +339,19 @@ public final class MountDynamicDiskAction extends OperationRunnerBase {
             dynamicMount = withRetries(log(), () -> {
                 try (var tx = TransactionHandle.create(allocationContext.storage())) {
                     allocationContext.vmDao().setMountPodAndIncrementNextId(vm.vmId(), mountPod.podName(), tx);
-                    var updatedMount = allocationContext.dynamicMountDao().update(dynamicMount.id(),
-                        mountedUpdate, tx);
+                    DynamicMount updatedMount = null;
+                    for (var mount : batch.mounts()) {
+                        var updated = allocationContext.dynamicMountDao().update(mount.id(), mountedUpdate, tx);
+                        if (mount.id().equals(dynamicMount.id())) {
+                            updatedMount = updated;
+                        }
+                    }
                     tx.commit();
                     return updatedMount;
                 }
             });
             vm = vm.withMountPod(mountPod.podName());
+            mountBatcher.complete(batch, mountPod);
         } catch (Exception e) {
             log().error("{} Failed to update vm with new mount pod {}", logPrefix(), mountPod.podName(), e);
             fail(Status.CANCELLED.withDescription("Failed to update vm with new mount pod"));
@@ -303,6 +359,29 @@ public final class MountDynamicDiskAction extends OperationRunnerBase {
         return StepResult.CONTINUE;
     }
 
+    private StepResult waitBatchMountPod() {
+        if (isBatchLeader() || mountPod != null) {
+            return StepResult.ALREADY_DONE;
+        }
+
+        var batchError = batch.error();
+        if (batchError != null) {
+            log().error("{} Failed to create mount pod of the batch: {}", logPrefix(), batchError.getDescription());
+            fail(Status.CANCELLED.withDescription("Failed to create mount pod: " + batchError.getDescription()));
+            return StepResult.FINISH;
+        }
+
+        var batchMountPod = batch.mountPod();
+        if (batchMountPod == null) {
+            return StepResult.RESTART.after(WAIT_MOUNT_BATCH_PERIOD);
+        }
+
+        log().info("{} Mount pod {} of the batch is ready", logPrefix(), batchMountPod.podName());
+        mountPod = batchMountPod;
+        vm = vm.withMountPod(mountPod.podName());
+        return StepResult.CONTINUE;
+    }
+
     private StepResult bindMountInsideVm() {
         if (bindMounted) {
             return StepResult.ALREADY_DONE;
@@ -344,7 +423,7 @@ public final class MountDynamicDiskAction extends OperationRunnerBase {
     }
 
     private StepResult deleteOldMountPods() {
-        if (mountPodsDeleted) {
+        if (mountPodsDeleted || !isBatchLeader()) {
             return StepResult.ALREADY_DONE;
         }
 
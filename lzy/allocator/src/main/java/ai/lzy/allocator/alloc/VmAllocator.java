@@ -7,6 +7,7 @@ import io.grpc.Status;
 import jakarta.annotation.Nullable;
 
 import java.sql.SQLException;
+import java.util.List;
 
 public interface VmAllocator {
 
@@ -68,6 +69,19 @@ public interface VmAllocator {
 
     Result getVmAllocationStatus(Vm vm) throws InvalidConfigurationException;
 
+    /**
+     * Subscribes on changes of the vm allocation status, so it is not required to poll it often
+     *
+     * @param onChange lightweight callback, called on each change of the status
+     * @return <code>false</code> if the status cannot be watched and must be polled
+     */
+    default boolean watchVmAllocationStatus(Vm vm, Runnable onChange) {
+        return false;
+    }
+
+    default void unwatchVmAllocationStatus(Vm vm) {
+    }
+
     Result unmountFromVm(Vm vm, String mountPath) throws InvalidConfigurationException;
 
     Result bindMountInVm(Vm vm, String fromPath, String toPath, @Nullable String chown, boolean readOnly)
@@ -81,5 +95,13 @@ public interface VmAllocator {
      */
     Result deallocate(Vm vm);
 
+    /**
+     * Best-effort bulk removal of the VMs instances before their {@link #deallocate}, which is still required
+     *
+     * @param vms vms in DELETING status
+     */
+    default void deleteInstances(List<Vm> vms) {
+    }
+
     Vm updateAllocatedVm(Vm vm, @Nullable TransactionHandle tx) throws SQLException;
 }
@@ -0,0 +1,208 @@
+package ai.lzy.allocator.alloc;
+
+import ai.lzy.allocator.alloc.dao.VmDao;
+import ai.lzy.allocator.configs.ServiceConfig;
+import ai.lzy.allocator.model.Session;
+import ai.lzy.allocator.model.Vm;
+import ai.lzy.allocator.model.VolumeRequest;
+import ai.lzy.longrunning.Operation;
+import ai.lzy.model.db.TransactionHandle;
+import ai.lzy.v1.VmAllocatorApi.AllocateMetadata;
+import com.google.protobuf.Any;
+import jakarta.inject.Singleton;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+import static ai.lzy.model.db.DbHelper.withRetries;
+
+/**
+ * Keeps VMs allocated ahead of demand for sessions with non-empty warm pool in their cache policy.
+ * The pool is inferred from the allocation requests: after each request the session gets up to
+ * <code>warmPoolSize</code> idle or allocating VMs with the same spec. Warm VMs are released to the session
+ * cache right after registration, so they are reused by {@link ai.lzy.allocator.alloc.dao.VmDao#acquire}
+ * and removed by GC as any other cached VM.
+ */
+@Singleton
+public class WarmVmPool {
+    private static final Logger LOG = LogManager.getLogger(WarmVmPool.class);
+
+    private final AllocationContext allocationContext;
+    private final ServiceConfig config;
+    private final ServiceConfig.CacheLimits cacheConfig;
+    // pool (spec without vm id) -> replenish is requested again while pending one runs
+    private final Map<Vm.Spec, Boolean> pendingReplenishes = new ConcurrentHashMap<>();
+
+    public WarmVmPool(AllocationContext allocationContext, ServiceConfig config,
+                      ServiceConfig.CacheLimits cacheConfig)
+    {
+        this.allocationContext = allocationContext;
+        this.config = config;
+        this.cacheConfig = cacheConfig;
+    }
+
+    public static boolean isApplicable(Session session, Vm.Spec vmSpec) {
+        // tunnels and resource volumes are bound to the requester, such VMs cannot be shared
+        return session.cachePolicy().warmPoolEnabled()
+            && vmSpec.tunnelSettings() == null
+            && vmSpec.volumeRequests().stream()
+                .noneMatch(r -> r.volumeDescription() instanceof VolumeRequest.ResourceVolumeDescription);
+    }
+
+    /**
+     * Schedules replenish of the session warm pool on the operations executor, so the caller is not blocked.
+     * At most one replenish of the same pool is pending, requests which come while it runs make it check
+     * the pool once more.
+     */
+    public void replenish(Session session, Vm.Spec vmSpec, String reqid) {
+        if (!isApplicable(session, vmSpec)) {
+            return;
+        }
+
+        var key = vmSpec.withVmId("");
+        var schedule = new boolean[] {false};
+        pendingReplenishes.compute(key, (k, rerun) -> {
+            if (rerun == null) {
+                schedule[0] = true;
+                return false;
+            }
+            return true;
+        });
+
+        if (!schedule[0]) {
+            return;
+        }
+
+        try {
+            allocationContext.startNew(() -> replenishPending(session, vmSpec, reqid, key));
+        } catch (RejectedExecutionException e) {
+            pendingReplenishes.remove(key);
+            LOG.warn("Cannot replenish warm pool of session {} at pool {}: {}",
+                session.sessionId(), vmSpec.poolLabel(), e.getMessage());
+        }
+    }
+
+    private void replenishPending(Session session, Vm.Spec vmSpec, String reqid, Vm.Spec key) {
+        var done = false;
+        try {
+            while (!done) {
+                replenishNow(session, vmSpec, reqid);
+                // allocations during the replenish could take warm VMs, check the pool again
+                done = pendingReplenishes.computeIfPresent(key, (k, rerun) -> rerun ? false : null) == null;
+            }
+        } finally {
+            if (!done) {
+                pendingReplenishes.remove(key);
+            }
+        }
+    }
+
+    private void replenishNow(Session session, Vm.Spec vmSpec, String reqid) {
+        final List<Vm> vms;
+        try {
+            vms = withRetries(LOG, () -> {
+                try (var tx = TransactionHandle.create(allocationContext.storage())) {
+                    var required = requiredVms(session, vmSpec, tx);
+                    if (required <= 0) {
+                        return List.<Vm>of();
+                    }
+
+                    var result = new ArrayList<Vm>(required);
+                    for (int i = 0; i < required; ++i) {
+                        result.add(createWarmVm(session, vmSpec, reqid, tx));
+                    }
+
+                    tx.commit();
+                    return result;
+                }
+            });
+        } catch (Exception e) {
+            LOG.error("Cannot replenish warm pool of session {} at pool {}: {}",
+                session.sessionId(), vmSpec.poolLabel(), e.getMessage(), e);
+            return;
+        }
+
+        for (var vm : vms) {
+            LOG.info("Allocate warm VM {} for session {} at pool {}", vm.vmId(), vm.sessionId(), vm.poolLabel());
+            allocationContext.metrics().warmPoolAllocations.labels(vm.poolLabel()).inc();
+            allocationContext.startNew(new AllocateVmAction(vm, allocationContext, false));
+        }
+    }
+
+    private int requiredVms(Session session, Vm.Spec vmSpec, TransactionHandle tx) throws SQLException {
+        var vmDao = allocationContext.vmDao();
+
+        // the pool is usually full, check it before taking the lock
+        if (poolDeficit(session, vmDao.countWarmPoolVms(vmSpec, tx)) <= 0) {
+            return 0;
+        }
+
+        // concurrent replenishes of the session (by other allocator instances too) are serialized by the
+        // session row lock, otherwise both of them see the same deficit and allocate it twice
+        if (allocationContext.sessionDao().get(session.sessionId(), tx) == null) {
+            LOG.debug("Session {} is deleted, skip warm pool replenish", session.sessionId());
+            return 0;
+        }
+
+        var required = poolDeficit(session, vmDao.countWarmPoolVms(vmSpec, tx));
+        if (required <= 0) {
+            return 0;
+        }
+
+        // warm VMs occupy the cache, so they are bounded by the same limits as the released ones
+        var cached = vmDao.countCachedVms(vmSpec, session.owner(), tx);
+        var warming = vmDao.countWarmingVms(vmSpec, session.owner(), tx);
+
+        required = Math.min(required, cacheConfig.getUserLimit() - cached.atOwner() - warming.atOwner());
+        required = Math.min(required, cacheConfig.getSessionLimit() - cached.atSession() - warming.atSession());
+        required = Math.min(required,
+            cacheConfig.getLimit(vmSpec.poolLabel()) - cached.atPoolAndSession() - warming.atPoolAndSession());
+
+        if (required <= 0) {
+            LOG.debug("Warm pool of session {} at pool {} is bounded by cache limits: cached {}, warming {}",
+                session.sessionId(), vmSpec.poolLabel(), cached, warming);
+        }
+        return required;
+    }
+
+    private static int poolDeficit(Session session, VmDao.WarmPoolVms pool) {
+        return session.cachePolicy().warmPoolSize() - pool.idle() - pool.warming();
+    }
+
+    private Vm createWarmVm(Session session, Vm.Spec vmSpec, String reqid, TransactionHandle tx)
+        throws SQLException
+    {
+        var op = Operation.create(
+            session.owner(),
+            "WarmVM: pool=%s, zone=%s".formatted(vmSpec.poolLabel(), vmSpec.zone()),
+            config.getAllocationTimeout(),
+            /* idempotencyKey */ null,
+            AllocateMetadata.getDefaultInstance());
+
+        var allocState = new Vm.AllocateState(
+            op.id(),
+            op.createdAt(),
+            op.deadline(),
+            allocationContext.selfWorkerId(),
+            reqid,
+            /* vmOtt */ UUID.randomUUID().toString());
+
+        allocationContext.operationsDao().create(op, tx);
+        var vm = allocationContext.vmDao().create(vmSpec, allocState, tx);
+        allocationContext.vmDao().markWarm(vm.vmId(), tx);
+
+        var meta = Any.pack(AllocateMetadata.newBuilder()
+            .setVmId(vm.vmId())
+            .build());
+        allocationContext.operationsDao().updateMeta(op.id(), meta, tx);
+
+        return vm;
+    }
+}
@@ -0,0 +1,50 @@
+package ai.lzy.allocator.alloc;
+
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recent time to allocate new VM by pool and zone, as exponentially weighted moving average.
+ * Values are local to the allocator instance and are forgotten if there were no allocations for a while.
+ */
+@Singleton
+public class ZoneAllocationLatency {
+    private static final double ALPHA = 0.3;
+    private static final Duration TTL = Duration.ofHours(1);
+
+    // "pool/zone" -> latency
+    private final Map<String, Latency> latencies = new ConcurrentHashMap<>();
+
+    public void observe(String poolLabel, String zone, Duration duration) {
+        var now = Instant.now();
+        var millis = duration.toMillis();
+        latencies.merge(key(poolLabel, zone), new Latency(millis, now), (prev, cur) -> isStale(prev, now)
+            ? cur
+            : new Latency(Math.round(prev.millis() * (1 - ALPHA) + cur.millis() * ALPHA), now));
+    }
+
+    /**
+     * @return recent allocation latency in milliseconds, or 0 if unknown
+     */
+    public long get(String poolLabel, String zone) {
+        var latency = latencies.get(key(poolLabel, zone));
+        if (latency == null || isStale(latency, Instant.now())) {
+            return 0;
+        }
+        return latency.millis();
+    }
+
+    private static boolean isStale(Latency latency, Instant now) {
+        return latency.updatedAt().plus(TTL).isBefore(now);
+    }
+
+    private static String key(String poolLabel, String zone) {
+        return poolLabel + "/" + zone;
+    }
+
+    private record Latency(long millis, Instant updatedAt) {}
+}
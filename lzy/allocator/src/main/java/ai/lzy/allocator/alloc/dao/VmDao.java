@@ -8,6 +8,7 @@ import jakarta.annotation.Nullable;
 
 import java.sql.SQLException;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -31,8 +32,19 @@ public interface VmDao {
     @Nullable
     Vm acquire(Vm.Spec vmSpec, @Nullable TransactionHandle tx) throws SQLException;
 
+    /**
+     * Find up to <code>limit</code> IDLE VMs with given spec, skipping VMs locked by concurrent transactions,
+     * and set their status to RUNNING
+     */
+    List<Vm> acquire(Vm.Spec vmSpec, int limit, @Nullable TransactionHandle tx) throws SQLException;
+
     void release(String vmId, Instant deadline, @Nullable TransactionHandle tx) throws SQLException;
 
+    /**
+     * Releases RUNNING VMs in one batch of statements
+     */
+    void release(Collection<String> vmIds, Instant deadline, @Nullable TransactionHandle tx) throws SQLException;
+
     record CachedVms(
         int atPoolAndSession,
         int atSession,
@@ -41,6 +53,43 @@ public interface VmDao {
 
     CachedVms countCachedVms(Vm.Spec vmSpec, String owner, @Nullable TransactionHandle tx) throws SQLException;
 
+    /**
+     * Counts warm pool VMs which are still allocating, grouped the same way as {@link #countCachedVms}
+     */
+    CachedVms countWarmingVms(Vm.Spec vmSpec, String owner, @Nullable TransactionHandle tx) throws SQLException;
+
+    record WarmPoolVms(
+        int idle,
+        int warming
+    ) {}
+
+    /**
+     * Counts idle and warming VMs of the session, which can be acquired for the spec
+     */
+    WarmPoolVms countWarmPoolVms(Vm.Spec vmSpec, @Nullable TransactionHandle tx) throws SQLException;
+
+    record ZoneVms(
+        String poolLabel,
+        String zone,
+        int active,
+        int sessionCached
+    ) {}
+
+    /**
+     * Counts allocating and running VMs of the given pools by zones, and idle or warming VMs of the session
+     */
+    List<ZoneVms> countZoneVms(Collection<String> poolLabels, @Nullable String sessionId,
+                               @Nullable TransactionHandle tx) throws SQLException;
+
+    void markWarm(String vmId, @Nullable TransactionHandle tx) throws SQLException;
+
+    /**
+     * @return <code>true</code> if VM was allocated by the warm pool and has not been used yet
+     */
+    boolean unmarkWarm(String vmId, @Nullable TransactionHandle tx) throws SQLException;
+
+    boolean isWarm(String vmId, @Nullable TransactionHandle tx) throws SQLException;
+
 
     void setAllocatorMeta(String vmId, Map<String, String> meta, @Nullable TransactionHandle tx) throws SQLException;
 
@@ -69,12 +118,26 @@ public interface VmDao {
 
     List<Vm> listExpiredVms(int limit) throws SQLException;
 
+    /**
+     * Locks expired VMs skipping VMs locked by other transactions, the lock is held until the end of transaction
+     */
+    List<Vm> lockExpiredVms(int limit, TransactionHandle tx) throws SQLException;
+
+    int countExpiredVms() throws SQLException;
+
+    int countDeletingVms() throws SQLException;
+
     List<Vm> loadActiveVmsActions(String workerId, @Nullable TransactionHandle tx) throws SQLException;
 
     List<Vm> loadRunningVms(String workerId, @Nullable TransactionHandle tx) throws SQLException;
 
     List<Vm> loadByIds(Set<String> vmIds, @Nullable TransactionHandle tx) throws SQLException;
 
+    /**
+     * Loads VMs and locks them until the end of transaction, in the VM id order
+     */
+    List<Vm> lockByIds(Set<String> vmIds, TransactionHandle tx) throws SQLException;
+
     @VisibleForTesting
     boolean hasDeadVm(String vmId) throws SQLException;
 
@@ -98,24 +98,31 @@ public class VmDaoImpl implements VmDao {
         SELECT id, NOW() AS ts, JSONB_SET(ROW_TO_JSON("vm_row")::JSONB, '{status}', '"DEAD"') AS vm
         FROM vm_row""";
 
+    // VMs which can be acquired for the spec, see setSpecParams()
+    private static final String VM_SPEC_CONDITION = """
+        vm.session_id = ? AND vm.pool_label = ? AND vm.zone = ?
+            AND vm.workloads_json = ? AND vm.init_workloads_json = ?
+            AND vm.volume_descriptions_json = ?
+            AND COALESCE(vm.v6_proxy_address, '') = ?""";
+
     private static final String QUERY_ACQUIRE_VM = """
         WITH existing_vm AS (
             SELECT %s
             FROM vm
-            WHERE session_id = ? AND pool_label = ? AND zone = ? AND status = 'IDLE'
-                AND workloads_json = ? AND init_workloads_json = ?
-                AND volume_descriptions_json = ?
-                AND COALESCE(v6_proxy_address, '') = ?
-            LIMIT 1
+            WHERE %s AND status = 'IDLE'
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
         )
         UPDATE vm
         SET status = 'RUNNING', idle_since = NULL, idle_deadline = NULL
-        WHERE id = (SELECT id FROM existing_vm)
+        FROM existing_vm
+        WHERE vm.id = existing_vm.id
         RETURNING
             %s,
-            (SELECT idle_since FROM existing_vm) AS was_idle_since,
-            (SELECT idle_deadline FROM existing_vm) AS was_idle_deadline
-        """.formatted(ALL_FIELDS, stream(ALL_FIELDS.split(",")).map(s -> "vm." + s.trim()).collect(joining(", ")));
+            existing_vm.idle_since AS was_idle_since,
+            existing_vm.idle_deadline AS was_idle_deadline
+        """.formatted(ALL_FIELDS, VM_SPEC_CONDITION,
+            stream(ALL_FIELDS.split(",")).map(s -> "vm." + s.trim()).collect(joining(", ")));
 
     private static final String QUERY_RELEASE_VM = """
         UPDATE vm
@@ -130,6 +137,49 @@ public class VmDaoImpl implements VmDao {
         GROUP BY session_id, pool_label
         """;
 
+    private static final String QUERY_MARK_WARM_VM = """
+        INSERT INTO warm_vm (vm_id)
+        VALUES (?)""";
+
+    private static final String QUERY_UNMARK_WARM_VM = """
+        DELETE FROM warm_vm
+        WHERE vm_id = ?""";
+
+    private static final String QUERY_IS_WARM_VM = """
+        SELECT 1
+        FROM warm_vm
+        WHERE vm_id = ?""";
+
+    private static final String QUERY_COUNT_WARM_POOL_VMS = """
+        SELECT
+            COUNT(*) FILTER (WHERE vm.status = 'IDLE') AS idle,
+            COUNT(*) FILTER (WHERE vm.status = 'ALLOCATING') AS warming
+        FROM vm
+        LEFT JOIN warm_vm ON warm_vm.vm_id = vm.id
+        WHERE %s
+          AND (vm.status = 'IDLE' OR (vm.status = 'ALLOCATING' AND warm_vm.vm_id IS NOT NULL))"""
+        .formatted(VM_SPEC_CONDITION);
+
+    private static final String QUERY_COUNT_WARMING_VMS = """
+        SELECT vm.session_id, vm.pool_label, COUNT(*) AS cnt
+        FROM vm
+        JOIN warm_vm ON warm_vm.vm_id = vm.id
+        WHERE vm.status = 'ALLOCATING'
+          AND vm.session_id IN (SELECT id FROM session WHERE owner = ? AND session.delete_op_id IS NULL)
+        GROUP BY vm.session_id, vm.pool_label""";
+
+    private static final String QUERY_COUNT_ZONE_VMS = """
+        SELECT
+            vm.pool_label,
+            vm.zone,
+            COUNT(*) FILTER (WHERE vm.status IN ('ALLOCATING', 'RUNNING')) AS active,
+            COUNT(*) FILTER (WHERE vm.session_id = ?
+                AND (vm.status = 'IDLE' OR (vm.status = 'ALLOCATING' AND warm_vm.vm_id IS NOT NULL))) AS session_cached
+        FROM vm
+        LEFT JOIN warm_vm ON warm_vm.vm_id = vm.id
+        WHERE vm.pool_label = ANY(?)
+        GROUP BY vm.pool_label, vm.zone""";
+
     private static final String QUERY_UPDATE_VM_ALLOCATION_META = """
         UPDATE vm
         SET allocator_meta_json = ?
@@ -186,6 +236,25 @@ public class VmDaoImpl implements VmDao {
            OR ((status = 'RUNNING' OR status = 'IDLE') AND activity_deadline < NOW())
         LIMIT ?""".formatted(ALL_FIELDS);
 
+    private static final String QUERY_LOCK_EXPIRED_VMS = """
+        SELECT %s
+        FROM vm
+        WHERE (status = 'IDLE' AND idle_deadline < NOW())
+           OR ((status = 'RUNNING' OR status = 'IDLE') AND activity_deadline < NOW())
+        LIMIT ?
+        FOR UPDATE SKIP LOCKED""".formatted(ALL_FIELDS);
+
+    private static final String QUERY_COUNT_EXPIRED_VMS = """
+        SELECT count(*)
+        FROM vm
+        WHERE (status = 'IDLE' AND idle_deadline < NOW())
+           OR ((status = 'RUNNING' OR status = 'IDLE') AND activity_deadline < NOW())""";
+
+    private static final String QUERY_COUNT_DELETING_VMS = """
+        SELECT count(*)
+        FROM vm
+        WHERE status = 'DELETING'""";
+
     private static final String QUERY_LOAD_NOT_COMPLETED_VMS = """
         SELECT %s
         FROM vm
@@ -360,49 +429,34 @@ public class VmDaoImpl implements VmDao {
     @Nullable
     @Override
     public Vm acquire(Vm.Spec vmSpec, @Nullable TransactionHandle tx) throws SQLException {
+        var vms = acquire(vmSpec, 1, tx);
+        return vms.isEmpty() ? null : vms.get(0);
+    }
+
+    @Override
+    public List<Vm> acquire(Vm.Spec vmSpec, int limit, @Nullable TransactionHandle tx) throws SQLException {
         return DbOperation.execute(tx, storage, con -> {
             try (PreparedStatement s = con.prepareStatement(QUERY_ACQUIRE_VM)) {
-
-                List<Workload> workloads = vmSpec.workloads().stream()
-                    .sorted(Comparator.comparing(Workload::image))
-                    .toList();
-
-                List<Workload> initWorkloads = vmSpec.initWorkloads().stream()
-                    .sorted(Comparator.comparing(Workload::image))
-                    .toList();
-
-                List<VolumeRequest.VolumeDescription> volumeDescriptions = vmSpec.volumeRequests().stream()
-                    .sorted(Comparator.comparing(r -> r.volumeDescription().name()))
-                    .map(VolumeRequest::volumeDescription)
-                    .toList();
-
-                int idx = 0;
-                s.setString(++idx, vmSpec.sessionId());
-                s.setString(++idx, vmSpec.poolLabel());
-                s.setString(++idx, vmSpec.zone());
-                s.setString(++idx, objectMapper.writeValueAsString(workloads));
-                s.setString(++idx, objectMapper.writeValueAsString(initWorkloads));
-                s.setString(++idx, objectMapper.writeValueAsString(volumeDescriptions));
-                s.setString(++idx, vmSpec.tunnelSettings() != null
-                    ? vmSpec.tunnelSettings().proxyV6Address().getHostAddress() : "");
+                int idx = setSpecParams(s, vmSpec);
+                s.setInt(++idx, limit);
 
                 final var res = s.executeQuery();
-                if (!res.next()) {
-                    return null;
+                final var vms = new ArrayList<Vm>();
+                while (res.next()) {
+                    var vm = readVm(res);
+
+                    vms.add(new Vm(
+                        vm.spec(),
+                        Vm.Status.IDLE,
+                        vm.instanceProperties(),
+                        vm.allocateState(),
+                        vm.runState(),
+                        new Vm.IdleState(
+                            res.getTimestamp("was_idle_since").toInstant(),
+                            res.getTimestamp("was_idle_deadline").toInstant()),
+                        null));
                 }
-
-                var vm = readVm(res);
-
-                return new Vm(
-                    vm.spec(),
-                    Vm.Status.IDLE,
-                    vm.instanceProperties(),
-                    vm.allocateState(),
-                    vm.runState(),
-                    new Vm.IdleState(
-                        res.getTimestamp("was_idle_since").toInstant(),
-                        res.getTimestamp("was_idle_deadline").toInstant()),
-                    null);
+                return vms;
             } catch (JsonProcessingException e) {
                 throw new RuntimeException("Cannot dump values", e);
             }
@@ -423,10 +477,143 @@ public class VmDaoImpl implements VmDao {
         });
     }
 
+    @Override
+    public void release(Collection<String> vmIds, Instant deadline, @Nullable TransactionHandle tx)
+        throws SQLException
+    {
+        if (vmIds.isEmpty()) {
+            return;
+        }
+        DbOperation.execute(tx, storage, conn -> {
+            try (PreparedStatement st = conn.prepareStatement(QUERY_RELEASE_VM)) {
+                for (var vmId : vmIds) {
+                    st.setTimestamp(1, Timestamp.from(deadline));
+                    st.setString(2, vmId);
+                    st.addBatch();
+                }
+                var updated = st.executeBatch();
+                var it = vmIds.iterator();
+                for (int ret : updated) {
+                    var vmId = it.next();
+                    if (ret != 1) {
+                        throw new RuntimeException("Cannot release VM %s".formatted(vmId));
+                    }
+                }
+            }
+        });
+    }
+
     @Override
     public CachedVms countCachedVms(Vm.Spec vmSpec, String owner, @Nullable TransactionHandle tx) throws SQLException {
+        return countVms(QUERY_COUNT_CACHED_VMS, vmSpec, owner, tx);
+    }
+
+    @Override
+    public CachedVms countWarmingVms(Vm.Spec vmSpec, String owner, @Nullable TransactionHandle tx)
+        throws SQLException
+    {
+        return countVms(QUERY_COUNT_WARMING_VMS, vmSpec, owner, tx);
+    }
+
+    @Override
+    public void markWarm(String vmId, @Nullable TransactionHandle tx) throws SQLException {
+        DbOperation.execute(tx, storage, conn -> {
+            try (PreparedStatement st = conn.prepareStatement(QUERY_MARK_WARM_VM)) {
+                st.setString(1, vmId);
+                st.executeUpdate();
+            }
+        });
+    }
+
+    @Override
+    public boolean unmarkWarm(String vmId, @Nullable TransactionHandle tx) throws SQLException {
+        return DbOperation.execute(tx, storage, conn -> {
+            try (PreparedStatement st = conn.prepareStatement(QUERY_UNMARK_WARM_VM)) {
+                st.setString(1, vmId);
+                return st.executeUpdate() > 0;
+            }
+        });
+    }
+
+    @Override
+    public boolean isWarm(String vmId, @Nullable TransactionHandle tx) throws SQLException {
+        return DbOperation.execute(tx, storage, conn -> {
+            try (PreparedStatement st = conn.prepareStatement(QUERY_IS_WARM_VM)) {
+                st.setString(1, vmId);
+                return st.executeQuery().next();
+            }
+        });
+    }
+
+    @Override
+    public WarmPoolVms countWarmPoolVms(Vm.Spec vmSpec, @Nullable TransactionHandle tx) throws SQLException {
+        return DbOperation.execute(tx, storage, conn -> {
+            try (PreparedStatement st = conn.prepareStatement(QUERY_COUNT_WARM_POOL_VMS)) {
+                setSpecParams(st, vmSpec);
+                var rs = st.executeQuery();
+                return rs.next() ? new WarmPoolVms(rs.getInt("idle"), rs.getInt("warming")) : new WarmPoolVms(0, 0);
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Cannot dump values", e);
+            }
+        });
+    }
+
+    @Override
+    public List<ZoneVms> countZoneVms(Collection<String> poolLabels, @Nullable String sessionId,
+                                      @Nullable TransactionHandle tx) throws SQLException
+    {
+        return DbOperation.execute(tx, storage, conn -> {
+            try (PreparedStatement st = conn.prepareStatement(QUERY_COUNT_ZONE_VMS)) {
+                st.setString(1, sessionId);
+                st.setArray(2, conn.createArrayOf("TEXT", poolLabels.toArray()));
+                var rs = st.executeQuery();
+
+                var result = new ArrayList<ZoneVms>();
+                while (rs.next()) {
+                    result.add(new ZoneVms(rs.getString("pool_label"), rs.getString("zone"), rs.getInt("active"),
+                        rs.getInt("session_cached")));
+                }
+                return result;
+            }
+        });
+    }
+
+    /**
+     * Sets parameters of {@link #VM_SPEC_CONDITION}
+     *
+     * @return index of the last set parameter
+     */
+    private int setSpecParams(PreparedStatement st, Vm.Spec vmSpec) throws SQLException, JsonProcessingException {
+        List<Workload> workloads = vmSpec.workloads().stream()
+            .sorted(Comparator.comparing(Workload::image))
+            .toList();
+
+        List<Workload> initWorkloads = vmSpec.initWorkloads().stream()
+            .sorted(Comparator.comparing(Workload::image))
+            .toList();
+
+        List<VolumeRequest.VolumeDescription> volumeDescriptions = vmSpec.volumeRequests().stream()
+            .sorted(Comparator.comparing(r -> r.volumeDescription().name()))
+            .map(VolumeRequest::volumeDescription)
+            .toList();
+
+        int idx = 0;
+        st.setString(++idx, vmSpec.sessionId());
+        st.setString(++idx, vmSpec.poolLabel());
+        st.setString(++idx, vmSpec.zone());
+        st.setString(++idx, objectMapper.writeValueAsString(workloads));
+        st.setString(++idx, objectMapper.writeValueAsString(initWorkloads));
+        st.setString(++idx, objectMapper.writeValueAsString(volumeDescriptions));
+        st.setString(++idx, vmSpec.tunnelSettings() != null
+            ? vmSpec.tunnelSettings().proxyV6Address().getHostAddress() : "");
+        return idx;
+    }
+
+    private CachedVms countVms(String query, Vm.Spec vmSpec, String owner, @Nullable TransactionHandle tx)
+        throws SQLException
+    {
         return DbOperation.execute(tx, storage, conn -> {
-            try (PreparedStatement st = conn.prepareStatement(QUERY_COUNT_CACHED_VMS)) {
+            try (PreparedStatement st = conn.prepareStatement(query)) {
                 st.setString(1, owner);
                 var rs = st.executeQuery();
 
@@ -633,6 +820,43 @@ public class VmDaoImpl implements VmDao {
         }
     }
 
+    @Override
+    public List<Vm> lockExpiredVms(int limit, TransactionHandle tx) throws SQLException {
+        return DbOperation.execute(tx, storage, conn -> {
+            try (PreparedStatement st = conn.prepareStatement(QUERY_LOCK_EXPIRED_VMS)) {
+                st.setInt(1, limit);
+                final var res = st.executeQuery();
+
+                final List<Vm> vms = new ArrayList<>();
+                while (res.next()) {
+                    vms.add(readVm(res));
+                }
+                return vms;
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Cannot read vm", e);
+            }
+        });
+    }
+
+    @Override
+    public int countExpiredVms() throws SQLException {
+        return count(QUERY_COUNT_EXPIRED_VMS);
+    }
+
+    @Override
+    public int countDeletingVms() throws SQLException {
+        return count(QUERY_COUNT_DELETING_VMS);
+    }
+
+    private int count(String query) throws SQLException {
+        try (var conn = storage.connect();
+             var st = conn.prepareStatement(query))
+        {
+            final var res = st.executeQuery();
+            return res.next() ? res.getInt(1) : 0;
+        }
+    }
+
     @Override
     public List<Vm> loadActiveVmsActions(String workerId, @Nullable TransactionHandle tx) throws SQLException {
         return DbOperation.execute(tx, storage, con -> {
@@ -715,14 +939,27 @@ public class VmDaoImpl implements VmDao {
 
     @Override
     public List<Vm> loadByIds(Set<String> vmIds, TransactionHandle tx) throws SQLException {
+        return loadByIds(vmIds, /* lock */ false, tx);
+    }
+
+    @Override
+    public List<Vm> lockByIds(Set<String> vmIds, TransactionHandle tx) throws SQLException {
+        return loadByIds(vmIds, /* lock */ true, tx);
+    }
+
+    private List<Vm> loadByIds(Set<String> vmIds, boolean lock, @Nullable TransactionHandle tx) throws SQLException {
         if (vmIds.isEmpty()) {
             return List.of();
         }
         return DbOperation.execute(tx, storage, conn -> {
             final var vms = new ArrayList<Vm>(vmIds.size());
-            for (List<String> idsPart : Lists.partition(List.copyOf(vmIds), 100)) {
+            // sorted, so concurrent lockers of intersecting sets take row locks in the same order
+            for (List<String> idsPart : Lists.partition(vmIds.stream().sorted().toList(), 100)) {
                 var params = DaoUtils.generateNParamArray(idsPart.size());
                 var query = QUERY_VM_BY_IDS_TEMPLATE.formatted(ALL_FIELDS, params);
+                if (lock) {
+                    query += "ORDER BY id FOR UPDATE";
+                }
                 try (PreparedStatement s = conn.prepareStatement(query)) {
                     int i = 1;
 
@@ -0,0 +1,266 @@
+package ai.lzy.allocator.alloc.impl.kuber;
+
+import ai.lzy.allocator.configs.ServiceConfig;
+import ai.lzy.allocator.vmpool.ClusterRegistry.ClusterDescription;
+import io.fabric8.kubernetes.api.model.Node;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.micronaut.context.annotation.Requires;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static ai.lzy.allocator.alloc.impl.kuber.KuberVmAllocator.NAMESPACE_VALUE;
+import static ai.lzy.allocator.alloc.impl.kuber.KuberVmAllocator.VM_POD_APP_LABEL_VALUE;
+
+/**
+ * Watch-based cache of VM pods and nodes, one shared informer per cluster.
+ * Informers are started lazily and asynchronously on the first access to the cluster, a failed start is retried
+ * with a backoff. A miss means that the object is not known to the cache (yet), so callers must fall back
+ * to the direct k8s API request.
+ */
+@Singleton
+@Requires(property = "allocator.kuber-allocator.enabled", value = "true")
+public class KuberPodCache {
+    private static final Logger LOG = LogManager.getLogger(KuberPodCache.class);
+
+    private static final Duration START_RETRY_DELAY = Duration.ofSeconds(10);
+    private static final Duration START_RETRY_MAX_DELAY = Duration.ofMinutes(5);
+
+    private final KuberClientFactory k8sClientFactory;
+    private final ServiceConfig.KuberAllocator config;
+
+    // clusterId -> informers
+    private final Map<String, ClusterWatch> clusters = new ConcurrentHashMap<>();
+    // clusterId -> last failed start of the informers
+    private final Map<String, StartFailure> startFailures = new ConcurrentHashMap<>();
+    private final Map<PodKey, Runnable> podListeners = new ConcurrentHashMap<>();
+
+    private volatile boolean closed = false;
+
+    @Inject
+    public KuberPodCache(KuberClientFactory k8sClientFactory, ServiceConfig.KuberAllocator config) {
+        this.k8sClientFactory = k8sClientFactory;
+        this.config = config;
+    }
+
+    public boolean isEnabled() {
+        return config.isPodWatchEnabled();
+    }
+
+    @Nullable
+    public Pod getPod(ClusterDescription cluster, String namespace, String name) {
+        var watch = getWatch(cluster);
+        if (watch == null || !NAMESPACE_VALUE.equals(namespace)) {
+            return null;
+        }
+        return watch.pods().getStore().getByKey(namespace + "/" + name);
+    }
+
+    @Nullable
+    public Node getNode(ClusterDescription cluster, String name) {
+        var watch = getWatch(cluster);
+        if (watch == null) {
+            return null;
+        }
+        return watch.nodes().getStore().getByKey(name);
+    }
+
+    /**
+     * Registers listener, which is called from the informer thread on each change of the pod phase
+     * and on the pod removal. Listener must be lightweight.
+     *
+     * @return <code>false</code> if pods of the cluster are not watched
+     */
+    public boolean addPodListener(ClusterDescription cluster, String podName, Runnable onChange) {
+        if (getWatch(cluster) == null) {
+            return false;
+        }
+        podListeners.put(new PodKey(cluster.clusterId(), podName), onChange);
+        return true;
+    }
+
+    public void removePodListener(String clusterId, String podName) {
+        podListeners.remove(new PodKey(clusterId, podName));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        clusters.values().forEach(ClusterWatch::close);
+        clusters.clear();
+        podListeners.clear();
+    }
+
+    @Nullable
+    private ClusterWatch getWatch(ClusterDescription cluster) {
+        if (!config.isPodWatchEnabled() || closed) {
+            return null;
+        }
+
+        var clusterId = cluster.clusterId();
+        var watch = clusters.get(clusterId);
+        if (watch == null) {
+            var failure = startFailures.get(clusterId);
+            if (failure != null && Instant.now().isBefore(failure.retryAt())) {
+                return null;
+            }
+
+            try {
+                // informers are only created here, they are started outside the map update
+                watch = clusters.computeIfAbsent(clusterId, x -> createWatch(cluster));
+            } catch (Exception e) {
+                LOG.error("Cannot create pods watch in cluster {}: {}", clusterId, e.getMessage(), e);
+                onStartFailed(clusterId);
+                return null;
+            }
+            watch.start(this);
+        }
+
+        // until the initial list is done the store is incomplete, don't trust it
+        return watch.pods().hasSynced() && watch.nodes().hasSynced() ? watch : null;
+    }
+
+    private ClusterWatch createWatch(ClusterDescription cluster) {
+        LOG.info("Create pods and nodes watch in cluster {}", cluster.clusterId());
+
+        var resyncMillis = config.getPodWatchResyncPeriod().toMillis();
+        var client = k8sClientFactory.build(cluster);
+        try {
+            var pods = client.pods()
+                .inNamespace(NAMESPACE_VALUE)
+                .withLabel(KuberLabels.LZY_APP_LABEL, VM_POD_APP_LABEL_VALUE)
+                .runnableInformer(resyncMillis);
+            pods.addEventHandler(new PodEventHandler(cluster.clusterId()));
+            var nodes = client.nodes()
+                .runnableInformer(resyncMillis);
+            return new ClusterWatch(cluster.clusterId(), client, pods, nodes, new AtomicBoolean(false));
+        } catch (Exception e) {
+            client.close();
+            throw e;
+        }
+    }
+
+    private void onStarted(ClusterWatch watch) {
+        LOG.info("Pods and nodes watch in cluster {} is synced", watch.clusterId());
+        startFailures.remove(watch.clusterId());
+    }
+
+    private void onStartFailed(ClusterWatch watch, Throwable e) {
+        LOG.error("Cannot start pods watch in cluster {}: {}", watch.clusterId(), e.getMessage(), e);
+        if (clusters.remove(watch.clusterId(), watch)) {
+            watch.close();
+        }
+        onStartFailed(watch.clusterId());
+    }
+
+    private void onStartFailed(String clusterId) {
+        var failure = startFailures.merge(clusterId, new StartFailure(1, Instant.now().plus(START_RETRY_DELAY)),
+            (prev, x) -> {
+                var delay = START_RETRY_DELAY.multipliedBy(1L << Math.min(prev.attempts(), 5));
+                if (delay.compareTo(START_RETRY_MAX_DELAY) > 0) {
+                    delay = START_RETRY_MAX_DELAY;
+                }
+                return new StartFailure(prev.attempts() + 1, Instant.now().plus(delay));
+            });
+        LOG.info("Pods watch in cluster {} will be retried after {} (attempt {})",
+            clusterId, failure.retryAt(), failure.attempts());
+    }
+
+    private void notifyPodChanged(String clusterId, Pod pod) {
+        var listener = podListeners.get(new PodKey(clusterId, pod.getMetadata().getName()));
+        if (listener != null) {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                LOG.error("Error in listener of pod {}: {}", pod.getMetadata().getName(), e.getMessage(), e);
+            }
+        }
+    }
+
+    @Nullable
+    private static String phase(Pod pod) {
+        return pod.getStatus() != null ? pod.getStatus().getPhase() : null;
+    }
+
+    private final class PodEventHandler implements ResourceEventHandler<Pod> {
+        private final String clusterId;
+
+        private PodEventHandler(String clusterId) {
+            this.clusterId = clusterId;
+        }
+
+        @Override
+        public void onAdd(Pod pod) {
+            notifyPodChanged(clusterId, pod);
+        }
+
+        @Override
+        public void onUpdate(Pod oldPod, Pod newPod) {
+            if (!Objects.equals(phase(oldPod), phase(newPod))) {
+                LOG.debug("Pod {} phase changed: {} -> {}", newPod.getMetadata().getName(), phase(oldPod),
+                    phase(newPod));
+                notifyPodChanged(clusterId, newPod);
+            }
+        }
+
+        @Override
+        public void onDelete(Pod pod, boolean deletedFinalStateUnknown) {
+            notifyPodChanged(clusterId, pod);
+        }
+    }
+
+    private record PodKey(
+        String clusterId,
+        String podName
+    ) {}
+
+    private record StartFailure(
+        int attempts,
+        Instant retryAt
+    ) {}
+
+    private record ClusterWatch(
+        String clusterId,
+        KubernetesClient client,
+        SharedIndexInformer<Pod> pods,
+        SharedIndexInformer<Node> nodes,
+        AtomicBoolean started
+    ) {
+        /**
+         * Starts informers once, doesn't wait for the initial list
+         */
+        void start(KuberPodCache cache) {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            CompletableFuture.allOf(pods.start().toCompletableFuture(), nodes.start().toCompletableFuture())
+                .whenComplete((x, e) -> {
+                    if (e != null) {
+                        cache.onStartFailed(this, e);
+                    } else {
+                        cache.onStarted(this);
+                    }
+                });
+        }
+
+        void close() {
+            pods.stop();
+            nodes.stop();
+            client.close();
+        }
+    }
+}
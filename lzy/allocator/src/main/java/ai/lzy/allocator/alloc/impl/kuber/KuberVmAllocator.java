@@ -15,7 +15,9 @@ import ai.lzy.allocator.vmpool.ClusterRegistry;
 import ai.lzy.allocator.vmpool.VmPoolRegistry;
 import ai.lzy.allocator.volume.VolumeManager;
 import ai.lzy.model.db.TransactionHandle;
+import com.google.common.collect.Lists;
 import io.fabric8.kubernetes.api.model.EmptyDirVolumeSource;
+import io.fabric8.kubernetes.api.model.Node;
 import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.Quantity;
 import io.fabric8.kubernetes.client.KubernetesClient;
@@ -32,6 +34,7 @@ import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -46,6 +49,7 @@ import static java.util.Objects.requireNonNull;
 @Requires(property = "allocator.kuber-allocator.enabled", value = "true")
 public class KuberVmAllocator implements VmAllocator {
     private static final Logger LOG = LogManager.getLogger(KuberVmAllocator.class);
+    private static final int DELETE_PODS_BATCH_SIZE = 100;
 
     public static final String NAMESPACE_KEY = "namespace";
     public static final String NAMESPACE_VALUE = "default";
@@ -60,6 +64,7 @@ public class KuberVmAllocator implements VmAllocator {
     private final ClusterRegistry clusterRegistry;
     private final VmPoolRegistry poolRegistry;
     private final KuberClientFactory k8sClientFactory;
+    private final KuberPodCache podCache;
     private final VolumeManager volumeManager;
     private final NodeRemover nodeRemover;
     private final ServiceConfig config;
@@ -67,13 +72,14 @@ public class KuberVmAllocator implements VmAllocator {
 
     @Inject
     public KuberVmAllocator(VmDao vmDao, ClusterRegistry clusterRegistry, VmPoolRegistry poolRegistry,
-                            KuberClientFactory k8sClientFactory, VolumeManager volumeManager, NodeRemover nodeRemover,
-                            ServiceConfig config, ServiceConfig.MountConfig mountConfig)
+                            KuberClientFactory k8sClientFactory, KuberPodCache podCache, VolumeManager volumeManager,
+                            NodeRemover nodeRemover, ServiceConfig config, ServiceConfig.MountConfig mountConfig)
     {
         this.vmDao = vmDao;
         this.clusterRegistry = clusterRegistry;
         this.poolRegistry = poolRegistry;
         this.k8sClientFactory = k8sClientFactory;
+        this.podCache = podCache;
         this.volumeManager = volumeManager;
         this.nodeRemover = nodeRemover;
         this.config = config;
@@ -313,6 +319,29 @@ public class KuberVmAllocator implements VmAllocator {
         return Result.SUCCESS;
     }
 
+    @Override
+    public boolean watchVmAllocationStatus(Vm vm, Runnable onChange) {
+        var meta = vm.allocateState().allocatorMeta();
+        if (meta == null || meta.get(POD_NAME_KEY) == null || meta.get(CLUSTER_ID_KEY) == null) {
+            return false;
+        }
+
+        var cluster = clusterRegistry.getCluster(meta.get(CLUSTER_ID_KEY));
+        if (cluster == null) {
+            return false;
+        }
+
+        return podCache.addPodListener(cluster, meta.get(POD_NAME_KEY), onChange);
+    }
+
+    @Override
+    public void unwatchVmAllocationStatus(Vm vm) {
+        var meta = vm.allocateState().allocatorMeta();
+        if (meta != null && meta.get(POD_NAME_KEY) != null && meta.get(CLUSTER_ID_KEY) != null) {
+            podCache.removePodListener(meta.get(CLUSTER_ID_KEY), meta.get(POD_NAME_KEY));
+        }
+    }
+
     @Nullable
     public static Pod getVmPod(String namespace, String name, KubernetesClient client) {
         return client.pods()
@@ -348,11 +377,11 @@ public class KuberVmAllocator implements VmAllocator {
             if (nodeInstanceId == null) {
                 LOG.warn("Node for VM {} not specified, try to find it via K8s...", vmId);
 
-                var pod = getVmPod(ns, podName, client);
+                var pod = getVmPod(credentials, ns, podName, client);
                 if (pod != null) {
                     nodeName = pod.getSpec().getNodeName();
                     if (nodeName != null) {
-                        final var node = client.nodes().withName(nodeName).get();
+                        final var node = getNode(credentials, nodeName, client);
 
                         if (node != null) {
                             final var providerId = node.getSpec() != null ? node.getSpec().getProviderID() : null;
@@ -411,6 +440,42 @@ public class KuberVmAllocator implements VmAllocator {
         return Result.SUCCESS;
     }
 
+    @Override
+    public void deleteInstances(List<Vm> vms) {
+        // clusterId -> namespace -> pod names
+        var pods = new HashMap<String, Map<String, List<String>>>();
+        for (var vm : vms) {
+            var meta = vm.allocateState().allocatorMeta();
+            // pod is needed by deallocate to find the node, and tunnel is removed via the pod network
+            if (meta == null || meta.get(NODE_INSTANCE_ID_KEY) == null
+                || vm.instanceProperties().tunnelPodName() != null)
+            {
+                continue;
+            }
+            pods.computeIfAbsent(meta.get(CLUSTER_ID_KEY), x -> new HashMap<>())
+                .computeIfAbsent(meta.get(NAMESPACE_KEY), x -> new ArrayList<>())
+                .add(meta.get(POD_NAME_KEY));
+        }
+
+        for (var cluster : pods.entrySet()) {
+            var credentials = clusterRegistry.getCluster(cluster.getKey());
+            try (final var client = k8sClientFactory.build(credentials)) {
+                for (var ns : cluster.getValue().entrySet()) {
+                    for (var names : Lists.partition(ns.getValue(), DELETE_PODS_BATCH_SIZE)) {
+                        LOG.info("Delete {} VM pods in cluster {}, namespace {}", names.size(), cluster.getKey(),
+                            ns.getKey());
+                        client.pods()
+                            .inNamespace(ns.getKey())
+                            .withLabelIn(KuberLabels.LZY_POD_NAME_LABEL, names.toArray(String[]::new))
+                            .delete();
+                    }
+                }
+            } catch (Exception e) {
+                LOG.warn("Cannot delete VM pods in cluster {}: {}", cluster.getKey(), e.getMessage());
+            }
+        }
+    }
+
     @Override
     public Vm updateAllocatedVm(Vm vm, @Nullable TransactionHandle tx) {
         var meta = requireNonNull(vm.allocateState().allocatorMeta());
@@ -421,13 +486,13 @@ public class KuberVmAllocator implements VmAllocator {
         final var podName = requireNonNull(meta.get(POD_NAME_KEY));
 
         try (final var client = k8sClientFactory.build(credentials)) {
-            final var pod = getVmPod(ns, podName, client);
+            final var pod = getVmPod(credentials, ns, podName, client);
             if (pod == null) {
                 throw new RuntimeException("Cannot get pod with name " + podName + " to get addresses");
             }
 
             final var nodeName = pod.getSpec().getNodeName();
-            final var node = requireNonNull(client.nodes().withName(nodeName).get());
+            final var node = requireNonNull(getNode(credentials, nodeName, client));
 
             final var providerId = node.getSpec() != null ? node.getSpec().getProviderID() : null;
             final var instanceId = providerId != null && providerId.startsWith("yandex://")
@@ -439,7 +504,7 @@ public class KuberVmAllocator implements VmAllocator {
                 meta.put(NODE_INSTANCE_ID_KEY, instanceId);
             }
 
-            var endpoints = getPodEndpoints(pod, client);
+            var endpoints = getNodeEndpoints(node);
 
             vm = vm.withAllocateState(vm.allocateState().withAllocatorMeta(meta));
             vm = vm.withEndpoints(endpoints);
@@ -481,21 +546,31 @@ public class KuberVmAllocator implements VmAllocator {
             throw new InvalidConfigurationException("Cluster " + clusterId + " does not exist");
         }
 
-        final Pod pod;
-        try (var client = k8sClientFactory.build(cluster)) {
-            pod = client.pods()
-                .inNamespace(namespace)
-                .withName(podName)
-                .get();
+        var pod = podCache.getPod(cluster, namespace, podName);
+        if (pod == null) {
+            try (var client = k8sClientFactory.build(cluster)) {
+                pod = getVmPod(namespace, podName, client);
+            }
         }
 
         return new ClusterAndPod(cluster, pod);
     }
 
-    private List<Vm.Endpoint> getPodEndpoints(Pod pod, KubernetesClient client) {
-        final var nodeName = pod.getSpec().getNodeName();
-        final var node = requireNonNull(client.nodes().withName(nodeName).get());
+    @Nullable
+    private Pod getVmPod(ClusterRegistry.ClusterDescription cluster, String namespace, String name,
+                         KubernetesClient client)
+    {
+        var pod = podCache.getPod(cluster, namespace, name);
+        return pod != null ? pod : getVmPod(namespace, name, client);
+    }
+
+    @Nullable
+    private Node getNode(ClusterRegistry.ClusterDescription cluster, String name, KubernetesClient client) {
+        var node = podCache.getNode(cluster, name);
+        return node != null ? node : client.nodes().withName(name).get();
+    }
 
+    private static List<Vm.Endpoint> getNodeEndpoints(Node node) {
         var endpoints = new ArrayList<Vm.Endpoint>();
         for (final var address : node.getStatus().getAddresses()) {
             final var type = switch (address.getType().toLowerCase()) {
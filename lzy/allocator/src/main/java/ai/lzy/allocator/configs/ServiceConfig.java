@@ -32,6 +32,9 @@ public class ServiceConfig {
     private List<String> userClusters = new ArrayList<>();
     private Set<NetworkPolicyManager.PolicyRule> serviceCidrs = new HashSet<>();
 
+    // number of AllocateMany requests processed in one transaction
+    private int allocateManyBatchSize = 100;
+
     public String getAddress() {
         String ipv6Host = hosts.stream().filter(ValidationUtils::validateIpV6).findFirst().orElse(null);
         String ipv4Host = hosts.stream().filter(ValidationUtils::validateIpV4).findFirst().orElse(null);
@@ -90,6 +93,8 @@ public class ServiceConfig {
     @ConfigurationProperties("kuber-allocator")
     public static final class KuberAllocator {
         private boolean enabled = false;
+        private boolean podWatchEnabled = true;
+        private Duration podWatchResyncPeriod = Duration.ofMinutes(10);
     }
 
     @Getter
@@ -147,6 +152,9 @@ public class ServiceConfig {
         private Duration cleanupPeriod = Duration.ofMinutes(5);
         private Duration leaseDuration = Duration.ofMinutes(30);
         private Duration gracefulShutdownDuration = Duration.ofSeconds(10);
+        private int claimPageSize = 100;
+        private int maxDeletingVms = 1000;
+        private Duration backlogRetryDelay = Duration.ofSeconds(5);
     }
 
     @Getter
@@ -189,5 +197,7 @@ public class ServiceConfig {
         private String podImage;
         private String workerMountPoint;
         private String hostMountPoint;
+        // mounts to the same VM within this window share one mount holder pod
+        private Duration batchWindow = Duration.ofMillis(200);
     }
 }
@@ -1,8 +1,10 @@
 package ai.lzy.allocator.disk;
 
 import ai.lzy.metrics.MetricReporter;
+import io.prometheus.client.CollectorRegistry;
 import io.prometheus.client.Counter;
 import io.prometheus.client.Histogram;
+import jakarta.annotation.PreDestroy;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 
@@ -119,4 +121,28 @@ public class DiskMetrics {
         .subsystem(ALLOCATOR)
         .buckets(1.0, 2.0, 5.0, 10.0)
         .register();
+
+    @PreDestroy
+    public void unregister() {
+        var registry = CollectorRegistry.defaultRegistry;
+        registry.unregister(createDiskExisting);
+        registry.unregister(createDiskNewStart);
+        registry.unregister(createDiskNewFinish);
+        registry.unregister(createNewDiskDuration);
+        registry.unregister(createDiskError);
+        registry.unregister(createDiskRetryableError);
+        registry.unregister(createDiskTimeout);
+        registry.unregister(createDiskAlreadyExists);
+        registry.unregister(cloneDiskStart);
+        registry.unregister(cloneDiskFinish);
+        registry.unregister(cloneDiskDuration);
+        registry.unregister(cloneDiskError);
+        registry.unregister(cloneDiskRetryableError);
+        registry.unregister(cloneDiskTimeout);
+        registry.unregister(deleteDiskStart);
+        registry.unregister(deleteDiskFinish);
+        registry.unregister(deleteDiskError);
+        registry.unregister(deleteDiskRetryableError);
+        registry.unregister(deleteDiskDuration);
+    }
 }
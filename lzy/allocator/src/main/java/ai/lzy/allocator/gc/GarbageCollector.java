@@ -2,19 +2,24 @@ package ai.lzy.allocator.gc;
 
 import ai.lzy.allocator.DbAwareMetrics;
 import ai.lzy.allocator.alloc.AllocationContext;
+import ai.lzy.allocator.alloc.DeleteVmAction;
 import ai.lzy.allocator.configs.ServiceConfig;
 import ai.lzy.allocator.gc.dao.GcDao;
 import ai.lzy.allocator.model.Vm;
+import ai.lzy.model.db.TransactionHandle;
 import com.google.common.annotations.VisibleForTesting;
 import jakarta.annotation.Nullable;
 import jakarta.annotation.PreDestroy;
 import jakarta.inject.Singleton;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.sql.SQLException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
@@ -24,6 +29,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.LockSupport;
 
+import static ai.lzy.model.db.DbHelper.withRetries;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 @Singleton
@@ -116,8 +122,18 @@ public class GarbageCollector {
 
     @VisibleForTesting
     public void forceRun() {
+        forceRun(/* waitOps */ true);
+    }
+
+    /**
+     * Runs GC step regardless of the leadership
+     *
+     * @param waitOps wait for completion of the started delete VM operations
+     */
+    @VisibleForTesting
+    public void forceRun(boolean waitOps) {
         LOG.info("Force run GC...");
-        new CleanVms(true).run();
+        new CleanVms(/* force */ true, waitOps).run();
     }
 
     private boolean isLeader() {
@@ -158,7 +174,7 @@ public class GarbageCollector {
                 leaderDeadline.set(newDeadline);
                 if (newDeadline != null) {
                     LOG.info("New GC leader {}", instanceId);
-                    cleanVmsFuture = schedule(new CleanVms(false), Duration.ZERO);
+                    cleanVmsFuture = schedule(new CleanVms(/* force */ false, /* waitOps */ false), Duration.ZERO);
                     dbAwareMetrics.start();
                 } else {
                     dbAwareMetrics.shutdown();
@@ -170,28 +186,26 @@ public class GarbageCollector {
     }
 
     private class CleanVms implements Runnable {
+        private final boolean force;
         private final boolean waitOps;
 
-        private CleanVms(boolean waitOps) {
+        private CleanVms(boolean force, boolean waitOps) {
+            this.force = force;
             this.waitOps = waitOps;
         }
 
         @Override
         public void run() {
-            if (!waitOps && (leaderDeadline.get() == null || leaderDeadline.get().isBefore(Instant.now()))) {
+            if (!force && (leaderDeadline.get() == null || leaderDeadline.get().isBefore(Instant.now()))) {
                 return;
             }
 
             var startTime = Instant.now();
+            var backlog = false;
 
             try {
-                var vms = allocationContext.vmDao().listExpiredVms(10);
-                if (vms.isEmpty()) {
-                    LOG.debug("Found 0 Vms to clean");
-                } else {
-                    LOG.info("Found {} Vms to clean", vms.size());
-                }
-                var ops = vms.stream().map(this::cleanVm).filter(Objects::nonNull).toList();
+                var ops = new ArrayList<String>();
+                backlog = cleanExpiredVms(ops);
 
                 if (waitOps) {
                     ops.forEach(opId -> {
@@ -228,7 +242,89 @@ public class GarbageCollector {
                 LOG.info("GC step takes {}ms", elapsedTime.toMillis());
             }
 
-            cleanVmsFuture = schedule(this, config.getCleanupPeriod());
+            // don't wait the whole period if not all expired VMs were claimed
+            cleanVmsFuture = schedule(this, backlog ? config.getBacklogRetryDelay() : config.getCleanupPeriod());
+        }
+
+        /**
+         * Claims expired VMs by pages until all of them are claimed or too many VMs are being deleted
+         *
+         * @return true if some expired VMs are left
+         */
+        private boolean cleanExpiredVms(List<String> ops) throws Exception {
+            var vmDao = allocationContext.vmDao();
+            var metrics = allocationContext.metrics();
+
+            metrics.gcExpiredVms.set(vmDao.countExpiredVms());
+
+            while (!Thread.currentThread().isInterrupted()) {
+                var limit = Math.min(config.getClaimPageSize(), config.getMaxDeletingVms() - vmDao.countDeletingVms());
+                if (limit <= 0) {
+                    LOG.warn("Too many VMs are being deleted, postpone deletion of expired VMs");
+                    return true;
+                }
+
+                final List<Pair<Vm, DeleteVmAction>> claimed;
+                try {
+                    claimed = claimExpiredVms(limit);
+                } catch (Exception e) {
+                    LOG.error("Cannot claim expired VMs, delete them one by one: {}", e.getMessage());
+                    vmDao.listExpiredVms(limit).stream()
+                        .map(this::cleanVm)
+                        .filter(Objects::nonNull)
+                        .forEach(ops::add);
+                    return true;
+                }
+
+                if (claimed.isEmpty()) {
+                    LOG.debug("Found 0 Vms to clean");
+                    return false;
+                }
+                LOG.info("Found {} Vms to clean", claimed.size());
+
+                allocationContext.allocator().deleteInstances(claimed.stream().map(Pair::getLeft).toList());
+
+                var now = Instant.now();
+                for (var vmAndAction : claimed) {
+                    var vm = vmAndAction.getLeft();
+                    var action = vmAndAction.getRight();
+                    allocationContext.startDeleteVmAction(vm, action);
+                    ops.add(action.id());
+
+                    metrics.gcReclaimedVms.inc();
+                    var expiredAt = expiredAt(vm);
+                    if (expiredAt != null) {
+                        metrics.gcReclaimDelay.observe(Duration.between(expiredAt, now).toMillis() / 1000.0);
+                    }
+                }
+                metrics.gcExpiredVms.dec(claimed.size());
+
+                if (claimed.size() < limit) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Moves page of expired VMs to DELETING state in one transaction, VMs locked by allocations are skipped
+         */
+        private List<Pair<Vm, DeleteVmAction>> claimExpiredVms(int limit) throws Exception {
+            return withRetries(LOG, () -> {
+                try (var tx = TransactionHandle.create(allocationContext.storage())) {
+                    var vms = allocationContext.vmDao().lockExpiredVms(limit, tx);
+
+                    var claimed = new ArrayList<Pair<Vm, DeleteVmAction>>(vms.size());
+                    for (var vm : vms) {
+                        var action = allocationContext.createDeleteVmAction(vm, "Delete expired VM %s".formatted(vm),
+                            "gc-expired-" + vm.vmId(), tx);
+                        claimed.add(Pair.of(vm, action));
+                    }
+
+                    tx.commit();
+                    return claimed;
+                }
+            });
         }
 
         public String cleanVm(final Vm vm) {
@@ -245,5 +341,21 @@ public class GarbageCollector {
                 return null;
             }
         }
+
+        @Nullable
+        private static Instant expiredAt(Vm vm) {
+            var now = Instant.now();
+            Instant expiredAt = null;
+            if (vm.status() == Vm.Status.IDLE && vm.idleState() != null && vm.idleState().deadline().isBefore(now)) {
+                expiredAt = vm.idleState().deadline();
+            }
+            if (vm.runState() != null && vm.runState().activityDeadline() != null
+                && vm.runState().activityDeadline().isBefore(now))
+            {
+                var activityDeadline = vm.runState().activityDeadline();
+                expiredAt = expiredAt == null || activityDeadline.isBefore(expiredAt) ? activityDeadline : expiredAt;
+            }
+            return expiredAt;
+        }
     }
 }
@@ -10,5 +10,14 @@ import java.time.Duration;
 @JsonSerialize
 @JsonDeserialize
 public record CachePolicy(
-    Duration minIdleTimeout
-) { }
+    Duration minIdleTimeout,
+    int warmPoolSize
+) {
+    public CachePolicy(Duration minIdleTimeout) {
+        this(minIdleTimeout, 0);
+    }
+
+    public boolean warmPoolEnabled() {
+        return warmPoolSize > 0 && !minIdleTimeout.isZero();
+    }
+}
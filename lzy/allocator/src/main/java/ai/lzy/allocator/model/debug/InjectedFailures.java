@@ -84,6 +84,10 @@ public class InjectedFailures {
         failAllocateVm(10);
     }
 
+    public static void failAllocateVm11() {
+        failAllocateVm(11);
+    }
+
     public static void failCreateDisk(int n) {
         failImpl(FAIL_CREATE_DISK.get(n));
     }
@@ -3,6 +3,7 @@ package ai.lzy.allocator.services;
 
 import ai.lzy.allocator.alloc.AllocationContext;
 import ai.lzy.allocator.alloc.VmAllocator;
+import ai.lzy.allocator.alloc.ZoneAllocationLatency;
 import ai.lzy.allocator.alloc.dao.SessionDao;
 import ai.lzy.allocator.configs.ServiceConfig;
 import ai.lzy.allocator.model.Vm;
@@ -41,11 +42,13 @@ public class AllocatorPrivateService extends AllocatorPrivateImplBase {
     private final SessionDao sessionsDao;
     private final ServiceConfig config;
     private final AllocationContext allocationContext;
+    private final ZoneAllocationLatency zoneLatency;
 
     public AllocatorPrivateService(VmAllocator allocator, SessionDao sessionsDao, ServiceConfig config,
-                                   AllocationContext allocationContext)
+                                   AllocationContext allocationContext, ZoneAllocationLatency zoneLatency)
     {
         this.allocationContext = allocationContext;
+        this.zoneLatency = zoneLatency;
         this.allocator = allocator;
         this.sessionsDao = sessionsDao;
         this.config = config;
@@ -145,13 +148,26 @@ public class AllocatorPrivateService extends AllocatorPrivateImplBase {
                             return Status.CANCELLED.withDescription("Op %s already done".formatted(vm.vmId()));
                         }
 
+                        // nobody waits for the warm VM, put it to the session cache at once
+                        var warm = allocationContext.vmDao().isWarm(vm.vmId(), transaction);
+                        if (warm) {
+                            var cacheDeadline = Instant.now().plus(session.cachePolicy().minIdleTimeout());
+                            allocationContext.vmDao().release(vm.vmId(), cacheDeadline, transaction);
+                        }
+
                         transaction.commit();
 
+                        var allocationDuration = Duration.between(vm.allocateState().startedAt(), Instant.now());
                         allocationContext.metrics().registerSuccess.inc();
-                        allocationContext.metrics().allocateNewDuration.observe(
-                            Duration.between(vm.allocateState().startedAt(), Instant.now()).toSeconds());
-
-                        allocationContext.metrics().runningVms.labels(vm.poolLabel()).inc();
+                        allocationContext.metrics().allocateNewDuration.observe(allocationDuration.toSeconds());
+                        zoneLatency.observe(vm.poolLabel(), vm.zone(), allocationDuration);
+
+                        if (warm) {
+                            LOG.info("Warm VM {} released to session {} cache", vm.vmId(), vm.sessionId());
+                            allocationContext.metrics().cachedVms.labels(vm.poolLabel()).inc();
+                        } else {
+                            allocationContext.metrics().runningVms.labels(vm.poolLabel()).inc();
+                        }
 
                         return Status.OK;
                     }
@@ -3,8 +3,10 @@ package ai.lzy.allocator.services;
 import ai.lzy.allocator.BeanFactory;
 import ai.lzy.allocator.alloc.AllocateVmAction;
 import ai.lzy.allocator.alloc.AllocationContext;
+import ai.lzy.allocator.alloc.DeleteVmAction;
 import ai.lzy.allocator.alloc.DeleteSessionAction;
 import ai.lzy.allocator.alloc.MountDynamicDiskAction;
+import ai.lzy.allocator.alloc.WarmVmPool;
 import ai.lzy.allocator.alloc.dao.SessionDao;
 import ai.lzy.allocator.alloc.dao.VmDao;
 import ai.lzy.allocator.alloc.impl.kuber.NetworkPolicyManager;
@@ -29,6 +31,7 @@ import ai.lzy.v1.VmAllocatorApi;
 import ai.lzy.v1.VmAllocatorApi.*;
 import ai.lzy.v1.VolumeApi;
 import ai.lzy.v1.longrunning.LongRunning;
+import com.google.common.collect.Lists;
 import com.google.protobuf.Any;
 import io.github.resilience4j.core.functions.Either;
 import io.grpc.Status;
@@ -54,8 +57,14 @@ import java.sql.SQLException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -63,6 +72,8 @@ import static ai.lzy.allocator.alloc.impl.kuber.KuberVmAllocator.NODE_INSTANCE_I
 import static ai.lzy.allocator.model.HostPathVolumeDescription.HostPathType;
 import static ai.lzy.longrunning.IdempotencyUtils.handleIdempotencyKeyConflict;
 import static ai.lzy.longrunning.IdempotencyUtils.loadExistingOp;
+import static ai.lzy.longrunning.dao.OperationDao.OPERATION_IDEMPOTENCY_KEY_CONSTRAINT;
+import static ai.lzy.model.db.DbHelper.isUniqueViolation;
 import static ai.lzy.model.db.DbHelper.withRetries;
 import static ai.lzy.util.grpc.ProtoConverter.toProto;
 import static java.util.Objects.requireNonNull;
@@ -72,11 +83,13 @@ import static java.util.Optional.ofNullable;
 @Requires(notEnv = BeanFactory.TEST_ENV_NAME)
 public class AllocatorService extends AllocatorGrpc.AllocatorImplBase {
     private static final Logger LOG = LogManager.getLogger(AllocatorService.class);
+    private static final int ALLOCATE_MANY_MAX_REQUESTS = 5000;
 
     private final VmDao vmDao;
     private final OperationDao operationsDao;
     private final SessionDao sessionsDao;
     private final AllocationContext allocationContext;
+    private final WarmVmPool warmVmPool;
     private final ServiceConfig config;
     private final ServiceConfig.CacheLimits cacheConfig;
     private final ServiceConfig.MountConfig mountConfig;
@@ -84,7 +97,7 @@ public class AllocatorService extends AllocatorGrpc.AllocatorImplBase {
 
     @Inject
     public AllocatorService(VmDao vmDao, @Named("AllocatorOperationDao") OperationDao operationsDao,
-                            SessionDao sessionsDao, AllocationContext allocationContext,
+                            SessionDao sessionsDao, AllocationContext allocationContext, WarmVmPool warmVmPool,
                             ServiceConfig config, ServiceConfig.CacheLimits cacheConfig,
                             ServiceConfig.MountConfig mountConfig,
                             @Named("AllocatorIdGenerator") IdGenerator idGenerator)
@@ -93,6 +106,7 @@ public class AllocatorService extends AllocatorGrpc.AllocatorImplBase {
         this.operationsDao = operationsDao;
         this.sessionsDao = sessionsDao;
         this.allocationContext = allocationContext;
+        this.warmVmPool = warmVmPool;
         this.config = config;
         this.cacheConfig = cacheConfig;
         this.mountConfig = mountConfig;
@@ -145,7 +159,7 @@ public class AllocatorService extends AllocatorGrpc.AllocatorImplBase {
 
         final var minIdleTimeout = ProtoConverter.fromProto(request.getCachePolicy().getIdleTimeout());
         final var session = new Session(sessionId, request.getOwner(), request.getDescription(),
-            new CachePolicy(minIdleTimeout), operationId);
+            new CachePolicy(minIdleTimeout, request.getCachePolicy().getWarmPoolSize()), operationId);
 
         try {
             withRetries(LOG, () -> {
@@ -319,70 +333,45 @@ public class AllocatorService extends AllocatorGrpc.AllocatorImplBase {
             return;
         }
 
-        var clusterType = switch (request.getClusterType()) {
-            case USER -> ClusterRegistry.ClusterType.User;
-            case SYSTEM -> ClusterRegistry.ClusterType.System;
-            case UNRECOGNIZED, UNSPECIFIED -> throw Status.INVALID_ARGUMENT
-                .withDescription("Cluster type not specified").asRuntimeException();
-        };
+        var clusterType = clusterType(request);
+
+        final var vmSpec = new Vm.Spec(
+            "VM ID Placeholder",
+            request.getSessionId(),
+            request.getPoolLabel(),
+            request.getZone(),
+            initWorkloads,
+            workloads,
+            volumes,
+            tunnelSettings,
+            clusterType);
+
+        final var reqid = ofNullable(GrpcHeaders.getRequestId()).orElse("unknown");
+        final var warmPool = WarmVmPool.isApplicable(session, vmSpec);
 
         Runnable allocateCont = null;
         try {
             allocateCont = withRetries(LOG, () -> {
                 try (var tx = TransactionHandle.create(allocationContext.storage())) {
 
-                    final var vmSpec = new Vm.Spec(
-                        "VM ID Placeholder",
-                        request.getSessionId(),
-                        request.getPoolLabel(),
-                        request.getZone(),
-                        initWorkloads,
-                        workloads,
-                        volumes,
-                        tunnelSettings,
-                        clusterType);
-
                     final var existingVm = vmDao.acquire(vmSpec, tx);
                     if (existingVm != null) {
                         LOG.info("Found existing VM {}", existingVm);
 
+                        var fromWarmPool = vmDao.unmarkWarm(existingVm.vmId(), tx);
+
                         op.modifyMeta(
                             AllocateMetadata.newBuilder()
                                 .setVmId(existingVm.vmId())
                                 .build());
-
-                        var meta = existingVm.allocateState().allocatorMeta();
-                        var vmInstanceId = meta == null ? "null" : meta.get(NODE_INSTANCE_ID_KEY);
-
-                        var builder = AllocateResponse.newBuilder()
-                            .setSessionId(existingVm.sessionId())
-                            .setPoolId(existingVm.poolLabel())
-                            .setVmId(existingVm.vmId())
-                            .putAllMetadata(requireNonNull(existingVm.runState()).vmMeta())
-                            .putMetadata(NODE_INSTANCE_ID_KEY, vmInstanceId)
-                            .setFromCache(true);
-
-                        for (var endpoint : existingVm.instanceProperties().endpoints()) {
-                            builder.addEndpoints(endpoint.toProto());
-                        }
-
-                        op.completeWith(builder.build());
+                        op.completeWith(cachedVmResponse(existingVm));
 
                         operationsDao.create(op, tx);
                         sessionsDao.touch(session.sessionId(), tx);
 
                         tx.commit();
 
-                        var now = Instant.now();
-
-                        allocationContext.metrics().allocateVmFromCache.inc();
-                        allocationContext.metrics().allocateFromCacheDuration
-                            .observe(Duration.between(op.createdAt(), now).getSeconds());
-
-                        allocationContext.metrics().runningVms.labels(existingVm.poolLabel()).inc();
-                        allocationContext.metrics().cachedVms.labels(existingVm.poolLabel()).dec();
-                        allocationContext.metrics().cachedVmsTime.labels(existingVm.poolLabel())
-                            .inc(Duration.between(existingVm.idleState().idleSice(), now).getSeconds());
+                        onCachedVmAcquired(existingVm, op, fromWarmPool);
 
                         responseObserver.onNext(op.toProto());
                         responseObserver.onCompleted();
@@ -396,7 +385,7 @@ public class AllocatorService extends AllocatorGrpc.AllocatorImplBase {
                         op.createdAt(),
                         op.deadline(),
                         allocationContext.selfWorkerId(),
-                        ofNullable(GrpcHeaders.getRequestId()).orElse("unknown"),
+                        reqid,
                         /* vmOtt */ UUID.randomUUID().toString(),  // TODO: add expired_at
                         null,
                         null);
@@ -416,6 +405,9 @@ public class AllocatorService extends AllocatorGrpc.AllocatorImplBase {
                     tx.commit();
 
                     allocationContext.metrics().allocateVmNew.inc();
+                    if (warmPool) {
+                        allocationContext.metrics().warmPoolMisses.labels(vmSpec.poolLabel()).inc();
+                    }
 
                     // we should create this action here to inc `runningAllocation` counter before return the result
                     var cont = new AllocateVmAction(newVm, allocationContext, false);
@@ -437,94 +429,320 @@ public class AllocatorService extends AllocatorGrpc.AllocatorImplBase {
             LOG.error("Cannot create allocate vm operation for session {}: {}",
                 request.getSessionId(), ex.getMessage(), ex);
             responseObserver.onError(Status.INTERNAL.withDescription(ex.getMessage()).asException());
+            return;
         }
 
         if (allocateCont != null) {
             InjectedFailures.failAllocateVm0();
             allocationContext.startNew(allocateCont);
         }
+
+        if (warmPool) {
+            warmVmPool.replenish(session, vmSpec, reqid);
+        }
     }
 
     @Override
-    public void free(FreeRequest request, StreamObserver<FreeResponse> responseObserver) {
-        LOG.info("Free request {}", ProtoPrinter.safePrinter().shortDebugString(request));
+    public void allocateMany(AllocateManyRequest request, StreamObserver<AllocateManyResponse> responseObserver) {
+        LOG.info("AllocateMany request for {} VMs", request.getRequestsCount());
 
-        var reqid = ofNullable(GrpcHeaders.getRequestId()).orElse("unknown");
+        var idempotencyKey = IdempotencyUtils.getIdempotencyKey(request);
 
-        Status status;
+        final List<Vm.Spec> vmSpecs;
         try {
-            status = withRetries(
-                LOG,
-                () -> {
-                    try (var tx = TransactionHandle.create(allocationContext.storage())) {
-                        var vm = vmDao.get(request.getVmId(), tx);
-                        if (vm == null) {
-                            LOG.error("Cannot find vm {}", request.getVmId());
-                            return Status.NOT_FOUND.withDescription("Cannot find vm");
-                        }
+            vmSpecs = prepareVmSpecs(request);
+        } catch (StatusException | StatusRuntimeException e) {
+            allocationContext.metrics().allocationError.inc();
+            responseObserver.onError(e);
+            return;
+        }
 
-                        if (vm.status() == Vm.Status.ALLOCATING) {
-                            LOG.error("Free vm {} in status ALLOCATING, trying to cancel allocation op {}",
-                                vm, vm.allocOpId());
+        var sessionId = vmSpecs.get(0).sessionId();
 
-                            operationsDao.fail(
-                                vm.allocOpId(), toProto(Status.CANCELLED.withDescription("Unexpected free")), tx);
-                            tx.commit();
-                            return Status.OK;
-                        }
+        final Session session;
+        try {
+            session = withRetries(LOG, () -> sessionsDao.get(sessionId, null));
+        } catch (Exception ex) {
+            LOG.error("Cannot get session {}: {}", sessionId, ex.getMessage(), ex);
+            allocationContext.metrics().allocationError.inc();
+            responseObserver.onError(Status.INTERNAL.withDescription(ex.getMessage()).asException());
+            return;
+        }
 
-                        if (vm.status() != Vm.Status.RUNNING) {
-                            LOG.error("Free vm {} in status {}, expected RUNNING", vm, vm.status());
-                            return Status.FAILED_PRECONDITION.withDescription("State is " + vm.status());
-                        }
+        if (session == null) {
+            LOG.error("Cannot allocate, session {} not found", sessionId);
+            allocationContext.metrics().allocationError.inc();
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription("Session not found").asException());
+            return;
+        }
 
-                        var session = sessionsDao.get(vm.sessionId(), tx);
-                        if (session == null) {
-                            LOG.error("Corrupted vm {} with incorrect session id: {}", vm.vmId(), vm.sessionId());
-                            return Status.INTERNAL.withDescription("Session %s not found".formatted(vm.sessionId()));
-                        }
+        var reqid = ofNullable(GrpcHeaders.getRequestId()).orElse("unknown");
 
-                        var cachedVms = vmDao.countCachedVms(vm.spec(), session.owner(), tx);
+        var operations = new Operation[vmSpecs.size()];
+        if (idempotencyKey != null) {
+            try {
+                loadExistingOps(idempotencyKey, operations);
+            } catch (StatusException e) {
+                responseObserver.onError(e);
+                return;
+            } catch (Exception ex) {
+                LOG.error("Error while loading operations by idempotency key {}: {}",
+                    idempotencyKey.token(), ex.getMessage(), ex);
+                responseObserver.onError(Status.INTERNAL.withDescription(ex.getMessage()).asException());
+                return;
+            }
+        }
 
-                        if (cachedVms.atOwner() >= cacheConfig.getUserLimit() ||
-                            cachedVms.atSession() >= cacheConfig.getSessionLimit() ||
-                            cachedVms.atPoolAndSession() >= cacheConfig.getLimit(vm.spec().poolLabel()))
-                        {
-                            LOG.info("Vms cache is full ({}), about to delete VM {}...", cachedVms, vm.vmId());
+        var missing = new ArrayList<Integer>(vmSpecs.size());
+        for (int i = 0; i < operations.length; ++i) {
+            if (operations[i] == null) {
+                missing.add(i);
+            }
+        }
 
-                            var action = allocationContext.createDeleteVmAction(vm, "VMs cache is full", reqid, tx);
-                            tx.commit();
+        var createdOps = new ArrayList<Operation>(missing.size());
+        for (var batch : Lists.partition(missing, config.getAllocateManyBatchSize())) {
+            try {
+                var batchOps = allocateBatch(session, vmSpecs, batch, idempotencyKey, reqid);
+                for (int i = 0; i < batch.size(); ++i) {
+                    operations[batch.get(i)] = batchOps.get(i);
+                }
+                createdOps.addAll(batchOps);
+            } catch (Exception ex) {
+                if (idempotencyKey != null && isUniqueViolation(ex, OPERATION_IDEMPOTENCY_KEY_CONSTRAINT)) {
+                    // created operations are kept, the retried call loads them by idempotency keys
+                    LOG.error("Concurrent AllocateMany call with idempotency key {}", idempotencyKey.token());
+                    responseObserver.onError(Status.ABORTED
+                        .withDescription("Concurrent call with the same idempotency key").asException());
+                    return;
+                }
 
-                            LOG.info("VM {} scheduled to remove (cache is full)", vm.vmId());
+                allocationContext.metrics().allocationError.inc();
+                LOG.error("Cannot allocate {} VMs for session {}: {}", batch.size(), sessionId, ex.getMessage(), ex);
+                cancelAllocations(createdOps, reqid);
+                responseObserver.onError(Status.INTERNAL.withDescription(ex.getMessage()).asException());
+                return;
+            }
+        }
 
-                            allocationContext.startNew(action);
-                        } else {
-                            if (session.cachePolicy().minIdleTimeout().isZero()) {
-                                LOG.info("Free VM {} according to cache policy...", vm.vmId());
+        responseObserver.onNext(AllocateManyResponse.newBuilder()
+            .addAllOperations(Arrays.stream(operations).map(Operation::toProto).toList())
+            .build());
+        responseObserver.onCompleted();
 
-                                var action = allocationContext.createDeleteVmAction(vm, "Free VM", reqid, tx);
-                                tx.commit();
+        new LinkedHashSet<>(vmSpecs).forEach(vmSpec -> warmVmPool.replenish(session, vmSpec, reqid));
+    }
+
+    private List<Vm.Spec> prepareVmSpecs(AllocateManyRequest request) throws StatusException {
+        if (request.getRequestsCount() == 0) {
+            throw Status.INVALID_ARGUMENT.withDescription("requests not set").asException();
+        }
+        if (request.getRequestsCount() > ALLOCATE_MANY_MAX_REQUESTS) {
+            throw Status.INVALID_ARGUMENT
+                .withDescription("Too many requests, max is " + ALLOCATE_MANY_MAX_REQUESTS)
+                .asException();
+        }
 
-                                LOG.info("VM {} scheduled to remove", vm.vmId());
+        var sessionId = request.getRequests(0).getSessionId();
+        var vmSpecs = new ArrayList<Vm.Spec>(request.getRequestsCount());
 
-                                allocationContext.startNew(action);
-                            } else {
-                                var cacheDeadline = Instant.now().plus(session.cachePolicy().minIdleTimeout());
-                                vmDao.release(vm.vmId(), cacheDeadline, tx);
-                                tx.commit();
+        for (var req : request.getRequestsList()) {
+            var error = validateAllocateRequest(req);
+            if (error == null && !sessionId.equals(req.getSessionId())) {
+                error = "All requests must have the same session_id";
+            }
+            if (error == null && req.hasTunnelSettings()) {
+                error = "Tunnel settings are not supported in AllocateMany";
+            }
+            if (error != null) {
+                throw Status.INVALID_ARGUMENT.withDescription(error).asException();
+            }
 
-                                LOG.info("VM {} released to session {} cache until {}",
-                                    vm.vmId(), vm.sessionId(), cacheDeadline);
+            vmSpecs.add(new Vm.Spec(
+                "VM ID Placeholder",
+                sessionId,
+                req.getPoolLabel(),
+                req.getZone(),
+                req.getInitWorkloadList().stream().map(Workload::fromProto).toList(),
+                req.getWorkloadList().stream().map(Workload::fromProto).toList(),
+                prepareVolumeRequests(req.getVolumesList()),
+                /* tunnelSettings */ null,
+                clusterType(req)));
+        }
 
-                                allocationContext.metrics().cachedVms.labels(vm.poolLabel()).inc();
-                            }
-                        }
+        return vmSpecs;
+    }
 
-                        allocationContext.metrics().runningVms.labels(vm.poolLabel()).dec();
+    /**
+     * Operations of AllocateMany requests are created with idempotency keys {@code <key>/<index of request>}.
+     * Requests are allocated by batches in order, so if there is no operation of the first request,
+     * the key wasn't used before.
+     *
+     * @param operations found operations are set by indices of requests
+     * @throws StatusException if the key was used for another request
+     */
+    private void loadExistingOps(Operation.IdempotencyKey idempotencyKey, Operation[] operations) throws Exception {
+        for (int i = 0; i < operations.length; ++i) {
+            var requestKey = requestIdempotencyKey(idempotencyKey, i);
+            var op = withRetries(LOG, () -> operationsDao.getByIdempotencyKey(requestKey.token(), null));
+            if (op == null) {
+                if (i == 0) {
+                    return;
+                }
+                continue;
+            }
+
+            if (!requestKey.equals(op.idempotencyKey())) {
+                LOG.error("Idempotency key {} conflict", idempotencyKey.token());
+                throw Status.INVALID_ARGUMENT.withDescription("IdempotencyKey conflict").asException();
+            }
+
+            operations[i] = op;
+        }
+
+        LOG.info("Found existing ops with idempotency key {}", idempotencyKey.token());
+    }
 
-                        return Status.OK;
+    @Nullable
+    private static Operation.IdempotencyKey requestIdempotencyKey(@Nullable Operation.IdempotencyKey idempotencyKey,
+                                                                  int index)
+    {
+        if (idempotencyKey == null) {
+            return null;
+        }
+        // hash of the whole AllocateMany request, so the key can't be reused for another batch
+        return new Operation.IdempotencyKey(idempotencyKey.token() + "/" + index, idempotencyKey.requestHash());
+    }
+
+    /**
+     * Allocates VMs in one transaction: idle VMs are acquired by one query for each distinct spec,
+     * the rest are created and their {@link AllocateVmAction}s are started after commit.
+     *
+     * @param indices indices of requests to allocate
+     * @return allocation operations in the order of indices
+     */
+    private List<Operation> allocateBatch(Session session, List<Vm.Spec> vmSpecs, List<Integer> indices,
+                                          @Nullable Operation.IdempotencyKey idempotencyKey,
+                                          String reqid) throws Exception
+    {
+        InjectedFailures.failAllocateVm11();
+
+        var cachedVms = new ArrayList<AcquiredVm>();
+        var newVms = new ArrayList<Vm>();
+
+        var operations = withRetries(LOG, () -> {
+            cachedVms.clear();
+            newVms.clear();
+
+            // spec -> positions in the batch
+            var groups = new LinkedHashMap<Vm.Spec, List<Integer>>();
+            for (int i = 0; i < indices.size(); ++i) {
+                groups.computeIfAbsent(vmSpecs.get(indices.get(i)), x -> new ArrayList<>()).add(i);
+            }
+
+            try (var tx = TransactionHandle.create(allocationContext.storage())) {
+                var ops = new Operation[indices.size()];
+
+                for (var group : groups.entrySet()) {
+                    var vmSpec = group.getKey();
+                    var positions = group.getValue();
+
+                    var existingVms = vmDao.acquire(vmSpec, positions.size(), tx);
+
+                    for (int i = 0; i < positions.size(); ++i) {
+                        var op = Operation.create(
+                            session.owner(),
+                            "AllocateVM: pool=%s, zone=%s".formatted(vmSpec.poolLabel(), vmSpec.zone()),
+                            config.getAllocationTimeout(),
+                            requestIdempotencyKey(idempotencyKey, indices.get(positions.get(i))),
+                            AllocateMetadata.getDefaultInstance());
+
+                        if (i < existingVms.size()) {
+                            var existingVm = existingVms.get(i);
+                            op.modifyMeta(AllocateMetadata.newBuilder().setVmId(existingVm.vmId()).build());
+                            op.completeWith(cachedVmResponse(existingVm));
+                            operationsDao.create(op, tx);
+                            cachedVms.add(new AcquiredVm(existingVm, op, vmDao.unmarkWarm(existingVm.vmId(), tx)));
+                        } else {
+                            var vmAllocState = new Vm.AllocateState(
+                                op.id(),
+                                op.createdAt(),
+                                op.deadline(),
+                                allocationContext.selfWorkerId(),
+                                reqid,
+                                /* vmOtt */ UUID.randomUUID().toString());
+
+                            operationsDao.create(op, tx);
+                            var newVm = vmDao.create(vmSpec, vmAllocState, tx);
+
+                            var meta = Any.pack(AllocateMetadata.newBuilder().setVmId(newVm.vmId()).build());
+                            op.modifyMeta(meta);
+                            operationsDao.updateMeta(op.id(), meta, tx);
+                            newVms.add(newVm);
+                        }
+
+                        ops[positions.get(i)] = op;
                     }
-                });
+                }
+
+                sessionsDao.touch(session.sessionId(), tx);
+                tx.commit();
+
+                return List.of(ops);
+            }
+        });
+
+        for (var cached : cachedVms) {
+            LOG.info("Found existing VM {}", cached.vm());
+            onCachedVmAcquired(cached.vm(), cached.op(), cached.fromWarmPool());
+        }
+
+        for (var newVm : newVms) {
+            allocationContext.metrics().allocateVmNew.inc();
+            if (WarmVmPool.isApplicable(session, newVm.spec())) {
+                allocationContext.metrics().warmPoolMisses.labels(newVm.poolLabel()).inc();
+            }
+            allocationContext.startNew(new AllocateVmAction(newVm, allocationContext, false));
+        }
+
+        return operations;
+    }
+
+    private record AcquiredVm(
+        Vm vm,
+        Operation op,
+        boolean fromWarmPool
+    ) {}
+
+    /**
+     * Best-effort rollback of allocations made by the failed AllocateMany: pending allocations are cancelled,
+     * acquired VMs are returned to the session cache
+     */
+    private void cancelAllocations(List<Operation> operations, String reqid) {
+        for (var op : operations) {
+            try {
+                var vmId = op.meta().unpack(AllocateMetadata.class).getVmId();
+                if (op.done()) {
+                    freeVm(vmId, reqid);
+                } else {
+                    withRetries(LOG, () -> operationsDao.fail(
+                        op.id(), toProto(Status.CANCELLED.withDescription("AllocateMany failed")), null));
+                }
+            } catch (Exception e) {
+                LOG.error("Cannot cancel allocation op {}: {}", op.id(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void free(FreeRequest request, StreamObserver<FreeResponse> responseObserver) {
+        LOG.info("Free request {}", ProtoPrinter.safePrinter().shortDebugString(request));
+
+        var reqid = ofNullable(GrpcHeaders.getRequestId()).orElse("unknown");
+
+        Status status;
+        try {
+            status = freeVm(request.getVmId(), reqid);
         } catch (Exception ex) {
             LOG.error("Error while free vm {}: {}", request.getVmId(), ex.getMessage(), ex);
             responseObserver.onError(Status.INTERNAL.withDescription("Error while free").asException());
@@ -539,6 +757,178 @@ public class AllocatorService extends AllocatorGrpc.AllocatorImplBase {
         }
     }
 
+    @Override
+    public void freeMany(FreeManyRequest request, StreamObserver<FreeManyResponse> responseObserver) {
+        LOG.info("FreeMany request for {} VMs", request.getVmIdsCount());
+
+        var reqid = ofNullable(GrpcHeaders.getRequestId()).orElse("unknown");
+
+        Map<String, Status> statuses;
+        try {
+            statuses = freeVms(new LinkedHashSet<>(request.getVmIdsList()), reqid);
+        } catch (Exception ex) {
+            LOG.error("Error while free {} VMs: {}", request.getVmIdsCount(), ex.getMessage(), ex);
+            responseObserver.onError(Status.INTERNAL.withDescription("Error while free").asException());
+            return;
+        }
+
+        var response = FreeManyResponse.newBuilder();
+        statuses.forEach((vmId, status) -> {
+            if (!status.isOk()) {
+                response.addFailures(FreeManyResponse.Failure.newBuilder()
+                    .setVmId(vmId)
+                    .setCode(status.getCode().value())
+                    .setDescription(ofNullable(status.getDescription()).orElse(""))
+                    .build());
+            }
+        });
+
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+
+    private Status freeVm(String vmId, String reqid) throws Exception {
+        return freeSessionVms(Set.of(vmId), reqid).get(vmId);
+    }
+
+    /**
+     * Frees VMs with one transaction per session
+     */
+    private Map<String, Status> freeVms(Set<String> vmIds, String reqid) throws Exception {
+        var statuses = new LinkedHashMap<String, Status>();
+        vmIds.forEach(vmId -> statuses.put(vmId, Status.NOT_FOUND.withDescription("Cannot find vm")));
+
+        var vmIdsBySession = vmDao.loadByIds(vmIds, null).stream()
+            .collect(Collectors.groupingBy(Vm::sessionId, Collectors.mapping(Vm::vmId, Collectors.toSet())));
+
+        for (var sessionVmIds : vmIdsBySession.values()) {
+            try {
+                statuses.putAll(freeSessionVms(sessionVmIds, reqid));
+            } catch (Exception ex) {
+                LOG.error("Error while free vms {}: {}", sessionVmIds, ex.getMessage(), ex);
+                sessionVmIds.forEach(vmId -> statuses.put(vmId, Status.INTERNAL.withDescription("Error while free")));
+            }
+        }
+
+        return statuses;
+    }
+
+    private record FreedVms(
+        Map<String, Status> statuses,
+        List<Vm> running,
+        List<Vm> released,
+        List<DeleteVmAction> deleteActions
+    ) {}
+
+    /**
+     * Frees VMs of one session in one transaction: VMs are locked, cache limits are counted and VMs are
+     * released to the session cache all at once
+     */
+    private Map<String, Status> freeSessionVms(Set<String> vmIds, String reqid) throws Exception {
+        var freed = withRetries(LOG, () -> {
+            try (var tx = TransactionHandle.create(allocationContext.storage())) {
+                var result = new FreedVms(new LinkedHashMap<>(), new ArrayList<>(), new ArrayList<>(),
+                    new ArrayList<>());
+
+                Session session = null;
+                // pool -> VMs cached at the transaction start, VMs released below are counted separately
+                var cachedAtPool = new HashMap<String, VmDao.CachedVms>();
+                var releasedAtPool = new HashMap<String, Integer>();
+
+                var vms = vmDao.lockByIds(vmIds, tx);
+                for (var vmId : vmIds) {
+                    if (vms.stream().noneMatch(vm -> vm.vmId().equals(vmId))) {
+                        LOG.error("Cannot find vm {}", vmId);
+                        result.statuses().put(vmId, Status.NOT_FOUND.withDescription("Cannot find vm"));
+                    }
+                }
+
+                for (var vm : vms) {
+                    if (vm.status() == Vm.Status.ALLOCATING) {
+                        LOG.error("Free vm {} in status ALLOCATING, trying to cancel allocation op {}",
+                            vm, vm.allocOpId());
+
+                        operationsDao.fail(
+                            vm.allocOpId(), toProto(Status.CANCELLED.withDescription("Unexpected free")), tx);
+                        result.statuses().put(vm.vmId(), Status.OK);
+                        continue;
+                    }
+
+                    if (vm.status() != Vm.Status.RUNNING) {
+                        LOG.error("Free vm {} in status {}, expected RUNNING", vm, vm.status());
+                        result.statuses().put(vm.vmId(),
+                            Status.FAILED_PRECONDITION.withDescription("State is " + vm.status()));
+                        continue;
+                    }
+
+                    if (session == null) {
+                        session = sessionsDao.get(vm.sessionId(), tx);
+                    }
+                    if (session == null || !session.sessionId().equals(vm.sessionId())) {
+                        LOG.error("Corrupted vm {} with incorrect session id: {}", vm.vmId(), vm.sessionId());
+                        result.statuses().put(vm.vmId(),
+                            Status.INTERNAL.withDescription("Session %s not found".formatted(vm.sessionId())));
+                        continue;
+                    }
+
+                    var pool = vm.spec().poolLabel();
+                    var cachedVms = cachedAtPool.get(pool);
+                    if (cachedVms == null) {
+                        cachedVms = vmDao.countCachedVms(vm.spec(), session.owner(), tx);
+                        cachedAtPool.put(pool, cachedVms);
+                    }
+                    int released = result.released().size();
+                    int releasedAtSessionPool = releasedAtPool.getOrDefault(pool, 0);
+
+                    if (cachedVms.atOwner() + released >= cacheConfig.getUserLimit() ||
+                        cachedVms.atSession() + released >= cacheConfig.getSessionLimit() ||
+                        cachedVms.atPoolAndSession() + releasedAtSessionPool >= cacheConfig.getLimit(pool))
+                    {
+                        LOG.info("Vms cache is full ({}, released {}), about to delete VM {}...",
+                            cachedVms, released, vm.vmId());
+                        result.deleteActions().add(
+                            allocationContext.createDeleteVmAction(vm, "VMs cache is full", reqid, tx));
+                    } else if (session.cachePolicy().minIdleTimeout().isZero()) {
+                        LOG.info("Free VM {} according to cache policy...", vm.vmId());
+                        result.deleteActions().add(allocationContext.createDeleteVmAction(vm, "Free VM", reqid, tx));
+                    } else {
+                        result.released().add(vm);
+                        releasedAtPool.merge(pool, 1, Integer::sum);
+                    }
+
+                    result.running().add(vm);
+                    result.statuses().put(vm.vmId(), Status.OK);
+                }
+
+                Instant cacheDeadline = null;
+                if (!result.released().isEmpty()) {
+                    cacheDeadline = Instant.now().plus(requireNonNull(session).cachePolicy().minIdleTimeout());
+                    vmDao.release(result.released().stream().map(Vm::vmId).toList(), cacheDeadline, tx);
+                }
+
+                tx.commit();
+
+                for (var vm : result.released()) {
+                    LOG.info("VM {} released to session {} cache until {}", vm.vmId(), vm.sessionId(), cacheDeadline);
+                }
+                return result;
+            }
+        });
+
+        for (var action : freed.deleteActions()) {
+            LOG.info("Delete VM operation {} started", action.id());
+            allocationContext.startNew(action);
+        }
+        for (var vm : freed.released()) {
+            allocationContext.metrics().cachedVms.labels(vm.poolLabel()).inc();
+        }
+        for (var vm : freed.running()) {
+            allocationContext.metrics().runningVms.labels(vm.poolLabel()).dec();
+        }
+
+        return freed.statuses();
+    }
+
     @Override
     public void forceFree(ForceFreeRequest request, StreamObserver<LongRunning.Operation> responseObserver) {
         LOG.info("ForceFree request {}", ProtoPrinter.safePrinter().shortDebugString(request));
@@ -984,6 +1374,10 @@ public class AllocatorService extends AllocatorGrpc.AllocatorImplBase {
             response.onError(Status.INVALID_ARGUMENT.withDescription("Cache policy is not properly set").asException());
             return false;
         }
+        if (request.getCachePolicy().getWarmPoolSize() < 0) {
+            response.onError(Status.INVALID_ARGUMENT.withDescription("Warm pool size is negative").asException());
+            return false;
+        }
         return true;
     }
 
@@ -996,23 +1390,76 @@ public class AllocatorService extends AllocatorGrpc.AllocatorImplBase {
     }
 
     private static boolean validateRequest(AllocateRequest request, StreamObserver<LongRunning.Operation> response) {
-        if (request.getSessionId().isBlank()) {
-            response.onError(Status.INVALID_ARGUMENT.withDescription("session_id not set").asException());
+        var error = validateAllocateRequest(request);
+        if (error != null) {
+            response.onError(Status.INVALID_ARGUMENT.withDescription(error).asException());
             return false;
         }
+        return true;
+    }
+
+    @Nullable
+    private static String validateAllocateRequest(AllocateRequest request) {
+        if (request.getSessionId().isBlank()) {
+            return "session_id not set";
+        }
         if (request.getPoolLabel().isBlank()) {
-            response.onError(Status.INVALID_ARGUMENT.withDescription("pool_label not set").asException());
-            return false;
+            return "pool_label not set";
         }
         if (request.getZone().isBlank()) {
-            response.onError(Status.INVALID_ARGUMENT.withDescription("zone not set").asException());
-            return false;
+            return "zone not set";
         }
         if (request.getWorkloadCount() == 0) {
-            response.onError(Status.INVALID_ARGUMENT.withDescription("workload not set").asException());
-            return false;
+            return "workload not set";
+        }
+        return null;
+    }
+
+    private static ClusterRegistry.ClusterType clusterType(AllocateRequest request) {
+        return switch (request.getClusterType()) {
+            case USER -> ClusterRegistry.ClusterType.User;
+            case SYSTEM -> ClusterRegistry.ClusterType.System;
+            case UNRECOGNIZED, UNSPECIFIED -> throw Status.INVALID_ARGUMENT
+                .withDescription("Cluster type not specified").asRuntimeException();
+        };
+    }
+
+    private static AllocateResponse cachedVmResponse(Vm existingVm) {
+        var meta = existingVm.allocateState().allocatorMeta();
+        var vmInstanceId = meta == null ? "null" : meta.get(NODE_INSTANCE_ID_KEY);
+
+        var builder = AllocateResponse.newBuilder()
+            .setSessionId(existingVm.sessionId())
+            .setPoolId(existingVm.poolLabel())
+            .setVmId(existingVm.vmId())
+            .putAllMetadata(requireNonNull(existingVm.runState()).vmMeta())
+            .putMetadata(NODE_INSTANCE_ID_KEY, vmInstanceId)
+            .setFromCache(true);
+
+        for (var endpoint : existingVm.instanceProperties().endpoints()) {
+            builder.addEndpoints(endpoint.toProto());
+        }
+
+        return builder.build();
+    }
+
+    private void onCachedVmAcquired(Vm existingVm, Operation op, boolean fromWarmPool) {
+        var now = Instant.now();
+
+        allocationContext.metrics().allocateVmFromCache.inc();
+        allocationContext.metrics().allocateFromCacheDuration
+            .observe(Duration.between(op.createdAt(), now).getSeconds());
+
+        allocationContext.metrics().runningVms.labels(existingVm.poolLabel()).inc();
+        allocationContext.metrics().cachedVms.labels(existingVm.poolLabel()).dec();
+        allocationContext.metrics().cachedVmsTime.labels(existingVm.poolLabel())
+            .inc(Duration.between(existingVm.idleState().idleSice(), now).getSeconds());
+
+        if (fromWarmPool) {
+            allocationContext.metrics().warmPoolHits.labels(existingVm.poolLabel()).inc();
+            allocationContext.metrics().warmPoolIdleTime.labels(existingVm.poolLabel())
+                .inc(Duration.between(existingVm.idleState().idleSice(), now).getSeconds());
         }
-        return true;
     }
 
     private static boolean validateRequest(VmAllocatorApi.MountRequest request,
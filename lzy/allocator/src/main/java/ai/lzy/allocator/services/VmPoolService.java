@@ -1,25 +1,38 @@
 package ai.lzy.allocator.services;
 
+import ai.lzy.allocator.alloc.ZoneAllocationLatency;
+import ai.lzy.allocator.alloc.dao.VmDao;
 import ai.lzy.allocator.vmpool.VmPoolRegistry;
 import ai.lzy.v1.VmPoolServiceGrpc;
+import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.HashMap;
+import java.util.List;
+
+import static ai.lzy.model.db.DbHelper.withRetries;
 import static ai.lzy.v1.VmPoolServiceApi.GetVmPoolsRequest;
+import static ai.lzy.v1.VmPoolServiceApi.GetZoneStatsRequest;
 import static ai.lzy.v1.VmPoolServiceApi.VmPools;
+import static ai.lzy.v1.VmPoolServiceApi.ZoneStats;
 
 @Singleton
 public class VmPoolService extends VmPoolServiceGrpc.VmPoolServiceImplBase {
     private static final Logger LOG = LogManager.getLogger(VmPoolService.class);
 
     private final VmPoolRegistry registry;
+    private final VmDao vmDao;
+    private final ZoneAllocationLatency zoneLatency;
 
     @Inject
-    public VmPoolService(VmPoolRegistry registry) {
+    public VmPoolService(VmPoolRegistry registry, VmDao vmDao, ZoneAllocationLatency zoneLatency) {
         this.registry = registry;
+        this.vmDao = vmDao;
+        this.zoneLatency = zoneLatency;
     }
 
     @Override
@@ -37,4 +50,45 @@ public class VmPoolService extends VmPoolServiceGrpc.VmPoolServiceImplBase {
         response.onNext(pools.build());
         response.onCompleted();
     }
+
+    @Override
+    public void getZoneStats(GetZoneStatsRequest request, StreamObserver<ZoneStats> response) {
+        var sessionId = request.getSessionId().isEmpty() ? null : request.getSessionId();
+
+        final List<VmDao.ZoneVms> zoneVms;
+        try {
+            zoneVms = withRetries(LOG, () -> vmDao.countZoneVms(request.getPoolLabelsList(), sessionId, null));
+        } catch (Exception e) {
+            LOG.error("Cannot count VMs of pools {}: {}", request.getPoolLabelsList(), e.getMessage(), e);
+            response.onError(Status.INTERNAL.withDescription(e.getMessage()).asException());
+            return;
+        }
+
+        // "pool/zone" -> vms
+        var vmsByZone = new HashMap<String, VmDao.ZoneVms>();
+        zoneVms.forEach(vms -> vmsByZone.put(vms.poolLabel() + "/" + vms.zone(), vms));
+
+        var stats = ZoneStats.newBuilder();
+        var userPools = registry.getUserVmPools();
+        for (var poolLabel : request.getPoolLabelsList()) {
+            var pool = userPools.get(poolLabel);
+            if (pool == null) {
+                continue;
+            }
+
+            for (var zone : pool.zones()) {
+                var vms = vmsByZone.get(poolLabel + "/" + zone);
+                stats.addPoolZones(ZoneStats.PoolZone.newBuilder()
+                    .setPoolLabel(poolLabel)
+                    .setZone(zone)
+                    .setActiveVms(vms != null ? vms.active() : 0)
+                    .setSessionCachedVms(vms != null ? vms.sessionCached() : 0)
+                    .setAllocationLatencyMs(zoneLatency.get(poolLabel, zone))
+                    .build());
+            }
+        }
+
+        response.onNext(stats.build());
+        response.onCompleted();
+    }
 }
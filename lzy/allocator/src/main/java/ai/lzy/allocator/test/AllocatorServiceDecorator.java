@@ -2,6 +2,7 @@ package ai.lzy.allocator.test;
 
 import ai.lzy.allocator.BeanFactory;
 import ai.lzy.allocator.alloc.AllocationContext;
+import ai.lzy.allocator.alloc.WarmVmPool;
 import ai.lzy.allocator.alloc.dao.SessionDao;
 import ai.lzy.allocator.alloc.dao.VmDao;
 import ai.lzy.allocator.configs.ServiceConfig;
@@ -29,11 +30,11 @@ public class AllocatorServiceDecorator extends AllocatorService {
 
     public AllocatorServiceDecorator(VmDao vmDao, @Named("AllocatorOperationDao") OperationDao operationsDao,
                                      SessionDao sessionsDao, AllocationContext allocationContext,
-                                     ServiceConfig config, ServiceConfig.CacheLimits cacheLimits,
+                                     WarmVmPool warmVmPool, ServiceConfig config, ServiceConfig.CacheLimits cacheLimits,
                                      ServiceConfig.MountConfig mountConfig,
                                      @Named("AllocatorIdGenerator") IdGenerator idGenerator)
     {
-        super(vmDao, operationsDao, sessionsDao, allocationContext, config, cacheLimits, mountConfig,
+        super(vmDao, operationsDao, sessionsDao, allocationContext, warmVmPool, config, cacheLimits, mountConfig,
             idGenerator);
     }
 
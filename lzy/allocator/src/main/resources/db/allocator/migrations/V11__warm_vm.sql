@@ -0,0 +1,6 @@
+-- VMs allocated ahead of demand by the session warm pool, the mark is removed when the VM is acquired
+CREATE TABLE warm_vm
+(
+    vm_id      TEXT      NOT NULL PRIMARY KEY REFERENCES vm (id) ON DELETE CASCADE,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,218 @@
+package ai.lzy.allocator.test;
+
+import ai.lzy.allocator.configs.ServiceConfig;
+import ai.lzy.allocator.model.Vm;
+import ai.lzy.allocator.model.debug.InjectedFailures;
+import ai.lzy.v1.VmAllocatorApi;
+import ai.lzy.v1.longrunning.LongRunning;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.util.Durations;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static ai.lzy.test.GrpcUtils.withGrpcContext;
+import static ai.lzy.util.grpc.GrpcUtils.withIdempotencyKey;
+import static java.util.Objects.requireNonNull;
+
+public class AllocatorServiceManyTest extends AllocatorApiTestBase {
+
+    @Override
+    protected Map<String, Object> allocatorConfigOverrides() {
+        var overrides = new HashMap<>(super.allocatorConfigOverrides());
+        // each request in its own batch
+        overrides.put("allocator.allocate-many-batch-size", 1);
+        return overrides;
+    }
+
+    @Before
+    public void before() {
+        InjectedFailures.reset();
+    }
+
+    @After
+    public void after() {
+        InjectedFailures.reset();
+        super.tearDown();
+    }
+
+    @Test
+    public void allocateManyInOrder() throws Exception {
+        var sid = createSession(Durations.fromSeconds(10));
+
+        var cachedVm = allocateVm(sid, "S", null);
+        freeVm(cachedVm.vmId());
+        assertVmMetrics("S", 0, 0, 1);
+
+        mockCreatePod(this::mockGetPodByName);
+        mockCreatePod(this::mockGetPodByName);
+
+        var ops = withGrpcContext(() -> authorizedAllocatorBlockingStub.allocateMany(
+            allocateManyRequest(sid, "M", "S", "S"))).getOperationsList();
+        Assert.assertEquals(3, ops.size());
+
+        Assert.assertFalse(ops.get(0).getDone());
+        Assert.assertTrue(ops.get(1).getDone());
+        Assert.assertFalse(ops.get(2).getDone());
+
+        Assert.assertEquals(cachedVm.vmId(), vmId(ops.get(1)));
+        Assert.assertEquals("M", requireNonNull(vmDao.get(vmId(ops.get(0)), null)).poolLabel());
+        Assert.assertEquals("S", requireNonNull(vmDao.get(vmId(ops.get(2)), null)).poolLabel());
+
+        registerVm(vmId(ops.get(0)), clusterId("M"));
+        registerVm(vmId(ops.get(2)), clusterId("S"));
+
+        Assert.assertEquals(vmId(ops.get(0)), allocatedVmId(waitOpSuccess(ops.get(0))));
+        Assert.assertEquals(vmId(ops.get(2)), allocatedVmId(waitOpSuccess(ops.get(2))));
+
+        assertVmMetrics("S", 0, 2, 0);
+        assertVmMetrics("M", 0, 1, 0);
+    }
+
+    @Test
+    public void allocateManyFailedBatchReturnsCachedVms() throws Exception {
+        var sid = createSession(Durations.fromSeconds(10));
+
+        var cachedVm = allocateVm(sid, "S", null);
+        freeVm(cachedVm.vmId());
+        assertVmMetrics("S", 0, 0, 1);
+
+        // the first batch acquires the cached VM, the second one fails
+        var hook = InjectedFailures.FAIL_ALLOCATE_VMS.get(11);
+        hook.set(() -> hook.set(() -> {
+            throw new RuntimeException("Injected failure");
+        }));
+
+        try {
+            withGrpcContext(() -> authorizedAllocatorBlockingStub.allocateMany(allocateManyRequest(sid, "S", "S")));
+            Assert.fail();
+        } catch (StatusRuntimeException e) {
+            Assert.assertEquals(Status.Code.INTERNAL, e.getStatus().getCode());
+        }
+
+        assertVmMetrics("S", 0, 0, 1);
+
+        var vm = allocateVm(sid, "S", null);
+        Assert.assertEquals(cachedVm.vmId(), vm.vmId());
+    }
+
+    @Test
+    public void allocateManyIdempotency() throws Exception {
+        var sid = createSession(Durations.fromSeconds(10));
+
+        var cachedVm = allocateVm(sid, "S", null);
+        freeVm(cachedVm.vmId());
+
+        var stub = withIdempotencyKey(authorizedAllocatorBlockingStub, "key-1");
+
+        var ops1 = withGrpcContext(() -> stub.allocateMany(allocateManyRequest(sid, "S"))).getOperationsList();
+        var ops2 = withGrpcContext(() -> stub.allocateMany(allocateManyRequest(sid, "S"))).getOperationsList();
+
+        Assert.assertEquals(1, ops1.size());
+        Assert.assertEquals(ops1.get(0).getId(), ops2.get(0).getId());
+        Assert.assertEquals(cachedVm.vmId(), vmId(ops2.get(0)));
+
+        try {
+            withGrpcContext(() -> stub.allocateMany(allocateManyRequest(sid, "M")));
+            Assert.fail();
+        } catch (StatusRuntimeException e) {
+            Assert.assertEquals(Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+        }
+    }
+
+    @Test
+    public void freeManyReportsFailures() throws Exception {
+        var sid = createSession(Durations.fromSeconds(10));
+
+        var vm1 = allocateVm(sid, "S", null);
+        var vm2 = allocateVm(sid, "S", null);
+
+        var failures = withGrpcContext(() -> authorizedAllocatorBlockingStub.freeMany(
+            freeManyRequest(vm1.vmId(), "unknown-vm", vm2.vmId()))).getFailuresList();
+
+        Assert.assertEquals(1, failures.size());
+        Assert.assertEquals("unknown-vm", failures.get(0).getVmId());
+        Assert.assertEquals(Status.Code.NOT_FOUND.value(), failures.get(0).getCode());
+        // default session pool cache limit is 1, the second VM is deleted
+        assertVmMetrics("S", 0, 0, 1);
+
+        failures = withGrpcContext(() -> authorizedAllocatorBlockingStub.freeMany(
+            freeManyRequest(vm1.vmId()))).getFailuresList();
+
+        Assert.assertEquals(1, failures.size());
+        Assert.assertEquals(vm1.vmId(), failures.get(0).getVmId());
+        Assert.assertEquals(Status.Code.FAILED_PRECONDITION.value(), failures.get(0).getCode());
+        assertVmMetrics("S", 0, 0, 1);
+    }
+
+    @Test
+    public void freeManyRespectsCacheLimits() throws Exception {
+        var cacheLimits = allocatorContext.getBean(ServiceConfig.CacheLimits.class);
+        cacheLimits.setUserLimit(Integer.MAX_VALUE);
+        cacheLimits.setSessionLimit(Integer.MAX_VALUE);
+        cacheLimits.setSessionPoolLimit(null);
+        cacheLimits.setAnySessionPoolLimit(2);
+
+        var sid = createSession(Durations.fromSeconds(10));
+
+        var vm1 = allocateVm(sid, "S", null);
+        var vm2 = allocateVm(sid, "S", null);
+        var vm3 = allocateVm(sid, "S", null);
+        assertVmMetrics("S", 0, 3, 0);
+
+        // VMs released in the same transaction are counted against the limit
+        var failures = withGrpcContext(() -> authorizedAllocatorBlockingStub.freeMany(
+            freeManyRequest(vm1.vmId(), vm2.vmId(), vm3.vmId()))).getFailuresList();
+
+        Assert.assertEquals(List.of(), failures);
+        assertVmMetrics("S", 0, 0, 2);
+
+        var idle = 0;
+        for (var vm : List.of(vm1, vm2, vm3)) {
+            var current = vmDao.get(vm.vmId(), null);
+            if (current != null && current.status() == Vm.Status.IDLE) {
+                idle++;
+            }
+        }
+        Assert.assertEquals(2, idle);
+    }
+
+    private static VmAllocatorApi.AllocateManyRequest allocateManyRequest(String sessionId, String... pools) {
+        var request = VmAllocatorApi.AllocateManyRequest.newBuilder();
+        for (var pool : pools) {
+            request.addRequests(VmAllocatorApi.AllocateRequest.newBuilder()
+                .setSessionId(sessionId)
+                .setPoolLabel(pool)
+                .setZone(ZONE)
+                .setClusterType(VmAllocatorApi.AllocateRequest.ClusterType.USER)
+                .addWorkload(VmAllocatorApi.AllocateRequest.Workload.getDefaultInstance())
+                .build());
+        }
+        return request.build();
+    }
+
+    private static VmAllocatorApi.FreeManyRequest freeManyRequest(String... vmIds) {
+        return VmAllocatorApi.FreeManyRequest.newBuilder()
+            .addAllVmIds(List.of(vmIds))
+            .build();
+    }
+
+    private String clusterId(String pool) {
+        return withGrpcContext(() -> requireNonNull(clusterRegistry.findCluster(pool, ZONE, CLUSTER_TYPE)).clusterId());
+    }
+
+    private static String vmId(LongRunning.Operation op) throws InvalidProtocolBufferException {
+        return op.getMetadata().unpack(VmAllocatorApi.AllocateMetadata.class).getVmId();
+    }
+
+    private static String allocatedVmId(LongRunning.Operation op) throws InvalidProtocolBufferException {
+        return op.getResponse().unpack(VmAllocatorApi.AllocateResponse.class).getVmId();
+    }
+}
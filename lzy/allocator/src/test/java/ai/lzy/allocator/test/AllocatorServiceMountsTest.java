@@ -63,7 +63,8 @@ public class AllocatorServiceMountsTest extends AllocatorApiTestBase {
             "allocator.mount.enabled", "true",
             "allocator.mount.pod-image", "ubuntu",
             "allocator.mount.worker-mount-point", WORKER_MOUNT_POINT,
-            "allocator.mount.host-mount-point", HOST_MOUNT_POINT
+            "allocator.mount.host-mount-point", HOST_MOUNT_POINT,
+            "allocator.mount.batch-window", "500ms"
         );
     }
 
@@ -257,6 +258,50 @@ public class AllocatorServiceMountsTest extends AllocatorApiTestBase {
         Assert.assertEquals("", pvc.get().getSpec().getStorageClassName());
     }
 
+    @Test
+    public void mountBatchTest() throws Exception {
+        var sessionId = createSession(Durations.fromDays(10));
+        var allocatedVm = allocateVm(sessionId);
+        var vm = vmDao.get(allocatedVm.vmId(), null);
+        Assert.assertNotNull(vm);
+
+        for (int i = 0; i < 2; ++i) {
+            awaitResourceCreate(PersistentVolume.class, PERSISTENT_VOLUME_PATH);
+            awaitResourceCreate(PersistentVolumeClaim.class, PERSISTENT_VOLUME_CLAIM_PATH);
+        }
+        var updatedMountPod = mockCreatePod();
+        updatedMountPod.thenAccept(pod -> {
+            pod.setStatus(new PodStatusBuilder()
+                .withPhase(PodPhase.RUNNING.getPhase())
+                .build());
+            mockGetPod(pod);
+            mockGetPodByName(allocatedVm.podName());
+            mockGetPodByName(allocatedVm.podName());
+        });
+        mockDeletePods(HTTP_OK);
+
+        var mountOp1 = mountDisk(vm.vmId(), "/foo", "disk-42", 1);
+        var mountOp2 = mountDisk(vm.vmId(), "/bar", "disk-43", 1);
+        waitOpSuccess(mountOp1);
+        waitOpSuccess(mountOp2);
+
+        // both disks are attached by the single mount pod
+        var mountPod = updatedMountPod.get();
+        Assert.assertEquals(3, mountPod.getSpec().getVolumes().size());
+        Assert.assertEquals(3, mountPod.getSpec().getContainers().get(0).getVolumeMounts().size());
+
+        var updatedVm = vmDao.get(vm.vmId(), null);
+        Assert.assertEquals(getName(mountPod), updatedVm.instanceProperties().mountPodName());
+        Assert.assertEquals(1, updatedVm.instanceProperties().nextMountPodId());
+
+        var mounts = dynamicMountDao.getByVm(vm.vmId(), null);
+        Assert.assertEquals(2, mounts.size());
+        for (var mount : mounts) {
+            Assert.assertEquals(DynamicMount.State.READY, mount.state());
+            Assert.assertTrue(mount.mounted());
+        }
+    }
+
     @Test
     public void mountReadOnlySsdDiskTest() throws Exception {
         var sessionId = createSession(Durations.fromDays(10));
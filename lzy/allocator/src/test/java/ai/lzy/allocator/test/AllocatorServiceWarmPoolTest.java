@@ -0,0 +1,86 @@
+package ai.lzy.allocator.test;
+
+import ai.lzy.allocator.model.Vm;
+import ai.lzy.test.TimeUtils;
+import ai.lzy.v1.VmAllocatorApi;
+import com.google.protobuf.util.Durations;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ai.lzy.test.GrpcUtils.withGrpcContext;
+import static java.util.Objects.requireNonNull;
+
+public class AllocatorServiceWarmPoolTest extends AllocatorApiTestBase {
+
+    @After
+    public void after() {
+        super.tearDown();
+    }
+
+    @Test
+    public void replenishRegisterReleaseHit() throws Exception {
+        var sid = createWarmPoolSession(1);
+
+        // the requested VM and the warm one
+        mockCreatePod(this::mockGetPodByName);
+        var vm = allocateVm(sid, "S", null);
+
+        // metric is updated after the warm VM is committed
+        Assert.assertTrue(TimeUtils.waitFlagUp(() -> metrics.warmPoolAllocations.labels("S").get() == 1,
+            TIMEOUT_SEC, TimeUnit.SECONDS));
+        Assert.assertEquals(2, sessionVms(sid).size());
+        var warmVm = sessionVms(sid).stream()
+            .filter(v -> !v.vmId().equals(vm.vmId()))
+            .findFirst()
+            .orElseThrow();
+
+        Assert.assertEquals(Vm.Status.ALLOCATING, warmVm.status());
+        Assert.assertTrue(vmDao.isWarm(warmVm.vmId(), null));
+
+        // nobody waits for the warm VM, it is released to the session cache on register
+        var clusterId = withGrpcContext(() ->
+            requireNonNull(clusterRegistry.findCluster("S", ZONE, CLUSTER_TYPE)).clusterId());
+        registerVm(warmVm.vmId(), clusterId);
+        assertVmMetrics("S", -1, 1, 1, Duration.ofSeconds(TIMEOUT_SEC));
+
+        // the next allocation is served by the warm VM, and the pool is replenished again
+        mockCreatePod(this::mockGetPodByName);
+        var hit = allocateVm(sid, "S", null);
+        Assert.assertEquals(warmVm.vmId(), hit.vmId());
+        Assert.assertFalse(vmDao.isWarm(warmVm.vmId(), null));
+        Assert.assertEquals(1, (int) metrics.warmPoolHits.labels("S").get());
+
+        Assert.assertTrue(TimeUtils.waitFlagUp(() -> metrics.warmPoolAllocations.labels("S").get() == 2,
+            TIMEOUT_SEC, TimeUnit.SECONDS));
+        Assert.assertEquals(3, sessionVms(sid).size());
+    }
+
+    private String createWarmPoolSession(int warmPoolSize) {
+        var op = withGrpcContext(() ->
+            authorizedAllocatorBlockingStub.createSession(
+                VmAllocatorApi.CreateSessionRequest.newBuilder()
+                    .setOwner(idGenerator.generate("sid-"))
+                    .setCachePolicy(
+                        VmAllocatorApi.CachePolicy.newBuilder()
+                            .setIdleTimeout(Durations.fromSeconds(10))
+                            .setWarmPoolSize(warmPoolSize)
+                            .build())
+                    .build()));
+        Assert.assertTrue(op.getDone());
+        return Utils.extractSessionId(op);
+    }
+
+    private List<Vm> sessionVms(String sessionId) {
+        try {
+            return vmDao.getSessionVms(sessionId, null);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
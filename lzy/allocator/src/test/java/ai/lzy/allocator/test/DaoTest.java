@@ -232,6 +232,13 @@ public class DaoTest {
         final var vms2 = vmDao.listExpiredVms(100);
         Assert.assertEquals(1, vms2.size());
         Assert.assertEquals(vm.vmId(), vms2.get(0).vmId());
+        Assert.assertEquals(1, vmDao.countExpiredVms());
+
+        try (var tx = TransactionHandle.create(storage)) {
+            final var locked = vmDao.lockExpiredVms(100, tx);
+            Assert.assertEquals(1, locked.size());
+            Assert.assertEquals(vm.vmId(), locked.get(0).vmId());
+        }
 
         final var meta = Map.of("a", "b", "c", "d");
 
@@ -285,6 +292,126 @@ public class DaoTest {
         Assert.assertEquals(Set.of(vm.vmId(), vm2.vmId()), vmIds);
     }
 
+    @Test
+    public void testWarmVms() throws SQLException {
+        var session = createSession();
+        var warmVm = createVm(session);
+        var vm = createVm(session);
+
+        vmDao.markWarm(warmVm.vmId(), null);
+        Assert.assertTrue(vmDao.isWarm(warmVm.vmId(), null));
+        Assert.assertFalse(vmDao.isWarm(vm.vmId(), null));
+
+        // only warm VMs are counted while allocating
+        Assert.assertEquals(new VmDao.WarmPoolVms(0, 1), vmDao.countWarmPoolVms(warmVm.spec(), null));
+        Assert.assertEquals(new VmDao.CachedVms(1, 1, 1), vmDao.countWarmingVms(warmVm.spec(), "owner", null));
+
+        vmDao.setVmRunning(warmVm.vmId(), Map.of(), now().plus(Duration.ofDays(1)), null);
+        vmDao.release(warmVm.vmId(), now().plus(Duration.ofHours(1)), null);
+
+        Assert.assertEquals(new VmDao.WarmPoolVms(1, 0), vmDao.countWarmPoolVms(warmVm.spec(), null));
+        Assert.assertEquals(new VmDao.CachedVms(0, 0, 0), vmDao.countWarmingVms(warmVm.spec(), "owner", null));
+
+        // VMs are counted only if they can be acquired for the spec
+        var otherPoolSpec = new Vm.Spec("placeholder", session.sessionId(), "other-pool", "zone", List.of(),
+            List.of(), List.of(), null, ClusterRegistry.ClusterType.User);
+        Assert.assertEquals(new VmDao.WarmPoolVms(0, 0), vmDao.countWarmPoolVms(otherPoolSpec, null));
+
+        var otherWorkloadSpec = new Vm.Spec("placeholder", session.sessionId(), "pool", "zone", List.of(),
+            List.of(new Workload("wl", "other-image", Map.of(), List.of(), Map.of(), List.of())), List.of(), null,
+            ClusterRegistry.ClusterType.User);
+        Assert.assertEquals(new VmDao.WarmPoolVms(0, 0), vmDao.countWarmPoolVms(otherWorkloadSpec, null));
+
+        var acquired = vmDao.acquire(warmVm.spec(), null);
+        Assert.assertNotNull(acquired);
+        Assert.assertEquals(warmVm.vmId(), acquired.vmId());
+        Assert.assertTrue(vmDao.unmarkWarm(acquired.vmId(), null));
+        Assert.assertFalse(vmDao.unmarkWarm(acquired.vmId(), null));
+
+        vmDao.markWarm(vm.vmId(), null);
+        vmDao.cleanupVm(vm.vmId(), null);
+        Assert.assertFalse(vmDao.isWarm(vm.vmId(), null));
+    }
+
+    @Test
+    public void testAcquireMany() throws SQLException {
+        var session = createSession();
+        var vms = new ArrayList<Vm>();
+        for (int i = 0; i < 3; ++i) {
+            var vm = createVm(session);
+            vmDao.setVmRunning(vm.vmId(), Map.of(), now().plus(Duration.ofDays(1)), null);
+            vmDao.release(vm.vmId(), now().plus(Duration.ofHours(1)), null);
+            vms.add(vm);
+        }
+
+        var spec = vms.get(0).spec();
+
+        var acquired = vmDao.acquire(spec, 2, null);
+        Assert.assertEquals(2, acquired.size());
+        acquired.forEach(vm -> Assert.assertEquals(Vm.Status.IDLE, vm.status()));
+
+        // the rest is acquired, no more idle VMs
+        var rest = vmDao.acquire(spec, 2, null);
+        Assert.assertEquals(1, rest.size());
+        Assert.assertTrue(vmDao.acquire(spec, 2, null).isEmpty());
+
+        var acquiredIds = new HashSet<String>();
+        acquired.forEach(vm -> acquiredIds.add(vm.vmId()));
+        rest.forEach(vm -> acquiredIds.add(vm.vmId()));
+        Assert.assertEquals(3, acquiredIds.size());
+        vms.forEach(vm -> Assert.assertTrue(acquiredIds.contains(vm.vmId())));
+    }
+
+    @Test
+    public void testLockExpiredVmsSkipsLocked() throws SQLException {
+        var session = createSession();
+        var vmIds = new HashSet<String>();
+        for (int i = 0; i < 4; ++i) {
+            vmIds.add(createExpiredVm(session).vmId());
+        }
+
+        // two GC instances claim expired VMs concurrently, neither of them waits for the other
+        try (var tx1 = TransactionHandle.create(storage);
+             var tx2 = TransactionHandle.create(storage))
+        {
+            var claimed1 = vmDao.lockExpiredVms(2, tx1);
+            var claimed2 = vmDao.lockExpiredVms(100, tx2);
+            Assert.assertEquals(2, claimed1.size());
+            Assert.assertEquals(2, claimed2.size());
+
+            var claimedIds = new HashSet<String>();
+            claimed1.forEach(vm -> claimedIds.add(vm.vmId()));
+            claimed2.forEach(vm -> claimedIds.add(vm.vmId()));
+            Assert.assertEquals(vmIds, claimedIds);
+
+            // all expired VMs are locked
+            try (var tx3 = TransactionHandle.create(storage)) {
+                Assert.assertTrue(vmDao.lockExpiredVms(100, tx3).isEmpty());
+            }
+        }
+
+        // locks are released with the transactions
+        Assert.assertEquals(4, vmDao.countExpiredVms());
+    }
+
+    @Test
+    public void testCountZoneVms() throws SQLException {
+        var session = createSession();
+        var otherSession = createSession();
+
+        createVm(session);
+        var idleVm = createVm(session);
+        vmDao.setVmRunning(idleVm.vmId(), Map.of(), now().plus(Duration.ofDays(1)), null);
+        vmDao.release(idleVm.vmId(), now().plus(Duration.ofHours(1)), null);
+        createVm(otherSession);
+
+        Assert.assertEquals(List.of(new VmDao.ZoneVms("pool", "zone", 2, 1)),
+            vmDao.countZoneVms(List.of("pool"), session.sessionId(), null));
+        Assert.assertEquals(List.of(new VmDao.ZoneVms("pool", "zone", 2, 0)),
+            vmDao.countZoneVms(List.of("pool"), null, null));
+        Assert.assertTrue(vmDao.countZoneVms(List.of("other-pool"), session.sessionId(), null).isEmpty());
+    }
+
     private Vm createVm(Session session) throws SQLException {
         final var vmSpec = new Vm.Spec(
             "placeholder",
@@ -308,6 +435,13 @@ public class DaoTest {
         return vmDao.create(vmSpec, vmAllocState, null);
     }
 
+    private Vm createExpiredVm(Session session) throws SQLException {
+        var vm = createVm(session);
+        vmDao.setVmRunning(vm.vmId(), Map.of(), now().plus(Duration.ofDays(1)), null);
+        vmDao.release(vm.vmId(), now().minus(Duration.ofSeconds(10)), null);
+        return vm;
+    }
+
     private static Set<String> generateUuids(int n) {
         var res = new HashSet<String>(n);
         for (int i = 0; i < n; i++) {
@@ -0,0 +1,97 @@
+package ai.lzy.allocator.test;
+
+import ai.lzy.allocator.DbAwareMetrics;
+import ai.lzy.allocator.alloc.AllocationContext;
+import ai.lzy.allocator.alloc.VmAllocator;
+import ai.lzy.allocator.configs.ServiceConfig;
+import ai.lzy.allocator.gc.GarbageCollector;
+import ai.lzy.allocator.gc.dao.GcDao;
+import ai.lzy.allocator.model.Vm;
+import ai.lzy.longrunning.OperationsExecutor;
+import com.google.protobuf.util.Durations;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.mockito.Mockito.mock;
+
+public class GarbageCollectorTest extends AllocatorApiTestBase {
+
+    @Override
+    protected Map<String, Object> allocatorConfigOverrides() {
+        var overrides = new HashMap<>(super.allocatorConfigOverrides());
+        // the service GC must not touch VMs of the test
+        overrides.put("allocator.gc.initial-delay", "100m");
+        overrides.put("allocator.gc.cleanup-period", "100m");
+        return overrides;
+    }
+
+    @After
+    public void after() {
+        super.tearDown();
+    }
+
+    @Test
+    public void maxDeletingVmsCapsBacklog() throws Exception {
+        var cacheLimits = allocatorContext.getBean(ServiceConfig.CacheLimits.class);
+        cacheLimits.setUserLimit(Integer.MAX_VALUE);
+        cacheLimits.setSessionLimit(Integer.MAX_VALUE);
+        cacheLimits.setSessionPoolLimit(null);
+        cacheLimits.setAnySessionPoolLimit(Integer.MAX_VALUE);
+
+        var sid = createSession(Durations.fromMillis(1));
+        var vmIds = new ArrayList<String>();
+        for (int i = 0; i < 5; ++i) {
+            vmIds.add(allocateVm(sid, "S", null).vmId());
+        }
+        vmIds.forEach(this::freeVm);
+        Thread.sleep(100);
+        Assert.assertEquals(5, vmDao.countExpiredVms());
+
+        var gcConfig = new ServiceConfig.GcConfig();
+        gcConfig.setClaimPageSize(2);
+        gcConfig.setMaxDeletingVms(3);
+        gcConfig.setBacklogRetryDelay(Duration.ofHours(1));
+        gcConfig.setCleanupPeriod(Duration.ofHours(1));
+
+        // delete VM actions are not run, so claimed VMs stay DELETING
+        var ctx = allocatorContext.getBean(AllocationContext.class);
+        var gcContext = new AllocationContext(ctx.storage(), ctx.operationsDao(), ctx.vmDao(), ctx.sessionDao(),
+            mock(OperationsExecutor.class), ctx.subjectClient(), mock(VmAllocator.class), ctx.tunnelAllocator(),
+            ctx.metrics(), ctx.selfWorkerId(), ctx.mountHolderManager(), ctx.volumeManager(), ctx.dynamicMountDao(),
+            ctx.mountConfig(), ctx.mountBatcher(), ctx.networkPolicyManager());
+
+        var testGc = new GarbageCollector(allocatorContext.getBean(ServiceConfig.class), gcConfig,
+            allocatorContext.getBean(GcDao.class), gcContext, mock(DbAwareMetrics.class));
+        try {
+            testGc.forceRun(/* waitOps */ false);
+
+            Assert.assertEquals(Map.of(Vm.Status.DELETING, 3, Vm.Status.IDLE, 2), vmStatuses(vmIds));
+            Assert.assertEquals(2, vmDao.countExpiredVms());
+
+            // the rest stays expired until deleting VMs are gone
+            testGc.forceRun(/* waitOps */ false);
+
+            Assert.assertEquals(Map.of(Vm.Status.DELETING, 3, Vm.Status.IDLE, 2), vmStatuses(vmIds));
+            Assert.assertEquals(2, vmDao.countExpiredVms());
+        } finally {
+            testGc.shutdown(Duration.ZERO);
+        }
+    }
+
+    private Map<Vm.Status, Integer> vmStatuses(List<String> vmIds) throws Exception {
+        var statuses = new HashMap<Vm.Status, Integer>();
+        for (var vmId : vmIds) {
+            var vm = Objects.requireNonNull(vmDao.get(vmId, null));
+            statuses.merge(vm.status(), 1, Integer::sum);
+        }
+        return statuses;
+    }
+}
@@ -0,0 +1,206 @@
+package ai.lzy.allocator.test;
+
+import ai.lzy.allocator.alloc.impl.kuber.KuberLabels;
+import ai.lzy.allocator.alloc.impl.kuber.KuberPodCache;
+import ai.lzy.allocator.configs.ServiceConfig;
+import ai.lzy.allocator.vmpool.ClusterRegistry;
+import io.fabric8.kubernetes.api.model.NodeBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesCrudDispatcher;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.mockwebserver.Context;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.net.InetAddress;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static ai.lzy.allocator.alloc.impl.kuber.KuberVmAllocator.NAMESPACE_VALUE;
+import static ai.lzy.allocator.alloc.impl.kuber.KuberVmAllocator.VM_POD_APP_LABEL_VALUE;
+
+public class KuberPodCacheTest {
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(30);
+
+    private final ClusterRegistry.ClusterDescription cluster = new ClusterRegistry.ClusterDescription(
+        "cluster-1", "localhost", "", ClusterRegistry.ClusterType.User, Map.of());
+
+    private KubernetesMockServer kubernetesServer;
+    private KubernetesClient client;
+    private KuberPodCache podCache;
+
+    @Before
+    public void setUp() {
+        kubernetesServer = new KubernetesMockServer(new Context(), new MockWebServer(), new HashMap<>(),
+            new KubernetesCrudDispatcher(List.of()), false);
+        kubernetesServer.init(InetAddress.getLoopbackAddress(), 0);
+        client = kubernetesServer.createClient();
+
+        var kcf = new MockKuberClientFactory();
+        kcf.setClientSupplier(kubernetesServer::createClient);
+
+        var config = new ServiceConfig.KuberAllocator();
+        config.setEnabled(true);
+        config.setPodWatchEnabled(true);
+
+        podCache = new KuberPodCache(kcf, config);
+    }
+
+    @After
+    public void tearDown() {
+        podCache.shutdown();
+        client.close();
+        kubernetesServer.destroy();
+    }
+
+    @Test
+    public void podPhaseChange() throws Exception {
+        client.pods().inNamespace(NAMESPACE_VALUE).resource(vmPod("lzy-vm-1", "Pending")).create();
+
+        var pod = waitFor(() -> podCache.getPod(cluster, NAMESPACE_VALUE, "lzy-vm-1"));
+        Assert.assertEquals("Pending", pod.getStatus().getPhase());
+
+        var changed = new CountDownLatch(1);
+        Assert.assertTrue(podCache.addPodListener(cluster, "lzy-vm-1", changed::countDown));
+
+        client.pods().inNamespace(NAMESPACE_VALUE).withName("lzy-vm-1").edit(p -> new PodBuilder(p)
+            .editOrNewStatus()
+                .withPhase("Failed")
+            .endStatus()
+            .build());
+
+        Assert.assertTrue(changed.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals("Failed", podCache.getPod(cluster, NAMESPACE_VALUE, "lzy-vm-1").getStatus().getPhase());
+
+        podCache.removePodListener(cluster.clusterId(), "lzy-vm-1");
+    }
+
+    @Test
+    public void listenersAreKeyedByCluster() throws Exception {
+        var otherCluster = new ClusterRegistry.ClusterDescription(
+            "cluster-2", "localhost", "", ClusterRegistry.ClusterType.User, Map.of());
+
+        client.pods().inNamespace(NAMESPACE_VALUE).resource(vmPod("lzy-vm-1", "Pending")).create();
+        waitFor(() -> podCache.getPod(cluster, NAMESPACE_VALUE, "lzy-vm-1"));
+        waitFor(() -> podCache.getPod(otherCluster, NAMESPACE_VALUE, "lzy-vm-1"));
+
+        // both clusters watch the same mock server, only the listener of the first cluster is removed
+        var changed = new CountDownLatch(1);
+        var otherChanged = new CountDownLatch(1);
+        Assert.assertTrue(podCache.addPodListener(cluster, "lzy-vm-1", changed::countDown));
+        Assert.assertTrue(podCache.addPodListener(otherCluster, "lzy-vm-1", otherChanged::countDown));
+        podCache.removePodListener(cluster.clusterId(), "lzy-vm-1");
+
+        client.pods().inNamespace(NAMESPACE_VALUE).withName("lzy-vm-1").edit(p -> new PodBuilder(p)
+            .editOrNewStatus()
+                .withPhase("Running")
+            .endStatus()
+            .build());
+
+        Assert.assertTrue(otherChanged.await(10, TimeUnit.SECONDS));
+        Assert.assertFalse(changed.await(1, TimeUnit.SECONDS));
+
+        podCache.removePodListener(otherCluster.clusterId(), "lzy-vm-1");
+    }
+
+    @Test
+    public void backoffAfterFailedStart() {
+        var config = new ServiceConfig.KuberAllocator();
+        config.setEnabled(true);
+        config.setPodWatchEnabled(true);
+
+        var attempts = new AtomicInteger(0);
+        var kcf = new MockKuberClientFactory();
+        kcf.setClientSupplier(() -> {
+            attempts.incrementAndGet();
+            throw new RuntimeException("Cluster is unavailable");
+        });
+
+        var failingCache = new KuberPodCache(kcf, config);
+        try {
+            for (int i = 0; i < 10; ++i) {
+                Assert.assertNull(failingCache.getPod(cluster, NAMESPACE_VALUE, "lzy-vm-1"));
+                Assert.assertFalse(failingCache.addPodListener(cluster, "lzy-vm-1", () -> {}));
+            }
+            // the next start attempt is made only after the backoff
+            Assert.assertEquals(1, attempts.get());
+        } finally {
+            failingCache.shutdown();
+        }
+    }
+
+    @Test
+    public void nodesAndForeignPods() throws Exception {
+        client.nodes().resource(new NodeBuilder()
+            .withNewMetadata()
+                .withName("node-1")
+            .endMetadata()
+            .withNewSpec()
+                .withProviderID("yandex://instance-1")
+            .endSpec()
+            .build()).create();
+        client.pods().inNamespace(NAMESPACE_VALUE).resource(new PodBuilder()
+            .withNewMetadata()
+                .withName("lzy-tunnel-1")
+                .withLabels(Map.of(KuberLabels.LZY_APP_LABEL, "tunnel"))
+            .endMetadata()
+            .build()).create();
+
+        var node = waitFor(() -> podCache.getNode(cluster, "node-1"));
+        Assert.assertEquals("yandex://instance-1", node.getSpec().getProviderID());
+
+        // only VM pods are watched, others must be requested directly
+        Assert.assertNull(podCache.getPod(cluster, NAMESPACE_VALUE, "lzy-tunnel-1"));
+        Assert.assertNull(podCache.getPod(cluster, NAMESPACE_VALUE, "lzy-vm-unknown"));
+    }
+
+    @Test
+    public void disabled() {
+        var config = new ServiceConfig.KuberAllocator();
+        config.setEnabled(true);
+        config.setPodWatchEnabled(false);
+
+        var kcf = new MockKuberClientFactory();
+        kcf.setClientSupplier(kubernetesServer::createClient);
+
+        var disabledCache = new KuberPodCache(kcf, config);
+        Assert.assertNull(disabledCache.getNode(cluster, "node-1"));
+        Assert.assertFalse(disabledCache.addPodListener(cluster, "lzy-vm-1", () -> {}));
+        disabledCache.shutdown();
+    }
+
+    private static Pod vmPod(String name, String phase) {
+        return new PodBuilder()
+            .withNewMetadata()
+                .withName(name)
+                .withLabels(Map.of(KuberLabels.LZY_APP_LABEL, VM_POD_APP_LABEL_VALUE))
+            .endMetadata()
+            .withNewStatus()
+                .withPhase(phase)
+            .endStatus()
+            .build();
+    }
+
+    private static <T> T waitFor(Supplier<T> supplier) throws InterruptedException {
+        var result = supplier.get();
+        while (result == null) {
+            TimeUnit.MILLISECONDS.sleep(100);
+            result = supplier.get();
+        }
+        return result;
+    }
+}
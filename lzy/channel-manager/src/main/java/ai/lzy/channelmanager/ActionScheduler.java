@@ -3,17 +3,22 @@ package ai.lzy.channelmanager;
 import ai.lzy.channelmanager.db.ChannelManagerDataSource;
 import ai.lzy.channelmanager.db.TransferDao;
 import ai.lzy.channelmanager.grpc.SlotConnectionManager;
+import ai.lzy.channelmanager.grpc.SlotGrpcConnection;
 import ai.lzy.channelmanager.model.Peer;
 import ai.lzy.model.db.TransactionHandle;
 import ai.lzy.model.db.exceptions.ConcurrentModificationException;
+import ai.lzy.util.grpc.GrpcUtils.RetryConfig;
 import ai.lzy.v1.slots.LSA;
+import io.grpc.Status;
 import jakarta.annotation.Nullable;
 import jakarta.inject.Singleton;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import static ai.lzy.model.db.DbHelper.withRetries;
@@ -23,6 +28,15 @@ import static ai.lzy.util.grpc.GrpcUtils.withIdempotencyKey;
 public class ActionScheduler {
     private static final Logger LOG = LogManager.getLogger(ActionScheduler.class);
 
+    // slot is not reachable yet or is overloaded, the call is not executed in both cases
+    private static final RetryConfig START_TRANSFER_RETRY_CONFIG = new RetryConfig(
+        5, e -> e.getStatus().getCode() == Status.Code.UNAVAILABLE
+            || e.getStatus().getCode() == Status.Code.RESOURCE_EXHAUSTED,
+        Duration.ofMillis(100), Duration.ofSeconds(2), 2.0);
+
+    private static final int ABORT_WORKFLOW_ATTEMPTS = 5;
+    private static final Duration ABORT_WORKFLOW_RETRY_DELAY = Duration.ofSeconds(10);
+
     private final ChannelManagerDataSource storage;
     private final TransferDao connections;
     private final SlotConnectionManager connectionManager;
@@ -60,48 +74,112 @@ public class ActionScheduler {
 
     private void startTransfer(String transferId, Peer from, Peer to, @Nullable String idempotencyKey) {
         LOG.info("Connecting slot: {} to peer: {}", from, to);
+
+        final SlotGrpcConnection connection;
         try {
             var url = from.description().getSlotPeer().getPeerUrl();
+            connection = connectionManager.getConnection(new URI(url));
+        } catch (Exception e) {
+            onStartTransferFailed(transferId, from, to, idempotencyKey, e);
+            return;
+        }
 
-            var uri = new URI(url);
+        var client = idempotencyKey != null
+            ? withIdempotencyKey(connection.SlotsFutureApi(), idempotencyKey)
+            : connection.SlotsFutureApi();
+
+        var request = LSA.StartTransferRequest.newBuilder()
+            .setSlotId(to.id())
+            .setPeer(from.description())
+            .build();
+
+        // don't block executor thread while waiting for the slot or between retries
+        connection.asyncClient()
+            .call("startTransfer", START_TRANSFER_RETRY_CONFIG, () -> client.startTransfer(request))
+            .whenCompleteAsync((response, error) -> {
+                if (error != null) {
+                    onStartTransferFailed(transferId, from, to, idempotencyKey, error);
+                    return;
+                }
 
-            var connection = connectionManager.getConnection(uri);
+                try {
+                    markTransferActive(transferId, from, idempotencyKey);
+                } catch (Exception e) {
+                    onStartTransferFailed(transferId, from, to, idempotencyKey, e);
+                }
+            }, operationExecutor);
+    }
 
-            var client = idempotencyKey != null
-                ? withIdempotencyKey(connection.SlotsApi(), idempotencyKey)
-                : connection.SlotsApi();
+    private void markTransferActive(String transferId, Peer from, @Nullable String idempotencyKey) throws Exception {
+        withRetries(LOG, () -> {
+            try (var tx = TransactionHandle.create(storage)) {
+                var transfer = connections.get(transferId, from.channelId(), tx);
 
-            client.startTransfer(LSA.StartTransferRequest.newBuilder()
-                .setSlotId(to.id())
-                .setPeer(from.description())
-                .build());
+                if (transfer != null && transfer.state().equals(TransferDao.State.PENDING)) {
+                    connections.markActive(transferId, from.channelId(), idempotencyKey, tx);
+                } else {
+                    throw new ConcurrentModificationException("Unexpected state of transfer", null);
+                }
 
-            withRetries(LOG, () -> {
-                try (var tx = TransactionHandle.create(storage)) {
-                    var transfer = connections.get(transferId, from.channelId(), tx);
+                tx.commit();
+            }
+        });
+    }
 
-                    if (transfer != null && transfer.state().equals(TransferDao.State.PENDING)) {
-                        connections.markActive(transferId, from.channelId(), idempotencyKey, tx);
-                    } else {
-                        throw new ConcurrentModificationException("Unexpected state of transfer", null);
-                    }
+    /**
+     * Runs in completion callbacks, so it must not throw: nobody waits for the result
+     */
+    private void onStartTransferFailed(String transferId, Peer from, Peer to, @Nullable String idempotencyKey,
+                                       Throwable e)
+    {
+        var reason = "(Connecting slot: %s to peer: %s): Cannot connect.".formatted(from, to);
 
-                    tx.commit();
+        LOG.error(reason, e);
+        try {
+            markTransferFailed(transferId, from, reason, idempotencyKey);
+        } catch (Exception ex) {
+            LOG.error("Cannot mark transfer {} failed", transferId, ex);
+        }
+
+        abortWorkflow(from, reason, idempotencyKey, 1);
+    }
+
+    private void markTransferFailed(String transferId, Peer from, String reason, @Nullable String idempotencyKey)
+        throws Exception
+    {
+        withRetries(LOG, () -> {
+            try (var tx = TransactionHandle.create(storage)) {
+                var transfer = connections.get(transferId, from.channelId(), tx);
+
+                // pending transfer is not restarted by anyone, completed one is left as is
+                if (transfer != null && transfer.state().equals(TransferDao.State.PENDING)) {
+                    connections.markFailed(transferId, from.channelId(), reason, idempotencyKey, tx);
                 }
-            });
-        } catch (Exception e) {
 
-            var reason = "(Connecting slot: %s to peer: %s): Cannot connect.".formatted(from, to);
+                tx.commit();
+            }
+        });
+    }
+
+    private void abortWorkflow(Peer from, String reason, @Nullable String idempotencyKey, int attempt) {
+        try {
+            withRetries(LOG, () -> lzyServiceClient.destroyChannelAndWorkflow(from.channelId(), reason,
+                idempotencyKey, null));
+        } catch (Exception e) {
+            if (attempt >= ABORT_WORKFLOW_ATTEMPTS) {
+                LOG.error("Cannot abort workflow of channel {}, give up after {} attempts",
+                    from.channelId(), attempt, e);
+                return;
+            }
 
-            LOG.error(reason, e);
+            LOG.error("Cannot abort workflow of channel {}, retry in {}", from.channelId(),
+                ABORT_WORKFLOW_RETRY_DELAY, e);
             try {
-                withRetries(LOG, () -> lzyServiceClient.destroyChannelAndWorkflow(from.channelId(), reason,
-                    idempotencyKey, null));
-            } catch (Exception ex) {
-                LOG.error("Cannot abort workflow", ex);
-                throw new RuntimeException(ex);
+                operationExecutor.schedule(() -> abortWorkflow(from, reason, idempotencyKey, attempt + 1),
+                    ABORT_WORKFLOW_RETRY_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ex) {
+                LOG.error("Cannot schedule abort of workflow of channel {}: {}", from.channelId(), ex.getMessage());
             }
         }
-
     }
 }
@@ -7,6 +7,10 @@ import ai.lzy.iam.grpc.client.AccessServiceGrpcClient;
 import ai.lzy.iam.grpc.client.SubjectServiceGrpcClient;
 import ai.lzy.longrunning.OperationsService;
 import ai.lzy.longrunning.dao.OperationDao;
+import ai.lzy.metrics.DummyMetricReporter;
+import ai.lzy.metrics.LogMetricReporter;
+import ai.lzy.metrics.MetricReporter;
+import ai.lzy.metrics.PrometheusMetricReporter;
 import ai.lzy.util.auth.credentials.RenewableJwt;
 import ai.lzy.util.grpc.GrpcUtils;
 import ai.lzy.v1.iam.LzyAuthenticateServiceGrpc;
@@ -15,6 +19,7 @@ import io.micronaut.context.annotation.Bean;
 import io.micronaut.context.annotation.Factory;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
+import org.apache.logging.log4j.Level;
 
 @Factory
 public class BeanFactory {
@@ -63,4 +68,16 @@ public class BeanFactory {
     public ManagedChannel workflowGrpcChannel(ChannelManagerConfig config) {
         return GrpcUtils.newGrpcChannel(config.getLzyServiceAddress(), LzyAuthenticateServiceGrpc.SERVICE_NAME);
     }
+
+    @Singleton
+    @Bean(preDestroy = "stop")
+    @Named("ChannelManagerMetricReporter")
+    public MetricReporter metricReporter(ChannelManagerConfig.MetricsConfig config) {
+        return switch (config.getKind()) {
+            case Disabled -> new DummyMetricReporter();
+            case Logger -> new LogMetricReporter(config.getLoggerName(),
+                Level.valueOf(config.getLoggerLevel().toUpperCase()));
+            case Prometheus -> new PrometheusMetricReporter(config.getPort());
+        };
+    }
 }
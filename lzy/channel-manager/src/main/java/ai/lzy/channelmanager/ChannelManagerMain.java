@@ -3,12 +3,14 @@ package ai.lzy.channelmanager;
 import ai.lzy.channelmanager.config.ChannelManagerConfig;
 import ai.lzy.channelmanager.services.ChannelService;
 import ai.lzy.channelmanager.services.SlotsService;
+import ai.lzy.iam.clients.CachingAccessClient;
 import ai.lzy.iam.grpc.client.AccessServiceGrpcClient;
 import ai.lzy.iam.grpc.client.AuthenticateServiceGrpcClient;
 import ai.lzy.iam.grpc.interceptors.AccessServerInterceptor;
 import ai.lzy.iam.grpc.interceptors.AuthServerInterceptor;
 import ai.lzy.iam.resources.AuthPermission;
 import ai.lzy.iam.resources.impl.Root;
+import ai.lzy.metrics.MetricReporter;
 import com.google.common.net.HostAndPort;
 import io.grpc.ManagedChannel;
 import io.grpc.Server;
@@ -33,13 +35,16 @@ public class ChannelManagerMain {
 
     private final Server server;
     private final ActionScheduler action;
+    private final MetricReporter metricReporter;
 
     public ChannelManagerMain(
         ChannelManagerConfig config,
         ChannelService channelService, SlotsService slotsService,
-        @Named("ChannelManagerIamGrpcChannel") ManagedChannel iamChannel, ActionScheduler action)
+        @Named("ChannelManagerIamGrpcChannel") ManagedChannel iamChannel, ActionScheduler action,
+        @Named("ChannelManagerMetricReporter") MetricReporter metricReporter)
     {
         this.action = action;
+        this.metricReporter = metricReporter;
         LOG.info("Starting ChannelManager service with config: {}", config);
 
         final var authInterceptor = new AuthServerInterceptor(
@@ -48,7 +53,7 @@ public class ChannelManagerMain {
         final var channelManagerAddress = HostAndPort.fromString(config.getAddress());
 
         final var internalOnly = new AccessServerInterceptor(
-            new AccessServiceGrpcClient(SERVICE_NAME, iamChannel),
+            CachingAccessClient.wrap(new AccessServiceGrpcClient(SERVICE_NAME, iamChannel), config.getIam()),
             config.getIam().createRenewableToken()::get, Root.INSTANCE, AuthPermission.INTERNAL_AUTHORIZE);
 
         this.server = newGrpcServer(channelManagerAddress, authInterceptor)
@@ -59,6 +64,7 @@ public class ChannelManagerMain {
 
     public void start() {
         try {
+            metricReporter.start();
             server.start();
             action.restoreActions();
             LOG.info("Channel manager started, listening on {}", server.getPort());
@@ -70,6 +76,7 @@ public class ChannelManagerMain {
 
     public void stop() {
         server.shutdown();
+        metricReporter.stop();
     }
 
     public void awaitTermination() throws InterruptedException {
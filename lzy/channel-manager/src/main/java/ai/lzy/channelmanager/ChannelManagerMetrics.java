@@ -0,0 +1,51 @@
+package ai.lzy.channelmanager;
+
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+
+/**
+ * Channel manager metrics. Collectors are registered in the default registry with the bean and are removed
+ * with it, so the registry is not cleared and keeps metrics of shared clients (e.g. grpc).
+ */
+@Singleton
+public class ChannelManagerMetrics {
+    private static final String CHANNEL_MANAGER = "channel_manager";
+
+    public final Counter channelCacheHits = Counter
+        .build("channel_cache_hits", "Channels cache hits, i.e. saved db reads")
+        .subsystem(CHANNEL_MANAGER)
+        .register();
+
+    public final Counter channelCacheMisses = Counter
+        .build("channel_cache_misses", "Channels cache misses")
+        .subsystem(CHANNEL_MANAGER)
+        .register();
+
+    public final Gauge channelCacheSize = Gauge
+        .build("channel_cache_size", "Channels cache size")
+        .subsystem(CHANNEL_MANAGER)
+        .register();
+
+    public final Counter accessCacheHits = Counter
+        .build("access_cache_hits", "Access decisions cache hits, i.e. saved IAM calls")
+        .subsystem(CHANNEL_MANAGER)
+        .register();
+
+    public final Counter accessCacheMisses = Counter
+        .build("access_cache_misses", "Access decisions cache misses")
+        .subsystem(CHANNEL_MANAGER)
+        .register();
+
+    @PreDestroy
+    public void unregister() {
+        var registry = CollectorRegistry.defaultRegistry;
+        registry.unregister(channelCacheHits);
+        registry.unregister(channelCacheMisses);
+        registry.unregister(channelCacheSize);
+        registry.unregister(accessCacheHits);
+        registry.unregister(accessCacheMisses);
+    }
+}
@@ -1,38 +1,67 @@
 package ai.lzy.channelmanager.access;
 
+import ai.lzy.channelmanager.ChannelManagerMetrics;
+import ai.lzy.channelmanager.config.ChannelManagerConfig;
 import ai.lzy.iam.clients.AccessClient;
 import ai.lzy.iam.clients.SubjectServiceClient;
 import ai.lzy.iam.resources.AuthPermission;
 import ai.lzy.iam.resources.impl.Workflow;
 import ai.lzy.util.auth.exceptions.AuthNotFoundException;
 import ai.lzy.util.auth.exceptions.AuthPermissionDeniedException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 
 @Singleton
 public class IamAccessManager {
+    private static final long ACCESS_CACHE_SIZE = 10_000;
 
     private final SubjectServiceClient iamSubjectClient;
     private final AccessClient iamAccessClient;
+    private final ChannelManagerMetrics metrics;
+
+    // granted decisions only, so revoked access is applied after ttl, and granted one is applied immediately
+    private final Cache<AccessKey, Boolean> grantedAccess;
 
     @Inject
     public IamAccessManager(@Named("ChannelManagerIamSubjectClient") SubjectServiceClient subjectClient,
-                            @Named("ChannelManagerIamAccessClient") AccessClient iamAccessClient)
+                            @Named("ChannelManagerIamAccessClient") AccessClient iamAccessClient,
+                            ChannelManagerConfig config, ChannelManagerMetrics metrics)
     {
         this.iamSubjectClient = subjectClient;
         this.iamAccessClient = iamAccessClient;
+        this.metrics = metrics;
+        this.grantedAccess = CacheBuilder.newBuilder()
+            .maximumSize(ACCESS_CACHE_SIZE)
+            .expireAfterWrite(config.getAccessCacheTtl())
+            .build();
     }
 
     public boolean checkAccess(String subjId, String userId, String workflowName, AuthPermission permission) {
+        var key = new AccessKey(subjId, userId, workflowName, permission);
+        if (grantedAccess.getIfPresent(key) != null) {
+            metrics.accessCacheHits.inc();
+            return true;
+        }
+        metrics.accessCacheMisses.inc();
 
         final var subj = iamSubjectClient.getSubject(subjId);
         final var resource = new Workflow(userId + "/" + workflowName);
 
+        final boolean granted;
         try {
-            return iamAccessClient.hasResourcePermission(subj, resource, permission);
+            granted = iamAccessClient.hasResourcePermission(subj, resource, permission);
         } catch (AuthNotFoundException | AuthPermissionDeniedException e) {
             return false;
         }
+
+        if (granted) {
+            grantedAccess.put(key, true);
+        }
+        return granted;
     }
+
+    private record AccessKey(String subjId, String userId, String workflowName, AuthPermission permission) {}
 }
@@ -7,6 +7,8 @@ import io.micronaut.context.annotation.ConfigurationProperties;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.Duration;
+
 @Getter
 @Setter
 @ConfigurationProperties("channel-manager")
@@ -17,6 +19,14 @@ public final class ChannelManagerConfig {
     private int lockBucketsCount = 256;
     private int executorThreadsCount = 5;
 
+    // channels are immutable, cached ones are dropped on destroy by this instance,
+    // ttl bounds the lifetime of channels destroyed by other instances
+    private int channelCacheSize = 10_000;
+    private Duration channelCacheTtl = Duration.ofMinutes(5);
+
+    // lifetime of granted access decisions
+    private Duration accessCacheTtl = Duration.ofSeconds(10);
+
     @ConfigurationBuilder("iam")
     private final IamClientConfiguration iam = new IamClientConfiguration();
 
@@ -34,9 +44,28 @@ public final class ChannelManagerConfig {
                ", stubSlotApiAddress=" + stubSlotApiAddress +
                ", lockBucketsCount=" + lockBucketsCount +
                ", executorThreadsCount=" + executorThreadsCount +
+               ", channelCacheSize=" + channelCacheSize +
+               ", channelCacheTtl=" + channelCacheTtl +
+               ", accessCacheTtl=" + accessCacheTtl +
                ", connections=" + connections +
                ", database=" + database +
                ", iam=" + iam +
                '}';
     }
+
+    public enum MetricsKind {
+        Disabled,
+        Logger,
+        Prometheus,
+    }
+
+    @Getter
+    @Setter
+    @ConfigurationProperties("metrics")
+    public static final class MetricsConfig {
+        private MetricsKind kind = MetricsKind.Disabled;
+        private int port = 17080;
+        private String loggerName = "LogMetricReporter";
+        private String loggerLevel = "info";
+    }
 }
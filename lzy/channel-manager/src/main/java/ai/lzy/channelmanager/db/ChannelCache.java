@@ -0,0 +1,88 @@
+package ai.lzy.channelmanager.db;
+
+import ai.lzy.channelmanager.ChannelManagerMetrics;
+import ai.lzy.channelmanager.config.ChannelManagerConfig;
+import ai.lzy.channelmanager.model.Channel;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.annotation.Nullable;
+import jakarta.inject.Singleton;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-memory cache of channels by id.
+ * Channels are not changed after creation, so cached channel must be invalidated only when it is destroyed.
+ * Channel loaded from db is put only if nothing was invalidated during the load, otherwise a load which
+ * started before destroy could put the destroyed channel back for the whole TTL.
+ */
+@Singleton
+public class ChannelCache {
+    private static final Logger LOG = LogManager.getLogger(ChannelCache.class);
+
+    private final Cache<String, Channel> channels;
+    private final ChannelManagerMetrics metrics;
+    // incremented by every invalidation
+    private final AtomicLong version = new AtomicLong(0);
+
+    public ChannelCache(ChannelManagerConfig config, ChannelManagerMetrics metrics) {
+        this.channels = CacheBuilder.newBuilder()
+            .maximumSize(config.getChannelCacheSize())
+            .expireAfterWrite(config.getChannelCacheTtl())
+            .build();
+        this.metrics = metrics;
+    }
+
+    @Nullable
+    public Channel get(String channelId) {
+        var channel = channels.getIfPresent(channelId);
+        if (channel != null) {
+            metrics.channelCacheHits.inc();
+        } else {
+            metrics.channelCacheMisses.inc();
+        }
+        return channel;
+    }
+
+    /**
+     * Must be taken before the channel is loaded from db, see {@link #put(Channel, long)}
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Puts channel loaded from db, if no channels were invalidated since the given version
+     */
+    public void put(Channel channel, long loadedAtVersion) {
+        if (version.get() != loadedAtVersion) {
+            return;
+        }
+
+        channels.put(channel.id(), channel);
+        // invalidation between the check and the put doesn't see the channel
+        if (version.get() != loadedAtVersion) {
+            channels.invalidate(channel.id());
+        }
+        metrics.channelCacheSize.set(channels.size());
+    }
+
+    /**
+     * Must be called after the channel drop is committed
+     */
+    public void invalidate(String channelId) {
+        LOG.debug("Invalidate cached channel {}", channelId);
+        version.incrementAndGet();
+        channels.invalidate(channelId);
+        metrics.channelCacheSize.set(channels.size());
+    }
+
+    public void invalidateExecution(String executionId) {
+        LOG.debug("Invalidate cached channels of execution {}", executionId);
+        version.incrementAndGet();
+        channels.asMap().values().removeIf(channel -> channel.executionId().equals(executionId));
+        metrics.channelCacheSize.set(channels.size());
+    }
+}
@@ -7,6 +7,7 @@ import ai.lzy.v1.common.LMD;
 import jakarta.annotation.Nullable;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 
 public interface ChannelDao {
@@ -14,6 +15,11 @@ public interface ChannelDao {
                    @Nullable LMD.DataScheme dataScheme, @Nullable String storageProducerUri,
                    @Nullable String storageConsumerUri, @Nullable TransactionHandle tx) throws SQLException;
 
+    /**
+     * Inserts all channels with a single multi-row statement
+     */
+    void createMany(List<Channel> channels, @Nullable TransactionHandle tx) throws SQLException;
+
     @Nullable
     Channel drop(String channelId, @Nullable TransactionHandle tx) throws SQLException;
 
@@ -23,6 +29,12 @@ public interface ChannelDao {
     Channel find(String userId, String executionId, @Nullable String storageProducerUri,
                  @Nullable String storageConsumerUri, @Nullable TransactionHandle tx) throws SQLException;
 
+    /**
+     * Finds channels of execution with one of given uris as storage producer or storage consumer
+     */
+    List<Channel> findByStorageUris(String userId, String executionId, Collection<String> storageUris,
+                                    @Nullable TransactionHandle tx) throws SQLException;
+
     @Nullable
     Channel get(String channelId, @Nullable TransactionHandle tx) throws SQLException;
 
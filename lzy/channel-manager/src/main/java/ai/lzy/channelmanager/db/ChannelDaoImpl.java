@@ -17,6 +17,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -39,6 +40,12 @@ public class ChannelDaoImpl implements ChannelDao {
             AND storage_consumer_uri IS NOT DISTINCT FROM ?
         """.formatted(FIELDS);
 
+    private static final String FIND_CHANNELS_BY_STORAGE_URIS = """
+        SELECT %s FROM channels
+        WHERE owner_id = ? AND execution_id = ?
+            AND (storage_producer_uri = ANY(?) OR storage_consumer_uri = ANY(?))
+        """.formatted(FIELDS);
+
     private static final String DELETE_FROM_CHANNELS = """
         DELETE FROM channels CASCADE
         WHERE id = ?
@@ -50,6 +57,11 @@ public class ChannelDaoImpl implements ChannelDao {
         VALUES (?, ?, ?, ?, ?, ?, ?)
         """.formatted(FIELDS);
 
+    private static final String INSERT_MANY_INTO_CHANNELS = """
+        INSERT INTO channels (%s)
+        SELECT * FROM unnest(?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[])
+        """.formatted(FIELDS);
+
     private static final String CHANNEL_FIELDS = """
         channels.id, channels.owner_id, channels.execution_id, channels.workflow_name, channels.data_scheme_json,
         channels.storage_producer_uri, channels.storage_consumer_uri
@@ -91,6 +103,50 @@ public class ChannelDaoImpl implements ChannelDao {
         });
     }
 
+    @Override
+    public void createMany(List<Channel> channels, @Nullable TransactionHandle tx) throws SQLException {
+        if (channels.isEmpty()) {
+            return;
+        }
+
+        var ids = new String[channels.size()];
+        var userIds = new String[channels.size()];
+        var executionIds = new String[channels.size()];
+        var workflowNames = new String[channels.size()];
+        var dataSchemes = new String[channels.size()];
+        var storageProducerUris = new String[channels.size()];
+        var storageConsumerUris = new String[channels.size()];
+
+        for (int i = 0; i < channels.size(); ++i) {
+            var channel = channels.get(i);
+            ids[i] = channel.id();
+            userIds[i] = channel.userId();
+            executionIds[i] = channel.executionId();
+            workflowNames[i] = channel.workflowName();
+            try {
+                dataSchemes[i] = channel.dataScheme() != null ? JsonFormat.printer().print(channel.dataScheme()) : null;
+            } catch (InvalidProtocolBufferException e) {
+                LOG.error("Cannot serialize dataScheme into json: ", e);
+                throw new RuntimeException(e);
+            }
+            storageProducerUris[i] = channel.storageProducerUri();
+            storageConsumerUris[i] = channel.storageConsumerUri();
+        }
+
+        DbOperation.execute(tx, storage, connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_MANY_INTO_CHANNELS)) {
+                ps.setArray(1, connection.createArrayOf("text", ids));
+                ps.setArray(2, connection.createArrayOf("text", userIds));
+                ps.setArray(3, connection.createArrayOf("text", executionIds));
+                ps.setArray(4, connection.createArrayOf("text", workflowNames));
+                ps.setArray(5, connection.createArrayOf("text", dataSchemes));
+                ps.setArray(6, connection.createArrayOf("text", storageProducerUris));
+                ps.setArray(7, connection.createArrayOf("text", storageConsumerUris));
+                ps.execute();
+            }
+        });
+    }
+
     @Override
     @Nullable
     public Channel drop(String id, @Nullable TransactionHandle tx) throws SQLException {
@@ -130,6 +186,32 @@ public class ChannelDaoImpl implements ChannelDao {
         });
     }
 
+    @Override
+    public List<Channel> findByStorageUris(String userId, String executionId, Collection<String> storageUris,
+                                           @Nullable TransactionHandle tx) throws SQLException
+    {
+        if (storageUris.isEmpty()) {
+            return List.of();
+        }
+
+        return DbOperation.execute(tx, storage, connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(FIND_CHANNELS_BY_STORAGE_URIS)) {
+                var uris = connection.createArrayOf("text", storageUris.toArray());
+                ps.setString(1, userId);
+                ps.setString(2, executionId);
+                ps.setArray(3, uris);
+                ps.setArray(4, uris);
+
+                var channels = new ArrayList<Channel>();
+                ResultSet rs = ps.executeQuery();
+                while (rs.next()) {
+                    channels.add(readChannel(rs));
+                }
+                return channels;
+            }
+        });
+    }
+
     @Override
     @Nullable
     public Channel get(String channelId, @Nullable TransactionHandle tx) throws SQLException {
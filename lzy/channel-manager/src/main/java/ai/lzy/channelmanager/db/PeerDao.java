@@ -14,10 +14,33 @@ public interface PeerDao {
                 String idempotencyKey, String requestHash, @Nullable TransactionHandle tx) throws SQLException;
 
     /**
-     * Find producer with max priority in this channel
+     * Inserts all peers with a single multi-row statement, peers which already exist are skipped
+     *
+     * @param requestHashes hashes of requests which created peers, i-th element corresponds to i-th peer
+     */
+    void createMany(List<Peer> peers, Priority priority, boolean connected, List<String> requestHashes,
+                    @Nullable TransactionHandle tx) throws SQLException;
+
+    /**
+     * Find producer in this channel, which is expected to serve new transfer the fastest
      */
     @Nullable
-    Peer findProducer(String channelId, @Nullable TransactionHandle tx) throws SQLException;
+    default Peer findProducer(String channelId, @Nullable TransactionHandle tx) throws SQLException {
+        return findProducer(channelId, null, tx);
+    }
+
+    /**
+     * Find producer in this channel, which is expected to serve new transfer to the consumer the fastest.
+     * See {@link ProducerSelector} for details.
+     */
+    @Nullable
+    Peer findProducer(String channelId, @Nullable LC.PeerDescription consumer, @Nullable TransactionHandle tx)
+        throws SQLException;
+
+    /**
+     * List usable producers of this channel with their transfer statistics
+     */
+    List<ProducerStats> listProducers(String channelId, @Nullable TransactionHandle tx) throws SQLException;
 
     List<Peer> listConnectedConsumersByRequest(String channelId, String idempotencyKey, String requestHash,
                                                @Nullable TransactionHandle tx) throws SQLException;
@@ -41,6 +64,14 @@ public interface PeerDao {
     @Nullable
     Peer get(String id, String channelId, @Nullable TransactionHandle tx) throws SQLException;
 
+    record ProducerStats(
+        Peer peer,
+        int priority,
+        int activeTransfers,  // PENDING or ACTIVE transfers from this producer
+        int completedTransfers,
+        double avgTransferMillis  // 0 if there are no completed transfers
+    ) {}
+
     enum Priority {
         PRIMARY(7),
         BACKUP(5),
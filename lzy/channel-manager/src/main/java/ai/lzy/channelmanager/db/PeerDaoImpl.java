@@ -58,11 +58,17 @@ public class PeerDaoImpl implements PeerDao {
         RETURNING %s
         """.formatted(FIELDS);
 
-    private static final String FIND_PRODUCER = """
-        SELECT %s FROM peers
-        WHERE channel_id = ? AND "role" = 'PRODUCER' AND priority >= 0
-        ORDER BY priority DESC, RANDOM() LIMIT 1
-        """.formatted(FIELDS);
+    private static final String LIST_PRODUCERS = """
+        SELECT p.id, p.channel_id, p."role", p.description, p.priority,
+          count(t.id) FILTER (WHERE t.state IN ('PENDING', 'ACTIVE')) AS active_transfers,
+          count(t.id) FILTER (WHERE t.state = 'COMPLETED' AND t.finished_at IS NOT NULL) AS completed_transfers,
+          avg(extract(EPOCH FROM t.finished_at - t.created_at) * 1000)
+            FILTER (WHERE t.state = 'COMPLETED' AND t.finished_at IS NOT NULL) AS avg_transfer_ms
+        FROM peers p
+        LEFT JOIN transfers t ON t.from_id = p.id AND t.channel_id = p.channel_id
+        WHERE p.channel_id = ? AND p."role" = 'PRODUCER' AND p.priority >= 0
+        GROUP BY p.id, p.channel_id
+        """;
 
     @SuppressWarnings("checkstyle:LineLength")
     private static final String IDEMPOTENT_CREATE_PEER_IDK = """
@@ -84,6 +90,13 @@ public class PeerDaoImpl implements PeerDao {
         LEFT JOIN attempt_to_insert atmp
         ON rtp.id = atmp.id AND rtp.channel_id = atmp.channel_id""";
 
+    private static final String CREATE_MANY_PEERS = """
+        INSERT INTO peers (id, channel_id, "role", description, priority, connected, idempotency_key, request_hash)
+        SELECT id, channel_id, "role", description, ?, ?, idempotency_key, request_hash
+        FROM unnest(?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[])
+            AS t(id, channel_id, "role", description, idempotency_key, request_hash)
+        ON CONFLICT (id, channel_id) DO NOTHING""";
+
     public PeerDaoImpl(ChannelManagerDataSource storage) {
         this.storage = storage;
     }
@@ -130,19 +143,73 @@ public class PeerDaoImpl implements PeerDao {
         });
     }
 
+    @Override
+    public void createMany(List<Peer> peers, Priority priority, boolean connected, List<String> requestHashes,
+                           @Nullable TransactionHandle tx) throws SQLException
+    {
+        if (peers.isEmpty()) {
+            return;
+        }
+
+        var ids = new String[peers.size()];
+        var channelIds = new String[peers.size()];
+        var roles = new String[peers.size()];
+        var descriptions = new String[peers.size()];
+
+        for (int i = 0; i < peers.size(); ++i) {
+            var peer = peers.get(i);
+            ids[i] = peer.id();
+            channelIds[i] = peer.channelId();
+            roles[i] = peer.role().name();
+            try {
+                descriptions[i] = JsonFormat.printer().print(peer.description());
+            } catch (InvalidProtocolBufferException e) {
+                LOG.error("Cannot serialize peerDesc to json", e);
+                throw new RuntimeException(e);
+            }
+        }
+
+        DbOperation.execute(tx, storage, connection -> {
+            try (var ps = connection.prepareStatement(CREATE_MANY_PEERS)) {
+                ps.setInt(1, priority.val);
+                ps.setBoolean(2, connected);
+                ps.setArray(3, connection.createArrayOf("text", ids));
+                ps.setArray(4, connection.createArrayOf("text", channelIds));
+                ps.setArray(5, connection.createArrayOf("text", roles));
+                ps.setArray(6, connection.createArrayOf("text", descriptions));
+                // peer ids are random, so they are used as idempotency keys
+                ps.setArray(7, connection.createArrayOf("text", ids));
+                ps.setArray(8, connection.createArrayOf("text", requestHashes.toArray()));
+                ps.execute();
+            }
+        });
+    }
+
     @Nullable
     @Override
-    public Peer findProducer(String channelId, @Nullable TransactionHandle tx) throws SQLException {
+    public Peer findProducer(String channelId, @Nullable LC.PeerDescription consumer, @Nullable TransactionHandle tx)
+        throws SQLException
+    {
+        var producer = ProducerSelector.select(listProducers(channelId, tx), consumer);
+        return producer != null ? producer.peer() : null;
+    }
+
+    @Override
+    public List<ProducerStats> listProducers(String channelId, @Nullable TransactionHandle tx) throws SQLException {
         return DbOperation.execute(tx, storage, connection -> {
-            try (PreparedStatement ps = connection.prepareStatement(FIND_PRODUCER)) {
+            try (PreparedStatement ps = connection.prepareStatement(LIST_PRODUCERS)) {
                 ps.setString(1, channelId);
 
                 ResultSet rs = ps.executeQuery();
-                if (rs.next()) {
-                    return readPeer(rs);
-                } else {
-                    return null;
+                var producers = new ArrayList<ProducerStats>();
+
+                while (rs.next()) {
+                    producers.add(new ProducerStats(readPeer(rs), rs.getInt("priority"),
+                        rs.getInt("active_transfers"), rs.getInt("completed_transfers"),
+                        rs.getDouble("avg_transfer_ms")));
                 }
+
+                return producers;
             }
         });
     }
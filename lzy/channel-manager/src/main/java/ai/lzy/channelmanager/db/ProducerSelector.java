@@ -0,0 +1,104 @@
+package ai.lzy.channelmanager.db;
+
+import ai.lzy.channelmanager.db.PeerDao.ProducerStats;
+import ai.lzy.v1.common.LC;
+import jakarta.annotation.Nullable;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Selects producer for new transfer by estimated time to serve it.
+ * <p>
+ * Cost of producer is {@code (activeTransfers + 1) * avgTransferTime}, i.e. producer bandwidth is shared between
+ * its transfers. Producers without completed transfers are assumed to be as fast as the median known one.
+ * Cost is halved for producers on the same host with consumer, and is doubled for each priority point lost
+ * (failed transfers, or backup producer like storage). Producers with equal cost are chosen randomly,
+ * so concurrent consumers, which see the same statistics, spread between them.
+ * <p>
+ * Completed consumers of the channel become producers, so this selection makes replicated data to form
+ * fan-out tree instead of loading the first producer.
+ */
+public final class ProducerSelector {
+    private static final double SAME_HOST_FACTOR = 0.5;
+    private static final double EPS = 1e-9;
+
+    private ProducerSelector() {}
+
+    @Nullable
+    public static ProducerStats select(List<ProducerStats> producers, @Nullable LC.PeerDescription consumer) {
+        return select(producers, consumer, ThreadLocalRandom.current());
+    }
+
+    @Nullable
+    public static ProducerStats select(List<ProducerStats> producers, @Nullable LC.PeerDescription consumer,
+                                       Random random)
+    {
+        if (producers.isEmpty()) {
+            return null;
+        }
+
+        var defaultTransferMillis = medianTransferMillis(producers);
+        var consumerHost = consumer != null ? host(consumer) : null;
+
+        var best = new ArrayList<ProducerStats>();
+        var bestCost = Double.MAX_VALUE;
+
+        for (var producer : producers) {
+            var cost = cost(producer, defaultTransferMillis, consumerHost);
+            if (cost < bestCost - EPS) {
+                bestCost = cost;
+                best.clear();
+                best.add(producer);
+            } else if (cost <= bestCost + EPS) {
+                best.add(producer);
+            }
+        }
+
+        return best.size() == 1 ? best.get(0) : best.get(random.nextInt(best.size()));
+    }
+
+    private static double cost(ProducerStats producer, double defaultTransferMillis, @Nullable String consumerHost) {
+        var transferMillis = producer.completedTransfers() > 0 && producer.avgTransferMillis() > 0
+            ? producer.avgTransferMillis()
+            : defaultTransferMillis;
+
+        var cost = (producer.activeTransfers() + 1) * transferMillis;
+
+        cost *= Math.pow(2, Math.max(0, PeerDao.Priority.PRIMARY.val - producer.priority()));
+
+        if (consumerHost != null && consumerHost.equals(host(producer.peer().description()))) {
+            cost *= SAME_HOST_FACTOR;
+        }
+
+        return cost;
+    }
+
+    private static double medianTransferMillis(List<ProducerStats> producers) {
+        var known = producers.stream()
+            .filter(p -> p.completedTransfers() > 0 && p.avgTransferMillis() > 0)
+            .mapToDouble(ProducerStats::avgTransferMillis)
+            .sorted()
+            .toArray();
+
+        return known.length > 0 ? known[known.length / 2] : 1.0;
+    }
+
+    @Nullable
+    private static String host(LC.PeerDescription peer) {
+        if (!peer.hasSlotPeer()) {
+            return null;
+        }
+
+        var url = peer.getSlotPeer().getPeerUrl();
+        try {
+            return Objects.requireNonNullElse(URI.create(url).getHost(), url);
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+}
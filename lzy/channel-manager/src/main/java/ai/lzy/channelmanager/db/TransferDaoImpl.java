@@ -57,9 +57,15 @@ public class TransferDaoImpl implements TransferDao {
           WHERE id = ? AND channel_id = ?
         """;
 
+    private static final String MARK_COMPLETED = """
+        UPDATE transfers
+          SET state = ?, state_change_idk = ?, finished_at = NOW()
+          WHERE id = ? AND channel_id = ?
+        """;
+
     private static final String MARK_FAILED = """
         UPDATE transfers
-          SET state = ?, error_description = ?, state_change_idk = ?
+          SET state = ?, error_description = ?, state_change_idk = ?, finished_at = NOW()
           WHERE id = ? AND channel_id = ?
         """;
 
@@ -168,7 +174,7 @@ public class TransferDaoImpl implements TransferDao {
         throws SQLException
     {
         DbOperation.execute(tx, storage, connection -> {
-            try (PreparedStatement ps = connection.prepareStatement(SET_STATE)) {
+            try (PreparedStatement ps = connection.prepareStatement(MARK_COMPLETED)) {
                 ps.setString(1, State.COMPLETED.name());
                 ps.setString(2, idempotencyKey);
                 ps.setString(3, id);
@@ -2,29 +2,48 @@ package ai.lzy.channelmanager.grpc;
 
 import ai.lzy.channelmanager.ChannelManagerMain;
 import ai.lzy.util.auth.credentials.RenewableJwt;
+import ai.lzy.util.grpc.AsyncGrpcClient;
 import ai.lzy.v1.slots.LzySlotsApiGrpc;
 import ai.lzy.v1.slots.LzySlotsApiGrpc.LzySlotsApiBlockingStub;
+import ai.lzy.v1.slots.LzySlotsApiGrpc.LzySlotsApiFutureStub;
 import com.google.common.net.HostAndPort;
 import io.grpc.ManagedChannel;
 
 import static ai.lzy.util.grpc.GrpcUtils.newBlockingClient;
+import static ai.lzy.util.grpc.GrpcUtils.newFutureClient;
 import static ai.lzy.util.grpc.GrpcUtils.newGrpcChannel;
 
 public class SlotGrpcConnection {
+    private static final int MAX_CALLS_IN_FLIGHT = 32;
+
     private final ManagedChannel channel;
     private final LzySlotsApiBlockingStub slotsApi;
+    private final LzySlotsApiFutureStub slotsFutureApi;
+    private final AsyncGrpcClient asyncClient;
 
     SlotGrpcConnection(RenewableJwt credentials, HostAndPort address) {
         this.channel = newGrpcChannel(address, LzySlotsApiGrpc.SERVICE_NAME);
         this.slotsApi = newBlockingClient(
             ai.lzy.v1.slots.LzySlotsApiGrpc.newBlockingStub(channel),
             ChannelManagerMain.APP, () -> credentials.get().token());
+        this.slotsFutureApi = newFutureClient(
+            LzySlotsApiGrpc.newFutureStub(channel),
+            ChannelManagerMain.APP, () -> credentials.get().token());
+        this.asyncClient = new AsyncGrpcClient(address.toString(), MAX_CALLS_IN_FLIGHT);
     }
 
     public LzySlotsApiBlockingStub SlotsApi() {
         return slotsApi;
     }
 
+    public LzySlotsApiFutureStub SlotsFutureApi() {
+        return slotsFutureApi;
+    }
+
+    public AsyncGrpcClient asyncClient() {
+        return asyncClient;
+    }
+
     void shutdown() {
         channel.shutdown();
     }
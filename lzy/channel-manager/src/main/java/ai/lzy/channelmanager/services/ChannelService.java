@@ -1,8 +1,10 @@
 package ai.lzy.channelmanager.services;
 
+import ai.lzy.channelmanager.db.ChannelCache;
 import ai.lzy.channelmanager.db.ChannelDao;
 import ai.lzy.channelmanager.db.ChannelManagerDataSource;
 import ai.lzy.channelmanager.db.PeerDao;
+import ai.lzy.channelmanager.model.Channel;
 import ai.lzy.channelmanager.model.Peer;
 import ai.lzy.common.IdGenerator;
 import ai.lzy.common.RandomIdGenerator;
@@ -10,16 +12,23 @@ import ai.lzy.longrunning.IdempotencyUtils;
 import ai.lzy.model.db.DbHelper;
 import ai.lzy.model.db.TransactionHandle;
 import ai.lzy.v1.channel.LCMPS;
+import ai.lzy.v1.channel.LCMPS.GetOrCreateManyRequest;
+import ai.lzy.v1.channel.LCMPS.GetOrCreateManyResponse;
 import ai.lzy.v1.channel.LCMPS.GetOrCreateRequest;
 import ai.lzy.v1.channel.LCMPS.GetOrCreateResponse;
 import ai.lzy.v1.channel.LzyChannelManagerPrivateGrpc.LzyChannelManagerPrivateImplBase;
 import ai.lzy.v1.common.LC.PeerDescription;
 import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
+import jakarta.annotation.Nullable;
 import jakarta.inject.Singleton;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
 @Singleton
 public class ChannelService extends LzyChannelManagerPrivateImplBase {
     private static final Logger LOG = LogManager.getLogger(ChannelService.class);
@@ -27,12 +36,16 @@ public class ChannelService extends LzyChannelManagerPrivateImplBase {
     private final ChannelDao channelDao;
     private final PeerDao peerDao;
     private final ChannelManagerDataSource storage;
+    private final ChannelCache channelCache;
     private final IdGenerator idGenerator = new RandomIdGenerator();
 
-    public ChannelService(ChannelDao channelDao, PeerDao peerDao, ChannelManagerDataSource storage) {
+    public ChannelService(ChannelDao channelDao, PeerDao peerDao, ChannelManagerDataSource storage,
+                          ChannelCache channelCache)
+    {
         this.channelDao = channelDao;
         this.peerDao = peerDao;
         this.storage = storage;
+        this.channelCache = channelCache;
     }
 
     @Override
@@ -115,6 +128,91 @@ public class ChannelService extends LzyChannelManagerPrivateImplBase {
         }
     }
 
+    @Override
+    public void getOrCreateMany(GetOrCreateManyRequest request,
+                                StreamObserver<GetOrCreateManyResponse> responseObserver)
+    {
+        var logPrefix = "(GetOrCreateMany: {execId: %s, userId: %s, count: %d}): "
+            .formatted(request.getExecutionId(), request.getUserId(), request.getChannelsCount());
+
+        var storageUris = new HashSet<String>();
+        for (var spec : request.getChannelsList()) {
+            switch (spec.getInitialStoragePeerCase()) {
+                case PRODUCER -> storageUris.add(spec.getProducer().getStorageUri());
+                case CONSUMER -> storageUris.add(spec.getConsumer().getStorageUri());
+                case INITIALSTORAGEPEER_NOT_SET -> {
+                    LOG.error("{} Consumer and producer not set", logPrefix);
+                    responseObserver.onError(Status.INVALID_ARGUMENT
+                        .withDescription("Consumer or producer must be set for every channel")
+                        .asRuntimeException());
+                    return;
+                }
+            }
+        }
+
+        try {
+            var channelIds = DbHelper.withRetries(LOG, () -> {
+                try (var tx = TransactionHandle.create(storage)) {
+                    // every channel is identified by its storage peer, like in GetOrCreate
+                    var channels = new HashMap<StorageKey, Channel>();
+                    for (var channel : channelDao.findByStorageUris(request.getUserId(), request.getExecutionId(),
+                        storageUris, tx))
+                    {
+                        channels.putIfAbsent(StorageKey.of(channel), channel);
+                    }
+
+                    var newChannels = new ArrayList<Channel>();
+                    var newPeers = new ArrayList<Peer>();
+                    var requestHashes = new ArrayList<String>();
+                    var ids = new ArrayList<String>(request.getChannelsCount());
+
+                    for (var spec : request.getChannelsList()) {
+                        var key = StorageKey.of(spec);
+                        var channel = channels.get(key);
+
+                        if (channel == null) {
+                            channel = new Channel(idGenerator.generate("channel-"), request.getUserId(),
+                                request.getWorkflowName(), request.getExecutionId(), spec.getScheme(),
+                                key.producerUri(), key.consumerUri());
+
+                            var peerDesc = PeerDescription.newBuilder()
+                                .setPeerId(idGenerator.generate("storage-peer-"))
+                                .setStoragePeer(spec.hasProducer() ? spec.getProducer() : spec.getConsumer())
+                                .build();
+                            var role = spec.hasProducer() ? Peer.Role.PRODUCER : Peer.Role.CONSUMER;
+
+                            channels.put(key, channel);
+                            newChannels.add(channel);
+                            newPeers.add(new Peer(peerDesc.getPeerId(), channel.id(), role, peerDesc));
+                            requestHashes.add(IdempotencyUtils.md5(spec));
+                        }
+
+                        ids.add(channel.id());
+                    }
+
+                    if (!newChannels.isEmpty()) {
+                        channelDao.createMany(newChannels, tx);
+                        peerDao.createMany(newPeers, PeerDao.Priority.BACKUP, false, requestHashes, tx);
+                        tx.commit();
+                    }
+
+                    LOG.info("{} Created {} new channels", logPrefix, newChannels.size());
+                    return ids;
+                }
+            });
+
+            responseObserver.onNext(GetOrCreateManyResponse.newBuilder()
+                .addAllChannelIds(channelIds)
+                .build());
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            LOG.error("{} Cannot create channels in db: ", logPrefix, e);
+            responseObserver.onError(Status.INTERNAL
+                .withDescription("Cannot create channels in db")
+                .asRuntimeException());
+        }
+    }
+
     @Override
     public void destroy(LCMPS.DestroyRequest request, StreamObserver<LCMPS.DestroyResponse> responseObserver) {
         var logPrefix = "(Destroy: {channelId: %s}): ".formatted(request.getChannelId());
@@ -124,6 +222,7 @@ public class ChannelService extends LzyChannelManagerPrivateImplBase {
             // Just dropping channel from db here
             // Caller must drop all vms on this channel by itself
             DbHelper.withRetries(LOG, () -> channelDao.drop(request.getChannelId(), null));
+            channelCache.invalidate(request.getChannelId());
         } catch (Exception e) {
             LOG.error("{} Cannot destroy channel in db: ", logPrefix, e);
             throw Status.INTERNAL
@@ -142,6 +241,7 @@ public class ChannelService extends LzyChannelManagerPrivateImplBase {
 
         try {
             DbHelper.withRetries(LOG, () -> channelDao.dropAll(request.getExecutionId(), null));
+            channelCache.invalidateExecution(request.getExecutionId());
         } catch (Exception e) {
             LOG.error("{} Cannot destroy channels in db: ", logPrefix, e);
             throw Status.INTERNAL
@@ -152,4 +252,16 @@ public class ChannelService extends LzyChannelManagerPrivateImplBase {
         responseObserver.onNext(LCMPS.DestroyAllResponse.newBuilder().build());
         responseObserver.onCompleted();
     }
+
+    private record StorageKey(@Nullable String producerUri, @Nullable String consumerUri) {
+        static StorageKey of(Channel channel) {
+            return new StorageKey(channel.storageProducerUri(), channel.storageConsumerUri());
+        }
+
+        static StorageKey of(GetOrCreateManyRequest.ChannelSpec spec) {
+            return spec.hasProducer()
+                ? new StorageKey(spec.getProducer().getStorageUri(), null)
+                : new StorageKey(null, spec.getConsumer().getStorageUri());
+        }
+    }
 }
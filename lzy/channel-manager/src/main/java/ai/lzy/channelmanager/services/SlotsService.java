@@ -3,6 +3,7 @@ package ai.lzy.channelmanager.services;
 import ai.lzy.channelmanager.ActionScheduler;
 import ai.lzy.channelmanager.LzyServiceClient;
 import ai.lzy.channelmanager.access.IamAccessManager;
+import ai.lzy.channelmanager.db.ChannelCache;
 import ai.lzy.channelmanager.db.ChannelDao;
 import ai.lzy.channelmanager.db.ChannelManagerDataSource;
 import ai.lzy.channelmanager.db.PeerDao;
@@ -36,6 +37,7 @@ import static ai.lzy.channelmanager.db.PeerDao.Priority.BACKUP;
 import static ai.lzy.channelmanager.model.Peer.Role.CONSUMER;
 import static ai.lzy.channelmanager.model.Peer.Role.PRODUCER;
 import static ai.lzy.iam.resources.AuthPermission.WORKFLOW_RUN;
+import static ai.lzy.logs.LogUtils.lazyFormat;
 import static ai.lzy.util.grpc.GrpcHeaders.getIdempotencyKey;
 
 @Singleton
@@ -49,10 +51,11 @@ public class SlotsService extends LzyChannelManagerGrpc.LzyChannelManagerImplBas
     private final ActionScheduler action;
     private final LzyServiceClient lzyServiceClient;
     private final IamAccessManager accessManager;
+    private final ChannelCache channelCache;
 
     public SlotsService(PeerDao peerDao, ChannelDao channelDao, ChannelManagerDataSource storage,
                         TransferDao transferDao, ActionScheduler action, LzyServiceClient lzyServiceClient,
-                        IamAccessManager accessManager)
+                        IamAccessManager accessManager, ChannelCache channelCache)
     {
         this.peerDao = peerDao;
         this.channelDao = channelDao;
@@ -61,6 +64,7 @@ public class SlotsService extends LzyChannelManagerGrpc.LzyChannelManagerImplBas
         this.action = action;
         this.lzyServiceClient = lzyServiceClient;
         this.accessManager = accessManager;
+        this.channelCache = channelCache;
     }
 
     @Override
@@ -76,7 +80,7 @@ public class SlotsService extends LzyChannelManagerGrpc.LzyChannelManagerImplBas
 
         final Channel channel = getChannelAndCheckAccess(request.getChannelId(), "Bind");
 
-        var logPrefix = "(Bind: {peerId: %s, channelId: %s, userId: %s, workflowName: %s, execId: %s}): ".formatted(
+        var logPrefix = lazyFormat("(Bind: {peerId: %s, channelId: %s, userId: %s, workflowName: %s, execId: %s}): ",
             peerId, channelId, channel.userId(), channel.workflowName(), channel.executionId()
         );
 
@@ -100,7 +104,7 @@ public class SlotsService extends LzyChannelManagerGrpc.LzyChannelManagerImplBas
 
             var builder = LCMS.BindResponse.newBuilder();
             if (producerAndTransfer != null) {
-                LOG.info("{} Connected to producer(peerId: {})", logPrefix, producerAndTransfer.peer.id());
+                LOG.debug("{} Connected to producer(peerId: {})", logPrefix, producerAndTransfer.peer.id());
 
                 builder.setPeer(producerAndTransfer.peer.description());
                 builder.setTransferId(producerAndTransfer.transferId);
@@ -148,7 +152,7 @@ public class SlotsService extends LzyChannelManagerGrpc.LzyChannelManagerImplBas
     public void unbind(LCMS.UnbindRequest request, StreamObserver<LCMS.UnbindResponse> responseObserver) {
         final Channel channel = getChannelAndCheckAccess(request.getChannelId(), "Unbind");
 
-        var logPrefix = "(Unbind: {peerId: %s, channelId: %s, userId: %s, workflowName: %s, execId: %s}): ".formatted(
+        var logPrefix = lazyFormat("(Unbind: {peerId: %s, channelId: %s, userId: %s, workflowName: %s, execId: %s}): ",
             request.getPeerId(), request.getChannelId(), channel.userId(), channel.workflowName(), channel.executionId()
         );
         final boolean res;
@@ -191,8 +195,8 @@ public class SlotsService extends LzyChannelManagerGrpc.LzyChannelManagerImplBas
     public void transferFailed(TransferFailedRequest request, StreamObserver<TransferFailedResponse> responseObserver) {
         final Channel channel = getChannelAndCheckAccess(request.getChannelId(), "TransferFailed");
 
-        var logPrefix = ("(TransmissionFailed: {transferId: %s,  channelId: %s, userId: %s," +
-            " workflowName: %s, execId: %s}): ").formatted(request.getTransferId(), request.getChannelId(),
+        var logPrefix = lazyFormat("(TransmissionFailed: {transferId: %s,  channelId: %s, userId: %s," +
+            " workflowName: %s, execId: %s}): ", request.getTransferId(), request.getChannelId(),
             channel.userId(), channel.workflowName(), channel.executionId()
         );
 
@@ -252,7 +256,7 @@ public class SlotsService extends LzyChannelManagerGrpc.LzyChannelManagerImplBas
                     }
 
                     // Failed to load data from producer, selecting other
-                    var newProducer = peerDao.findProducer(transfer.channelId(), tx);
+                    var newProducer = peerDao.findProducer(transfer.channelId(), transfer.to().description(), tx);
                     if (newProducer == null) {
                         // This can be only if there was only one producer and connection retries count to it exceeded
                         LOG.error("{} No more producers in channel, while there are consumers", logPrefix);
@@ -296,8 +300,8 @@ public class SlotsService extends LzyChannelManagerGrpc.LzyChannelManagerImplBas
     {
         final Channel channel = getChannelAndCheckAccess(request.getChannelId(), "TransmissionCompleted");
 
-        var logPrefix = ("(TransmissionCompleted: {transferId: %s,  channelId: %s, userId: %s," +
-            " workflowName: %s, execId: %s}): ").formatted(request.getTransferId(),
+        var logPrefix = lazyFormat("(TransmissionCompleted: {transferId: %s,  channelId: %s, userId: %s," +
+            " workflowName: %s, execId: %s}): ", request.getTransferId(),
             request.getChannelId(), channel.userId(), channel.workflowName(), channel.executionId()
         );
 
@@ -326,7 +330,7 @@ public class SlotsService extends LzyChannelManagerGrpc.LzyChannelManagerImplBas
                             .asRuntimeException();
                     }
 
-                    LOG.info("{} Succeeded", logPrefix);
+                    LOG.debug("{} Succeeded", logPrefix);
                     transferDao.markCompleted(request.getTransferId(), channel.id(), idempotencyKey, tx);
 
                     if (transfer.to().description().hasStoragePeer()) {
@@ -407,14 +411,24 @@ public class SlotsService extends LzyChannelManagerGrpc.LzyChannelManagerImplBas
     }
 
     private Channel getChannelAndCheckAccess(String channelId, String callName) {
-        final Channel channel;
+        Channel channel = channelCache.get(channelId);
 
-        try {
-            channel = DbHelper.withRetries(LOG, () -> channelDao.get(channelId, null));
-        } catch (Exception e) {
-            LOG.error("Cannot get channel {}", channelId, e);
+        if (channel == null) {
+            var cacheVersion = channelCache.version();
+            try {
+                channel = DbHelper.withRetries(LOG, () -> channelDao.get(channelId, null));
+            } catch (Exception e) {
+                LOG.error("Cannot get channel {}", channelId, e);
 
-            throw Status.INTERNAL.asRuntimeException();
+                throw Status.INTERNAL.asRuntimeException();
+            }
+
+            if (channel == null) {
+                LOG.error("{}: Channel {} not found", callName, channelId);
+                throw Status.NOT_FOUND.withDescription("Channel not found").asRuntimeException();
+            }
+
+            channelCache.put(channel, cacheVersion);
         }
 
         final var authenticationContext = AuthenticationContext.current();
@@ -438,7 +452,7 @@ public class SlotsService extends LzyChannelManagerGrpc.LzyChannelManagerImplBas
      * @return pair of producer and list of consumer transfers
      */
     private ProducerAndConsumerTransfers createProducer(String channelId, String peerId, PeerDescription peerDesc,
-                                                        String logPrefix, Peer.Role role, String idempotencyKey,
+                                                        Object logPrefix, Peer.Role role, String idempotencyKey,
                                                         String requestHash)
     {
         try {
@@ -486,14 +500,14 @@ public class SlotsService extends LzyChannelManagerGrpc.LzyChannelManagerImplBas
      * @return producer with transfer id or null if producer not found
      */
     @Nullable
-    private PeerAndTransfer createConsumer(String channelId, PeerDescription peerDesc, String logPrefix, Peer.Role role,
+    private PeerAndTransfer createConsumer(String channelId, PeerDescription peerDesc, Object logPrefix, Peer.Role role,
                                            String idempotencyKey, String requestHash)
     {
         try {
             return DbHelper.withRetries(LOG, () -> {
                 try (var tx = TransactionHandle.create(storage)) {
                     var peerId = peerDesc.getPeerId();
-                    var producer = peerDao.findProducer(channelId, tx);
+                    var producer = peerDao.findProducer(channelId, peerDesc, tx);
                     peerDao.create(channelId, peerDesc, role, PeerDao.Priority.PRIMARY, producer != null,
                         idempotencyKey, requestHash, tx);
 
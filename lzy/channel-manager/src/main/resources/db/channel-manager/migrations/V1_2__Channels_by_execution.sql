@@ -0,0 +1 @@
+CREATE INDEX channels_execution_id_idx ON channels (execution_id, owner_id);
@@ -0,0 +1,5 @@
+ALTER TABLE transfers
+    ADD COLUMN created_at  TIMESTAMP NOT NULL DEFAULT NOW(),
+    ADD COLUMN finished_at TIMESTAMP NULL;
+
+CREATE INDEX transfers_from_id_idx ON transfers (channel_id, from_id);
@@ -1,6 +1,7 @@
 package ai.lzy.channelmanager;
 
 import ai.lzy.channelmanager.config.ChannelManagerConfig;
+import ai.lzy.channelmanager.db.ChannelDao;
 import ai.lzy.channelmanager.test.InjectedFailures;
 import ai.lzy.iam.clients.AccessBindingClient;
 import ai.lzy.iam.clients.SubjectServiceClient;
@@ -29,6 +30,8 @@ import io.grpc.ManagedChannel;
 import io.grpc.Server;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Assert;
@@ -38,14 +41,18 @@ import org.junit.Test;
 import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
 import static ai.lzy.util.grpc.GrpcUtils.*;
 
 public class ApiTest extends IamOnlyChannelManagerContextTests {
+    private static final Logger LOG = LogManager.getLogger(ApiTest.class);
+
     private static String workflowName;
     private static User user;
 
@@ -255,6 +262,55 @@ public class ApiTest extends IamOnlyChannelManagerContextTests {
         Assert.assertEquals(channel.getChannelId(), channel2.getChannelId());
     }
 
+    @Test
+    public void testGetOrCreateMany() throws Exception {
+        var existing = privateClient.getOrCreate(
+            LCMPS.GetOrCreateRequest.newBuilder()
+                .setExecutionId("execId")
+                .setWorkflowName(workflowName)
+                .setProducer(LC.PeerDescription.StoragePeer.newBuilder()
+                    .setStorageUri("s3://bucket/0")
+                    .build())
+                .setUserId(user.id())
+                .build());
+
+        var request = LCMPS.GetOrCreateManyRequest.newBuilder()
+            .setExecutionId("execId")
+            .setWorkflowName(workflowName)
+            .setUserId(user.id());
+
+        // 10k graph edges: half are task outputs, half are inputs from storage
+        int count = 10_000;
+        for (int i = 0; i < count; ++i) {
+            var peer = LC.PeerDescription.StoragePeer.newBuilder()
+                .setStorageUri("s3://bucket/" + i / 2)
+                .build();
+            request.addChannels(i % 2 == 0
+                ? LCMPS.GetOrCreateManyRequest.ChannelSpec.newBuilder().setProducer(peer)
+                : LCMPS.GetOrCreateManyRequest.ChannelSpec.newBuilder().setConsumer(peer));
+        }
+        // duplicate of the first item in the same batch
+        request.addChannels(request.getChannels(0));
+
+        var startedAt = Instant.now();
+        var channels = privateClient.getOrCreateMany(request.build());
+        LOG.info("GetOrCreateMany of {} channels took {} ms", count,
+            Duration.between(startedAt, Instant.now()).toMillis());
+
+        Assert.assertEquals(count + 1, channels.getChannelIdsCount());
+        Assert.assertEquals(existing.getChannelId(), channels.getChannelIds(0));
+        Assert.assertEquals(existing.getChannelId(), channels.getChannelIds(count));
+        Assert.assertEquals(count, Set.copyOf(channels.getChannelIdsList()).size());
+
+        var channels2 = privateClient.getOrCreateMany(request.build());
+        Assert.assertEquals(channels.getChannelIdsList(), channels2.getChannelIdsList());
+
+        var statuses = context.getBean(ChannelDao.class).list("execId", List.of(channels.getChannelIds(1)), null);
+        Assert.assertEquals(1, statuses.size());
+        Assert.assertEquals(1, statuses.get(0).consumers().size());
+        Assert.assertEquals(0, statuses.get(0).producers().size());
+    }
+
     @Test
     public void testFailedToLoadDataToStorage() {
         var chan = privateClient.getOrCreate(
@@ -314,6 +370,33 @@ public class ApiTest extends IamOnlyChannelManagerContextTests {
     }
 
 
+    @Test
+    public void testDestroyedChannelIsNotServed() {
+        var chan = privateClient.getOrCreate(
+            LCMPS.GetOrCreateRequest.newBuilder()
+                .setExecutionId("execId")
+                .setWorkflowName(workflowName)
+                .setProducer(LC.PeerDescription.StoragePeer.newBuilder()
+                    .setStorageUri("s3://some-bucket")
+                    .build())
+                .setUserId(user.id())
+                .build());
+
+        // channel is cached by bind
+        bind(chan.getChannelId(), LCMS.BindRequest.Role.CONSUMER, "1", "bind-1");
+
+        privateClient.destroy(LCMPS.DestroyRequest.newBuilder()
+            .setChannelId(chan.getChannelId())
+            .build());
+
+        try {
+            bind(chan.getChannelId(), LCMS.BindRequest.Role.CONSUMER, "2", "bind-2");
+            Assert.fail();
+        } catch (StatusRuntimeException e) {
+            Assert.assertEquals(Status.Code.NOT_FOUND, e.getStatus().getCode());
+        }
+    }
+
     private static LCMS.BindResponse bind(String chanId, LCMS.BindRequest.Role producer, String value,
                                           String idempotencyKey)
     {
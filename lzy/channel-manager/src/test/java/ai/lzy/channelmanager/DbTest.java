@@ -1,5 +1,6 @@
 package ai.lzy.channelmanager;
 
+import ai.lzy.channelmanager.db.ChannelCache;
 import ai.lzy.channelmanager.db.ChannelDao;
 import ai.lzy.channelmanager.db.PeerDao;
 import ai.lzy.channelmanager.db.TransferDao;
@@ -273,6 +274,109 @@ public class DbTest {
         channelDao.dropAll("exec-id", null);
     }
 
+    @Test
+    public void peerDaoTestProducerLoad() throws SQLException {
+        var chan = channelDao.create("test-channel", "test-user-id", "exec-id", "wfName", null, null, null, null);
+
+        var peer1 = peerDao.create("test-channel", LC.PeerDescription.newBuilder()
+            .setPeerId("peer1")
+            .setSlotPeer(LC.PeerDescription.SlotPeer.newBuilder()
+                .setPeerUrl("peer1")
+                .build())
+            .build(), Peer.Role.PRODUCER, PeerDao.Priority.PRIMARY, false, "idk-1", "some-hash", null);
+
+        var peer2 = peerDao.create("test-channel", LC.PeerDescription.newBuilder()
+            .setPeerId("peer2")
+            .setSlotPeer(LC.PeerDescription.SlotPeer.newBuilder()
+                .setPeerUrl("peer2")
+                .build())
+            .build(), Peer.Role.PRODUCER, PeerDao.Priority.PRIMARY, false, "idk-2", "some-hash", null);
+
+        var consumer1 = peerDao.create("test-channel", LC.PeerDescription.newBuilder()
+            .setPeerId("consumer1")
+            .setSlotPeer(LC.PeerDescription.SlotPeer.newBuilder()
+                .setPeerUrl("consumer1")
+                .build())
+            .build(), Peer.Role.CONSUMER, PeerDao.Priority.PRIMARY, true, "idk-3", "some-hash", null);
+
+        var consumer2 = peerDao.create("test-channel", LC.PeerDescription.newBuilder()
+            .setPeerId("consumer2")
+            .setSlotPeer(LC.PeerDescription.SlotPeer.newBuilder()
+                .setPeerUrl("consumer2")
+                .build())
+            .build(), Peer.Role.CONSUMER, PeerDao.Priority.PRIMARY, true, "idk-4", "some-hash", null);
+
+        var completedId = transferDao.create(peer1.id(), consumer1.id(), "test-channel", TransferDao.State.ACTIVE,
+            "idk-5", "some-hash", null);
+        transferDao.markCompleted(completedId, "test-channel", "idk-6", null);
+        transferDao.create(peer1.id(), consumer2.id(), "test-channel", TransferDao.State.ACTIVE,
+            "idk-7", "some-hash", null);
+
+        var producers = peerDao.listProducers("test-channel", null);
+        Assert.assertEquals(2, producers.size());
+
+        var stats1 = producers.stream().filter(p -> p.peer().equals(peer1)).findFirst().orElseThrow();
+        Assert.assertEquals(1, stats1.activeTransfers());
+        Assert.assertEquals(1, stats1.completedTransfers());
+
+        var stats2 = producers.stream().filter(p -> p.peer().equals(peer2)).findFirst().orElseThrow();
+        Assert.assertEquals(0, stats2.activeTransfers());
+        Assert.assertEquals(0, stats2.completedTransfers());
+
+        // peer1 is busy with transfer to consumer2
+        Assert.assertEquals(peer2, peerDao.findProducer("test-channel", null));
+
+        channelDao.drop(chan.id(), null);
+        channelDao.dropAll("exec-id", null);
+    }
+
+    @Test
+    public void channelCache() throws SQLException {
+        var cache = context.getBean(ChannelCache.class);
+
+        var chan1 = channelDao.create("channel-1", "test-user-id", "exec-id", "wfName", null, null, null, null);
+        var chan2 = channelDao.create("channel-2", "test-user-id", "exec-id-2", "wfName", null, null, null, null);
+        cache.put(chan1, cache.version());
+        cache.put(chan2, cache.version());
+
+        Assert.assertEquals(chan1, cache.get(chan1.id()));
+        Assert.assertEquals(chan2, cache.get(chan2.id()));
+
+        cache.invalidateExecution("exec-id");
+        Assert.assertNull(cache.get(chan1.id()));
+        Assert.assertEquals(chan2, cache.get(chan2.id()));
+
+        cache.invalidate(chan2.id());
+        Assert.assertNull(cache.get(chan2.id()));
+
+        channelDao.dropAll("exec-id", null);
+        channelDao.dropAll("exec-id-2", null);
+    }
+
+    @Test
+    public void channelCacheInvalidatedDuringLoad() throws SQLException {
+        var cache = context.getBean(ChannelCache.class);
+
+        var chan = channelDao.create("channel-1", "test-user-id", "exec-id", "wfName", null, null, null, null);
+
+        // channel is loaded before destroy and put after it
+        var version = cache.version();
+        var loaded = channelDao.get(chan.id(), null);
+        channelDao.drop(chan.id(), null);
+        cache.invalidate(chan.id());
+        cache.put(loaded, version);
+        Assert.assertNull(cache.get(chan.id()));
+
+        // the same for destroy of the whole execution
+        var chan2 = channelDao.create("channel-2", "test-user-id", "exec-id", "wfName", null, null, null, null);
+        version = cache.version();
+        loaded = channelDao.get(chan2.id(), null);
+        channelDao.dropAll("exec-id", null);
+        cache.invalidateExecution("exec-id");
+        cache.put(loaded, version);
+        Assert.assertNull(cache.get(chan2.id()));
+    }
+
     @Test
     public void listWithoutPeers() throws SQLException {
         var chan = channelDao.create("test-channel", "test-user-id", "exec-id", "wfName", null, null, null, null);
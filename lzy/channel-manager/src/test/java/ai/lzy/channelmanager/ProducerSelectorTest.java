@@ -0,0 +1,188 @@
+package ai.lzy.channelmanager;
+
+import ai.lzy.channelmanager.db.PeerDao.ProducerStats;
+import ai.lzy.channelmanager.db.ProducerSelector;
+import ai.lzy.channelmanager.model.Peer;
+import ai.lzy.v1.common.LC;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+public class ProducerSelectorTest {
+    private static final Logger LOG = LogManager.getLogger(ProducerSelectorTest.class);
+
+    private static final int PRIMARY = 7;
+
+    @Test
+    public void leastLoaded() {
+        var p1 = stats("p1", "host-1", PRIMARY, 3, 10, 100);
+        var p2 = stats("p2", "host-2", PRIMARY, 1, 10, 100);
+        var p3 = stats("p3", "host-3", PRIMARY, 2, 10, 100);
+
+        Assert.assertSame(p2, ProducerSelector.select(List.of(p1, p2, p3), null));
+    }
+
+    @Test
+    public void fastest() {
+        var slow = stats("slow", "host-1", PRIMARY, 0, 10, 1000);
+        var fast = stats("fast", "host-2", PRIMARY, 2, 10, 100);
+
+        Assert.assertSame(fast, ProducerSelector.select(List.of(slow, fast), null));
+    }
+
+    @Test
+    public void sameHost() {
+        var remote = stats("remote", "host-1", PRIMARY, 1, 10, 100);
+        var local = stats("local", "host-2", PRIMARY, 2, 10, 100);
+
+        Assert.assertSame(remote, ProducerSelector.select(List.of(remote, local), null));
+        Assert.assertSame(local, ProducerSelector.select(List.of(remote, local), desc("consumer", "host-2")));
+    }
+
+    @Test
+    public void priority() {
+        var failed = stats("failed", "host-1", PRIMARY - 2, 0, 0, 0);
+        var primary = stats("primary", "host-2", PRIMARY, 1, 0, 0);
+
+        Assert.assertSame(primary, ProducerSelector.select(List.of(failed, primary), null));
+        Assert.assertNull(ProducerSelector.select(List.of(), null));
+    }
+
+    /**
+     * Simulation of fan-out of one output to 300 consumers, arriving every 0.3 of single transfer time.
+     * Producers share their bandwidth between transfers, each consumer becomes producer after download,
+     * every 4th of them is 10 times slower than others.
+     */
+    @Test
+    public void fanOutSimulation() {
+        var random = new Random(42);
+
+        var baseline = simulate((producers, consumer) -> {
+            // previous behaviour: random producer with max priority
+            var maxPriority = producers.stream().mapToInt(ProducerStats::priority).max().orElseThrow();
+            var candidates = producers.stream().filter(p -> p.priority() == maxPriority).toList();
+            return candidates.get(random.nextInt(candidates.size()));
+        });
+
+        var selector = simulate((producers, consumer) -> ProducerSelector.select(producers, consumer, random));
+
+        LOG.info("Fan-out of 300 consumers, baseline: {}, selector: {}", baseline, selector);
+
+        var message = "baseline: %s, selector: %s".formatted(baseline, selector);
+        Assert.assertTrue(message, selector.makespan() < baseline.makespan());
+        Assert.assertTrue(message, selector.meanTransferTime() < baseline.meanTransferTime());
+    }
+
+    private record SimulationResult(double makespan, double meanTransferTime) {}
+
+    private static SimulationResult simulate(
+        BiFunction<List<ProducerStats>, LC.PeerDescription, ProducerStats> policy)
+    {
+        final int consumers = 300;
+        final double arrivalInterval = 0.3;
+        final double dt = 0.01;
+
+        var producers = new ArrayList<SimProducer>();
+        producers.add(new SimProducer(desc("producer", "host-0"), 1.0));
+
+        var transfers = new ArrayList<SimTransfer>();
+        double time = 0;
+        double totalTransferTime = 0;
+        int arrived = 0;
+        int completed = 0;
+
+        while (completed < consumers) {
+            while (arrived < consumers && arrived * arrivalInterval <= time) {
+                var consumer = desc("consumer-" + arrived, "host-" + (arrived + 1));
+                var stats = producers.stream().map(SimProducer::stats).toList();
+                var selected = policy.apply(stats, consumer);
+                var producer = producers.get(stats.indexOf(selected));
+
+                var transfer = new SimTransfer(producer, consumer, arrived, time);
+                producer.active++;
+                transfers.add(transfer);
+                arrived++;
+            }
+
+            var done = new ArrayList<SimTransfer>();
+            for (var transfer : transfers) {
+                transfer.remaining -= transfer.from.bandwidth / transfer.from.active * dt;
+                if (transfer.remaining <= 0) {
+                    done.add(transfer);
+                }
+            }
+            time += dt;
+
+            for (var transfer : done) {
+                transfers.remove(transfer);
+                transfer.from.active--;
+                transfer.from.completed++;
+                transfer.from.totalMillis += (time - transfer.startedAt) * 1000;
+
+                totalTransferTime += time - transfer.startedAt;
+                completed++;
+
+                var bandwidth = transfer.index % 4 == 3 ? 0.1 : 1.0;
+                producers.add(new SimProducer(transfer.to, bandwidth));
+            }
+        }
+
+        return new SimulationResult(time, totalTransferTime / consumers);
+    }
+
+    private static final class SimProducer {
+        final LC.PeerDescription desc;
+        final double bandwidth;
+        int active = 0;
+        int completed = 0;
+        double totalMillis = 0;
+
+        SimProducer(LC.PeerDescription desc, double bandwidth) {
+            this.desc = desc;
+            this.bandwidth = bandwidth;
+        }
+
+        ProducerStats stats() {
+            return new ProducerStats(new Peer(desc.getPeerId(), "channel", Peer.Role.PRODUCER, desc),
+                PRIMARY, active, completed, completed > 0 ? totalMillis / completed : 0);
+        }
+    }
+
+    private static final class SimTransfer {
+        final SimProducer from;
+        final LC.PeerDescription to;
+        final int index;
+        final double startedAt;
+        double remaining = 1.0;
+
+        SimTransfer(SimProducer from, LC.PeerDescription to, int index, double startedAt) {
+            this.from = from;
+            this.to = to;
+            this.index = index;
+            this.startedAt = startedAt;
+        }
+    }
+
+    private static ProducerStats stats(String id, String host, int priority, int active, int completed,
+                                       double avgMillis)
+    {
+        var desc = desc(id, host);
+        return new ProducerStats(new Peer(id, "channel", Peer.Role.PRODUCER, desc), priority, active, completed,
+            avgMillis);
+    }
+
+    private static LC.PeerDescription desc(String id, String host) {
+        return LC.PeerDescription.newBuilder()
+            .setPeerId(id)
+            .setSlotPeer(LC.PeerDescription.SlotPeer.newBuilder()
+                .setPeerUrl("http://" + host + ":2135")
+                .build())
+            .build();
+    }
+}
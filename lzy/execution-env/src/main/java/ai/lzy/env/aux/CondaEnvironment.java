@@ -94,9 +94,13 @@ public class CondaEnvironment implements PythonBaseEnvironment {
 
                 if (envYaml == null) {
                     LOG.info("Conda env {} already configured, skipping", envName);
+                    condaPackageRegistry.notifyUsed(envName);
 
                 } else {
-                    LOG.info("CondaEnvironment::installPyenv trying to install pyenv");
+                    var baseEnvName = envName;
+                    envName = CondaPackageRegistry.snapshotEnvName(condaYaml);
+
+                    LOG.info("CondaEnvironment::installPyenv trying to install pyenv {}", envName);
                     outStream.log("Trying to install pyenv...");
 
                     final File condaFileOnHost = Files.createFile(hostWorkingDir.resolve("conda.yaml")).toFile();
@@ -107,10 +111,16 @@ public class CondaEnvironment implements PythonBaseEnvironment {
                     LOG.debug("About to configure conda with parameters:\n{}", envYaml);
 
                     var condaFile = baseEnvWorkingDir.resolve("conda.yaml");
-                    // Conda env create or update: https://github.com/conda/conda/issues/7819
-                    final LzyProcess lzyProcess = execInEnv(
-                        "conda env create --file %s || conda env update --file %s".formatted(condaFile, condaFile),
-                        outStream);
+                    final String command;
+                    if (condaPackageRegistry.isInstalled(baseEnvName)) {
+                        // Cloning links already installed packages, so only missing ones are resolved and installed
+                        command = ("conda create --yes --quiet --name %s --clone %s && "
+                            + "conda env update --name %s --file %s")
+                            .formatted(envName, baseEnvName, envName, condaFile);
+                    } else {
+                        command = "conda env create --name %s --file %s".formatted(envName, condaFile);
+                    }
+                    final LzyProcess lzyProcess = execInConda(command, outStream);
 
                     var rc = waitFor(lzyProcess, outStream, errStream);
                     if (rc != 0) {
@@ -119,12 +129,15 @@ public class CondaEnvironment implements PythonBaseEnvironment {
                             + "See your stdout/stderr to see more info";
                         LOG.error(errorMessage);
                         errStream.log(errorMessage);
+
+                        // Do not leave partially installed snapshot
+                        execInConda("conda env remove --yes --name %s".formatted(envName), null).waitFor();
                         throw new InstallationException(errorMessage);
                     }
-                    LOG.info("CondaEnvironment::installPyenv successfully updated conda env");
+                    LOG.info("CondaEnvironment::installPyenv successfully installed conda env {}", envName);
                     outStream.log("Pyenv successfully installed");
 
-                    condaPackageRegistry.notifyInstalled(envYaml);
+                    condaPackageRegistry.notifySnapshotInstalled(envName, envYaml);
                     //noinspection ResultOfMethodCallIgnored
                     condaFileOnHost.delete();
                 }
@@ -190,6 +203,21 @@ public class CondaEnvironment implements PythonBaseEnvironment {
         return baseEnv.runProcess(bashCmd, envp, workingDir == null ? baseEnvWorkingDir.toString() : workingDir);
     }
 
+    private LzyProcess execInConda(String command, @Nullable LogStream out) {
+        if (out != null) {
+            out.log("RunCmd: %s".formatted(command));
+        }
+        LOG.info("Executing command '{}' at cwd '{}'", command, baseEnvWorkingDir);
+
+        var bashCmd = new String[] {
+            "bash",
+            "-c",
+            "eval \"$(conda shell.bash hook)\" && %s".formatted(command)
+        };
+
+        return baseEnv.runProcess(bashCmd, null, baseEnvWorkingDir.toString());
+    }
+
     private LzyProcess execInEnv(String command, @Nullable LogStream out) {
         if (out != null) {
             out.log("RunCmd: %s".formatted(command));
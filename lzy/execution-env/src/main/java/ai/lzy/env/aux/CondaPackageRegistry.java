@@ -11,13 +11,19 @@ import org.yaml.snakeyaml.Yaml;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 public class CondaPackageRegistry {
     private static final Logger LOG = LogManager.getLogger(CondaPackageRegistry.class);
@@ -27,6 +33,10 @@ public class CondaPackageRegistry {
     private static final String DEFAULT_PYTHON_VERSION = "3.10";
     private static final String DEFAULT_PYPI_INDEX = "https://pypi.org/simple";
     private static final String CONDA_YAML_FILE = "conda-desc.yaml";
+    private static final String SNAPSHOT_ENV_PREFIX = "lzy-";
+    private static final String SNAPSHOT_SIZE_MARKER = "# lzy-size-kb:";
+    private static final String ENV_STATE_MARKER = "### ";
+    private static final long DEFAULT_SNAPSHOTS_DISK_BUDGET_KB = 20L << 20;  // 20 GiB
 
     private static final String PIP_INDEX_URL_FLAG = "--index-url";
     private static final String PIP_EXTRA_INDEX_URL_FLAG = "--extra-index-url";
@@ -45,13 +55,20 @@ public class CondaPackageRegistry {
     );
 
     private final Map<String, CondaEnv> envs = new HashMap<>();
+    // snapshot env name -> disk usage in KB, in access order
+    private final LinkedHashMap<String, Long> snapshotSizes = new LinkedHashMap<>(16, 0.75f, true);
     private final BaseEnvironment baseEnv;
     private boolean inited = false;
+    private long snapshotsDiskBudgetKb = DEFAULT_SNAPSHOTS_DISK_BUDGET_KB;
 
     public CondaPackageRegistry(BaseEnvironment baseEnv) {
         this.baseEnv = baseEnv;
     }
 
+    public void setSnapshotsDiskBudgetKb(long snapshotsDiskBudgetKb) {
+        this.snapshotsDiskBudgetKb = snapshotsDiskBudgetKb;
+    }
+
     public void init() {
         if (inited) {
             return;
@@ -72,22 +89,37 @@ public class CondaPackageRegistry {
             return;
         }
 
-        if (envs != null) {
-            for (var env : envs) {
-                try {
-                    String condaYaml;
-                    var envPath = Path.of(env, CONDA_YAML_FILE);
+        if (envs == null || envs.isEmpty()) {
+            return;
+        }
 
-                    if (Files.exists(envPath)) {
-                        condaYaml = Files.readString(envPath);
-                    } else {
-                        condaYaml = execInConda("conda activate %s && conda env export".formatted(env));
-                    }
+        // descriptions of installed snapshots are persisted next to them, read all of them with one command
+        Map<String, String> persisted;
+        try {
+            persisted = readPersistedEnvs(envs);
+        } catch (Exception e) {
+            LOG.warn("Cannot read persisted conda envs descriptions", e);
+            persisted = Map.of();
+        }
 
-                    notifyInstalled(condaYaml);
-                } catch (Exception e) {
-                    LOG.error("Error while getting conda env spec of env {}: ", env, e);
+        for (var env : envs) {
+            try {
+                var condaYaml = persisted.get(env);
+                if (condaYaml == null) {
+                    condaYaml = execInConda("conda activate %s && conda env export".formatted(env));
                 }
+
+                notifyInstalled(condaYaml);
+
+                var sizeKb = parseSnapshotSize(condaYaml);
+                if (sizeKb != null) {
+                    var parsed = parseCondaYaml(condaYaml);
+                    if (parsed != null && isSnapshot(parsed.name)) {
+                        snapshotSizes.put(parsed.name, sizeKb);
+                    }
+                }
+            } catch (Exception e) {
+                LOG.error("Error while getting conda env spec of env {}: ", env, e);
             }
         }
     }
@@ -129,36 +161,12 @@ public class CondaPackageRegistry {
                                   boolean noDeps, List<String> extraIndexUrls, List<String> trustedHosts)
     {
         try {
-            var installedEnv = envs.values().stream()
-                .filter(t -> t.pythonVersion.equals(pythonVersion))
-                .findFirst()
-                .orElse(null);
+            if (findSatisfying(packages, pythonVersion) != null) {
+                return null;
+            }
 
+            var installedEnv = findWorking(pythonVersion);
             if (installedEnv != null) {
-                var failed = false;
-
-                for (var pkg: packages.values()) {
-                    var installedPkg = installedEnv.packages.get(pkg.name);
-
-                    if (installedPkg == null) {
-                        failed = true;
-                        break;
-                    }
-
-                    if (pkg.version == null) {
-                        continue;
-                    }
-
-                    if (!Objects.equals(installedPkg.version, pkg.version)) {
-                        failed = true;
-                        break;
-                    }
-                }
-
-                if (!failed) {
-                    return null;
-                }
-
                 return buildYaml(new CondaEnv(installedEnv.name, packages, installedEnv.pythonVersion,
                     pypiIndex, noDeps, extraIndexUrls, trustedHosts));
             }
@@ -171,6 +179,49 @@ public class CondaPackageRegistry {
             extraIndexUrls, trustedHosts));
     }
 
+    /**
+     * Any installed env (including snapshots) with the same python version and all required packages
+     */
+    @Nullable
+    private CondaEnv findSatisfying(Map<String, Package> packages, String pythonVersion) {
+        return envs.values().stream()
+            .filter(t -> t.pythonVersion.equals(pythonVersion))
+            .filter(t -> satisfies(t, packages))
+            .min(Comparator.comparing(t -> isSnapshot(t.name)))
+            .orElse(null);
+    }
+
+    /**
+     * Env for the python version which is not a snapshot, snapshots are never updated in place
+     */
+    @Nullable
+    private CondaEnv findWorking(String pythonVersion) {
+        return envs.values().stream()
+            .filter(t -> t.pythonVersion.equals(pythonVersion))
+            .filter(t -> !isSnapshot(t.name))
+            .findFirst()
+            .orElse(null);
+    }
+
+    private static boolean satisfies(CondaEnv installedEnv, Map<String, Package> packages) {
+        for (var pkg: packages.values()) {
+            var installedPkg = installedEnv.packages.get(pkg.name);
+
+            if (installedPkg == null) {
+                return false;
+            }
+
+            if (pkg.version == null) {
+                continue;
+            }
+
+            if (!Objects.equals(installedPkg.version, pkg.version)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public void notifyInstalled(String condaYaml) {
         try {
             var env = parseCondaYaml(condaYaml);
@@ -193,10 +244,10 @@ public class CondaPackageRegistry {
                 return DEFAULT_ENV_NAME;
             }
 
-            var installedEnv = envs.values().stream()
-                .filter(t -> t.pythonVersion.equals(env.pythonVersion))
-                .findFirst()
-                .orElse(null);
+            var installedEnv = findSatisfying(env.packages, env.pythonVersion);
+            if (installedEnv == null) {
+                installedEnv = findWorking(env.pythonVersion);
+            }
 
             if (installedEnv == null) {
                 return "py" + env.pythonVersion;
@@ -210,6 +261,159 @@ public class CondaPackageRegistry {
         }
     }
 
+    public boolean isInstalled(String envName) {
+        return envs.containsKey(envName);
+    }
+
+    /**
+     * Name of the snapshot env for the resolved packages set of the conda yaml,
+     * the same set of packages always maps to the same snapshot
+     */
+    public static String snapshotEnvName(String condaYaml) {
+        var env = parseCondaYaml(condaYaml);
+
+        if (env == null) {
+            throw new IllegalArgumentException("Cannot build env from yaml");
+        }
+
+        return SNAPSHOT_ENV_PREFIX + envHash(env);
+    }
+
+    /**
+     * Canonical hash of env packages, does not depend on env name and order of dependencies
+     */
+    public static String envHash(CondaEnv env) {
+        var sb = new StringBuilder();
+        sb.append("python=").append(env.pythonVersion).append('\n');
+        sb.append("index-url=").append(env.pypiIndex).append('\n');
+        sb.append("no-deps=").append(env.noDeps).append('\n');
+        env.extraIndexUrls.stream().sorted()
+            .forEach(url -> sb.append("extra-index-url=").append(url).append('\n'));
+        env.trustedHosts.stream().sorted()
+            .forEach(host -> sb.append("trusted-host=").append(host).append('\n'));
+        env.packages.values().stream().sorted(Comparator.comparing(Package::name))
+            .forEach(p -> sb.append("package=").append(p.name).append("==")
+                .append(p.version != null ? p.version : "").append('\n'));
+
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Registers installed snapshot env, persists its description for the next {@link #init}
+     * and evicts least recently used snapshots if they exceed the disk budget
+     */
+    public void notifySnapshotInstalled(String envName, String condaYaml) {
+        var env = parseCondaYaml(condaYaml);
+        if (env == null) {
+            LOG.warn("Cannot save installed snapshot {}", condaYaml);
+            return;
+        }
+
+        var envYaml = buildYaml(new CondaEnv(envName, env.packages, env.pythonVersion, env.pypiIndex, env.noDeps,
+            env.extraIndexUrls, env.trustedHosts));
+        envs.put(envName, parseCondaYaml(envYaml));
+
+        long sizeKb;
+        try {
+            sizeKb = persistSnapshot(envName, envYaml);
+        } catch (Exception e) {
+            LOG.error("Cannot persist conda env snapshot {}: ", envName, e);
+            sizeKb = 0;
+        }
+
+        snapshotSizes.put(envName, sizeKb);
+        evictSnapshots(envName);
+    }
+
+    public void notifyUsed(String envName) {
+        // touch access order
+        snapshotSizes.get(envName);
+    }
+
+    private void evictSnapshots(String keep) {
+        long totalKb = snapshotSizes.values().stream().mapToLong(Long::longValue).sum();
+
+        var it = snapshotSizes.entrySet().iterator();
+        while (totalKb > snapshotsDiskBudgetKb && it.hasNext()) {
+            var snapshot = it.next();
+            if (snapshot.getKey().equals(keep)) {
+                continue;
+            }
+
+            LOG.info("Remove conda env snapshot {} of size {} KB", snapshot.getKey(), snapshot.getValue());
+            try {
+                execInConda("conda env remove --yes --name %s".formatted(snapshot.getKey()));
+            } catch (Exception e) {
+                LOG.error("Cannot remove conda env snapshot {}: ", snapshot.getKey(), e);
+                continue;
+            }
+
+            totalKb -= snapshot.getValue();
+            envs.remove(snapshot.getKey());
+            it.remove();
+        }
+    }
+
+    private long persistSnapshot(String envName, String envYaml) throws IOException {
+        var encoded = Base64.getEncoder().encodeToString(envYaml.getBytes(StandardCharsets.UTF_8));
+        var out = execInConda((
+            "conda activate %s && size=$(du -sk \"$CONDA_PREFIX\" | cut -f1) && " +
+            "{ echo \"%s $size\"; echo %s | base64 -d; } > \"$CONDA_PREFIX/%s\" && echo $size"
+        ).formatted(envName, SNAPSHOT_SIZE_MARKER, encoded, CONDA_YAML_FILE));
+        return Long.parseLong(out.strip());
+    }
+
+    private Map<String, String> readPersistedEnvs(List<String> envPrefixes) throws IOException {
+        var prefixes = envPrefixes.stream()
+            .map(p -> "'" + p.replace("'", "'\\''") + "'")
+            .collect(Collectors.joining(" "));
+
+        var out = execInConda(
+            "for p in %s; do if [ -f \"$p/%s\" ]; then echo \"%s$p\"; cat \"$p/%s\"; echo; fi; done"
+                .formatted(prefixes, CONDA_YAML_FILE, ENV_STATE_MARKER, CONDA_YAML_FILE));
+
+        var result = new HashMap<String, String>();
+        String prefix = null;
+        var yaml = new StringBuilder();
+        for (var line : out.split("\n")) {
+            if (line.startsWith(ENV_STATE_MARKER)) {
+                if (prefix != null) {
+                    result.put(prefix, yaml.toString());
+                }
+                prefix = line.substring(ENV_STATE_MARKER.length());
+                yaml.setLength(0);
+            } else {
+                yaml.append(line).append('\n');
+            }
+        }
+        if (prefix != null) {
+            result.put(prefix, yaml.toString());
+        }
+        return result;
+    }
+
+    @Nullable
+    private static Long parseSnapshotSize(String condaYaml) {
+        var firstLine = condaYaml.lines().findFirst().orElse("");
+        if (!firstLine.startsWith(SNAPSHOT_SIZE_MARKER)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(firstLine.substring(SNAPSHOT_SIZE_MARKER.length()).strip());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isSnapshot(String envName) {
+        return envName.startsWith(SNAPSHOT_ENV_PREFIX);
+    }
+
     @Nullable
     public static CondaEnv parseCondaYaml(String condaYaml) {
         var yaml = new Yaml();
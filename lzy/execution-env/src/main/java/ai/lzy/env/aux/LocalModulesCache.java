@@ -0,0 +1,323 @@
+package ai.lzy.env.aux;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Worker-level cache of extracted local modules archives.
+ * <p>
+ * Archives are identified by url without query, pylzy puts content hash into archive path
+ * and signs url with query parameters, so the same archive can be fetched by different urls.
+ * Missing archives are fetched in parallel and extracted directly from the network stream.
+ * Cached trees are hard-linked into the target directory (or copied, if linking is not possible),
+ * so cached files are read-only to keep them from being changed through the links.
+ * Least recently used trees are evicted when total size exceeds the limit.
+ */
+public class LocalModulesCache {
+    private static final Logger LOG = LogManager.getLogger(LocalModulesCache.class);
+
+    public static final Path DEFAULT_ROOT = Path.of("/tmp/lzy-local-modules-cache");
+    public static final long DEFAULT_MAX_SIZE_BYTES = 2L << 30;  // 2 GiB
+    public static final int DEFAULT_FETCH_THREADS = 4;
+
+    private static volatile LocalModulesCache instance = null;
+
+    private final Path root;
+    private final long maxSizeBytes;
+    private final ExecutorService fetchExecutor;
+
+    // key -> entry, in access order, guarded by this
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // key -> fetch in progress, guarded by this
+    private final Map<String, CompletableFuture<Entry>> fetches = new HashMap<>();
+    // key -> number of acquires waiting for the fetch, guarded by this
+    private final Map<String, Integer> fetchWaiters = new HashMap<>();
+    private long totalSizeBytes = 0;
+
+    private record Entry(String key, Path path, long sizeBytes, AtomicInteger pins) {}
+
+    public LocalModulesCache(Path root, long maxSizeBytes, int fetchThreads) {
+        this.root = root;
+        this.maxSizeBytes = maxSizeBytes;
+
+        var threadCounter = new AtomicInteger(0);
+        this.fetchExecutor = Executors.newFixedThreadPool(fetchThreads, r -> {
+            var thread = new Thread(r, "local-modules-fetch-" + threadCounter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // cache index lives in memory, so trees from previous runs are unknown
+        try {
+            deleteRecursively(root);
+        } catch (IOException e) {
+            LOG.warn("Cannot clear local modules cache dir {}: {}", root, e.getMessage());
+        }
+    }
+
+    public static LocalModulesCache instance() {
+        if (instance == null) {
+            synchronized (LocalModulesCache.class) {
+                if (instance == null) {
+                    instance = new LocalModulesCache(DEFAULT_ROOT, DEFAULT_MAX_SIZE_BYTES, DEFAULT_FETCH_THREADS);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Installs modules into target dir, modules are applied in the iteration order of the map
+     *
+     * @param modules module name -> archive url
+     * @throws ModuleInstallationException with name of the first failed module
+     */
+    public void install(Map<String, String> modules, Path targetDir) throws ModuleInstallationException {
+        var names = new ArrayList<String>(modules.size());
+        var futures = new ArrayList<CompletableFuture<Entry>>(modules.size());
+        for (var module : modules.entrySet()) {
+            names.add(module.getKey());
+            futures.add(acquire(module.getKey(), module.getValue()));
+        }
+
+        try {
+            for (int i = 0; i < futures.size(); ++i) {
+                final Entry entry;
+                try {
+                    entry = futures.get(i).join();
+                } catch (CompletionException e) {
+                    throw new ModuleInstallationException(names.get(i), e.getCause() != null ? e.getCause() : e);
+                }
+
+                try {
+                    linkTree(entry.path(), targetDir);
+                } catch (IOException e) {
+                    throw new ModuleInstallationException(names.get(i), e);
+                }
+            }
+        } finally {
+            // wait for all fetches, even after failure, to unpin all acquired entries
+            var acquired = new ArrayList<Entry>(futures.size());
+            for (var future : futures) {
+                var entry = future.exceptionally(e -> null).join();
+                if (entry != null) {
+                    acquired.add(entry);
+                }
+            }
+            release(acquired);
+        }
+    }
+
+    private synchronized CompletableFuture<Entry> acquire(String name, String url) {
+        final String key;
+        try {
+            key = cacheKey(url);
+        } catch (URISyntaxException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        var entry = entries.get(key);
+        if (entry != null) {
+            LOG.info("Local module '{}' found in cache", name);
+            entry.pins().incrementAndGet();
+            return CompletableFuture.completedFuture(entry);
+        }
+
+        var fetch = fetches.get(key);
+        if (fetch == null) {
+            fetch = CompletableFuture.supplyAsync(() -> fetch(name, key, url), fetchExecutor);
+            fetches.put(key, fetch);
+        }
+        fetchWaiters.merge(key, 1, Integer::sum);
+
+        // entry is pinned for all waiters when it is published, see fetch()
+        return fetch;
+    }
+
+    private Entry fetch(String name, String key, String url) {
+        var path = root.resolve(hash(key));
+        var tmpPath = root.resolve(path.getFileName() + ".tmp-" + UUID.randomUUID());
+
+        try {
+            LOG.info("Fetching local module '{}' into cache {}", name, path);
+            Files.createDirectories(tmpPath);
+
+            long size;
+            try (var in = new URL(url).openStream()) {
+                size = extract(in, tmpPath);
+            }
+            deleteRecursively(path);  // leftovers of not completely evicted entry
+            Files.move(tmpPath, path, StandardCopyOption.ATOMIC_MOVE);
+
+            final Entry entry;
+            synchronized (this) {
+                fetches.remove(key);
+                entry = new Entry(key, path, size, new AtomicInteger(fetchWaiters.remove(key)));
+                entries.put(key, entry);
+                totalSizeBytes += size;
+                evict();
+            }
+            return entry;
+        } catch (Exception e) {
+            synchronized (this) {
+                fetches.remove(key);
+                fetchWaiters.remove(key);
+            }
+            try {
+                deleteRecursively(tmpPath);
+            } catch (IOException ex) {
+                LOG.warn("Cannot remove {}: {}", tmpPath, ex.getMessage());
+            }
+            throw new CompletionException(e);
+        }
+    }
+
+    private synchronized void release(List<Entry> acquired) {
+        for (var entry : acquired) {
+            entry.pins().decrementAndGet();
+        }
+        evict();
+    }
+
+    // guarded by this
+    private void evict() {
+        var it = entries.values().iterator();
+        while (totalSizeBytes > maxSizeBytes && it.hasNext()) {
+            var entry = it.next();
+            if (entry.pins().get() > 0) {
+                continue;
+            }
+
+            LOG.info("Evict local module {} of size {} from cache", entry.path(), entry.sizeBytes());
+            it.remove();
+            totalSizeBytes -= entry.sizeBytes();
+            try {
+                deleteRecursively(entry.path());
+            } catch (IOException e) {
+                LOG.warn("Cannot remove evicted local module {}: {}", entry.path(), e.getMessage());
+            }
+        }
+    }
+
+    private static long extract(InputStream in, Path targetDir) throws IOException {
+        long size = 0;
+        try (var zipStream = new ZipInputStream(in)) {
+            var zipEntry = zipStream.getNextEntry();
+            while (zipEntry != null) {
+                final Path entryTargetPath = targetDir.resolve(zipEntry.getName()).normalize();
+                if (!entryTargetPath.startsWith(targetDir)) {
+                    throw new IOException(
+                        "Zip entry '%s' is trying to escape target path '%s'".formatted(entryTargetPath, targetDir));
+                }
+                if (zipEntry.isDirectory()) {
+                    Files.createDirectories(entryTargetPath);
+                } else {
+                    Files.createDirectories(entryTargetPath.getParent());
+                    size += Files.copy(zipStream, entryTargetPath, StandardCopyOption.REPLACE_EXISTING);
+                    if (!entryTargetPath.toFile().setReadOnly()) {
+                        throw new IOException("Cannot make '%s' read-only".formatted(entryTargetPath));
+                    }
+                }
+                zipEntry = zipStream.getNextEntry();
+            }
+        }
+        return size;
+    }
+
+    private static void linkTree(Path source, Path target) throws IOException {
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                var targetFile = target.resolve(source.relativize(file));
+                Files.deleteIfExists(targetFile);
+                try {
+                    Files.createLink(targetFile, file);
+                } catch (IOException | UnsupportedOperationException e) {
+                    // different file systems or links are not supported
+                    Files.copy(file, targetFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        Files.walkFileTree(path, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static String cacheKey(String url) throws URISyntaxException {
+        var uri = new URI(url);
+        return new URI(uri.getScheme(), uri.getAuthority(), uri.getPath(), null, null).toString();
+    }
+
+    private static String hash(String key) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static class ModuleInstallationException extends Exception {
+        private final String moduleName;
+
+        public ModuleInstallationException(String moduleName, Throwable cause) {
+            super(cause.getMessage(), cause);
+            this.moduleName = moduleName;
+        }
+
+        public String moduleName() {
+            return moduleName;
+        }
+    }
+}
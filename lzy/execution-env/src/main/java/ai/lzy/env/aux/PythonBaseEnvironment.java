@@ -3,18 +3,11 @@ package ai.lzy.env.aux;
 import ai.lzy.env.logs.LogStream;
 import org.apache.logging.log4j.Logger;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.net.URL;
 import java.nio.file.FileSystemException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.util.Map;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 
 public interface PythonBaseEnvironment extends AuxEnvironment {
 
@@ -35,66 +28,35 @@ public interface PythonBaseEnvironment extends AuxEnvironment {
         }
 
         log.info("Created directory {} to download local modules into", localModulesPath);
-        for (var entry : localModules.entrySet()) {
-            installLocalModule(entry.getKey(), entry.getValue(), localModulesPath, log, userOut, userErr);
-        }
+        install(localModules, localModulesPath, log, userOut, userErr);
     }
 
     static void installLocalModule(String name, String url, Path path, Logger log, LogStream userOut, LogStream userErr)
         throws InstallationException
     {
-        log.info("Installing local module '{}' from {}", name, url);
-        userOut.log("Installing local module '%s'".formatted(name));
-
-        File tempFile = null;
-        try {
-            tempFile = File.createTempFile("tmp-file", ".zip");
+        install(Map.of(name, url), path, log, userOut, userErr);
+    }
 
-            try (InputStream in = new URL(url).openStream()) {
-                Files.copy(in, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-            }
+    private static void install(Map<String, String> localModules, Path localModulesPath, Logger log,
+                                LogStream userOut, LogStream userErr) throws InstallationException
+    {
+        for (var entry : localModules.entrySet()) {
+            log.info("Installing local module '{}' from {}", entry.getKey(), entry.getValue());
+            userOut.log("Installing local module '%s'".formatted(entry.getKey()));
+        }
 
-            log.info("Trying to unzip module archive {}", tempFile.getAbsolutePath());
-            extractFiles(tempFile, path);
-        } catch (Exception e) {
-            log.error("Failed to install local module '{}'", name, e);
-            var excType = e instanceof FileSystemException fse
+        try {
+            LocalModulesCache.instance().install(localModules, localModulesPath);
+        } catch (LocalModulesCache.ModuleInstallationException e) {
+            log.error("Failed to install local module '{}'", e.moduleName(), e.getCause());
+            var excType = e.getCause() instanceof FileSystemException fse
                 ? fse.getClass().getSimpleName() + " "
                 : "";
-            var errorMessage = "Failed to install local module '%s': %s%s".formatted(name, excType, e.getMessage());
+            var errorMessage = "Failed to install local module '%s': %s%s".formatted(e.moduleName(), excType,
+                e.getCause().getMessage());
             userErr.log(errorMessage);
 
-            if (tempFile != null) {
-                try {
-                    //noinspection ResultOfMethodCallIgnored
-                    tempFile.delete();
-                } catch (Exception ignored) {
-                    // ignore
-                }
-            }
-
             throw new InstallationException(errorMessage);
         }
     }
-
-    private static void extractFiles(File zip, Path targetDir) throws IOException {
-        try (var zipStream = new ZipInputStream(new FileInputStream(zip))) {
-            ZipEntry zipEntry = zipStream.getNextEntry();
-            while (zipEntry != null) {
-                final Path entryTargetPath = targetDir.resolve(zipEntry.getName());
-                if (!entryTargetPath.startsWith(targetDir)) {
-                    throw new IOException(
-                        "Zip entry '%s' is trying to escape target path '%s'".formatted(entryTargetPath, targetDir));
-                }
-                if (zipEntry.isDirectory()) {
-                    Files.createDirectories(entryTargetPath);
-                } else {
-                    Files.createDirectories(entryTargetPath.getParent());
-                    Files.copy(zipStream, entryTargetPath, StandardCopyOption.REPLACE_EXISTING);
-                }
-                zipEntry = zipStream.getNextEntry();
-            }
-        }
-    }
-
 }
@@ -1,6 +1,7 @@
 package ai.lzy.env.base;
 
 import ai.lzy.env.logs.LogStream;
+import ai.lzy.env.logs.Logs;
 import com.github.dockerjava.api.DockerClient;
 import com.github.dockerjava.api.async.ResultCallback;
 import com.github.dockerjava.api.async.ResultCallbackTemplate;
@@ -23,15 +24,19 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -43,12 +48,20 @@ public class DockerEnvironment extends BaseEnvironment {
     private static final long GB_AS_BYTES = 1073741824;
     private static final String NO_MATCHING_MANIFEST_ERROR = "no matching manifest";
     private static final String NOT_MATCH_PLATFORM_ERROR = "was found but does not match the specified platform";
+    // exit event is sent right after exec output is closed, so it usually has already arrived
+    private static final Duration EXIT_EVENT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration OOM_EVENT_TIMEOUT = Duration.ofSeconds(1);
+
+    // image -> pull in progress, shared by all environments of the worker
+    private static final Map<String, CompletableFuture<Void>> IN_FLIGHT_PULLS = new ConcurrentHashMap<>();
 
     @Nullable
     public String containerId = null;
     private final DockerEnvDescription config;
     private final DockerClient client;
     private final Retry retry;
+    @Nullable
+    private DockerEventsListener events = null;
 
     public DockerEnvironment(DockerEnvDescription config) {
         this(
@@ -123,10 +136,15 @@ public class DockerEnvironment extends BaseEnvironment {
         final ExecCreateCmdResponse exec = retry.executeSupplier(execCmd::exec);
         LOG.info("Executing cmd '{}'", String.join(" ", command));
 
+        final var events = events();
+        final var startedAt = Instant.now();
+        events.registerExec(exec.getId());
+
         var feature = new CompletableFuture<>();
 
-        var startCmd = retry.executeSupplier(() ->
-            client.execStartCmd(exec.getId())
+        final Closeable startCmd;
+        try {
+            startCmd = retry.executeSupplier(() -> client.execStartCmd(exec.getId())
                 .exec(new ResultCallbackTemplate<>() {
                     @Override
                     public void onComplete() {
@@ -167,6 +185,10 @@ public class DockerEnvironment extends BaseEnvironment {
                         }
                     }
                 }));
+        } catch (RuntimeException e) {
+            events.unregisterExec(exec.getId());
+            throw e;
+        }
 
         return new LzyProcess() {
             @Override
@@ -188,20 +210,26 @@ public class DockerEnvironment extends BaseEnvironment {
             public int waitFor() throws InterruptedException, OutOfMemoryException {
                 try {
                     feature.get();
-                    var rc = Math.toIntExact(
-                        retry.executeSupplier(() -> client.inspectExecCmd(exec.getId()).exec())
-                            .getExitCodeLong());
+
+                    var rc = events.awaitExitCode(exec.getId(), EXIT_EVENT_TIMEOUT);
+                    if (rc == null) {
+                        LOG.warn("Exit event of cmd '{}' not received, inspect it", String.join(" ", command));
+                        rc = Math.toIntExact(
+                            retry.executeSupplier(() -> client.inspectExecCmd(exec.getId()).exec())
+                                .getExitCodeLong());
+                    }
 
                     if (rc == 0) {
                         return 0;
                     }
 
-                    if (isOomKilled()) {
+                    if (isOomKilled(startedAt)) {
                         throw new OutOfMemoryException();
                     }
 
                     return rc;
                 } catch (InterruptedException e) {
+                    events.unregisterExec(exec.getId());
                     try {
                         startCmd.close();
                     } catch (IOException ex) {
@@ -210,6 +238,7 @@ public class DockerEnvironment extends BaseEnvironment {
                     throw e;
                 } catch (ExecutionException e) {
                     // ignored
+                    events.unregisterExec(exec.getId());
                     return 1;
                 }
             }
@@ -228,12 +257,33 @@ public class DockerEnvironment extends BaseEnvironment {
     @Override
     public void close() throws Exception {
         if (containerId != null) {
-            retry.executeSupplier(() -> client.killContainerCmd(containerId).exec());
-            retry.executeSupplier(() -> client.pruneCmd(PruneType.CONTAINERS).exec());
+            retry.executeSupplier(() -> client.removeContainerCmd(containerId)
+                .withForce(true)
+                .withRemoveVolumes(true)
+                .exec());
+            if (events != null) {
+                events.forgetContainer(containerId);
+            }
             containerId = null;
         }
     }
 
+    private DockerEventsListener events() {
+        if (events == null) {
+            events = DockerEventsListener.forConfig(config.dockerClientConfig());
+        }
+        return events;
+    }
+
+    /**
+     * Pulls image of the environment in advance, without creating a container
+     */
+    public void prepullImage() throws InstallationException {
+        try (var logs = new PrepullLogs()) {
+            pullImageIfNeeded(config.image(), logs.stream, logs.stream);
+        }
+    }
+
     void pullImageIfNeeded(String image, LogStream out, LogStream err) throws InstallationException {
         try {
             var resp = client.inspectImageCmd(image).exec();
@@ -246,6 +296,63 @@ public class DockerEnvironment extends BaseEnvironment {
             // ignored
         }
 
+        var pull = new CompletableFuture<Void>();
+        var inFlightPull = IN_FLIGHT_PULLS.putIfAbsent(image, pull);
+        if (inFlightPull != null) {
+            if (awaitInFlightPull(image, inFlightPull, out, err)) {
+                return;
+            }
+        }
+
+        try {
+            pullImage(image, out, err);
+            pull.complete(null);
+        } catch (InstallationException e) {
+            pull.completeExceptionally(e);
+            throw e;
+        } finally {
+            if (inFlightPull == null) {
+                IN_FLIGHT_PULLS.remove(image, pull);
+            }
+        }
+    }
+
+    /**
+     * @return true if image was pulled by the in-flight pull, false if it failed and image must be pulled again
+     */
+    private boolean awaitInFlightPull(String image, CompletableFuture<Void> inFlightPull, LogStream out,
+                                      LogStream err) throws InstallationException
+    {
+        var msg = "Image '%s' is already being pulled, waiting for it...".formatted(image);
+        LOG.info(msg);
+        out.log(msg);
+
+        try {
+            inFlightPull.get();
+        } catch (InterruptedException e) {
+            LOG.error("Image {} pull was interrupted", image);
+            err.log("Image pull was interrupted");
+            throw new InstallationException("Image pull was interrupted");
+        } catch (ExecutionException e) {
+            LOG.warn("In-flight pull of image {} failed, pull it again: {}", image, e.getCause().getMessage());
+            return false;
+        }
+
+        msg = "Image '%s' pull done".formatted(image);
+        LOG.info(msg);
+        out.log(msg);
+
+        try {
+            validateImagePlatform(client.inspectImageCmd(image).exec(), err);
+        } catch (DockerException e) {
+            LOG.error("Inspect image {} failed: {}", image, e.getMessage(), e);
+            err.log("Image inspect failed with error " + e.getMessage());
+            throw new InstallationException("Image inspect failed with error " + e.getMessage());
+        }
+        return true;
+    }
+
+    private void pullImage(String image, LogStream out, LogStream err) throws InstallationException {
         var msg = "Image '%s' not found in cached images, try to pull it...".formatted(image);
         LOG.info(msg);
         out.log(msg);
@@ -430,7 +537,7 @@ public class DockerEnvironment extends BaseEnvironment {
         }
     }
 
-    private boolean isOomKilled() {
+    private boolean isOomKilled(Instant startedAt) throws InterruptedException {
         if (containerId == null) {
             return false;
         }
@@ -448,7 +555,18 @@ public class DockerEnvironment extends BaseEnvironment {
             LOG.error("Inspect container {} failed: {}", containerId, e.getMessage(), e);
         }
 
-        // workload OOM
+        // workload OOM, docker doesn't order 'oom' and 'exec_die' events, so wait for a late one
+        var events = events();
+        if (events.isConnected()) {
+            if (events.awaitOom(containerId, startedAt, OOM_EVENT_TIMEOUT)) {
+                return true;
+            }
+            if (events.isConnected()) {
+                return false;
+            }
+            // stream is broken while waiting, the event can be lost
+        }
+
         try {
             var killed = new boolean[]{false};
             var latch = new CountDownLatch(1);
@@ -474,13 +592,19 @@ public class DockerEnvironment extends BaseEnvironment {
             return killed[0];
         } catch (DockerException e) {
             LOG.error("Docker events for {} failed: {}", containerId, e.getMessage(), e);
-        } catch (InterruptedException ignored) {
-            return false;
         }
 
         return false;
     }
 
+    private static final class PrepullLogs extends Logs {
+        private final LogStream stream = stream("prepull");
+
+        PrepullLogs() {
+            init(List.of());
+        }
+    }
+
     private static AutoCloseable withLoggerLevel(Class<?> loggerClass, Level level) {
         var logger = LogManager.getContext().getLogger(loggerClass);
 
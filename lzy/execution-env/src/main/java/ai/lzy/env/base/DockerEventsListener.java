@@ -0,0 +1,262 @@
+package ai.lzy.env.base;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.Event;
+import com.github.dockerjava.api.model.EventType;
+import com.github.dockerjava.core.DockerClientConfig;
+import com.github.dockerjava.core.DockerClientImpl;
+import com.github.dockerjava.httpclient5.ApacheDockerHttpClient;
+import jakarta.annotation.Nullable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single docker events subscription per docker host.
+ * Dispatches exit codes of execs and OOM events of containers to waiting processes,
+ * so process completion doesn't need extra inspect requests to the docker daemon.
+ */
+final class DockerEventsListener {
+    private static final Logger LOG = LogManager.getLogger(DockerEventsListener.class);
+
+    private static final String EXEC_DIE = "exec_die";
+    private static final String OOM = "oom";
+    private static final Duration RESUBSCRIBE_DELAY = Duration.ofSeconds(1);
+
+    private static final Map<String, DockerEventsListener> LISTENERS = new ConcurrentHashMap<>();
+
+    private final DockerClient client;
+    private final ScheduledExecutorService resubscriber;
+    private final Object oomMonitor = new Object();
+
+    // execId -> exit code
+    private final Map<String, CompletableFuture<Integer>> execs = new ConcurrentHashMap<>();
+    // containerId -> time of the last OOM
+    private final Map<String, Instant> ooms = new ConcurrentHashMap<>();
+
+    private volatile boolean connected = false;
+    private volatile boolean closed = false;
+    @Nullable
+    private volatile Closeable stream = null;
+    // seconds since epoch of the last received event, to replay missed events after reconnect
+    private volatile long lastEventTime;
+
+    DockerEventsListener(DockerClient client) {
+        this.client = client;
+        this.lastEventTime = Instant.now().getEpochSecond();
+        this.resubscriber = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "docker-events-resubscriber");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    static DockerEventsListener forConfig(DockerClientConfig config) {
+        return LISTENERS.computeIfAbsent(config.getDockerHost().toString(), host -> {
+            var client = DockerClientImpl.getInstance(config, new ApacheDockerHttpClient.Builder()
+                .dockerHost(config.getDockerHost())
+                .build());
+            var listener = new DockerEventsListener(client);
+            listener.subscribe();
+            Runtime.getRuntime().addShutdownHook(new Thread(listener::close, "docker-events-shutdown"));
+            return listener;
+        });
+    }
+
+    boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Must be called before exec start, otherwise exit event can be missed
+     */
+    void registerExec(String execId) {
+        execs.put(execId, new CompletableFuture<>());
+    }
+
+    void unregisterExec(String execId) {
+        execs.remove(execId);
+    }
+
+    /**
+     * @return exit code of the registered exec or null if it wasn't received during timeout,
+     *         or it cannot be received because the listener is disconnected
+     */
+    @Nullable
+    Integer awaitExitCode(String execId, Duration timeout) throws InterruptedException {
+        var exitCode = execs.get(execId);
+        if (exitCode == null) {
+            return null;
+        }
+
+        try {
+            if (!isConnected()) {
+                // event can be lost, don't wait for it
+                return exitCode.getNow(null);
+            }
+            return exitCode.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            return null;
+        } finally {
+            execs.remove(execId);
+        }
+    }
+
+    boolean oomSince(String containerId, Instant since) {
+        var lastOom = ooms.get(containerId);
+        return lastOom != null && !lastOom.isBefore(since);
+    }
+
+    /**
+     * Waits for OOM event of the container, it can be received after the exit event of the exec
+     *
+     * @return true if container had OOM since the given time
+     */
+    boolean awaitOom(String containerId, Instant since, Duration timeout) throws InterruptedException {
+        var deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (oomMonitor) {
+            while (!oomSince(containerId, since)) {
+                var left = deadline - System.nanoTime();
+                if (left <= 0 || !isConnected()) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(oomMonitor, left);
+            }
+            return true;
+        }
+    }
+
+    void forgetContainer(String containerId) {
+        ooms.remove(containerId);
+    }
+
+    void close() {
+        closed = true;
+        connected = false;
+        resubscriber.shutdownNow();
+
+        var currentStream = stream;
+        try {
+            if (currentStream != null) {
+                currentStream.close();
+            }
+            client.close();
+        } catch (Exception e) {
+            LOG.warn("Cannot close docker events stream: {}", e.getMessage());
+        }
+    }
+
+    void subscribe() {
+        if (closed) {
+            return;
+        }
+
+        try {
+            client.eventsCmd()
+                .withEventTypeFilter(EventType.CONTAINER)
+                .withEventFilter(EXEC_DIE, OOM)
+                .withSince(String.valueOf(lastEventTime))
+                .exec(new ResultCallback.Adapter<Event>() {
+                    @Override
+                    public void onStart(Closeable stream) {
+                        super.onStart(stream);
+                        DockerEventsListener.this.stream = stream;
+                        LOG.info("Subscribed to docker events");
+                        connected = true;
+                    }
+
+                    @Override
+                    public void onNext(Event event) {
+                        dispatch(event);
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        LOG.warn("Docker events stream failed: {}", throwable.getMessage());
+                        resubscribe();
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        LOG.warn("Docker events stream completed");
+                        resubscribe();
+                    }
+                });
+        } catch (Exception e) {
+            LOG.warn("Cannot subscribe to docker events: {}", e.getMessage());
+            resubscribe();
+        }
+    }
+
+    private void resubscribe() {
+        connected = false;
+        stream = null;
+        // OOM waiters don't wait for events of the broken stream
+        synchronized (oomMonitor) {
+            oomMonitor.notifyAll();
+        }
+        if (closed) {
+            return;
+        }
+
+        try {
+            resubscriber.schedule(this::subscribe, RESUBSCRIBE_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Docker events listener is closed, don't resubscribe");
+        }
+    }
+
+    private void dispatch(Event event) {
+        if (event.getTime() != null) {
+            lastEventTime = Math.max(lastEventTime, event.getTime());
+        }
+
+        var actor = event.getActor();
+        if (actor == null || event.getAction() == null) {
+            return;
+        }
+
+        if (event.getAction().equals(OOM)) {
+            LOG.info("OOM in container {}", actor.getId());
+            var time = event.getTimeNano() != null
+                ? Instant.ofEpochSecond(0, event.getTimeNano())
+                : Instant.now();
+            synchronized (oomMonitor) {
+                ooms.merge(actor.getId(), time, (a, b) -> a.isAfter(b) ? a : b);
+                oomMonitor.notifyAll();
+            }
+            return;
+        }
+
+        // action is 'exec_die' for recent daemons, older ones can append exec details
+        if (event.getAction().startsWith(EXEC_DIE) && actor.getAttributes() != null) {
+            var execId = actor.getAttributes().get("execID");
+            var exitCode = actor.getAttributes().get("exitCode");
+            if (execId == null || exitCode == null) {
+                return;
+            }
+
+            var future = execs.get(execId);
+            if (future != null) {
+                try {
+                    future.complete(Integer.parseInt(exitCode));
+                } catch (NumberFormatException e) {
+                    LOG.warn("Unexpected exit code '{}' of exec {}", exitCode, execId);
+                }
+            }
+        }
+    }
+}
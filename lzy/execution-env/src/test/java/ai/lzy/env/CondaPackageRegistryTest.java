@@ -403,4 +403,91 @@ public class CondaPackageRegistryTest {
             Assert.fail();
         }
     }
+
+    @Test
+    public void testSnapshotNameCanonical() {
+        var name = CondaPackageRegistry.snapshotEnvName("""
+            name: default
+            dependencies:
+            - python=3.9.15
+            - pip
+            - pip:
+              - numpy
+              - pylzy==1.0.0
+              - serialzy==1.0.0""");
+
+        Assert.assertTrue(name.startsWith("lzy-"));
+        Assert.assertEquals(name, CondaPackageRegistry.snapshotEnvName("""
+            name: other
+            dependencies:
+            - pip
+            - python=3.9.1
+            - pip:
+              - serialzy==1.0.0
+              - pylzy==1.0.0
+              - Numpy"""));
+        Assert.assertNotEquals(name, CondaPackageRegistry.snapshotEnvName("""
+            name: default
+            dependencies:
+            - python=3.9.15
+            - pip
+            - pip:
+              - numpy
+              - pylzy==1.0.1
+              - serialzy==1.0.0"""));
+        Assert.assertNotEquals(name, CondaPackageRegistry.snapshotEnvName("""
+            name: default
+            dependencies:
+            - python=3.10.1
+            - pip
+            - pip:
+              - numpy
+              - pylzy==1.0.0
+              - serialzy==1.0.0"""));
+    }
+
+    @Test
+    public void testSnapshotReused() {
+        var yaml = """
+            name: default
+            dependencies:
+            - python=3.9.15
+            - pip
+            - pip:
+              - numpy
+              - scipy==1.1.0""";
+
+        var snapshot = CondaPackageRegistry.snapshotEnvName(yaml);
+        var envYaml = condaPackageRegistry.buildCondaYaml(yaml);
+        Assert.assertNotNull(envYaml);
+        Assert.assertEquals("default", condaPackageRegistry.resolveEnvName(yaml));
+
+        condaPackageRegistry.setSnapshotsDiskBudgetKb(Long.MAX_VALUE);
+        condaPackageRegistry.notifySnapshotInstalled(snapshot, envYaml);
+
+        Assert.assertTrue(condaPackageRegistry.isInstalled(snapshot));
+        Assert.assertNull(condaPackageRegistry.buildCondaYaml(yaml));
+        Assert.assertEquals(snapshot, condaPackageRegistry.resolveEnvName(yaml));
+
+        // packages of the base env are still resolved to it
+        Assert.assertEquals("default", condaPackageRegistry.resolveEnvName("""
+            name: default
+            dependencies:
+            - python=3.9.15
+            - pip
+            - pip:
+              - pylzy==1.0.0"""));
+
+        // snapshot is never updated in place
+        var otherYaml = condaPackageRegistry.buildCondaYaml("""
+            name: default
+            dependencies:
+            - python=3.9.15
+            - pip
+            - pip:
+              - numpy
+              - scipy==1.2.0""");
+        Assert.assertNotNull(otherYaml);
+        Assert.assertTrue(otherYaml.contains("name: default"));
+    }
 }
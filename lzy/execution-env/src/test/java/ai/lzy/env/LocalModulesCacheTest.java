@@ -0,0 +1,115 @@
+package ai.lzy.env;
+
+import ai.lzy.env.aux.LocalModulesCache;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class LocalModulesCacheTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private Path archives;
+
+    @Before
+    public void setUp() throws IOException {
+        archives = tmp.newFolder("archives").toPath();
+    }
+
+    @Test
+    public void reuseFetchedModule() throws Exception {
+        var cache = new LocalModulesCache(tmp.getRoot().toPath().resolve("cache"), 1 << 20, 2);
+        var url = zip("a.zip", Map.of("a/__init__.py", "x = 1", "a/b/c.py", "y = 2"));
+
+        var target1 = tmp.newFolder("t1").toPath();
+        cache.install(Map.of("a", url + "?signature=1"), target1);
+        Assert.assertEquals("x = 1", Files.readString(target1.resolve("a/__init__.py")));
+        Assert.assertEquals("y = 2", Files.readString(target1.resolve("a/b/c.py")));
+
+        // archive is not fetched again, even with another signature
+        Files.delete(archives.resolve("a.zip"));
+
+        var target2 = tmp.newFolder("t2").toPath();
+        cache.install(Map.of("a", url + "?signature=2"), target2);
+        Assert.assertEquals("x = 1", Files.readString(target2.resolve("a/__init__.py")));
+        Assert.assertEquals("y = 2", Files.readString(target2.resolve("a/b/c.py")));
+    }
+
+    @Test
+    public void installManyModules() throws Exception {
+        var cache = new LocalModulesCache(tmp.getRoot().toPath().resolve("cache"), 1 << 20, 2);
+
+        var modules = new LinkedHashMap<String, String>();
+        for (int i = 0; i < 10; ++i) {
+            modules.put("m" + i, zip("m" + i + ".zip", Map.of("m" + i + "/__init__.py", "i = " + i,
+                "common.py", "last = " + i)));
+        }
+
+        var target = tmp.newFolder("t").toPath();
+        cache.install(modules, target);
+
+        for (int i = 0; i < 10; ++i) {
+            Assert.assertEquals("i = " + i, Files.readString(target.resolve("m" + i + "/__init__.py")));
+        }
+        // modules are applied in order
+        Assert.assertEquals("last = 9", Files.readString(target.resolve("common.py")));
+    }
+
+    @Test
+    public void cachedFilesAreReadOnly() throws Exception {
+        var cache = new LocalModulesCache(tmp.getRoot().toPath().resolve("cache"), 1 << 20, 2);
+        var url = zip("a.zip", Map.of("a.py", "x = 1"));
+
+        var target = tmp.newFolder("t").toPath();
+        cache.install(Map.of("a", url), target);
+
+        // installed file may be a hard link to the cached one
+        var permissions = Files.getPosixFilePermissions(target.resolve("a.py"));
+        Assert.assertFalse(permissions.contains(PosixFilePermission.OWNER_WRITE));
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() throws Exception {
+        var cache = new LocalModulesCache(tmp.getRoot().toPath().resolve("cache"), 15, 2);
+        var a = zip("a.zip", Map.of("a.py", "0123456789"));
+        var b = zip("b.zip", Map.of("b.py", "0123456789"));
+
+        cache.install(Map.of("a", a), tmp.newFolder("t1").toPath());
+        cache.install(Map.of("b", b), tmp.newFolder("t2").toPath());
+
+        Files.delete(archives.resolve("a.zip"));
+        Files.delete(archives.resolve("b.zip"));
+
+        // b is still cached, a is evicted
+        cache.install(Map.of("b", b), tmp.newFolder("t3").toPath());
+
+        var e = Assert.assertThrows(LocalModulesCache.ModuleInstallationException.class,
+            () -> cache.install(Map.of("a", a), tmp.newFolder("t4").toPath()));
+        Assert.assertEquals("a", e.moduleName());
+    }
+
+    private String zip(String name, Map<String, String> files) throws IOException {
+        var path = archives.resolve(name);
+        try (var out = new ZipOutputStream(new FileOutputStream(path.toFile()))) {
+            for (var file : files.entrySet()) {
+                out.putNextEntry(new ZipEntry(file.getKey()));
+                out.write(file.getValue().getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+        return path.toUri().toString();
+    }
+}
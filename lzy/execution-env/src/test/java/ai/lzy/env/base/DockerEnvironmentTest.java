@@ -20,6 +20,8 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -93,6 +95,56 @@ public class DockerEnvironmentTest {
         executeTest(this::doTestPrepareImageNotCachedImageDockerClientException);
     }
 
+    @Test
+    public void testJoinInFlightPull() throws Exception {
+        executeTest(this::doTestJoinInFlightPull);
+    }
+
+    private void doTestJoinInFlightPull() throws Exception {
+        when(inspectImageResponse.getArch()).thenReturn("amd64");
+        when(inspectImageResponse.getOs()).thenReturn("linux");
+        var notFound = new NotFoundException("No such image: %s".formatted(IMAGE));
+        when(inspectImageCmd.exec()).thenThrow(notFound).thenThrow(notFound).thenReturn(inspectImageResponse);
+
+        var pullStarted = new CountDownLatch(1);
+        var pullAllowed = new CountDownLatch(1);
+        PullImageResultCallback pullImageResultCallback = mock(PullImageResultCallback.class);
+        when(pullImageCmdForRightPlatform.exec(any())).thenReturn(pullImageResultCallback);
+        when(pullImageResultCallback.awaitCompletion()).thenAnswer(x -> {
+            pullStarted.countDown();
+            pullAllowed.await();
+            return callbackAdapter;
+        });
+
+        // static mock of docker client works only in the current thread
+        var firstEnv = createEnvironment("linux/amd64");
+        var secondEnv = createEnvironment("linux/amd64");
+
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            var first = executor.submit(() -> {
+                firstEnv.pullImageIfNeeded(IMAGE, logStream, logStream);
+                return null;
+            });
+            pullStarted.await();
+
+            var second = executor.submit(() -> {
+                secondEnv.pullImageIfNeeded(IMAGE, logStream, logStream);
+                return null;
+            });
+            verify(logStream, timeout(5000))
+                .log("Image '%s' is already being pulled, waiting for it...".formatted(IMAGE));
+
+            pullAllowed.countDown();
+            first.get();
+            second.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(dockerClient, times(1)).pullImageCmd(IMAGE);
+    }
+
     private void doTestPrepareImageCachedImage() throws Exception {
         when(inspectImageResponse.getArch()).thenReturn("amd64");
         when(inspectImageResponse.getOs()).thenReturn("linux");
@@ -0,0 +1,156 @@
+package ai.lzy.env.base;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.EventsCmd;
+import com.github.dockerjava.api.model.Event;
+import com.github.dockerjava.api.model.EventActor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DockerEventsListenerTest {
+
+    private final DockerClient client = mock(DockerClient.class);
+    private final EventsCmd eventsCmd = mock(EventsCmd.class, RETURNS_SELF);
+    private final List<ResultCallback<Event>> subscriptions = new CopyOnWriteArrayList<>();
+    private DockerEventsListener listener;
+
+    @Before
+    public void before() {
+        when(client.eventsCmd()).thenReturn(eventsCmd);
+        when(eventsCmd.exec(any())).thenAnswer(invocation -> {
+            ResultCallback<Event> callback = invocation.getArgument(0);
+            subscriptions.add(callback);
+            return callback;
+        });
+
+        listener = new DockerEventsListener(client);
+        listener.subscribe();
+        lastSubscription().onStart(mock(Closeable.class));
+    }
+
+    @After
+    public void after() {
+        listener.close();
+    }
+
+    @Test
+    public void dispatchExitCode() throws Exception {
+        listener.registerExec("exec-1");
+        listener.registerExec("exec-2");
+
+        lastSubscription().onNext(execDie("container", "exec-1", 42));
+
+        Assert.assertTrue(listener.isConnected());
+        Assert.assertEquals(42, (int) listener.awaitExitCode("exec-1", Duration.ofSeconds(1)));
+        Assert.assertNull(listener.awaitExitCode("exec-2", Duration.ofMillis(100)));
+        // awaited execs are forgotten
+        Assert.assertNull(listener.awaitExitCode("exec-1", Duration.ofMillis(100)));
+    }
+
+    @Test
+    public void dispatchOom() throws Exception {
+        var startedAt = Instant.now();
+
+        lastSubscription().onNext(oom("container-1"));
+
+        Assert.assertTrue(listener.oomSince("container-1", startedAt));
+        Assert.assertFalse(listener.oomSince("container-2", startedAt));
+        Assert.assertFalse(listener.oomSince("container-1", Instant.now().plusSeconds(10)));
+
+        listener.forgetContainer("container-1");
+        Assert.assertFalse(listener.oomSince("container-1", startedAt));
+    }
+
+    @Test
+    public void awaitLateOom() throws Exception {
+        var startedAt = Instant.now();
+        var executor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            // OOM event comes after the exit event
+            executor.schedule(() -> lastSubscription().onNext(oom("container")), 200, TimeUnit.MILLISECONDS);
+
+            Assert.assertTrue(listener.awaitOom("container", startedAt, Duration.ofSeconds(5)));
+            Assert.assertFalse(listener.awaitOom("other-container", startedAt, Duration.ofMillis(100)));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void resubscribeOnError() throws Exception {
+        listener.registerExec("exec");
+
+        var lastEventTime = Instant.now().getEpochSecond() + 100;
+        lastSubscription().onNext(execDie("container", "other-exec", 0).withTime(lastEventTime));
+        lastSubscription().onError(new RuntimeException("connection reset"));
+
+        // exit event can be lost while disconnected, don't wait for it
+        Assert.assertFalse(listener.isConnected());
+        var startedAt = System.nanoTime();
+        Assert.assertNull(listener.awaitExitCode("exec", Duration.ofSeconds(10)));
+        Assert.assertTrue(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(5));
+        Assert.assertFalse(listener.awaitOom("container", Instant.now(), Duration.ofSeconds(10)));
+
+        // missed events are replayed from the last received one
+        verify(eventsCmd, timeout(5000).times(2)).exec(any());
+        verify(eventsCmd, times(2)).withSince(any());
+        verify(eventsCmd).withSince(String.valueOf(lastEventTime));
+
+        listener.registerExec("exec");
+        lastSubscription().onStart(mock(Closeable.class));
+        Assert.assertTrue(listener.isConnected());
+
+        lastSubscription().onNext(execDie("container", "exec", 1));
+        Assert.assertEquals(1, (int) listener.awaitExitCode("exec", Duration.ofSeconds(1)));
+    }
+
+    @Test
+    public void noResubscribeAfterClose() {
+        listener.close();
+        lastSubscription().onComplete();
+
+        Assert.assertFalse(listener.isConnected());
+        verify(eventsCmd, after(2000).times(1)).exec(any());
+    }
+
+    private ResultCallback<Event> lastSubscription() {
+        return subscriptions.get(subscriptions.size() - 1);
+    }
+
+    private static Event execDie(String containerId, String execId, int exitCode) {
+        return new Event("exec_die", containerId, "image", null)
+            .withAction("exec_die")
+            .withActor(new EventActor()
+                .withId(containerId)
+                .withAttributes(Map.of("execID", execId, "exitCode", String.valueOf(exitCode))));
+    }
+
+    private static Event oom(String containerId) {
+        return new Event("oom", containerId, "image", null)
+            .withAction("oom")
+            .withActor(new EventActor()
+                .withId(containerId)
+                .withAttributes(Map.of()));
+    }
+}
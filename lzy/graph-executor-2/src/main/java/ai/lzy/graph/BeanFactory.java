@@ -21,6 +21,11 @@ import jakarta.inject.Singleton;
 
 @Factory
 public class BeanFactory {
+    // registered once per process, so it survives recreation of the application context
+    private static final Counter EXECUTOR_ERRORS = Counter
+        .build("executor_errors", "Executor unexpected errors")
+        .subsystem("graphexecutor")
+        .register();
 
     @Bean(preDestroy = "shutdown")
     @Singleton
@@ -45,12 +50,8 @@ public class BeanFactory {
     @Bean(preDestroy = "shutdown")
     @Named("GraphExecutorOperationsExecutor")
     public OperationsExecutor operationsExecutor() {
-        final Counter errors = Counter
-            .build("executor_errors", "Executor unexpected errors")
-            .subsystem("graphexecutor")
-            .register();
-
-        return new OperationsExecutor(5, 20, errors::inc, e -> e instanceof InjectedFailures.TerminateException);
+        return new OperationsExecutor(5, 20, EXECUTOR_ERRORS::inc,
+            e -> e instanceof InjectedFailures.TerminateException);
     }
 
     @Singleton
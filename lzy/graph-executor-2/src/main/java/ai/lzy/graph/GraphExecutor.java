@@ -1,6 +1,7 @@
 package ai.lzy.graph;
 
 import ai.lzy.graph.config.ServiceConfig;
+import ai.lzy.iam.clients.CachingAccessClient;
 import ai.lzy.iam.grpc.client.AccessServiceGrpcClient;
 import ai.lzy.iam.grpc.client.AuthenticateServiceGrpcClient;
 import ai.lzy.iam.grpc.interceptors.AccessServerInterceptor;
@@ -51,7 +52,7 @@ public class GraphExecutor {
 
         var auth = new AuthServerInterceptor(new AuthenticateServiceGrpcClient(APP, iamChannel));
         var internalUserOnly = new AccessServerInterceptor(
-            new AccessServiceGrpcClient(APP, iamChannel),
+            CachingAccessClient.wrap(new AccessServiceGrpcClient(APP, iamChannel), config.getIam()),
             config.getIam().createRenewableToken()::get, Root.INSTANCE, AuthPermission.INTERNAL_AUTHORIZE);
 
         server = newGrpcServer("0.0.0.0", config.getPort(), auth)
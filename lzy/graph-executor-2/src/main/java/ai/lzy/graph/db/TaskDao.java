@@ -6,6 +6,7 @@ import jakarta.annotation.Nullable;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface TaskDao {
     void createTasks(List<TaskState> tasks, @Nullable TransactionHandle transaction) throws SQLException;
@@ -20,5 +21,7 @@ public interface TaskDao {
 
     List<TaskState> loadGraphTasks(String graphId) throws SQLException;
 
+    void forEachGraphTask(String graphId, Consumer<TaskState> consumer) throws SQLException;
+
     List<TaskState> loadActiveTasks(String instanceId) throws SQLException;
 }
@@ -6,7 +6,6 @@ import ai.lzy.graph.model.TaskSlotDescription;
 import ai.lzy.graph.model.TaskState;
 import ai.lzy.model.db.DbOperation;
 import ai.lzy.model.db.TransactionHandle;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.Nullable;
 import jakarta.inject.Inject;
@@ -14,6 +13,7 @@ import jakarta.inject.Singleton;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -21,19 +21,23 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Singleton
 public class TaskDaoImpl implements TaskDao {
     private static final Logger LOG = LogManager.getLogger(TaskDaoImpl.class);
 
+    // rows fetched by server-side cursor at once while streaming tasks
+    private static final int FETCH_SIZE = 1000;
+
     private static final String TASK_INSERT_FIELDS_LIST = """
         id, task_name, op_id, graph_id, status, workflow_id, workflow_name, user_id,
-        task_description, task_state, allocator_session_id, error_description, owner_instance_id""";
+        task_description_proto, task_state_bin, allocator_session_id, error_description, owner_instance_id""";
 
     private static final String TASK_SELECT_FIELDS_LIST = """
         task.id, task.task_name, task.op_id, task.graph_id, task.status::text as status, task.workflow_id,
-        task.workflow_name, task.user_id, task.task_description, task.task_state, task.allocator_session_id,
-        task.error_description, task.owner_instance_id""";
+        task.workflow_name, task.user_id, task.task_description, task.task_state, task.task_description_proto,
+        task.task_state_bin, task.allocator_session_id, task.error_description, task.owner_instance_id""";
 
     private static final String TASK_INSERT_STATEMENT = """
         INSERT INTO task (%s)
@@ -47,14 +51,16 @@ public class TaskDaoImpl implements TaskDao {
         UPDATE task
         SET error_description = ?,
             status = ?::task_status,
-            task_state = ?
+            task_state = NULL,
+            task_state_bin = ?
         WHERE id = ?""";
 
     private static final String TASK_UPDATE_COND_STATEMENT = """
         UPDATE task
         SET error_description = ?,
             status = ?::task_status,
-            task_state = ?
+            task_state = NULL,
+            task_state_bin = ?
         WHERE id = ? AND status = ?::task_status""";
 
     private static final String TASK_GET_BY_ID_STATEMENT = """
@@ -115,8 +121,8 @@ public class TaskDaoImpl implements TaskDao {
                     st.setString(++idx, task.executionId());
                     st.setString(++idx, task.workflowName());
                     st.setString(++idx, task.userId());
-                    st.setString(++idx, objectMapper.writeValueAsString(task.taskSlotDescription()));
-                    st.setString(++idx, objectMapper.writeValueAsString(task.executingState()));
+                    st.setBytes(++idx, TaskStateCodec.encodeDescription(task.taskSlotDescription()));
+                    st.setBytes(++idx, TaskStateCodec.encodeExecutingState(task.executingState()));
                     st.setString(++idx, task.allocatorSessionId());
                     st.setString(++idx, task.errorDescription());
                     st.setString(++idx, config.getInstanceId());
@@ -124,7 +130,7 @@ public class TaskDaoImpl implements TaskDao {
                     st.addBatch();
                 }
                 st.executeBatch();
-            } catch (JsonProcessingException e) {
+            } catch (IOException e) {
                 throw new SQLException(e);
             }
 
@@ -135,8 +141,8 @@ public class TaskDaoImpl implements TaskDao {
                         st.setString(2, id);
                         st.addBatch();
                     }
-                    st.executeBatch();
                 }
+                st.executeBatch();
             }
         });
     }
@@ -150,11 +156,11 @@ public class TaskDaoImpl implements TaskDao {
                 int idx = 0;
                 st.setString(++idx, task.errorDescription());
                 st.setString(++idx, task.status().name());
-                st.setString(++idx, objectMapper.writeValueAsString(task.executingState()));
+                st.setBytes(++idx, TaskStateCodec.encodeExecutingState(task.executingState()));
                 st.setString(++idx, task.id());
 
                 st.executeUpdate();
-            } catch (JsonProcessingException e) {
+            } catch (IOException e) {
                 throw new SQLException(e);
             }
         });
@@ -171,12 +177,12 @@ public class TaskDaoImpl implements TaskDao {
                 int idx = 0;
                 st.setString(++idx, task.errorDescription());
                 st.setString(++idx, task.status().name());
-                st.setString(++idx, objectMapper.writeValueAsString(task.executingState()));
+                st.setBytes(++idx, TaskStateCodec.encodeExecutingState(task.executingState()));
                 st.setString(++idx, task.id());
                 st.setString(++idx, expectedStatus.name());
 
                 return st.executeUpdate() > 0;
-            } catch (JsonProcessingException e) {
+            } catch (IOException e) {
                 throw new SQLException(e);
             }
         });
@@ -201,34 +207,45 @@ public class TaskDaoImpl implements TaskDao {
 
     @Override
     public List<TaskState> loadGraphTasks(String graphId) throws SQLException {
-        try (var connection = storage.connect();
-             PreparedStatement st = connection.prepareStatement(QUERY_LOAD_GRAPH_TASKS))
-        {
-            st.setString(1, graphId);
+        var list = new ArrayList<TaskState>();
+        forEachGraphTask(graphId, list::add);
+        return list;
+    }
 
-            var rs = st.executeQuery();
-            var list = new ArrayList<TaskState>();
-            while (rs.next()) {
-                list.add(fromResultSet(rs));
-            }
-            return list;
-        }
+    @Override
+    public void forEachGraphTask(String graphId, Consumer<TaskState> consumer) throws SQLException {
+        stream(QUERY_LOAD_GRAPH_TASKS, graphId, consumer);
     }
 
     @Override
     public List<TaskState> loadActiveTasks(String instanceId) throws SQLException {
-        try (var connection = storage.connect();
-             PreparedStatement st = connection.prepareStatement(QUERY_LOAD_ACTIVE_TASKS))
-        {
-            st.setString(1, instanceId);
-
-            var rs = st.executeQuery();
+        var list = new ArrayList<TaskState>();
+        stream(QUERY_LOAD_ACTIVE_TASKS, instanceId, list::add);
+        return list;
+    }
 
-            var list = new ArrayList<TaskState>();
-            while (rs.next()) {
-                list.add(fromResultSet(rs));
+    /**
+     * Reads tasks by server-side cursor, which works only within transaction, so rows are not materialized at once.
+     */
+    private void stream(String query, String arg, Consumer<TaskState> consumer) throws SQLException {
+        try (var connection = storage.connect()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement st = connection.prepareStatement(query)) {
+                st.setFetchSize(FETCH_SIZE);
+                st.setString(1, arg);
+
+                try (var rs = st.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(fromResultSet(rs));
+                    }
+                }
+                connection.commit();
+            } catch (Exception e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
             }
-            return list;
         }
     }
 
@@ -241,8 +258,8 @@ public class TaskDaoImpl implements TaskDao {
         final String workflowId = resultSet.getString("workflow_id");
         final String workflowName = resultSet.getString("workflow_name");
         final String userId = resultSet.getString("user_id");
-        final String taskDescription = resultSet.getString("task_description");
-        final String taskState = resultSet.getString("task_state");
+        final byte[] taskDescriptionProto = resultSet.getBytes("task_description_proto");
+        final byte[] taskStateBin = resultSet.getBytes("task_state_bin");
         final String errorDescription = resultSet.getString("error_description");
         final String allocSession = resultSet.getString("allocator_session_id");
         final String dependentsFrom = resultSet.getString("dependend_from");
@@ -251,9 +268,16 @@ public class TaskDaoImpl implements TaskDao {
         final TaskState.ExecutingState taskOpExecutingState;
 
         try {
-            taskSlotDescription = objectMapper.readValue(taskDescription, TaskSlotDescription.class);
-            taskOpExecutingState = objectMapper.readValue(taskState, TaskState.ExecutingState.class);
-        } catch (JsonProcessingException e) {
+            // json columns are written by previous versions only
+            taskSlotDescription = taskDescriptionProto != null
+                ? TaskStateCodec.decodeDescription(taskDescriptionProto)
+                : objectMapper.readValue(resultSet.getString("task_description"), TaskSlotDescription.class);
+
+            final String taskStateJson = resultSet.getString("task_state");
+            taskOpExecutingState = taskStateJson != null
+                ? objectMapper.readValue(taskStateJson, TaskState.ExecutingState.class)
+                : TaskStateCodec.decodeExecutingState(taskStateBin);
+        } catch (IOException e) {
             throw new SQLException(e);
         }
 
@@ -0,0 +1,94 @@
+package ai.lzy.graph.db.impl;
+
+import ai.lzy.graph.model.TaskSlotDescription;
+import ai.lzy.graph.model.TaskState;
+import ai.lzy.v1.common.LMO;
+import com.google.protobuf.InvalidProtocolBufferException;
+import jakarta.annotation.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Compact binary encoding of task fields stored in db.
+ * Task description is stored as {@link LMO.TaskDesc} protobuf, executing state as fields written by
+ * {@link DataOutputStream}, prefixed by version.
+ * Null strings of the description are decoded as empty ones, nulls of the executing state are kept.
+ */
+final class TaskStateCodec {
+    private static final byte EXECUTING_STATE_VERSION = 1;
+
+    private TaskStateCodec() {}
+
+    static byte[] encodeDescription(TaskSlotDescription desc) {
+        return TaskState.toProto(desc).toByteArray();
+    }
+
+    static TaskSlotDescription decodeDescription(byte[] bytes) throws InvalidProtocolBufferException {
+        return TaskState.slotDescriptionFromProto(LMO.TaskDesc.parseFrom(bytes));
+    }
+
+    @Nullable
+    static byte[] encodeExecutingState(@Nullable TaskState.ExecutingState state) throws IOException {
+        if (state == null) {
+            return null;
+        }
+
+        var bytes = new ByteArrayOutputStream(128);
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeByte(EXECUTING_STATE_VERSION);
+            out.writeUTF(state.opId());
+            writeNullableString(out, state.allocOperationId());
+            writeNullableString(out, state.vmId());
+            out.writeByte(state.fromCache() == null ? -1 : (state.fromCache() ? 1 : 0));
+            writeNullableString(out, state.workerHost());
+            out.writeInt(state.workerPort());
+            writeNullableString(out, state.workerOperationId());
+        }
+        return bytes.toByteArray();
+    }
+
+    @Nullable
+    static TaskState.ExecutingState decodeExecutingState(@Nullable byte[] bytes) throws IOException {
+        if (bytes == null) {
+            return null;
+        }
+
+        try (var in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            var version = in.readByte();
+            if (version != EXECUTING_STATE_VERSION) {
+                throw new IOException("Unknown version %s of executing state".formatted(version));
+            }
+
+            var opId = in.readUTF();
+            var allocOperationId = readNullableString(in);
+            var vmId = readNullableString(in);
+            var fromCache = switch (in.readByte()) {
+                case -1 -> null;
+                case 0 -> Boolean.FALSE;
+                default -> Boolean.TRUE;
+            };
+            var workerHost = readNullableString(in);
+            var workerPort = in.readInt();
+            var workerOperationId = readNullableString(in);
+
+            return new TaskState.ExecutingState(opId, allocOperationId, vmId, fromCache, workerHost, workerPort,
+                workerOperationId);
+        }
+    }
+
+    private static void writeNullableString(DataOutputStream out, @Nullable String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    @Nullable
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -1,5 +1,7 @@
 package ai.lzy.graph.model;
 
+import jakarta.annotation.Nullable;
+
 import java.util.List;
 import java.util.Map;
 
@@ -11,7 +13,7 @@ public record TaskSlotDescription(
     String command,
     List<Slot> slots,
     Map<String, String> slotsToChannelsAssignments,
-    KafkaTopicDescription stdLogsKafkaTopic
+    @Nullable KafkaTopicDescription stdLogsKafkaTopic
 ) {
     public record Slot(
         String name,
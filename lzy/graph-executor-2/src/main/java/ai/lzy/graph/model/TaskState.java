@@ -8,6 +8,7 @@ import jakarta.annotation.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -89,36 +90,11 @@ public final class TaskState {
     }
 
     public static TaskState fromProto(LGE.ExecuteGraphRequest.TaskDesc task, GraphState initialGraphState) {
-        var slots = task.getOperation().getSlotsList().stream()
-            .map(slot -> new TaskSlotDescription.Slot(
-                slot.getName(),
-                TaskSlotDescription.Slot.Media.valueOf(slot.getMedia().name()),
-                TaskSlotDescription.Slot.Direction.valueOf(slot.getDirection().name()),
-                slot.getContentType().getDataFormat(),
-                slot.getContentType().getSchemeFormat(),
-                slot.getContentType().getSchemeContent(),
-                slot.getContentType().getMetadataMap()))
-            .toList();
-
         var slotAssignments = task.getSlotAssignmentsList().stream()
             .collect(Collectors.toMap(
                 LGE.ExecuteGraphRequest.TaskDesc.SlotToChannelAssignment::getSlotName,
                 LGE.ExecuteGraphRequest.TaskDesc.SlotToChannelAssignment::getChannelId));
 
-        var taskSlotDescription = new TaskSlotDescription(
-            task.getOperation().getName(),
-            task.getOperation().getDescription(),
-            task.getOperation().getRequirements().getPoolLabel(),
-            task.getOperation().getRequirements().getZone(),
-            task.getOperation().getCommand(),
-            slots,
-            slotAssignments,
-            new TaskSlotDescription.KafkaTopicDescription(
-                task.getOperation().getKafkaTopic().getBootstrapServersList(),
-                task.getOperation().getKafkaTopic().getUsername(),
-                task.getOperation().getKafkaTopic().getPassword(),
-                task.getOperation().getKafkaTopic().getTopic()));
-
         return new TaskState(
             task.getId(),
             task.getOperation().getName(),
@@ -129,54 +105,111 @@ public final class TaskState {
             initialGraphState.workflowName(),
             initialGraphState.userId(),
             initialGraphState.allocatorSessionId(),
-            taskSlotDescription,
+            slotDescriptionFromProto(task.getOperation(), slotAssignments),
             new ArrayList<>(),
             new ArrayList<>(),
             null,
             null);
     }
 
+    public static TaskSlotDescription slotDescriptionFromProto(LMO.TaskDesc task) {
+        var slotAssignments = task.getSlotAssignmentsList().stream()
+            .collect(Collectors.toMap(
+                LMO.SlotToChannelAssignment::getSlotName,
+                LMO.SlotToChannelAssignment::getChannelId));
+
+        return slotDescriptionFromProto(task.getOperation(), slotAssignments);
+    }
+
+    private static TaskSlotDescription slotDescriptionFromProto(LMO.Operation operation,
+                                                                Map<String, String> slotAssignments)
+    {
+        var slots = operation.getSlotsList().stream()
+            .map(slot -> new TaskSlotDescription.Slot(
+                slot.getName(),
+                TaskSlotDescription.Slot.Media.valueOf(slot.getMedia().name()),
+                TaskSlotDescription.Slot.Direction.valueOf(slot.getDirection().name()),
+                slot.getContentType().getDataFormat(),
+                slot.getContentType().getSchemeFormat(),
+                slot.getContentType().getSchemeContent(),
+                slot.getContentType().getMetadataMap()))
+            .toList();
+
+        return new TaskSlotDescription(
+            operation.getName(),
+            operation.getDescription(),
+            operation.getRequirements().getPoolLabel(),
+            operation.getRequirements().getZone(),
+            operation.getCommand(),
+            slots,
+            slotAssignments,
+            operation.hasKafkaTopic()
+                ? new TaskSlotDescription.KafkaTopicDescription(
+                    operation.getKafkaTopic().getBootstrapServersList(),
+                    operation.getKafkaTopic().getUsername(),
+                    operation.getKafkaTopic().getPassword(),
+                    operation.getKafkaTopic().getTopic())
+                : null);
+    }
+
     public LMO.TaskDesc toProto() {
+        return toProto(taskSlotDescription);
+    }
+
+    /**
+     * Null strings of the description are converted to empty ones, proto has no absent strings.
+     * Null kafka topic stays absent.
+     */
+    public static LMO.TaskDesc toProto(TaskSlotDescription desc) {
+        // descriptions stored by previous versions may have null fields
+        var operation = LMO.Operation.newBuilder()
+            .setName(nullToEmpty(desc.name()))
+            .setDescription(nullToEmpty(desc.description()))
+            .setCommand(nullToEmpty(desc.command()))
+            .setRequirements(LMO.Requirements.newBuilder()
+                .setZone(nullToEmpty(desc.zone()))
+                .setPoolLabel(nullToEmpty(desc.poolLabel()))
+                .build())
+            .addAllSlots(desc.slots().stream()
+                .map(slot -> LMS.Slot.newBuilder()
+                    .setName(slot.name())
+                    .setMedia(LMS.Slot.Media.valueOf(slot.media().name()))
+                    .setDirection(LMS.Slot.Direction.valueOf(slot.direction().name()))
+                    .setContentType(LMD.DataScheme.newBuilder()
+                        .setDataFormat(nullToEmpty(slot.dataFormat()))
+                        .setSchemeFormat(nullToEmpty(slot.schemeFormat()))
+                        .setSchemeContent(nullToEmpty(slot.schemeContent()))
+                        .putAllMetadata(slot.metadata())
+                        .build())
+                    .build())
+                .toList());
+
+        var kafkaTopic = desc.stdLogsKafkaTopic();
+        if (kafkaTopic != null) {
+            operation.setKafkaTopic(LMO.KafkaTopicDescription.newBuilder()
+                .setUsername(nullToEmpty(kafkaTopic.username()))
+                .setPassword(nullToEmpty(kafkaTopic.password()))
+                .setTopic(nullToEmpty(kafkaTopic.topic()))
+                .addAllBootstrapServers(kafkaTopic.bootstrapServers())
+                .build());
+        }
+
         return LMO.TaskDesc.newBuilder()
             .addAllSlotAssignments(
-                taskSlotDescription.slotsToChannelsAssignments().entrySet().stream()
+                desc.slotsToChannelsAssignments().entrySet().stream()
                     .map(e -> LMO.SlotToChannelAssignment.newBuilder()
                         .setSlotName(e.getKey())
                         .setChannelId(e.getValue())
                         .build())
                     .toList())
-            .setOperation(
-                LMO.Operation.newBuilder()
-                    .setName(taskSlotDescription.name())
-                    .setDescription(taskSlotDescription.description())
-                    .setCommand(taskSlotDescription.command())
-                    .setRequirements(LMO.Requirements.newBuilder()
-                        .setZone(taskSlotDescription.zone())
-                        .setPoolLabel(taskSlotDescription.poolLabel())
-                        .build())
-                    .setKafkaTopic(LMO.KafkaTopicDescription.newBuilder()
-                        .setUsername(taskSlotDescription.stdLogsKafkaTopic().username())
-                        .setPassword(taskSlotDescription.stdLogsKafkaTopic().password())
-                        .setTopic(taskSlotDescription.stdLogsKafkaTopic().topic())
-                        .addAllBootstrapServers(taskSlotDescription.stdLogsKafkaTopic().bootstrapServers())
-                        .build())
-                    .addAllSlots(taskSlotDescription.slots().stream()
-                        .map(slot -> LMS.Slot.newBuilder()
-                            .setName(slot.name())
-                            .setMedia(LMS.Slot.Media.valueOf(slot.media().name()))
-                            .setDirection(LMS.Slot.Direction.valueOf(slot.direction().name()))
-                            .setContentType(LMD.DataScheme.newBuilder()
-                                .setDataFormat(slot.dataFormat())
-                                .setSchemeFormat(slot.schemeContent())
-                                .setSchemeContent(slot.schemeContent())
-                                .putAllMetadata(slot.metadata())
-                                .build())
-                            .build())
-                        .toList())
-                    .build())
+            .setOperation(operation)
             .build();
     }
 
+    private static String nullToEmpty(@Nullable String value) {
+        return Objects.requireNonNullElse(value, "");
+    }
+
     public LGE.TaskExecutionStatus toProtoStatus() {
         var builder = LGE.TaskExecutionStatus.newBuilder()
             .setTaskId(id)
@@ -178,13 +178,13 @@ public class GraphServiceImpl implements GraphService {
 
             for (var graph : activeGraphs) {
                 LOG.info("Restore graph {}...", graph);
-                var tasks = taskDao.loadGraphTasks(graph.id());
+                var startedAt = System.nanoTime();
 
                 var waitingTasks = new HashMap<String, TaskState>();
                 var runningTasks = new HashMap<String, TaskState>();
                 var completedTasks = new HashMap<String, TaskState>();
 
-                for (var task : tasks) {
+                taskDao.forEachGraphTask(graph.id(), task -> {
                     switch (task.status()) {
                         case WAITING -> waitingTasks.put(task.id(), task);
                         case WAITING_ALLOCATION, ALLOCATING, EXECUTING -> runningTasks.put(task.id(), task);
@@ -193,7 +193,11 @@ public class GraphServiceImpl implements GraphService {
                             .formatted(graph.id(), task.id()));
                         default -> throw new RuntimeException("Unexpected task status " + task.status());
                     }
-                }
+                });
+
+                LOG.info("Loaded {} tasks of graph {} in {} ms",
+                    waitingTasks.size() + runningTasks.size() + completedTasks.size(), graph.id(),
+                    (System.nanoTime() - startedAt) / 1_000_000);
 
                 for (var task: completedTasks.values()) {
                     for (var depTaskId: task.tasksDependedFrom()) {
@@ -291,6 +291,7 @@ public class WorkerServiceImpl implements WorkerService {
         restoreWorker(vmId, host, port);
         var worker = requireNonNull(workers.get(vmId));
 
+        // tasks of graph executor have no env (see TaskState::toProto), so there are no images to prepull
         worker.stub.init(LWS.InitRequest.newBuilder()
             .setUserId(userId)
             .setWorkflowName(workflowName)
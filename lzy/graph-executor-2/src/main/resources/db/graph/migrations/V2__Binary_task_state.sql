@@ -0,0 +1,3 @@
+ALTER TABLE task
+    ADD COLUMN task_description_proto BYTEA NULL,
+    ADD COLUMN task_state_bin         BYTEA NULL;
@@ -0,0 +1,211 @@
+package ai.lzy.graph.test;
+
+import ai.lzy.graph.config.ServiceConfig;
+import ai.lzy.graph.db.GraphDao;
+import ai.lzy.graph.db.TaskDao;
+import ai.lzy.graph.db.impl.GraphDaoImpl;
+import ai.lzy.graph.db.impl.GraphExecutorDataSource;
+import ai.lzy.graph.db.impl.TaskDaoImpl;
+import ai.lzy.graph.model.GraphState;
+import ai.lzy.graph.model.TaskSlotDescription;
+import ai.lzy.graph.model.TaskState;
+import ai.lzy.longrunning.Operation;
+import ai.lzy.longrunning.dao.OperationDao;
+import io.micronaut.context.ApplicationContext;
+import io.zonky.test.db.postgres.junit.EmbeddedPostgresRules;
+import io.zonky.test.db.postgres.junit.PreparedDbRule;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static ai.lzy.model.db.test.DatabaseTestUtils.preparePostgresConfig;
+
+public class TaskDaoTest {
+    private static final Logger LOG = LogManager.getLogger(TaskDaoTest.class);
+
+    private static final String LEGACY_DESCRIPTION_JSON = """
+        {"name":"op","description":"description","poolLabel":"s","zone":"zone","command":"echo 42",
+         "slots":[{"name":"in","media":"FILE","direction":"INPUT","dataFormat":"plain","schemeFormat":"",
+         "schemeContent":"","metadata":{"k":"v"}}],"slotsToChannelsAssignments":{"in":"ch"},
+         "stdLogsKafkaTopic":{"bootstrapServers":["kafka:9092"],"username":"user","password":"password",
+         "topic":"topic"}}""";
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(30);
+    @Rule
+    public PreparedDbRule db = EmbeddedPostgresRules.preparedDatabase(ds -> {});
+
+    private ApplicationContext context;
+    private TaskDao dao;
+    private GraphDao graphDao;
+    private ServiceConfig config;
+    private Operation operation;
+
+    @Before
+    public void setUp() throws SQLException {
+        context = ApplicationContext.run(preparePostgresConfig("graph-executor-2", db.getConnectionInfo()));
+        dao = context.getBean(TaskDaoImpl.class);
+        graphDao = context.getBean(GraphDaoImpl.class);
+        config = context.getBean(ServiceConfig.class);
+
+        var opDao = context.getBean(OperationDao.class);
+        operation = Operation.create("user1", "Execute graph", null, null, null);
+        opDao.create(operation, null);
+
+        GraphState.disableLocking();
+    }
+
+    @After
+    public void tearDown() {
+        GraphState.enableLocking();
+        context.close();
+    }
+
+    @Test
+    public void createAndUpdateTest() throws SQLException {
+        createGraph("g1");
+
+        var task1 = task("t1", "g1", List.of());
+        var task2 = task("t2", "g1", List.of("t1"));
+        dao.createTasks(List.of(task1, task2), null);
+
+        Assert.assertEquals(task1.taskSlotDescription(), dao.getTaskById("t1").taskSlotDescription());
+        Assert.assertNull(dao.getTaskById("t1").executingState());
+
+        var executing = task1.toWaitAllocation("exec-op")
+            .toStartAllocation("alloc-op", "vm-1")
+            .toExecutingState("host", 1234, false);
+        Assert.assertTrue(dao.updateTask(executing, TaskState.Status.WAITING, null));
+        Assert.assertFalse(dao.updateTask(executing, TaskState.Status.WAITING, null));
+
+        var loaded = dao.getTaskById("t1");
+        Assert.assertNotNull(loaded);
+        Assert.assertEquals(executing.executingState(), loaded.executingState());
+        Assert.assertEquals(task1.taskSlotDescription(), loaded.taskSlotDescription());
+        Assert.assertEquals(List.of("t1"), dao.getTaskById("t2").tasksDependedFrom());
+
+        var failed = executing.fail("error");
+        dao.updateTask(failed, null);
+        loaded = dao.getTaskById("t1");
+        Assert.assertEquals(TaskState.Status.FAILED, loaded.status());
+        Assert.assertEquals("error", loaded.errorDescription());
+        Assert.assertEquals(failed.executingState(), loaded.executingState());
+    }
+
+    @Test
+    public void readLegacyJsonTest() throws SQLException {
+        createGraph("g1");
+        dao.createTasks(List.of(task("t1", "g1", List.of())), null);
+
+        var storage = context.getBean(GraphExecutorDataSource.class);
+        try (var conn = storage.connect();
+             var st = conn.prepareStatement("""
+                 UPDATE task
+                 SET task_description = ?, task_state = ?, task_description_proto = NULL, task_state_bin = NULL
+                 WHERE id = 't1'"""))
+        {
+            st.setString(1, """
+                {"name":"op","description":"","poolLabel":"s","zone":"","command":"echo",
+                 "slots":[{"name":"in","media":"FILE","direction":"INPUT","dataFormat":"plain","schemeFormat":"",
+                 "schemeContent":"","metadata":{}}],"slotsToChannelsAssignments":{"in":"ch1"},
+                 "stdLogsKafkaTopic":{"bootstrapServers":[],"username":"","password":"","topic":""}}""");
+            st.setString(2, """
+                {"opId":"exec-op","allocOperationId":"alloc-op","vmId":"vm-1","fromCache":null,"workerHost":null,
+                 "workerPort":-1,"workerOperationId":null}""");
+            st.executeUpdate();
+        }
+
+        var loaded = dao.getTaskById("t1");
+        Assert.assertNotNull(loaded);
+        Assert.assertEquals(Map.of("in", "ch1"), loaded.taskSlotDescription().slotsToChannelsAssignments());
+        Assert.assertEquals(new TaskState.ExecutingState("exec-op", "alloc-op", "vm-1", null, null, -1, null),
+            loaded.executingState());
+    }
+
+    @Test
+    public void restoreManyTasksTest() throws SQLException {
+        final int tasksCount = 5000;
+        createGraph("g1");
+
+        var tasks = new ArrayList<TaskState>(tasksCount);
+        for (int i = 0; i < tasksCount; ++i) {
+            tasks.add(task("t" + i, "g1", i > 0 ? List.of("t" + (i - 1)) : List.of()));
+        }
+        dao.createTasks(tasks, null);
+
+        Assert.assertEquals(tasksCount, restoreGraphTasks("g1", "binary"));
+        Assert.assertEquals(tasksCount, dao.loadActiveTasks(config.getInstanceId()).size());
+
+        // the same tasks as written by previous versions
+        var storage = context.getBean(GraphExecutorDataSource.class);
+        try (var conn = storage.connect();
+             var st = conn.prepareStatement("""
+                 UPDATE task
+                 SET task_description = ?, task_description_proto = NULL
+                 WHERE graph_id = 'g1'"""))
+        {
+            st.setString(1, LEGACY_DESCRIPTION_JSON);
+            Assert.assertEquals(tasksCount, st.executeUpdate());
+        }
+
+        Assert.assertEquals(tasksCount, restoreGraphTasks("g1", "json"));
+    }
+
+    @Test
+    public void nullFieldsTest() throws SQLException {
+        createGraph("g1");
+
+        var description = new TaskSlotDescription(null, null, "s", null, "echo 42",
+            List.of(new TaskSlotDescription.Slot("in", TaskSlotDescription.Slot.Media.FILE,
+                TaskSlotDescription.Slot.Direction.INPUT, null, null, null, Map.of())),
+            Map.of("in", "ch-1"),
+            null);
+        dao.createTasks(List.of(new TaskState("t1", "op", operation.id(), "g1", TaskState.Status.WAITING, "exec1",
+            "workflow1", "user1", "sid1", description, new ArrayList<>(), new ArrayList<>(), null, null)), null);
+
+        // absent kafka topic is kept, null strings are read as empty ones
+        var loaded = dao.getTaskById("t1").taskSlotDescription();
+        Assert.assertNull(loaded.stdLogsKafkaTopic());
+        Assert.assertEquals("", loaded.name());
+        Assert.assertEquals("", loaded.description());
+        Assert.assertEquals("", loaded.zone());
+        Assert.assertEquals("", loaded.slots().get(0).dataFormat());
+        Assert.assertEquals("s", loaded.poolLabel());
+    }
+
+    private int restoreGraphTasks(String graphId, String format) throws SQLException {
+        var startedAt = System.nanoTime();
+        var count = new int[] {0};
+        dao.forEachGraphTask(graphId, task -> count[0]++);
+        LOG.info("Restored {} tasks stored as {} in {} ms", count[0], format,
+            (System.nanoTime() - startedAt) / 1_000_000);
+        return count[0];
+    }
+
+    private void createGraph(String graphId) throws SQLException {
+        graphDao.create(new GraphState(graphId, operation.id(), GraphState.Status.WAITING,
+            "exec1", "workflow1", "user1", "sid1", new EnumMap<>(GraphState.Status.class), null, null, null), null);
+    }
+
+    private TaskState task(String id, String graphId, List<String> dependsFrom) {
+        var description = new TaskSlotDescription("op", "description", "s", "zone", "echo 42",
+            List.of(new TaskSlotDescription.Slot("in", TaskSlotDescription.Slot.Media.FILE,
+                TaskSlotDescription.Slot.Direction.INPUT, "plain", "", "", Map.of("k", "v"))),
+            Map.of("in", "ch-" + id),
+            new TaskSlotDescription.KafkaTopicDescription(List.of("kafka:9092"), "user", "password", "topic"));
+
+        return new TaskState(id, "op", operation.id(), graphId, TaskState.Status.WAITING, "exec1", "workflow1",
+            "user1", "sid1", description, new ArrayList<>(), new ArrayList<>(dependsFrom), null, null);
+    }
+}
@@ -7,6 +7,7 @@ import ai.lzy.graph.db.GraphExecutionDao;
 import ai.lzy.graph.model.GraphDescription;
 import ai.lzy.graph.model.GraphExecutionState;
 import ai.lzy.graph.queue.QueueManager;
+import ai.lzy.iam.clients.CachingAccessClient;
 import ai.lzy.iam.grpc.client.AccessServiceGrpcClient;
 import ai.lzy.iam.grpc.client.AuthenticateServiceGrpcClient;
 import ai.lzy.iam.grpc.interceptors.AccessServerInterceptor;
@@ -272,7 +273,7 @@ public class GraphExecutorApi extends GraphExecutorGrpc.GraphExecutorImplBase {
         queueManager.start();
 
         final var internalUserOnly = new AccessServerInterceptor(
-            new AccessServiceGrpcClient(APP, iamChannel),
+            CachingAccessClient.wrap(new AccessServiceGrpcClient(APP, iamChannel), config.getIam()),
             config.getIam().createRenewableToken()::get, Root.INSTANCE, AuthPermission.INTERNAL_AUTHORIZE);
 
         server =
@@ -3,13 +3,13 @@ package ai.lzy.graph.db.impl;
 import ai.lzy.graph.db.GraphExecutionDao;
 import ai.lzy.graph.model.GraphDescription;
 import ai.lzy.graph.model.GraphExecutionState;
+import ai.lzy.graph.model.TaskDescription;
 import ai.lzy.graph.model.TaskExecution;
 import ai.lzy.model.db.DbOperation;
 import ai.lzy.model.db.Transaction;
 import ai.lzy.model.db.TransactionHandle;
 import ai.lzy.model.db.exceptions.DaoException;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micronaut.context.annotation.Requires;
 import jakarta.annotation.Nullable;
@@ -25,9 +25,15 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Singleton
 @Requires(notEnv = "test-mock")
@@ -39,13 +45,18 @@ public class GraphExecutionDaoImpl implements GraphExecutionDao {
 
     private static final String GRAPH_INSERT_FIELDS_LIST = """
         workflow_id, workflow_name, user_id, id, error_description, failed_task_id, failed_task_name, status,
-        graph_description_json, task_executions_json, current_execution_group_json, last_updated, acquired,
-        allocator_session_id""";
+        graph_description_json, last_updated, acquired, allocator_session_id""";
 
     private static final String GRAPH_SELECT_FIELDS_LIST = """
         workflow_id, workflow_name, user_id, id, error_description, failed_task_id, failed_task_name,
-        status::text as status, graph_description_json, task_executions_json, current_execution_group_json,
-        last_updated, acquired, allocator_session_id""";
+        status::text as status, graph_description_json, last_updated, acquired, allocator_session_id""";
+
+    // Executions are ordered from the newest to the oldest one, as GraphProcessor keeps them
+    private static final String EXECUTIONS_SELECT_QUERY = """
+        SELECT workflow_id, graph_id, task_id, task_description_id, in_current_group
+        FROM graph_task_execution
+        WHERE (workflow_id, graph_id) IN (SELECT workflow_id, id FROM graph_execution_state WHERE %s)
+        ORDER BY seq DESC""";
 
     @Inject
     public GraphExecutionDaoImpl(GraphExecutorDataSource storage) {
@@ -64,7 +75,7 @@ public class GraphExecutionDaoImpl implements GraphExecutionDao {
         return DbOperation.execute(transaction, storage, connection -> {
             try (PreparedStatement st = connection.prepareStatement("""
                     INSERT INTO graph_execution_state (%s)
-                    VALUES (?, ?, ?, ?, ?, ?, ?, ?::graph_execution_status, ?, ?, ?, ?, ?, ?)
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?::graph_execution_status, ?, ?, ?, ?)
                     """.formatted(GRAPH_INSERT_FIELDS_LIST)))
             {
                 String id = UUID.randomUUID().toString();
@@ -89,21 +100,10 @@ public class GraphExecutionDaoImpl implements GraphExecutionDao {
     @Nullable
     @Override
     public GraphExecutionState get(String workflowId, String graphExecutionId) throws DaoException {
-        try (final Connection con = storage.connect();
-             final PreparedStatement st = con.prepareStatement("""
-                 SELECT %s
-                 FROM graph_execution_state
-                 WHERE workflow_id = ? AND id = ?""".formatted(GRAPH_SELECT_FIELDS_LIST)))
-        {
-            st.setString(1, workflowId);
-            st.setString(2, graphExecutionId);
-            try (ResultSet s = st.executeQuery()) {
-                if (!s.isBeforeFirst()) {
-                    return null;
-                }
-                s.next();
-                return fromResultSet(s);
-            }
+        try (final Connection con = storage.connect()) {
+            final List<GraphExecutionState> states = readStates(con, "workflow_id = ? AND id = ?", "",
+                workflowId, graphExecutionId);
+            return states.isEmpty() ? null : states.get(0);
         } catch (SQLException | JsonProcessingException e) {
             throw new DaoException(e);
         }
@@ -111,17 +111,8 @@ public class GraphExecutionDaoImpl implements GraphExecutionDao {
 
     @Override
     public List<GraphExecutionState> filter(GraphExecutionState.Status status) throws DaoException {
-        try (final Connection con = storage.connect();
-             final PreparedStatement st = con.prepareStatement("""
-                 SELECT %s
-                 FROM graph_execution_state
-                 WHERE status = ?::graph_execution_status
-                 ORDER BY last_updated""".formatted(GRAPH_SELECT_FIELDS_LIST)))
-        {
-            st.setString(1, status.name());
-            try (ResultSet s = st.executeQuery()) {
-                return readStateList(s);
-            }
+        try (final Connection con = storage.connect()) {
+            return readStates(con, "status = ?::graph_execution_status", "ORDER BY last_updated", status.name());
         } catch (SQLException | JsonProcessingException e) {
             throw new DaoException(e);
         }
@@ -129,16 +120,8 @@ public class GraphExecutionDaoImpl implements GraphExecutionDao {
 
     @Override
     public List<GraphExecutionState> list(String workflowId) throws DaoException {
-        try (final Connection con = storage.connect();
-             final PreparedStatement st = con.prepareStatement("""
-                 SELECT %s
-                 FROM graph_execution_state
-                 WHERE workflow_id = ?""".formatted(GRAPH_SELECT_FIELDS_LIST)))
-        {
-            st.setString(1, workflowId);
-            try (ResultSet s = st.executeQuery()) {
-                return readStateList(s);
-            }
+        try (final Connection con = storage.connect()) {
+            return readStates(con, "workflow_id = ?", "", workflowId);
         } catch (SQLException | JsonProcessingException e) {
             throw new DaoException(e);
         }
@@ -150,9 +133,9 @@ public class GraphExecutionDaoImpl implements GraphExecutionDao {
         final AtomicReference<GraphExecutionState> state = new AtomicReference<>();
         Transaction.execute(storage, conn -> {
             try (final PreparedStatement st = conn.prepareStatement("""
-                SELECT %s
+                SELECT acquired
                 FROM graph_execution_state WHERE workflow_id = ? AND id = ?
-                FOR UPDATE""".formatted(GRAPH_SELECT_FIELDS_LIST)))
+                FOR UPDATE"""))
             {
                 st.setString(1, workflowId);
                 st.setString(2, graphExecutionId);
@@ -162,7 +145,6 @@ public class GraphExecutionDaoImpl implements GraphExecutionDao {
                         return true;
                     }
                     s.next();
-                    state.set(fromResultSet(s));
                     final boolean acquired = s.getBoolean("acquired");
                     if (acquired) {
                         throw new DaoException(
@@ -183,47 +165,148 @@ public class GraphExecutionDaoImpl implements GraphExecutionDao {
                 st.executeUpdate();
             }
 
+            state.set(readStates(conn, "workflow_id = ? AND id = ?", "", workflowId, graphExecutionId).get(0));
             return true;
         });
         return state.get();
     }
 
+    /**
+     * Graph description is written only once on create, so here we persist only the delta of executions:
+     * new executions are inserted and only changed membership in the current execution group is updated.
+     */
     @Override
     public void updateAndFree(GraphExecutionState graph) throws DaoException {
-        try (final Connection con = storage.connect();
-             final PreparedStatement st = con.prepareStatement("""
-                 UPDATE graph_execution_state
-                 SET error_description = ?,
-                     failed_task_id = ?,
-                     failed_task_name = ?,
-                     status = ?::graph_execution_status,
-                     graph_description_json = ?,
-                     task_executions_json = ?,
-                     current_execution_group_json = ?,
-                     last_updated = ?,
-                     acquired = ?
-                 WHERE workflow_id = ? AND id = ?"""))
+        Transaction.execute(storage, conn -> {
+            try (final PreparedStatement st = conn.prepareStatement("""
+                UPDATE graph_execution_state
+                SET error_description = ?,
+                    failed_task_id = ?,
+                    failed_task_name = ?,
+                    status = ?::graph_execution_status,
+                    last_updated = ?,
+                    acquired = ?
+                WHERE workflow_id = ? AND id = ?"""))
+            {
+                int count = 0;
+                st.setString(++count, graph.errorDescription());
+                st.setString(++count, graph.failedTaskId());
+                st.setString(++count, graph.failedTaskName());
+                st.setString(++count, graph.status().name());
+                st.setTimestamp(++count, Timestamp.valueOf(LocalDateTime.now()));
+                st.setBoolean(++count, false);
+
+                st.setString(++count, graph.workflowId());
+                st.setString(++count, graph.id());
+                st.executeUpdate();
+            }
+
+            final Set<String> persisted = new HashSet<>();
+            try (final PreparedStatement st = conn.prepareStatement("""
+                SELECT task_id
+                FROM graph_task_execution
+                WHERE workflow_id = ? AND graph_id = ?"""))
+            {
+                st.setString(1, graph.workflowId());
+                st.setString(2, graph.id());
+                try (ResultSet rs = st.executeQuery()) {
+                    while (rs.next()) {
+                        persisted.add(rs.getString(1));
+                    }
+                }
+            }
+
+            final Set<String> currentGroup = graph.currentExecutionGroup().stream()
+                .map(TaskExecution::id)
+                .collect(Collectors.toSet());
+
+            final List<TaskExecution> newExecutions = graph.executions().stream()
+                .filter(t -> !persisted.contains(t.id()))
+                .collect(Collectors.toList());
+
+            if (!newExecutions.isEmpty()) {
+                try (final PreparedStatement st = conn.prepareStatement("""
+                    INSERT INTO graph_task_execution
+                        (workflow_id, graph_id, task_id, task_description_id, in_current_group)
+                    VALUES (?, ?, ?, ?, ?)"""))
+                {
+                    // Insert from the oldest to the newest one to keep order of executions on read
+                    for (int i = newExecutions.size() - 1; i >= 0; --i) {
+                        final TaskExecution execution = newExecutions.get(i);
+                        st.setString(1, graph.workflowId());
+                        st.setString(2, graph.id());
+                        st.setString(3, execution.id());
+                        st.setString(4, execution.description().id());
+                        st.setBoolean(5, currentGroup.contains(execution.id()));
+                        st.addBatch();
+                    }
+                    st.executeBatch();
+                }
+            }
+
+            if (!persisted.isEmpty()) {
+                try (final PreparedStatement st = conn.prepareStatement("""
+                    UPDATE graph_task_execution
+                    SET in_current_group = (task_id = ANY(?))
+                    WHERE workflow_id = ? AND graph_id = ? AND in_current_group <> (task_id = ANY(?))"""))
+                {
+                    final var group = conn.createArrayOf("text", currentGroup.toArray());
+                    st.setArray(1, group);
+                    st.setString(2, graph.workflowId());
+                    st.setString(3, graph.id());
+                    st.setArray(4, group);
+                    st.executeUpdate();
+                }
+            }
+
+            return true;
+        });
+    }
+
+    private List<GraphExecutionState> readStates(Connection con, String condition, String suffix, String... args)
+        throws SQLException, JsonProcessingException
+    {
+        final Map<String, Map<String, List<ExecutionRecord>>> executions = new HashMap<>();
+        try (final PreparedStatement st = con.prepareStatement(EXECUTIONS_SELECT_QUERY.formatted(condition))) {
+            for (int i = 0; i < args.length; ++i) {
+                st.setString(i + 1, args[i]);
+            }
+            try (ResultSet s = st.executeQuery()) {
+                while (s.next()) {
+                    executions
+                        .computeIfAbsent(s.getString("workflow_id"), k -> new HashMap<>())
+                        .computeIfAbsent(s.getString("graph_id"), k -> new ArrayList<>())
+                        .add(new ExecutionRecord(s.getString("task_id"), s.getString("task_description_id"),
+                            s.getBoolean("in_current_group")));
+                }
+            }
+        }
+
+        try (final PreparedStatement st = con.prepareStatement("""
+            SELECT %s
+            FROM graph_execution_state
+            WHERE %s
+            %s""".formatted(GRAPH_SELECT_FIELDS_LIST, condition, suffix)))
         {
-            int count = 0;
-            st.setString(++count, graph.errorDescription());
-            st.setString(++count, graph.failedTaskId());
-            st.setString(++count, graph.failedTaskName());
-            st.setString(++count, graph.status().name());
-            st.setString(++count, objectMapper.writeValueAsString(graph.description()));
-            st.setString(++count, objectMapper.writeValueAsString(graph.executions()));
-            st.setString(++count, objectMapper.writeValueAsString(graph.currentExecutionGroup()));
-            st.setTimestamp(++count, Timestamp.valueOf(LocalDateTime.now()));
-            st.setBoolean(++count, false);
-
-            st.setString(++count, graph.workflowId());
-            st.setString(++count, graph.id());
-            st.executeUpdate();
-        } catch (Exception e) {
-            throw new DaoException(e);
+            for (int i = 0; i < args.length; ++i) {
+                st.setString(i + 1, args[i]);
+            }
+            try (ResultSet s = st.executeQuery()) {
+                final List<GraphExecutionState> list = new ArrayList<>();
+                while (s.next()) {
+                    final List<ExecutionRecord> records = executions
+                        .getOrDefault(s.getString("workflow_id"), Map.of())
+                        .getOrDefault(s.getString("id"), List.of());
+                    list.add(fromResultSet(s, records));
+                }
+                return list;
+            }
         }
     }
 
-    private GraphExecutionState fromResultSet(ResultSet resultSet) throws SQLException, JsonProcessingException {
+    private GraphExecutionState fromResultSet(ResultSet resultSet, List<ExecutionRecord> records)
+        throws SQLException, JsonProcessingException
+    {
         final String workflowId = resultSet.getString("workflow_id");
         final String workflowName = resultSet.getString("workflow_name");
         final String userId = resultSet.getString("user_id");
@@ -233,12 +316,25 @@ public class GraphExecutionDaoImpl implements GraphExecutionDao {
         final String failedTaskName = resultSet.getString("failed_task_name");
         final GraphExecutionState.Status status = GraphExecutionState.Status.valueOf(resultSet.getString("status"));
         final String graphDescriptionJson = resultSet.getString("graph_description_json");
-        final String taskExecutionsJson = resultSet.getString("task_executions_json");
-        final String currentExecutionGroupJson = resultSet.getString("current_execution_group_json");
         final GraphDescription graph = objectMapper.readValue(graphDescriptionJson, GraphDescription.class);
-        final List<TaskExecution> executions = objectMapper.readValue(taskExecutionsJson, new TypeReference<>() {});
-        final List<TaskExecution> currentExecutionGroup = objectMapper.readValue(
-            currentExecutionGroupJson, new TypeReference<>() {});
+
+        final Map<String, TaskDescription> tasks = graph.tasks().stream()
+            .collect(Collectors.toMap(TaskDescription::id, Function.identity()));
+        final List<TaskExecution> executions = new ArrayList<>(records.size());
+        final List<TaskExecution> currentExecutionGroup = new ArrayList<>();
+        for (var record : records) {
+            final TaskDescription task = tasks.get(record.taskDescriptionId());
+            if (task == null) {
+                throw new SQLException("Task %s of execution %s not found in graph %s"
+                    .formatted(record.taskDescriptionId(), record.taskId(), id));
+            }
+            final var execution = new TaskExecution(record.taskId(), task);
+            executions.add(execution);
+            if (record.inCurrentGroup()) {
+                currentExecutionGroup.add(execution);
+            }
+        }
+
         final String allocatorSessionId = resultSet.getString("allocator_session_id");
         return new GraphExecutionState(
             workflowId, workflowName, userId, id, graph, executions,
@@ -246,17 +342,6 @@ public class GraphExecutionDaoImpl implements GraphExecutionDao {
         );
     }
 
-    private List<GraphExecutionState> readStateList(ResultSet s) throws SQLException, JsonProcessingException {
-        if (!s.isBeforeFirst()) {
-            return new ArrayList<>();
-        }
-        List<GraphExecutionState> list = new ArrayList<>();
-        while (s.next()) {
-            list.add(fromResultSet(s));
-        }
-        return list;
-    }
-
     private void setGraphFields(PreparedStatement st, GraphExecutionState state)
         throws SQLException, JsonProcessingException
     {
@@ -270,10 +355,10 @@ public class GraphExecutionDaoImpl implements GraphExecutionDao {
         st.setString(++count, state.failedTaskName());
         st.setString(++count, state.status().name());
         st.setString(++count, objectMapper.writeValueAsString(state.description()));
-        st.setString(++count, objectMapper.writeValueAsString(state.executions()));
-        st.setString(++count, objectMapper.writeValueAsString(state.currentExecutionGroup()));
         st.setTimestamp(++count, Timestamp.valueOf(LocalDateTime.now()));
         st.setBoolean(++count, false);
         st.setString(++count, state.allocatorSessionId());
     }
+
+    private record ExecutionRecord(String taskId, String taskDescriptionId, boolean inCurrentGroup) {}
 }
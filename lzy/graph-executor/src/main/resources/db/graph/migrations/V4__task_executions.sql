@@ -0,0 +1,27 @@
+CREATE TABLE graph_task_execution
+(
+    seq                 BIGSERIAL NOT NULL,
+    workflow_id         TEXT      NOT NULL,
+    graph_id            TEXT      NOT NULL,
+    task_id             TEXT      NOT NULL,
+    task_description_id TEXT      NOT NULL,
+    in_current_group    BOOLEAN   NOT NULL,
+
+    PRIMARY KEY (workflow_id, graph_id, task_id),
+    FOREIGN KEY (workflow_id, graph_id) REFERENCES graph_execution_state (workflow_id, id)
+        ON DELETE CASCADE
+        ON UPDATE CASCADE
+);
+
+INSERT INTO graph_task_execution (workflow_id, graph_id, task_id, task_description_id, in_current_group)
+SELECT g.workflow_id, g.id, e.value ->> 'id', e.value -> 'description' ->> 'id',
+       EXISTS(SELECT 1
+              FROM json_array_elements(g.current_execution_group_json::json) c
+              WHERE c ->> 'id' = e.value ->> 'id')
+FROM graph_execution_state g,
+     json_array_elements(g.task_executions_json::json) WITH ORDINALITY e(value, idx)
+ORDER BY g.workflow_id, g.id, e.idx DESC;
+
+ALTER TABLE graph_execution_state
+    DROP COLUMN task_executions_json,
+    DROP COLUMN current_execution_group_json;
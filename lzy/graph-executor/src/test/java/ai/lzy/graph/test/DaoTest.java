@@ -4,6 +4,7 @@ import ai.lzy.graph.db.GraphExecutionDao;
 import ai.lzy.graph.db.impl.GraphExecutionDaoImpl;
 import ai.lzy.graph.model.GraphDescription;
 import ai.lzy.graph.model.GraphExecutionState;
+import ai.lzy.graph.model.TaskExecution;
 import ai.lzy.model.db.exceptions.DaoException;
 import io.micronaut.context.ApplicationContext;
 import io.zonky.test.db.postgres.junit.EmbeddedPostgresRules;
@@ -16,6 +17,7 @@ import org.junit.Test;
 import org.junit.rules.Timeout;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -73,4 +75,50 @@ public class DaoTest {
         List<GraphExecutionState> filter = dao.filter(GraphExecutionState.Status.WAITING);
         Assert.assertEquals(List.of(s3), filter);
     }
+
+    @Test
+    public void largeGraphStepsTest() throws SQLException, DaoException {
+        final int tasksCount = 1000;
+        final int groupSize = 100;
+
+        var builder = new GraphDescriptionBuilder();
+        var vertexes = new String[tasksCount];
+        for (int i = 0; i < tasksCount; ++i) {
+            vertexes[i] = String.valueOf(i);
+            if (i > 0) {
+                builder.addEdge(String.valueOf(i - 1), String.valueOf(i));
+            }
+        }
+        GraphDescription d = builder.addVertexes(vertexes).build();
+
+        GraphExecutionState state = dao.create("1", "changeMe", "userId", "allocSid", d, null);
+
+        for (int step = 0; step < tasksCount / groupSize; ++step) {
+            state = dao.acquire("1", state.id());
+            Assert.assertNotNull(state);
+
+            List<TaskExecution> group = new ArrayList<>();
+            for (int i = step * groupSize; i < (step + 1) * groupSize; ++i) {
+                group.add(new TaskExecution("task-" + i, d.tasks().get(i)));
+            }
+            List<TaskExecution> executions = new ArrayList<>(group);
+            executions.addAll(state.executions());
+
+            GraphExecutionState newState = state.copyFromThis()
+                .withExecutions(executions)
+                .withCurrentExecutionGroup(group)
+                .withStatus(GraphExecutionState.Status.EXECUTING)
+                .build();
+            dao.updateAndFree(newState);
+
+            state = dao.get("1", state.id());
+            Assert.assertNotNull(state);
+            Assert.assertEquals(newState, state);
+            Assert.assertEquals(executions.stream().map(TaskExecution::id).toList(),
+                state.executions().stream().map(TaskExecution::id).toList());
+        }
+
+        Assert.assertEquals(tasksCount, state.executions().size());
+        Assert.assertEquals(groupSize, state.currentExecutionGroup().size());
+    }
 }
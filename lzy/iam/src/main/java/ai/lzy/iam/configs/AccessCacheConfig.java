@@ -0,0 +1,52 @@
+package ai.lzy.iam.configs;
+
+import java.time.Duration;
+
+public class AccessCacheConfig {
+    private boolean enabled = true;
+    private Duration ttl = Duration.ofSeconds(10);
+    private Duration negativeTtl = Duration.ofSeconds(2);
+    private long maxSize = 100_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Duration getNegativeTtl() {
+        return negativeTtl;
+    }
+
+    public void setNegativeTtl(Duration negativeTtl) {
+        this.negativeTtl = negativeTtl;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public String toString() {
+        return "AccessCacheConfig{" +
+               "enabled=" + enabled +
+               ", ttl=" + ttl +
+               ", negativeTtl=" + negativeTtl +
+               ", maxSize=" + maxSize +
+               '}';
+    }
+}
@@ -12,6 +12,9 @@ public class ServiceConfig {
     @ConfigurationBuilder("database")
     private final DatabaseConfiguration database = new DatabaseConfiguration();
 
+    @ConfigurationBuilder("access-cache")
+    private final AccessCacheConfig accessCache = new AccessCacheConfig();
+
     public int getUserLimit() {
         return userLimit;
     }
@@ -31,4 +34,8 @@ public class ServiceConfig {
     public DatabaseConfiguration getDatabase() {
         return database;
     }
+
+    public AccessCacheConfig getAccessCache() {
+        return accessCache;
+    }
 }
@@ -8,6 +8,8 @@ import ai.lzy.iam.utils.ProtoConverter;
 import ai.lzy.util.auth.exceptions.AuthException;
 import ai.lzy.util.auth.exceptions.AuthPermissionDeniedException;
 import ai.lzy.v1.iam.IAM.Subject;
+import ai.lzy.v1.iam.LACS.AuthorizeManyRequest;
+import ai.lzy.v1.iam.LACS.AuthorizeManyResponse;
 import ai.lzy.v1.iam.LACS.AuthorizeRequest;
 import ai.lzy.v1.iam.LzyAccessServiceGrpc;
 import io.grpc.Status;
@@ -64,6 +66,40 @@ public class LzyASService extends LzyAccessServiceGrpc.LzyAccessServiceImplBase
         }
     }
 
+    @Override
+    public void authorizeMany(AuthorizeManyRequest request, StreamObserver<AuthorizeManyResponse> responseObserver) {
+        var subject = ProtoConverter.to(request.getSubject());
+        var resourceIds = request.getResourcesList().stream()
+            .map(ProtoConverter::to)
+            .map(AuthResource::resourceId)
+            .toList();
+        var permission = AuthPermission.fromString(request.getPermission());
+
+        LOG.info("Authorize {} to {} resources for {}", subject, resourceIds.size(), permission);
+
+        try {
+            var requester = Objects.requireNonNull(AuthenticationContext.current()).getSubject();
+
+            var internalAccess = accessClient.hasResourcePermissions(
+                requester, resourceIds, AuthPermission.INTERNAL_AUTHORIZE);
+            if (internalAccess.contains(false)) {
+                LOG.error("Not INTERNAL {} try authorize something::{}", requester, subject);
+                throw new AuthPermissionDeniedException("");
+            }
+
+            responseObserver.onNext(AuthorizeManyResponse.newBuilder()
+                .addAllGranted(accessClient.hasResourcePermissions(subject, resourceIds, permission))
+                .build());
+            responseObserver.onCompleted();
+        } catch (AuthException e) {
+            LOG.error("Auth exception:: {}", e.getInternalDetails());
+            responseObserver.onError(e.status().asException());
+        } catch (Exception e) {
+            LOG.error("Internal exception:: {}", e.getMessage(), e);
+            responseObserver.onError(Status.INTERNAL.asException());
+        }
+    }
+
     private boolean hasInternalAccess(AuthResource resource, ai.lzy.iam.resources.subjects.Subject requester) {
         try {
             return accessClient.hasResourcePermission(
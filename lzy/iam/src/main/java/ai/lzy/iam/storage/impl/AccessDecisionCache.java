@@ -0,0 +1,87 @@
+package ai.lzy.iam.storage.impl;
+
+import ai.lzy.iam.configs.ServiceConfig;
+import ai.lzy.iam.resources.AuthPermission;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.annotation.Nullable;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Cache of access decisions made by {@link DbAccessClient}.
+ * Must be invalidated by everyone who changes access bindings or removes subjects.
+ */
+@Singleton
+public class AccessDecisionCache {
+    private static final Logger LOG = LogManager.getLogger(AccessDecisionCache.class);
+
+    public enum Decision {
+        GRANTED,
+        DENIED,
+        NOT_FOUND
+    }
+
+    private record Key(String subjectId, String resourceId, AuthPermission permission) {}
+
+    private final boolean enabled;
+    private final Cache<Key, Decision> granted;
+    private final Cache<Key, Decision> denied;
+
+    @Inject
+    public AccessDecisionCache(ServiceConfig config) {
+        var cacheConfig = config.getAccessCache();
+        LOG.info("Access decisions cache: {}", cacheConfig);
+
+        this.enabled = cacheConfig.isEnabled();
+        this.granted = CacheBuilder.newBuilder()
+            .expireAfterWrite(cacheConfig.getTtl())
+            .maximumSize(cacheConfig.getMaxSize())
+            .build();
+        this.denied = CacheBuilder.newBuilder()
+            .expireAfterWrite(cacheConfig.getNegativeTtl())
+            .maximumSize(cacheConfig.getMaxSize())
+            .build();
+    }
+
+    @Nullable
+    public Decision get(String subjectId, String resourceId, AuthPermission permission) {
+        if (!enabled) {
+            return null;
+        }
+        var key = new Key(subjectId, resourceId, permission);
+        var decision = granted.getIfPresent(key);
+        return decision != null ? decision : denied.getIfPresent(key);
+    }
+
+    public void put(String subjectId, String resourceId, AuthPermission permission, Decision decision) {
+        if (!enabled) {
+            return;
+        }
+        var key = new Key(subjectId, resourceId, permission);
+        if (decision == Decision.GRANTED) {
+            granted.put(key, decision);
+        } else {
+            denied.put(key, decision);
+        }
+    }
+
+    public void invalidateResource(String resourceId) {
+        LOG.debug("Invalidate cached access decisions for resource {}", resourceId);
+        granted.asMap().keySet().removeIf(key -> key.resourceId().equals(resourceId));
+        denied.asMap().keySet().removeIf(key -> key.resourceId().equals(resourceId));
+    }
+
+    public void invalidateSubject(String subjectId) {
+        LOG.debug("Invalidate cached access decisions for subject {}", subjectId);
+        granted.asMap().keySet().removeIf(key -> key.subjectId().equals(subjectId));
+        denied.asMap().keySet().removeIf(key -> key.subjectId().equals(subjectId));
+    }
+
+    public void invalidateAll() {
+        granted.invalidateAll();
+        denied.invalidateAll();
+    }
+}
@@ -5,6 +5,7 @@ import ai.lzy.iam.resources.AccessBindingDelta;
 import ai.lzy.iam.resources.AccessBindingDelta.AccessBindingAction;
 import ai.lzy.iam.resources.AuthResource;
 import ai.lzy.iam.resources.Role;
+import ai.lzy.iam.resources.impl.Root;
 import ai.lzy.iam.resources.subjects.AuthProvider;
 import ai.lzy.iam.resources.subjects.Subject;
 import ai.lzy.iam.resources.subjects.SubjectType;
@@ -47,10 +48,12 @@ public class DbAccessBindingClient {
 
 
     private final IamDataSource storage;
+    private final AccessDecisionCache accessDecisionCache;
 
     @Inject
-    public DbAccessBindingClient(IamDataSource storage) {
+    public DbAccessBindingClient(IamDataSource storage, AccessDecisionCache accessDecisionCache) {
         this.storage = storage;
+        this.accessDecisionCache = accessDecisionCache;
     }
 
     public Stream<AccessBinding> listAccessBindings(AuthResource resource) throws AuthException {
@@ -95,6 +98,8 @@ public class DbAccessBindingClient {
             }
         } catch (SQLException e) {
             throw new AuthInternalException(e);
+        } finally {
+            invalidateCachedDecisions(resource);
         }
     }
 
@@ -132,6 +137,17 @@ public class DbAccessBindingClient {
             }
         } catch (SQLException e) {
             throw new AuthInternalException(e);
+        } finally {
+            invalidateCachedDecisions(resource);
+        }
+    }
+
+    private void invalidateCachedDecisions(AuthResource resource) {
+        if (Root.INSTANCE.resourceId().equals(resource.resourceId())) {
+            // roles on root affect access to all other resources
+            accessDecisionCache.invalidateAll();
+        } else {
+            accessDecisionCache.invalidateResource(resource.resourceId());
         }
     }
 }
@@ -5,6 +5,7 @@ import ai.lzy.iam.resources.Role;
 import ai.lzy.iam.resources.impl.Root;
 import ai.lzy.iam.resources.subjects.Subject;
 import ai.lzy.iam.storage.db.IamDataSource;
+import ai.lzy.iam.storage.impl.AccessDecisionCache.Decision;
 import ai.lzy.util.auth.exceptions.AuthException;
 import ai.lzy.util.auth.exceptions.AuthInternalException;
 import ai.lzy.util.auth.exceptions.AuthNotFoundException;
@@ -16,6 +17,13 @@ import org.apache.logging.log4j.Logger;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Singleton
@@ -23,86 +31,114 @@ import java.util.stream.Collectors;
 public class DbAccessClient {
     private static final Logger LOG = LogManager.getLogger(DbAccessClient.class);
 
-    private static final String QUERY_FIND_USER_ROLE_RESOURCE = """
-        SELECT user_id
+    private static final String QUERY_FIND_USER_RESOURCES_ROLES = """
+        SELECT resource_id, role
         FROM user_resource_roles
-        WHERE user_id = ? AND resource_id = ? AND role = ?
-        """;
-
-    private static final String QUERY_FIND_USER_RESOURCE = """
-        SELECT user_id
-        FROM user_resource_roles
-        WHERE user_id = ? AND resource_id = ?
-        """;
-
-    private static final String QUERY_FIND_USER_ROLES_RESOURCE = """
-        SELECT user_id
-        FROM user_resource_roles
-        WHERE user_id = ? AND resource_id = ? AND role IN (%s)
+        WHERE user_id = ? AND resource_id = ANY(?)
         """;
 
     private final IamDataSource storage;
+    private final AccessDecisionCache cache;
 
     @Inject
-    public DbAccessClient(IamDataSource storage) {
+    public DbAccessClient(IamDataSource storage, AccessDecisionCache cache) {
         this.storage = storage;
+        this.cache = cache;
     }
 
     public boolean hasResourcePermission(Subject subject, String resourceId, AuthPermission permission)
             throws AuthException
     {
-        if (Role.LZY_INTERNAL_USER.permissions().contains(permission)) {
-            try (var conn = storage.connect();
-                 var st = conn.prepareStatement(QUERY_FIND_USER_ROLE_RESOURCE))
-            {
-                int parameterIndex = 0;
-                st.setString(++parameterIndex, subject.id());
-                st.setString(++parameterIndex, Root.INSTANCE.resourceId());
-                st.setString(++parameterIndex, Role.LZY_INTERNAL_USER.value());
-                final ResultSet rs = st.executeQuery();
-                if (rs.next()) {
-                    LOG.debug("Internal access to resource::{}", resourceId);
-                    return true;
-                }
-            } catch (SQLException e) {
-                throw new AuthInternalException(e);
+        var decision = decide(subject, List.of(resourceId), permission).get(resourceId);
+        if (decision == Decision.NOT_FOUND) {
+            throw new AuthNotFoundException("Resource: " + resourceId + " not found");
+        }
+        return decision == Decision.GRANTED;
+    }
+
+    /**
+     * Bulk version of {@link #hasResourcePermission}, makes at most one DB query for all resources.
+     * Resources without any subject's bindings are reported as not granted.
+     *
+     * @return list of decisions, i-th element corresponds to the i-th resource
+     */
+    public List<Boolean> hasResourcePermissions(Subject subject, List<String> resourceIds, AuthPermission permission)
+            throws AuthException
+    {
+        var decisions = decide(subject, resourceIds, permission);
+        return resourceIds.stream()
+            .map(resourceId -> decisions.get(resourceId) == Decision.GRANTED)
+            .toList();
+    }
+
+    private Map<String, Decision> decide(Subject subject, List<String> resourceIds, AuthPermission permission)
+            throws AuthException
+    {
+        var decisions = new HashMap<String, Decision>(resourceIds.size());
+        var missed = new LinkedHashSet<String>();
+
+        for (var resourceId : resourceIds) {
+            var decision = cache.get(subject.id(), resourceId, permission);
+            if (decision != null) {
+                decisions.put(resourceId, decision);
+            } else {
+                missed.add(resourceId);
             }
         }
 
+        if (missed.isEmpty()) {
+            return decisions;
+        }
+
+        boolean checkInternal = Role.LZY_INTERNAL_USER.permissions().contains(permission);
+        var queryResources = new ArrayList<>(missed);
+        if (checkInternal) {
+            queryResources.add(Root.INSTANCE.resourceId());
+        }
+
+        // all subject's roles per requested resource
+        var roles = new HashMap<String, Set<String>>();
+
         try (var conn = storage.connect();
-             var st = conn.prepareStatement(QUERY_FIND_USER_RESOURCE))
+             var st = conn.prepareStatement(QUERY_FIND_USER_RESOURCES_ROLES))
         {
             int parameterIndex = 0;
             st.setString(++parameterIndex, subject.id());
-            st.setString(++parameterIndex, resourceId);
+            st.setArray(++parameterIndex, conn.createArrayOf("text", queryResources.toArray()));
             final ResultSet rs = st.executeQuery();
-            if (!rs.next()) {
-                throw new AuthNotFoundException("Resource: " + resourceId + " not found");
+            while (rs.next()) {
+                roles.computeIfAbsent(rs.getString("resource_id"), x -> new HashSet<>())
+                    .add(rs.getString("role"));
             }
         } catch (SQLException e) {
             throw new AuthInternalException(e);
         }
 
-        var roles = Role.rolesByPermission(permission).toList();
-        var rolesPlaceholder = roles.stream().map(x -> "?").collect(Collectors.joining(","));
+        boolean internalUser = checkInternal && roles.getOrDefault(Root.INSTANCE.resourceId(), Set.of())
+            .contains(Role.LZY_INTERNAL_USER.value());
 
-        try (var conn = storage.connect();
-             var st = conn.prepareStatement(QUERY_FIND_USER_ROLES_RESOURCE.formatted(rolesPlaceholder)))
-        {
-            int parameterIndex = 0;
-            st.setString(++parameterIndex, subject.id());
-            st.setString(++parameterIndex, resourceId);
-            for (var role : roles) {
-                st.setString(++parameterIndex, role.value());
-            }
-            final ResultSet rs = st.executeQuery();
-            if (rs.next()) {
-                return true;
+        var allowedRoles = Role.rolesByPermission(permission)
+            .map(Role::value)
+            .collect(Collectors.toSet());
+
+        for (var resourceId : missed) {
+            Decision decision;
+            var resourceRoles = roles.get(resourceId);
+            if (internalUser) {
+                LOG.debug("Internal access to resource::{}", resourceId);
+                decision = Decision.GRANTED;
+            } else if (resourceRoles == null) {
+                decision = Decision.NOT_FOUND;
+            } else if (resourceRoles.stream().anyMatch(allowedRoles::contains)) {
+                decision = Decision.GRANTED;
+            } else {
+                decision = Decision.DENIED;
             }
-        } catch (SQLException e) {
-            throw new AuthInternalException(e);
+
+            cache.put(subject.id(), resourceId, permission, decision);
+            decisions.put(resourceId, decision);
         }
 
-        return false;
+        return decisions;
     }
 }
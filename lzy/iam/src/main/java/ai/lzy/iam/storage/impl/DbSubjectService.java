@@ -114,6 +114,9 @@ public class DbSubjectService {
     @Named("IamIdGenerator")
     private IdGenerator idGenerator;
 
+    @Inject
+    private AccessDecisionCache accessDecisionCache;
+
     public Subject createSubject(AuthProvider authProvider, String providerSubjectId, SubjectType subjectType,
                                  List<SubjectCredentials> credentials, String requestHash) throws AuthException
     {
@@ -320,6 +323,8 @@ public class DbSubjectService {
                 }
             },
             AuthInternalException::new);
+
+        accessDecisionCache.invalidateSubject(subjectId);
     }
 
     public SubjectCredentials credentials(String subjectId, String name) throws AuthException {
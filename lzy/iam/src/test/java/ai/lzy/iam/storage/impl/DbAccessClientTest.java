@@ -190,4 +190,39 @@ public class DbAccessClientTest {
             LOG.info("Valid exception::{}", e.getInternalDetails());
         }
     }
+
+    @Test
+    public void bulkAccess() {
+        var userId = subjectService.createSubject(AuthProvider.GITHUB, "user1", SubjectType.USER, List.of(), "hash")
+            .id();
+        final Subject user = subjectService.subject(userId);
+
+        AuthResource ownWhiteboard = new Whiteboard("whiteboard-1");
+        AuthResource readonlyWhiteboard = new Whiteboard("whiteboard-2");
+        AuthResource unknownWhiteboard = new Whiteboard("whiteboard-3");
+
+        accessBindingClient.setAccessBindings(ownWhiteboard, List.of(
+                new AccessBinding(Role.LZY_WHITEBOARD_OWNER, user)
+        ));
+        accessBindingClient.setAccessBindings(readonlyWhiteboard, List.of(
+                new AccessBinding(Role.LZY_WHITEBOARD_READER, user)
+        ));
+
+        var resourceIds = List.of(ownWhiteboard.resourceId(), readonlyWhiteboard.resourceId(),
+            unknownWhiteboard.resourceId());
+
+        assertEquals(List.of(true, true, false),
+            accessClient.hasResourcePermissions(user, resourceIds, AuthPermission.WHITEBOARD_GET));
+        assertEquals(List.of(true, false, false),
+            accessClient.hasResourcePermissions(user, resourceIds, AuthPermission.WHITEBOARD_UPDATE));
+
+        // cached negative decision must be dropped after bindings change
+        accessBindingClient.setAccessBindings(unknownWhiteboard, List.of(
+                new AccessBinding(Role.LZY_WHITEBOARD_READER, user)
+        ));
+        assertEquals(List.of(true, true, true),
+            accessClient.hasResourcePermissions(user, resourceIds, AuthPermission.WHITEBOARD_GET));
+        assertTrue(accessClient.hasResourcePermission(user, unknownWhiteboard.resourceId(),
+            AuthPermission.WHITEBOARD_GET));
+    }
 }
@@ -1,5 +1,6 @@
 package ai.lzy.service;
 
+import ai.lzy.iam.clients.CachingAccessClient;
 import ai.lzy.iam.grpc.client.AccessServiceGrpcClient;
 import ai.lzy.iam.grpc.interceptors.AccessServerInterceptor;
 import ai.lzy.iam.grpc.interceptors.AllowSubjectOnlyInterceptor;
@@ -32,6 +33,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static ai.lzy.service.LzyService.APP;
+import static ai.lzy.util.grpc.GrpcUtils.addMetrics;
 
 @Singleton
 public class App {
@@ -53,7 +55,7 @@ public class App {
         this.metricReporter = metricReporter;
         this.garbageCollector = garbageCollector;
         final var internalOnly = new AccessServerInterceptor(
-            new AccessServiceGrpcClient(APP, iamChannel),
+            CachingAccessClient.wrap(new AccessServiceGrpcClient(APP, iamChannel), config.getIam()),
             config.getIam().createRenewableToken()::get, Root.INSTANCE, AuthPermission.INTERNAL_AUTHORIZE);
         this.grpcServer = createServer(
             HostAndPort.fromString(config.getAddress()),
@@ -102,6 +104,7 @@ public class App {
             .intercept(GrpcLogsInterceptor.server())
             .intercept(RequestIdInterceptor.generate())
             .intercept(GrpcHeadersServerInterceptor.create());
+        addMetrics(serverBuilder, APP);
 
         for (var service : services) {
             serverBuilder.addService(service);
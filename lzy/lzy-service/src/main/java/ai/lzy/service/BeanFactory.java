@@ -41,7 +41,6 @@ import io.grpc.Status;
 import io.micronaut.context.annotation.Bean;
 import io.micronaut.context.annotation.Factory;
 import io.micronaut.context.annotation.Requires;
-import io.prometheus.client.CollectorRegistry;
 import io.prometheus.client.Counter;
 import jakarta.annotation.PreDestroy;
 import jakarta.inject.Named;
@@ -56,6 +55,12 @@ import static ai.lzy.util.grpc.GrpcUtils.newGrpcChannel;
 public class BeanFactory {
     public static final String TEST_ENV_NAME = "local-test";
 
+    // registered once per process, so it survives recreation of the application context
+    private static final Counter EXECUTOR_ERRORS = Counter
+        .build("executor_errors", "Executor unexpected errors")
+        .subsystem("lzy_service")
+        .register();
+
     @Bean(preDestroy = "shutdown")
     @Singleton
     @Named("AllocatorServiceChannel")
@@ -163,8 +168,6 @@ public class BeanFactory {
     @Bean(preDestroy = "stop")
     @Named("LzyServiceMetricReporter")
     public MetricReporter metricReporter(LzyServiceConfig.MetricsConfig config) {
-        CollectorRegistry.defaultRegistry.clear();
-
         return switch (config.getKind()) {
             case Disabled -> new DummyMetricReporter();
             case Logger -> new LogMetricReporter(config.getLoggerName(),
@@ -199,12 +202,8 @@ public class BeanFactory {
     @Bean(preDestroy = "shutdown")
     @Named("LzyServiceOperationsExecutor")
     public OperationsExecutor operationsExecutor(@Named("LzyServiceMetricReporter") MetricReporter mr) {
-        final Counter errors = Counter
-            .build("executor_errors", "Executor unexpected errors")
-            .subsystem("allocator")
-            .register();
-
-        return new OperationsExecutor(5, 20, errors::inc, e -> e instanceof InjectedFailures.TerminateException);
+        return new OperationsExecutor(5, 20, EXECUTOR_ERRORS::inc,
+            e -> e instanceof InjectedFailures.TerminateException);
     }
 
     @Singleton
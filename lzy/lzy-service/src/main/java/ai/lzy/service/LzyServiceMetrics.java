@@ -1,7 +1,11 @@
 package ai.lzy.service;
 
 import ai.lzy.metrics.MetricReporter;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Counter;
 import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
+import jakarta.annotation.PreDestroy;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 
@@ -23,4 +27,25 @@ public class LzyServiceMetrics {
         .build("unsupported_client_version_calls", "Count of calls with unsupported client versions")
         .subsystem(LZY_SERVICE)
         .register();
+
+    public final Counter execGraphStateSavedBytes = Counter
+        .build("exec_graph_state_saved_bytes", "Size of saved parts of graph execution state")
+        .subsystem(LZY_SERVICE)
+        .labelNames("part")
+        .register();
+
+    public final Histogram execGraphStateSaveDuration = Histogram
+        .build("exec_graph_state_save_time", "Save graph execution state duration (sec)")
+        .subsystem(LZY_SERVICE)
+        .buckets(0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1.0, 2.5)
+        .register();
+
+    @PreDestroy
+    public void unregister() {
+        var registry = CollectorRegistry.defaultRegistry;
+        registry.unregister(activeExecutions);
+        registry.unregister(unsupportedClientVersionCalls);
+        registry.unregister(execGraphStateSavedBytes);
+        registry.unregister(execGraphStateSaveDuration);
+    }
 }
@@ -10,6 +10,9 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Getter
 @Setter
@@ -45,6 +48,8 @@ public class LzyServiceConfig {
 
     private GarbageCollector gc;
 
+    private PlacementConfig placement = new PlacementConfig();
+
     public enum MetricsKind {
         Disabled,
         Logger,
@@ -80,6 +85,14 @@ public class LzyServiceConfig {
         private Duration leaderPeriod;
     }
 
+    @Getter
+    @Setter
+    @ConfigurationProperties("placement")
+    public static final class PlacementConfig {
+        // zone -> prefixes of storage URIs located in the zone, e.g. "s3://bucket-a/"
+        private Map<String, List<String>> zoneStorages = new HashMap<>();
+    }
+
     @Getter
     @Setter
     @ConfigurationProperties("storage")
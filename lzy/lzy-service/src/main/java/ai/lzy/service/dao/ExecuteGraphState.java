@@ -33,6 +33,19 @@ public final class ExecuteGraphState {
         this.request = request;
     }
 
+    /**
+     * Parts of the state, each one is set by a single step of graph execution and is stored separately.
+     */
+    public enum Part {
+        REQUEST,
+        OPERATIONS_TO_EXECUTE,
+        VM_POOL_ZONE,
+        DATA_FLOW_GRAPH,
+        CHANNELS,
+        TASKS,
+        GRAPH_ID
+    }
+
     @Override
     public String toString() {
         // todo: make string more clarify
@@ -24,7 +24,11 @@ public interface ExecutionOperationsDao {
 
     void deleteOps(Collection<String> opIds, @Nullable TransactionHandle transaction) throws SQLException;
 
-    void putState(String opId, ExecuteGraphState state, @Nullable TransactionHandle transaction) throws SQLException;
+    /**
+     * Stores only given parts of the state, other ones are left as is.
+     */
+    void putState(String opId, ExecuteGraphState state, Collection<ExecuteGraphState.Part> parts,
+                  @Nullable TransactionHandle transaction) throws SQLException;
 
     ExecuteGraphState getState(String opId, @Nullable TransactionHandle transaction) throws SQLException;
 
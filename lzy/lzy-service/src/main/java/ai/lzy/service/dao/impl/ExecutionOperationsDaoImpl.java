@@ -2,20 +2,29 @@ package ai.lzy.service.dao.impl;
 
 import ai.lzy.model.db.DbOperation;
 import ai.lzy.model.db.TransactionHandle;
+import ai.lzy.service.LzyServiceMetrics;
+import ai.lzy.service.dao.DataFlowGraph;
 import ai.lzy.service.dao.ExecuteGraphState;
+import ai.lzy.service.dao.ExecuteGraphState.Part;
 import ai.lzy.service.dao.ExecutionOperationsDao;
 import ai.lzy.util.grpc.JsonUtils;
+import ai.lzy.v1.graph.GraphExecutor;
+import ai.lzy.v1.workflow.LWF;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.Nullable;
 import jakarta.inject.Singleton;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 
 @Singleton
 public class ExecutionOperationsDaoImpl implements ExecutionOperationsDao {
@@ -34,12 +43,17 @@ public class ExecutionOperationsDaoImpl implements ExecutionOperationsDao {
     public static final String QUERY_DELETE_EXEC_OPERATIONS = """
         DELETE FROM execution_operations WHERE op_id = ANY (?)""";
 
-    private static final String QUERY_UPDATE_EXECUTE_GRAPH_OP_STATE = """
-        UPDATE execution_operations SET state_json = ? WHERE op_id = ?""";
+    private static final String QUERY_UPSERT_EXECUTE_GRAPH_OP_STATE_PART = """
+        INSERT INTO execute_graph_state_parts (op_id, part, data)
+        VALUES (?, ?, ?)
+        ON CONFLICT (op_id, part) DO UPDATE SET data = EXCLUDED.data""";
 
     private static final String QUERY_SELECT_EXECUTE_GRAPH_OP_STATE = """
         SELECT state_json FROM execution_operations WHERE op_id = ?""";
 
+    private static final String QUERY_SELECT_EXECUTE_GRAPH_OP_STATE_PARTS = """
+        SELECT part, data FROM execute_graph_state_parts WHERE op_id = ?""";
+
     private static final String QUERY_SELECT_UNCOMPLETED_OPERATIONS = """
         SELECT e_op.op_type as op_type, o.id as id, o.description as desc,
                o.idempotency_key as idk, e.user_id as user_id,
@@ -53,10 +67,14 @@ public class ExecutionOperationsDaoImpl implements ExecutionOperationsDao {
 
     private final LzyServiceStorage storage;
     private final ObjectMapper objectMapper;
+    private final LzyServiceMetrics metrics;
 
-    public ExecutionOperationsDaoImpl(LzyServiceStorage storage, ObjectMapper objectMapper) {
+    public ExecutionOperationsDaoImpl(LzyServiceStorage storage, ObjectMapper objectMapper,
+                                      LzyServiceMetrics metrics)
+    {
         this.storage = storage;
         this.objectMapper = objectMapper;
+        this.metrics = metrics;
     }
 
     @Override
@@ -115,20 +133,28 @@ public class ExecutionOperationsDaoImpl implements ExecutionOperationsDao {
                                   @Nullable TransactionHandle transaction) throws SQLException
     {
         LOG.debug("Create execute graph operation in storage: { opId: {}, execId: {} }", opId, execId);
-        DbOperation.execute(transaction, storage, connection -> {
-            try (var st = connection.prepareStatement(QUERY_INSERT_OPERATION)) {
-                st.setString(1, opId);
-                st.setString(2, OpType.EXECUTE_GRAPH.toString());
-                st.setString(3, instanceId);
-                st.setString(4, execId);
-                st.setString(5, objectMapper.writeValueAsString(state));
-                st.executeUpdate();
-            } catch (JsonProcessingException e) {
-                var mes = "Cannot dump value of graph execution state";
-                LOG.error(mes + ": {}", e.getMessage());
-                throw new RuntimeException(mes, e);
-            }
-        });
+        // operation and its state parts are written atomically
+        try (var tx = TransactionHandle.getOrCreate(storage, transaction)) {
+            DbOperation.execute(tx, storage, connection -> {
+                try (var st = connection.prepareStatement(QUERY_INSERT_OPERATION)) {
+                    st.setString(1, opId);
+                    st.setString(2, OpType.EXECUTE_GRAPH.toString());
+                    st.setString(3, instanceId);
+                    st.setString(4, execId);
+                    st.setString(5, null);
+                    st.executeUpdate();
+                }
+
+                var parts = EnumSet.noneOf(Part.class);
+                for (var part : Part.values()) {
+                    if (getPart(state, part) != null) {
+                        parts.add(part);
+                    }
+                }
+                putStateParts(connection, opId, state, parts);
+            });
+            tx.commit();
+        }
     }
 
     @Override
@@ -162,38 +188,52 @@ public class ExecutionOperationsDaoImpl implements ExecutionOperationsDao {
     }
 
     @Override
-    public void putState(String opId, ExecuteGraphState state, @Nullable TransactionHandle transaction)
-        throws SQLException
+    public void putState(String opId, ExecuteGraphState state, Collection<Part> parts,
+                         @Nullable TransactionHandle transaction) throws SQLException
     {
-        LOG.debug("Update execute graph operation state: { opId: {}, state: {} }", opId, state.toString());
-        DbOperation.execute(transaction, storage, connection -> {
-            try (var st = connection.prepareStatement(QUERY_UPDATE_EXECUTE_GRAPH_OP_STATE)) {
-                st.setString(1, objectMapper.writeValueAsString(state));
-                st.setString(2, opId);
-                if (st.executeUpdate() < 1) {
-                    LOG.error("Cannot update graph execution state for unknown operation: { opId: {} }", opId);
-                    throw new RuntimeException("ExecGraph operation with id='%s' not found".formatted(opId));
-                }
-            } catch (JsonProcessingException e) {
-                var mes = "Cannot dump value of graph execution state";
-                LOG.error(mes + ": {}", e.getMessage());
-                throw new RuntimeException(mes, e);
-            }
-        });
+        LOG.debug("Update execute graph operation state: { opId: {}, parts: {} }", opId, parts);
+        var timer = metrics.execGraphStateSaveDuration.startTimer();
+        // all changed parts are written atomically
+        try (var tx = TransactionHandle.getOrCreate(storage, transaction)) {
+            DbOperation.execute(tx, storage, connection -> {
+                putStateParts(connection, opId, state, parts);
+            });
+            tx.commit();
+        } finally {
+            timer.observeDuration();
+        }
     }
 
+    /**
+     * Reads state written as a whole by previous versions, if any, and overrides it by separately stored parts.
+     */
     @Override
     public ExecuteGraphState getState(String opId, @Nullable TransactionHandle transaction) throws SQLException {
         return DbOperation.execute(transaction, storage, connection -> {
-            try (var st = connection.prepareStatement(QUERY_SELECT_EXECUTE_GRAPH_OP_STATE)) {
-                st.setString(1, opId);
-                var rs = st.executeQuery();
-                if (rs.next()) {
-                    return objectMapper.readValue(rs.getString("state_json"), ExecuteGraphState.class);
-                } else {
-                    LOG.error("Cannot get graph execution state for unknown operation: { opId: {} }", opId);
-                    throw new RuntimeException("ExecGraph operation with id='%s' not found".formatted(opId));
+            try {
+                final ExecuteGraphState state;
+                try (var st = connection.prepareStatement(QUERY_SELECT_EXECUTE_GRAPH_OP_STATE)) {
+                    st.setString(1, opId);
+                    var rs = st.executeQuery();
+                    if (!rs.next()) {
+                        LOG.error("Cannot get graph execution state for unknown operation: { opId: {} }", opId);
+                        throw new RuntimeException("ExecGraph operation with id='%s' not found".formatted(opId));
+                    }
+                    var stateJson = rs.getString("state_json");
+                    state = stateJson != null
+                        ? objectMapper.readValue(stateJson, ExecuteGraphState.class)
+                        : new ExecuteGraphState();
                 }
+
+                try (var st = connection.prepareStatement(QUERY_SELECT_EXECUTE_GRAPH_OP_STATE_PARTS)) {
+                    st.setString(1, opId);
+                    var rs = st.executeQuery();
+                    while (rs.next()) {
+                        setPart(state, Part.valueOf(rs.getString("part")), rs.getString("data"));
+                    }
+                }
+
+                return state;
             } catch (JsonProcessingException e) {
                 var mes = "Cannot parse value of graph execution state";
                 LOG.error(mes + ": {}", e.getMessage());
@@ -262,4 +302,57 @@ public class ExecutionOperationsDaoImpl implements ExecutionOperationsDao {
             return result;
         });
     }
+
+    private void putStateParts(Connection connection, String opId, ExecuteGraphState state, Collection<Part> parts)
+        throws SQLException
+    {
+        if (parts.isEmpty()) {
+            return;
+        }
+
+        try (var st = connection.prepareStatement(QUERY_UPSERT_EXECUTE_GRAPH_OP_STATE_PART)) {
+            for (var part : parts) {
+                var data = objectMapper.writeValueAsString(getPart(state, part));
+                metrics.execGraphStateSavedBytes.labels(part.name()).inc(data.length());
+
+                st.setString(1, opId);
+                st.setString(2, part.name());
+                st.setString(3, data);
+                st.addBatch();
+            }
+            st.executeBatch();
+        } catch (JsonProcessingException e) {
+            var mes = "Cannot dump value of graph execution state";
+            LOG.error(mes + ": {}", e.getMessage());
+            throw new RuntimeException(mes, e);
+        }
+    }
+
+    @Nullable
+    private static Object getPart(ExecuteGraphState state, Part part) {
+        return switch (part) {
+            case REQUEST -> state.request;
+            case OPERATIONS_TO_EXECUTE -> state.operationsToExecute;
+            case VM_POOL_ZONE -> state.vmPoolZone;
+            case DATA_FLOW_GRAPH -> state.dataFlowGraph;
+            case CHANNELS -> state.slotUri2channelId;
+            case TASKS -> state.tasks;
+            case GRAPH_ID -> state.graphId;
+        };
+    }
+
+    private void setPart(ExecuteGraphState state, Part part, String data) throws JsonProcessingException {
+        switch (part) {
+            case REQUEST -> state.request = objectMapper.readValue(data, LWF.Graph.class);
+            case OPERATIONS_TO_EXECUTE -> state.operationsToExecute =
+                objectMapper.readValue(data, new TypeReference<List<LWF.Operation>>() {});
+            case VM_POOL_ZONE -> state.vmPoolZone = objectMapper.readValue(data, String.class);
+            case DATA_FLOW_GRAPH -> state.dataFlowGraph = objectMapper.readValue(data, DataFlowGraph.class);
+            case CHANNELS -> state.slotUri2channelId =
+                objectMapper.readValue(data, new TypeReference<Map<String, String>>() {});
+            case TASKS -> state.tasks =
+                objectMapper.readValue(data, new TypeReference<List<GraphExecutor.TaskDesc>>() {});
+            case GRAPH_ID -> state.graphId = objectMapper.readValue(data, String.class);
+        }
+    }
 }
@@ -66,41 +66,40 @@ final class CreateChannels extends ExecuteGraphContextAwareStep implements Suppl
             storagePeerBuilder.setAzure(storageConfig.getAzure());
         }
 
-        var createRequestBuilder = LCMPS.GetOrCreateRequest.newBuilder()
+        var storagePeer = storagePeerBuilder.build();
+        var createRequestBuilder = LCMPS.GetOrCreateManyRequest.newBuilder()
             .setUserId(userId())
             .setWorkflowName(wfName())
             .setExecutionId(execId());
 
-        try {
-            for (var data : tasksOutput) {
-                var idempotentChannelsClient = (idempotencyKey() == null) ? channelsClient :
-                    withIdempotencyKey(channelsClient, idempotencyKey() + "_" + data.storageUri());
-
-                var res = idempotentChannelsClient.getOrCreate(
-                    createRequestBuilder
-                    .setConsumer(storagePeerBuilder
-                        .setStorageUri(data.storageUri())
-                        .build())
-                    .build());
-
-                slotUri2channelId.put(data.storageUri(), res.getChannelId());
-            }
+        for (var data : tasksOutput) {
+            createRequestBuilder.addChannels(LCMPS.GetOrCreateManyRequest.ChannelSpec.newBuilder()
+                .setConsumer(storagePeer.toBuilder()
+                    .setStorageUri(data.storageUri())
+                    .build()));
+        }
 
-            for (var data: dataFromStorage) {
-                var idempotentChannelsClient = (idempotencyKey() == null) ? channelsClient :
-                    withIdempotencyKey(channelsClient, idempotencyKey() + "_" + data.storageUri());
+        for (var data : dataFromStorage) {
+            createRequestBuilder.addChannels(LCMPS.GetOrCreateManyRequest.ChannelSpec.newBuilder()
+                .setProducer(storagePeer.toBuilder()
+                    .setStorageUri(data.storageUri())
+                    .build()));
+        }
 
-                var res = idempotentChannelsClient.getOrCreate(
-                    createRequestBuilder
-                    .setProducer(storagePeerBuilder
-                        .setStorageUri(data.storageUri())
-                        .build())
-                    .build());
+        var createRequest = createRequestBuilder.build();
 
-                slotUri2channelId.put(data.storageUri(), res.getChannelId());
-            }
+        try {
+            var idempotentChannelsClient = (idempotencyKey() == null) ? channelsClient :
+                withIdempotencyKey(channelsClient, idempotencyKey() + "_channels");
 
+            var res = idempotentChannelsClient.getOrCreateMany(createRequest);
 
+            for (int i = 0; i < createRequest.getChannelsCount(); ++i) {
+                var spec = createRequest.getChannels(i);
+                var storageUri = spec.hasConsumer() ? spec.getConsumer().getStorageUri()
+                    : spec.getProducer().getStorageUri();
+                slotUri2channelId.put(storageUri, res.getChannelIds(i));
+            }
         } catch (StatusRuntimeException sre) {
             return retryableFail(sre, "Cannot create channels for slots", sre);
         }
@@ -61,7 +61,8 @@ public final class ExecuteGraph extends ExecutionOperationRunner {
     }
 
     private Supplier<StepResult> findZone() {
-        return new FindVmPoolZone(stepCtx(), state, vmPoolClient);
+        return new FindVmPoolZone(stepCtx(), state, vmPoolClient,
+            new VmPoolZonePlacement(serviceCfg().getPlacement()), allocatorSessionId, operationsDao());
     }
 
     private Supplier<StepResult> buildDataflowGraph() {
@@ -2,19 +2,24 @@ package ai.lzy.service.operations.graph;
 
 import ai.lzy.service.dao.DataFlowGraph;
 import ai.lzy.service.dao.ExecuteGraphState;
+import ai.lzy.service.dao.ExecuteGraphState.Part;
 import ai.lzy.service.operations.ExecutionContextAwareStep;
 import ai.lzy.service.operations.ExecutionStepContext;
 import ai.lzy.v1.graph.GraphExecutor;
 import ai.lzy.v1.workflow.LWF;
 import jakarta.annotation.Nullable;
 
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static ai.lzy.model.db.DbHelper.withRetries;
 
 abstract class ExecuteGraphContextAwareStep extends ExecutionContextAwareStep {
     private final ExecuteGraphState state;
+    // parts of the state changed by this step since the last save
+    private final Set<Part> changedParts = EnumSet.noneOf(Part.class);
 
     protected ExecuteGraphContextAwareStep(ExecutionStepContext stepCtx, ExecuteGraphState state) {
         super(stepCtx);
@@ -26,7 +31,8 @@ abstract class ExecuteGraphContextAwareStep extends ExecutionContextAwareStep {
     }
 
     protected void saveState() throws Exception {
-        withRetries(log(), () -> execOpsDao().putState(opId(), state(), null));
+        withRetries(log(), () -> execOpsDao().putState(opId(), state(), changedParts, null));
+        changedParts.clear();
     }
 
     protected LWF.Graph request() {
@@ -40,6 +46,7 @@ abstract class ExecuteGraphContextAwareStep extends ExecutionContextAwareStep {
 
     protected void setOperationsToExecute(List<LWF.Operation> ops) {
         state.operationsToExecute = ops;
+        changedParts.add(Part.OPERATIONS_TO_EXECUTE);
     }
 
     @Nullable
@@ -49,6 +56,7 @@ abstract class ExecuteGraphContextAwareStep extends ExecutionContextAwareStep {
 
     protected void setVmPoolZone(String vmPoolZone) {
         state.vmPoolZone = vmPoolZone;
+        changedParts.add(Part.VM_POOL_ZONE);
     }
 
     @Nullable
@@ -58,6 +66,7 @@ abstract class ExecuteGraphContextAwareStep extends ExecutionContextAwareStep {
 
     protected void setDataFlowGraph(DataFlowGraph dataFlowGraph) {
         state.dataFlowGraph = dataFlowGraph;
+        changedParts.add(Part.DATA_FLOW_GRAPH);
     }
 
     @Nullable
@@ -67,6 +76,7 @@ abstract class ExecuteGraphContextAwareStep extends ExecutionContextAwareStep {
 
     protected void setChannels(Map<String, String> slotUri2channelId) {
         state.slotUri2channelId = slotUri2channelId;
+        changedParts.add(Part.CHANNELS);
     }
 
     @Nullable
@@ -76,6 +86,7 @@ abstract class ExecuteGraphContextAwareStep extends ExecutionContextAwareStep {
 
     protected void setTasks(List<GraphExecutor.TaskDesc> tasks) {
         state.tasks = tasks;
+        changedParts.add(Part.TASKS);
     }
 
     @Nullable
@@ -85,5 +96,6 @@ abstract class ExecuteGraphContextAwareStep extends ExecutionContextAwareStep {
 
     protected void setGraphId(String graphId) {
         state.graphId = graphId;
+        changedParts.add(Part.GRAPH_ID);
     }
 }
@@ -1,28 +1,47 @@
 package ai.lzy.service.operations.graph;
 
 import ai.lzy.longrunning.OperationRunnerBase.StepResult;
+import ai.lzy.longrunning.dao.OperationDao;
 import ai.lzy.service.dao.ExecuteGraphState;
 import ai.lzy.service.operations.ExecutionStepContext;
 import ai.lzy.service.operations.RetryableFailStep;
+import ai.lzy.util.grpc.ProtoPrinter;
+import ai.lzy.v1.VmPoolServiceApi.GetZoneStatsRequest;
+import ai.lzy.v1.VmPoolServiceApi.ZoneStats;
 import ai.lzy.v1.VmPoolServiceGrpc.VmPoolServiceBlockingStub;
 import ai.lzy.v1.workflow.LWF;
+import ai.lzy.v1.workflow.LWFS.ExecuteGraphMetadata;
+import com.google.protobuf.Any;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import org.apache.logging.log4j.util.Strings;
 
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.Supplier;
 
 import static ai.lzy.allocator.vmpool.VmPoolClient.findZones;
+import static ai.lzy.model.db.DbHelper.withRetries;
 
 final class FindVmPoolZone extends ExecuteGraphContextAwareStep implements Supplier<StepResult>, RetryableFailStep {
     private final VmPoolServiceBlockingStub vmPoolClient;
+    private final VmPoolZonePlacement placement;
+    private final String allocatorSessionId;
+    private final OperationDao operationsDao;
 
     public FindVmPoolZone(ExecutionStepContext stepCtx, ExecuteGraphState state,
-                          VmPoolServiceBlockingStub vmPoolClient)
+                          VmPoolServiceBlockingStub vmPoolClient, VmPoolZonePlacement placement,
+                          String allocatorSessionId, OperationDao operationsDao)
     {
         super(stepCtx, state);
         this.vmPoolClient = vmPoolClient;
+        this.placement = placement;
+        this.allocatorSessionId = allocatorSessionId;
+        this.operationsDao = operationsDao;
     }
 
     @Override
@@ -57,12 +76,10 @@ final class FindVmPoolZone extends ExecuteGraphContextAwareStep implements Suppl
         final String foundZone;
 
         if (Strings.isBlank(request().getZone())) {
-            var candidateZone = suitableZones.stream().findAny();
-            if (candidateZone.isPresent()) {
-                foundZone = candidateZone.get();
-            } else {
+            if (suitableZones.isEmpty()) {
                 return onError.get();
             }
+            foundZone = chooseZone(suitableZones);
         } else {
             if (suitableZones.contains(request().getZone())) {
                 foundZone = request().getZone();
@@ -83,4 +100,50 @@ final class FindVmPoolZone extends ExecuteGraphContextAwareStep implements Suppl
 
         return StepResult.CONTINUE;
     }
+
+    private String chooseZone(Set<String> suitableZones) {
+        var zones = new TreeSet<>(suitableZones);
+        if (zones.size() == 1) {
+            return zones.first();
+        }
+
+        var operations = Objects.requireNonNullElse(operationsToExecute(), request().getOperationsList());
+
+        var poolDemand = new HashMap<String, Integer>();
+        var inputUris = new LinkedHashSet<String>();
+        for (var operation : operations) {
+            poolDemand.merge(operation.getPoolSpecName(), 1, Integer::sum);
+            operation.getInputSlotsList().forEach(slot -> inputUris.add(slot.getStorageUri()));
+        }
+
+        List<ZoneStats.PoolZone> stats;
+        try {
+            stats = vmPoolClient.getZoneStats(GetZoneStatsRequest.newBuilder()
+                    .addAllPoolLabels(poolDemand.keySet())
+                    .setSessionId(allocatorSessionId)
+                    .build())
+                .getPoolZonesList();
+        } catch (StatusRuntimeException sre) {
+            // placement is an optimization, don't fail the graph because of it
+            log().warn("{} Cannot get zone stats of pools {}, place by storage only: {}", logPrefix(),
+                poolDemand.keySet(), sre.getStatus());
+            stats = List.of();
+        }
+
+        var scores = placement.score(zones, poolDemand, inputUris, stats);
+        var metadata = ExecuteGraphMetadata.newBuilder()
+            .setZone(scores.get(0).getZone())
+            .addAllZoneScores(scores)
+            .build();
+
+        log().info("{} Zones scored: {}", logPrefix(), ProtoPrinter.printer().shortDebugString(metadata));
+
+        try {
+            withRetries(log(), () -> operationsDao.updateMeta(opId(), Any.pack(metadata), null));
+        } catch (Exception e) {
+            log().warn("{} Cannot save zone scores to operation metadata: {}", logPrefix(), e.getMessage());
+        }
+
+        return metadata.getZone();
+    }
 }
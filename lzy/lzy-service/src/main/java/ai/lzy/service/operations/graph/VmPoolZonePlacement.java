@@ -0,0 +1,109 @@
+package ai.lzy.service.operations.graph;
+
+import ai.lzy.service.config.LzyServiceConfig;
+import ai.lzy.v1.VmPoolServiceApi.ZoneStats;
+import ai.lzy.v1.workflow.LWFS.ExecuteGraphMetadata;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scores zones suitable for all graph pools, the zone with the best score is used for the graph VMs.
+ * Score is a weighted sum of components in [0, 1]:
+ * <ul>
+ *     <li>capacity: less allocating and running VMs in the graph pools than in other zones;</li>
+ *     <li>warm VMs: share of graph operations, which can be started on cached VMs of the allocator session;</li>
+ *     <li>storage: share of graph inputs with storage URI located in the zone;</li>
+ *     <li>latency: faster recent allocation of new VMs in the graph pools.</li>
+ * </ul>
+ * Components without data (e.g. no allocations were done recently) are neutral for all zones.
+ */
+final class VmPoolZonePlacement {
+    private static final double CAPACITY_WEIGHT = 0.3;
+    private static final double WARM_VMS_WEIGHT = 0.3;
+    private static final double STORAGE_WEIGHT = 0.2;
+    private static final double LATENCY_WEIGHT = 0.2;
+    private static final double NEUTRAL = 0.5;
+
+    private final LzyServiceConfig.PlacementConfig config;
+
+    VmPoolZonePlacement(LzyServiceConfig.PlacementConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * @param zones      zones suitable for all graph pools
+     * @param poolDemand pool label -> number of graph operations in the pool
+     * @param inputUris  storage URIs of graph inputs
+     * @param stats      allocator stats of the graph pools
+     * @return zone scores, the best zone goes first
+     */
+    List<ExecuteGraphMetadata.ZoneScore> score(Collection<String> zones, Map<String, Integer> poolDemand,
+                                               Collection<String> inputUris, List<ZoneStats.PoolZone> stats)
+    {
+        var totalDemand = poolDemand.values().stream().mapToInt(Integer::intValue).sum();
+
+        var activeVms = new HashMap<String, Integer>();
+        var warmVms = new HashMap<String, Integer>();
+        var latencies = new HashMap<String, Long>();
+
+        for (var poolZone : stats) {
+            var demand = poolDemand.get(poolZone.getPoolLabel());
+            if (demand == null || !zones.contains(poolZone.getZone())) {
+                continue;
+            }
+
+            var zone = poolZone.getZone();
+            activeVms.merge(zone, poolZone.getActiveVms(), Integer::sum);
+            warmVms.merge(zone, Math.min(poolZone.getSessionCachedVms(), demand), Integer::sum);
+            if (poolZone.getAllocationLatencyMs() > 0) {
+                // graph starts when VMs of all its pools are allocated, so the slowest pool matters
+                latencies.merge(zone, poolZone.getAllocationLatencyMs(), Math::max);
+            }
+        }
+
+        var maxActiveVms = activeVms.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        var minLatency = latencies.values().stream().mapToLong(Long::longValue).min().orElse(0);
+
+        var scores = new ArrayList<ExecuteGraphMetadata.ZoneScore>(zones.size());
+        for (var zone : zones) {
+            var capacity = maxActiveVms > 0
+                ? 1.0 - (double) activeVms.getOrDefault(zone, 0) / maxActiveVms
+                : NEUTRAL;
+            var warm = totalDemand > 0
+                ? (double) warmVms.getOrDefault(zone, 0) / totalDemand
+                : 0.0;
+            var storage = inputUris.isEmpty()
+                ? NEUTRAL
+                : (double) inputUris.stream().filter(uri -> isLocated(uri, zone)).count() / inputUris.size();
+            var latency = latencies.containsKey(zone)
+                ? (double) minLatency / latencies.get(zone)
+                : NEUTRAL;
+
+            var score = CAPACITY_WEIGHT * capacity + WARM_VMS_WEIGHT * warm + STORAGE_WEIGHT * storage
+                + LATENCY_WEIGHT * latency;
+
+            scores.add(ExecuteGraphMetadata.ZoneScore.newBuilder()
+                .setZone(zone)
+                .setScore(score)
+                .setCapacity(capacity)
+                .setWarmVms(warm)
+                .setStorage(storage)
+                .setLatency(latency)
+                .build());
+        }
+
+        scores.sort(Comparator.comparingDouble(ExecuteGraphMetadata.ZoneScore::getScore).reversed()
+            .thenComparing(ExecuteGraphMetadata.ZoneScore::getZone));
+        return scores;
+    }
+
+    private boolean isLocated(String uri, String zone) {
+        var prefixes = config.getZoneStorages().get(zone);
+        return prefixes != null && prefixes.stream().anyMatch(uri::startsWith);
+    }
+}
@@ -0,0 +1,9 @@
+CREATE TABLE execute_graph_state_parts
+(
+    op_id TEXT NOT NULL,
+    part  TEXT NOT NULL, -- one of ExecuteGraphState.Part
+    data  TEXT NOT NULL,
+
+    PRIMARY KEY (op_id, part),
+    FOREIGN KEY (op_id) REFERENCES execution_operations (op_id) ON DELETE CASCADE
+);
@@ -0,0 +1,133 @@
+package ai.lzy.service.dao;
+
+import ai.lzy.longrunning.Operation;
+import ai.lzy.service.WithoutWbAndSchedulerLzyContextTests;
+import ai.lzy.service.dao.ExecuteGraphState.Part;
+import ai.lzy.service.dao.impl.LzyServiceStorage;
+import ai.lzy.service.test.LzyServiceContextImpl;
+import ai.lzy.v1.graph.GraphExecutor;
+import ai.lzy.v1.workflow.LWF;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+public class ExecutionOperationsDaoTest extends WithoutWbAndSchedulerLzyContextTests {
+    private static final String INSTANCE_ID = "instance";
+    private static final String EXEC_ID = "exec";
+
+    private ExecutionOperationsDao execOpsDao;
+    private LzyServiceStorage storage;
+    private ObjectMapper objectMapper;
+
+    @Before
+    public void before() {
+        ApplicationContext context = lzy.micronautContext().getBean(LzyServiceContextImpl.class)
+            .getMicronautContext();
+        execOpsDao = context.getBean(ExecutionOperationsDao.class);
+        storage = context.getBean(LzyServiceStorage.class);
+        objectMapper = context.getBean(ObjectMapper.class, Qualifiers.byName("LzyServiceObjectMapper"));
+    }
+
+    @Test
+    public void partsRoundTrip() throws Exception {
+        var state = new ExecuteGraphState(graph("graph"));
+        state.vmPoolZone = "zone-a";
+        var opId = createExecGraphOp(state);
+
+        var loaded = execOpsDao.getState(opId, null);
+        Assert.assertEquals(state.request, loaded.request);
+        Assert.assertEquals("zone-a", loaded.vmPoolZone);
+        Assert.assertNull(loaded.operationsToExecute);
+        Assert.assertNull(loaded.tasks);
+        Assert.assertNull(loaded.graphId);
+
+        state.operationsToExecute = List.of(LWF.Operation.newBuilder().setName("op").build());
+        state.tasks = List.of(GraphExecutor.TaskDesc.newBuilder().setId("task").build());
+        state.graphId = "graph-id";
+        execOpsDao.putState(opId, state, Set.of(Part.OPERATIONS_TO_EXECUTE, Part.TASKS, Part.GRAPH_ID), null);
+
+        loaded = execOpsDao.getState(opId, null);
+        Assert.assertEquals(state.operationsToExecute, loaded.operationsToExecute);
+        Assert.assertEquals(state.tasks, loaded.tasks);
+        Assert.assertEquals("graph-id", loaded.graphId);
+        Assert.assertEquals("zone-a", loaded.vmPoolZone);
+    }
+
+    @Test
+    public void mergePartialUpdates() throws Exception {
+        var opId = createExecGraphOp(new ExecuteGraphState(graph("graph")));
+
+        var state1 = new ExecuteGraphState(graph("graph"));
+        state1.graphId = "graph-id";
+        execOpsDao.putState(opId, state1, Set.of(Part.GRAPH_ID), null);
+
+        // only listed parts are written, graph id of another state instance is not
+        var state2 = new ExecuteGraphState(graph("graph"));
+        state2.vmPoolZone = "zone-b";
+        state2.graphId = "other-graph-id";
+        execOpsDao.putState(opId, state2, Set.of(Part.VM_POOL_ZONE), null);
+
+        var loaded = execOpsDao.getState(opId, null);
+        Assert.assertEquals("graph-id", loaded.graphId);
+        Assert.assertEquals("zone-b", loaded.vmPoolZone);
+
+        // part is overwritten by the latest write
+        state2.vmPoolZone = "zone-c";
+        execOpsDao.putState(opId, state2, Set.of(Part.VM_POOL_ZONE), null);
+        Assert.assertEquals("zone-c", execOpsDao.getState(opId, null).vmPoolZone);
+    }
+
+    @Test
+    public void legacyStateJsonFallback() throws Exception {
+        var opId = createExecGraphOp(new ExecuteGraphState(graph("graph")));
+
+        // state written as a whole by previous versions
+        var legacy = new ExecuteGraphState(graph("legacy-graph"));
+        legacy.vmPoolZone = "legacy-zone";
+        legacy.graphId = "legacy-graph-id";
+        setStateJson(opId, objectMapper.writeValueAsString(legacy));
+
+        var loaded = execOpsDao.getState(opId, null);
+        Assert.assertEquals("legacy-zone", loaded.vmPoolZone);
+        Assert.assertEquals("legacy-graph-id", loaded.graphId);
+        // stored part overrides the legacy state
+        Assert.assertEquals(graph("graph"), loaded.request);
+
+        var state = new ExecuteGraphState(graph("graph"));
+        state.graphId = "graph-id";
+        execOpsDao.putState(opId, state, Set.of(Part.GRAPH_ID), null);
+
+        loaded = execOpsDao.getState(opId, null);
+        Assert.assertEquals("graph-id", loaded.graphId);
+        Assert.assertEquals("legacy-zone", loaded.vmPoolZone);
+    }
+
+    private String createExecGraphOp(ExecuteGraphState state) throws SQLException {
+        var op = Operation.create("user", "ExecuteGraph", Duration.ofHours(1), null, null);
+        lzyServiceOperations().create(op, null);
+        execOpsDao.createExecGraphOp(op.id(), INSTANCE_ID, EXEC_ID, state, null);
+        return op.id();
+    }
+
+    private void setStateJson(String opId, String stateJson) throws SQLException {
+        try (var conn = storage.connect();
+             var st = conn.prepareStatement("UPDATE execution_operations SET state_json = ? WHERE op_id = ?"))
+        {
+            st.setString(1, stateJson);
+            st.setString(2, opId);
+            Assert.assertEquals(1, st.executeUpdate());
+        }
+    }
+
+    private static LWF.Graph graph(String name) {
+        return LWF.Graph.newBuilder().setName(name).build();
+    }
+}
@@ -0,0 +1,77 @@
+package ai.lzy.service.operations.graph;
+
+import ai.lzy.service.config.LzyServiceConfig;
+import ai.lzy.v1.VmPoolServiceApi.ZoneStats;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class VmPoolZonePlacementTest {
+    private static final List<String> ZONES = List.of("zone-a", "zone-b");
+
+    @Test
+    public void preferWarmVms() {
+        var placement = new VmPoolZonePlacement(new LzyServiceConfig.PlacementConfig());
+
+        var scores = placement.score(ZONES, Map.of("s", 2), List.of(), List.of(
+            poolZone("s", "zone-a", 0, 0, 0),
+            poolZone("s", "zone-b", 0, 2, 0)));
+
+        Assert.assertEquals("zone-b", scores.get(0).getZone());
+        Assert.assertEquals(1.0, scores.get(0).getWarmVms(), 1e-9);
+        Assert.assertEquals(0.0, scores.get(1).getWarmVms(), 1e-9);
+    }
+
+    @Test
+    public void preferFreeAndFastZone() {
+        var placement = new VmPoolZonePlacement(new LzyServiceConfig.PlacementConfig());
+
+        var scores = placement.score(ZONES, Map.of("s", 1, "l", 1), List.of(), List.of(
+            poolZone("s", "zone-a", 10, 0, 60_000),
+            poolZone("l", "zone-a", 10, 0, 120_000),
+            poolZone("s", "zone-b", 1, 0, 30_000),
+            poolZone("l", "zone-b", 1, 0, 40_000)));
+
+        Assert.assertEquals("zone-b", scores.get(0).getZone());
+        Assert.assertEquals(0.9, scores.get(0).getCapacity(), 1e-9);
+        Assert.assertEquals(1.0, scores.get(0).getLatency(), 1e-9);
+        Assert.assertEquals(1.0 / 3, scores.get(1).getLatency(), 1e-9);
+    }
+
+    @Test
+    public void preferStorageLocality() {
+        var config = new LzyServiceConfig.PlacementConfig();
+        config.setZoneStorages(Map.of("zone-b", List.of("s3://bucket-b/")));
+        var placement = new VmPoolZonePlacement(config);
+
+        // no stats from allocator
+        var scores = placement.score(ZONES, Map.of("s", 1),
+            List.of("s3://bucket-b/input-1", "s3://bucket-b/input-2", "s3://bucket-a/input-3"), List.of());
+
+        Assert.assertEquals("zone-b", scores.get(0).getZone());
+        Assert.assertEquals(2.0 / 3, scores.get(0).getStorage(), 1e-9);
+        Assert.assertEquals(0.0, scores.get(1).getStorage(), 1e-9);
+    }
+
+    @Test
+    public void sameScoreSortedByZone() {
+        var placement = new VmPoolZonePlacement(new LzyServiceConfig.PlacementConfig());
+
+        var scores = placement.score(List.of("zone-b", "zone-a"), Map.of("s", 1), List.of(), List.of());
+
+        Assert.assertEquals("zone-a", scores.get(0).getZone());
+        Assert.assertEquals(scores.get(0).getScore(), scores.get(1).getScore(), 1e-9);
+    }
+
+    private static ZoneStats.PoolZone poolZone(String pool, String zone, int active, int cached, long latencyMs) {
+        return ZoneStats.PoolZone.newBuilder()
+            .setPoolLabel(pool)
+            .setZone(zone)
+            .setActiveVms(active)
+            .setSessionCachedVms(cached)
+            .setAllocationLatencyMs(latencyMs)
+            .build();
+    }
+}
@@ -10,7 +10,6 @@ import ai.lzy.v1.iam.LzySubjectServiceGrpc;
 import io.grpc.ManagedChannel;
 import io.micronaut.context.annotation.Bean;
 import io.micronaut.context.annotation.Factory;
-import io.prometheus.client.CollectorRegistry;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 import org.apache.logging.log4j.Level;
@@ -38,8 +37,6 @@ public class BeanFactory {
     @Bean(preDestroy = "stop")
     @Named("S3SinkMetricReporter")
     public MetricReporter metricReporter(ServiceConfig.MetricsConfig config) {
-        CollectorRegistry.defaultRegistry.clear();
-
         return switch (config.getKind()) {
             case Disabled -> new DummyMetricReporter();
             case Logger -> new LogMetricReporter(config.getLoggerName(),
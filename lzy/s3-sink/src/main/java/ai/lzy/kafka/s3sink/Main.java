@@ -1,5 +1,6 @@
 package ai.lzy.kafka.s3sink;
 
+import ai.lzy.iam.clients.CachingAccessClient;
 import ai.lzy.iam.grpc.client.AccessServiceGrpcClient;
 import ai.lzy.iam.grpc.client.AuthenticateServiceGrpcClient;
 import ai.lzy.iam.grpc.interceptors.AccessServerInterceptor;
@@ -33,7 +34,7 @@ public class Main {
 
         var auth = new AuthServerInterceptor(new AuthenticateServiceGrpcClient(APP, iamChannel));
         var internalOnly = new AccessServerInterceptor(
-            new AccessServiceGrpcClient(APP, iamChannel),
+            CachingAccessClient.wrap(new AccessServiceGrpcClient(APP, iamChannel), config.getIam()),
             config.getIam().createRenewableToken()::get, Root.INSTANCE, AuthPermission.INTERNAL_AUTHORIZE);
 
         server = GrpcUtils.newGrpcServer(HostAndPort.fromString(config.getAddress()), auth)
@@ -1,8 +1,10 @@
 package ai.lzy.kafka.s3sink;
 
 import ai.lzy.metrics.MetricReporter;
+import io.prometheus.client.CollectorRegistry;
 import io.prometheus.client.Counter;
 import io.prometheus.client.Gauge;
+import jakarta.annotation.PreDestroy;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 
@@ -28,4 +30,12 @@ public class S3SinkMetrics {
 
     public S3SinkMetrics(@Named("S3SinkMetricReporter") MetricReporter ignored) {
     }
+
+    @PreDestroy
+    public void unregister() {
+        var registry = CollectorRegistry.defaultRegistry;
+        registry.unregister(activeSessions);
+        registry.unregister(uploadedBytes);
+        registry.unregister(errors);
+    }
 }
@@ -5,6 +5,8 @@ import ai.lzy.scheduler.db.JobDao;
 import ai.lzy.scheduler.providers.JobProvider;
 import ai.lzy.scheduler.providers.JobSerializer;
 import io.micronaut.context.ApplicationContext;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timer;
 import jakarta.annotation.Nullable;
 import jakarta.annotation.PreDestroy;
 import jakarta.inject.Singleton;
@@ -13,29 +15,61 @@ import org.apache.logging.log4j.Logger;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Singleton
 public class JobService {
     private static final Logger LOG = LogManager.getLogger(JobService.class);
+
+    private static final int RESTORE_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final Duration TIMER_TICK = Duration.ofMillis(50);
+
     private final JobDao dao;
     private final ApplicationContext context;
 
     // TODO(artolord) add config here
-    private final ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(16);
+    private final ExecutorService pool;
+    // delayed jobs wait in the timer wheel, which is cheap to hold a lot of them, and run in the pool
+    private final Timer timer;
     private final ConcurrentHashMap<String, JobProvider> providers = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, JobSerializer> serializers = new ConcurrentHashMap<>();
 
+    private final Batcher<Job> inserts;
+    private final Batcher<String> completions;
+
     public JobService(JobDao dao, ApplicationContext context) {
         this.dao = dao;
         this.context = context;
-        pool.setContinueExistingPeriodicTasksAfterShutdownPolicy(false);
-        pool.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
-        pool.setRemoveOnCancelPolicy(true);
+
+        var threadCounter = new AtomicInteger(0);
+        this.pool = Executors.newFixedThreadPool(16, r -> new Thread(r, "job-" + threadCounter.getAndIncrement()));
+        this.timer = new HashedWheelTimer(r -> {
+            var thread = new Thread(r, "job-timer");
+            thread.setDaemon(true);
+            return thread;
+        }, TIMER_TICK.toMillis(), TimeUnit.MILLISECONDS);
+
+        this.inserts = new Batcher<>(jobs -> DbHelper.withRetries(LOG, () -> dao.insertAll(jobs, null)));
+        this.completions = new Batcher<>(ids -> {
+            var completed = DbHelper.withRetries(LOG, () -> dao.completeAll(ids, null));
+            if (completed != ids.size()) {
+                LOG.warn("Completed {} of {} jobs, the rest are not found or in unexpected status",
+                    completed, ids.size());
+            }
+        });
+
         restore();
     }
 
@@ -43,21 +77,39 @@ public class JobService {
      * Restore jobs pool
      */
     private void restore() {
-        final List<Job> jobs;
         try {
-            jobs = DbHelper.withRetries(LOG, () -> dao.listToRestore(null));
+            DbHelper.withRetries(LOG, () -> dao.resetToRestore(null));
         } catch (Exception e) {
             LOG.error("Cannot restore job service: ", e);
             return;
         }
 
-        LOG.debug("Restoring {} jobs: {}", jobs.size(), jobs);
+        // jobs are read by pages, restored jobs can start executing while the next pages are being read
+        String lastId = null;
+        int restored = 0;
+        while (true) {
+            final String afterId = lastId;
+            final List<Job> jobs;
+            try {
+                jobs = DbHelper.withRetries(LOG, () -> dao.listToRestore(afterId, RESTORE_PAGE_SIZE, null));
+            } catch (Exception e) {
+                LOG.error("Cannot restore job service: ", e);
+                return;
+            }
+
+            for (var job : jobs) {
+                LOG.debug("Restoring job {} for provider {}", job.id, job.providerClass);
+                schedule(job, null, Duration.between(Instant.now(), job.startAfter()));
+            }
 
-        for (var job: jobs) {
-            LOG.debug("Restoring job {} for provider {}", job.id, job.providerClass);
-            pool.schedule(() -> executeJob(job, null), Duration.between(Instant.now(), job.startAfter()).toMillis(),
-                TimeUnit.MILLISECONDS);
+            restored += jobs.size();
+            if (jobs.size() < RESTORE_PAGE_SIZE) {
+                break;
+            }
+            lastId = jobs.get(jobs.size() - 1).id();
         }
+
+        LOG.info("Restored {} jobs", restored);
     }
 
     public void create(JobProvider provider, JobSerializer serializer, @Nullable Object input,
@@ -77,14 +129,24 @@ public class JobService {
         );
 
         try {
-            DbHelper.withRetries(LOG, () -> dao.insert(job, null));
+            // concurrently created jobs are inserted by one batch
+            inserts.add(job).join();
         } catch (Exception e) {
             LOG.error("Error while inserting job: ", e);
             throw new RuntimeException(e);
         }
         LOG.debug("Scheduling to execute job {} for provider {} after {} ms", job.id,
             job.providerClass, dur.toMillis());
-        pool.schedule(() -> executeJob(job, input), dur.toMillis(), TimeUnit.MILLISECONDS);
+        schedule(job, input, dur);
+    }
+
+    private void schedule(Job job, @Nullable Object arg, Duration delay) {
+        Runnable execute = () -> executeJob(job, arg);
+        if (delay.isNegative() || delay.isZero()) {
+            pool.execute(execute);
+            return;
+        }
+        timer.newTimeout(timeout -> pool.execute(execute), delay.toMillis(), TimeUnit.MILLISECONDS);
     }
 
     private void executeJob(Job job, @Nullable Object arg) {
@@ -111,7 +173,7 @@ public class JobService {
             } catch (Exception e) {
                 try {
                     LOG.error("Cannot get provider {} for job", job.providerClass);
-                    DbHelper.withRetries(LOG, () -> dao.complete(job.id, JobStatus.EXECUTING, null));
+                    completions.add(job.id).join();
                 } catch (Exception ex) {
                     LOG.error("Cannot fail job for provider {}:", job.providerClass, e);
                 }
@@ -139,9 +201,9 @@ public class JobService {
             LOG.error("Error while executing job for provider {}: ", job.providerClass, e);
         }
 
-        // Completing job
+        // Completing job, job is restarted after restore if completion is not persisted
         try {
-            DbHelper.withRetries(LOG, () -> dao.complete(job.id, JobStatus.EXECUTING, null));
+            completions.add(job.id).join();
         } catch (Exception e) {
             LOG.error("Error while completing job {}: ", job.providerClass, e);
         }
@@ -152,6 +214,7 @@ public class JobService {
     @PreDestroy
     public void stop() {
         LOG.info("Stopping JobService");
+        this.timer.stop();
         this.pool.shutdown();
         try {
             this.pool.awaitTermination(10, TimeUnit.SECONDS);
@@ -175,4 +238,63 @@ public class JobService {
         @Nullable String serializedInput,  // Serialized input of job
         Instant startAfter  // Delay start of job to duration
     ) { }
+
+    @FunctionalInterface
+    private interface BatchAction<T> {
+        void run(List<T> batch) throws Exception;
+    }
+
+    /**
+     * Group commit of concurrent requests: the first caller writes the batch with all requests
+     * queued until that moment, the rest wait for it.
+     */
+    private static final class Batcher<T> {
+        private record Pending<T>(T item, CompletableFuture<Void> done) {}
+
+        private final BatchAction<T> action;
+        private final Queue<Pending<T>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean writing = new AtomicBoolean(false);
+
+        private Batcher(BatchAction<T> action) {
+            this.action = action;
+        }
+
+        CompletableFuture<Void> add(T item) {
+            var pending = new Pending<>(item, new CompletableFuture<Void>());
+            queue.add(pending);
+            flush();
+            return pending.done();
+        }
+
+        private void flush() {
+            // recheck after release, item can be queued just before the previous writer released the flag
+            while (!queue.isEmpty() && writing.compareAndSet(false, true)) {
+                try {
+                    var batch = new ArrayList<Pending<T>>();
+                    Pending<T> next;
+                    while ((next = queue.poll()) != null) {
+                        batch.add(next);
+                        if (batch.size() == MAX_BATCH_SIZE) {
+                            write(batch);
+                            batch = new ArrayList<>();
+                        }
+                    }
+                    if (!batch.isEmpty()) {
+                        write(batch);
+                    }
+                } finally {
+                    writing.set(false);
+                }
+            }
+        }
+
+        private void write(List<Pending<T>> batch) {
+            try {
+                action.run(batch.stream().map(Pending::item).toList());
+                batch.forEach(p -> p.done().complete(null));
+            } catch (Exception e) {
+                batch.forEach(p -> p.done().completeExceptionally(e));
+            }
+        }
+    }
 }
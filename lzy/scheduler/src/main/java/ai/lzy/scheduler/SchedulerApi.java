@@ -1,5 +1,6 @@
 package ai.lzy.scheduler;
 
+import ai.lzy.iam.clients.CachingAccessClient;
 import ai.lzy.iam.grpc.client.AccessServiceGrpcClient;
 import ai.lzy.iam.grpc.client.AuthenticateServiceGrpcClient;
 import ai.lzy.iam.grpc.interceptors.AccessServerInterceptor;
@@ -40,7 +41,7 @@ public class SchedulerApi {
             new AuthServerInterceptor(new AuthenticateServiceGrpcClient(APP, iamChannel)));
 
         var internalOnly = new AccessServerInterceptor(
-            new AccessServiceGrpcClient(APP, iamChannel),
+            CachingAccessClient.wrap(new AccessServiceGrpcClient(APP, iamChannel), config.getIam()),
             config.getIam().createRenewableToken()::get, Root.INSTANCE, AuthPermission.INTERNAL_AUTHORIZE);
 
         builder.addService(ServerInterceptors.intercept(impl, internalOnly));
@@ -10,6 +10,8 @@ import java.util.List;
 public interface JobDao {
     void insert(JobService.Job job, @Nullable TransactionHandle tx) throws SQLException;
 
+    void insertAll(List<JobService.Job> jobs, @Nullable TransactionHandle tx) throws SQLException;
+
     /**
      * Get job for execution. If job not in WAITING_TO_START status or not found, returns null
      */
@@ -17,5 +19,21 @@ public interface JobDao {
 
     void complete(String id, JobService.JobStatus currentStatus, @Nullable TransactionHandle tx) throws SQLException;
 
-    List<JobService.Job> listToRestore(@Nullable TransactionHandle tx) throws SQLException;
+    /**
+     * Completes jobs in EXECUTING status
+     *
+     * @return count of completed jobs
+     */
+    int completeAll(List<String> ids, @Nullable TransactionHandle tx) throws SQLException;
+
+    /**
+     * Moves all not completed jobs back to CREATED status, must be called before {@link #listToRestore}
+     */
+    void resetToRestore(@Nullable TransactionHandle tx) throws SQLException;
+
+    /**
+     * Page of jobs in CREATED status ordered by id
+     */
+    List<JobService.Job> listToRestore(@Nullable String afterId, int limit, @Nullable TransactionHandle tx)
+        throws SQLException;
 }
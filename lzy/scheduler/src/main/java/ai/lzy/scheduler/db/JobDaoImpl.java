@@ -42,6 +42,28 @@ public class JobDaoImpl implements JobDao {
         });
     }
 
+    @Override
+    public void insertAll(List<JobService.Job> jobs, @Nullable TransactionHandle tx) throws SQLException {
+        DbOperation.execute(tx, storage, (conn) -> {
+            try (PreparedStatement ps = conn.prepareStatement(String.format("""
+                INSERT INTO job (%s)
+                 VALUES (?, ?, ?, ?, ?, ?)""", FIELDS)))
+            {
+                for (var job : jobs) {
+                    ps.setString(1, job.id());
+                    ps.setString(2, job.providerClass());
+                    ps.setString(3, job.serializerClass());
+                    ps.setString(4, job.status().name());
+                    ps.setString(5, job.serializedInput());
+                    ps.setTimestamp(6, Timestamp.from(job.startAfter()));
+                    ps.addBatch();
+                }
+
+                ps.executeBatch();
+            }
+        });
+    }
+
     @Override
     public void executing(String id, @Nullable TransactionHandle tx) throws SQLException {
         DbOperation.execute(tx, storage, (conn) -> {
@@ -81,18 +103,53 @@ public class JobDaoImpl implements JobDao {
     }
 
     @Override
-    public List<JobService.Job> listToRestore(@Nullable TransactionHandle tx) throws SQLException {
+    public int completeAll(List<String> ids, @Nullable TransactionHandle tx) throws SQLException {
         return DbOperation.execute(tx, storage, (conn) -> {
-            try (PreparedStatement ps = conn.prepareStatement(String.format("""
+            try (PreparedStatement ps = conn.prepareStatement("""
+                UPDATE job
+                 SET status = ?
+                 WHERE id = ANY(?) AND status = ?"""))
+            {
+                ps.setString(1, JobService.JobStatus.DONE.name());
+                ps.setArray(2, conn.createArrayOf("text", ids.toArray()));
+                ps.setString(3, JobService.JobStatus.EXECUTING.name());
+                return ps.executeUpdate();
+            }
+        });
+    }
+
+    @Override
+    public void resetToRestore(@Nullable TransactionHandle tx) throws SQLException {
+        DbOperation.execute(tx, storage, (conn) -> {
+            try (PreparedStatement ps = conn.prepareStatement("""
                 UPDATE job
                 SET status = 'CREATED'
-                WHERE status != 'DONE'
-                RETURNING %s
+                WHERE status = 'EXECUTING'
+                """))
+            {
+                ps.executeUpdate();
+            }
+        });
+    }
+
+    @Override
+    public List<JobService.Job> listToRestore(@Nullable String afterId, int limit, @Nullable TransactionHandle tx)
+        throws SQLException
+    {
+        return DbOperation.execute(tx, storage, (conn) -> {
+            try (PreparedStatement ps = conn.prepareStatement(String.format("""
+                SELECT %s
+                FROM job
+                WHERE status = 'CREATED' AND id > ?
+                ORDER BY id
+                LIMIT ?
                 """, FIELDS)))
             {
+                ps.setString(1, afterId == null ? "" : afterId);
+                ps.setInt(2, limit);
                 var rs = ps.executeQuery();
 
-                final ArrayList<JobService.Job> list = new ArrayList<>();
+                final ArrayList<JobService.Job> list = new ArrayList<>(limit);
                 while (rs.next()) {
                     var id = rs.getString(1);
                     var providerClass = rs.getString(2);
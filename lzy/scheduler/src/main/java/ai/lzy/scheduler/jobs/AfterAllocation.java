@@ -26,6 +26,7 @@ import ai.lzy.v1.longrunning.LongRunning;
 import ai.lzy.v1.longrunning.LongRunningServiceGrpc;
 import ai.lzy.v1.worker.LWS;
 import ai.lzy.v1.worker.WorkerApiGrpc;
+import ai.lzy.worker.SessionImages;
 import com.google.common.net.HostAndPort;
 import com.google.rpc.Code;
 import io.grpc.Status;
@@ -43,9 +44,11 @@ import static ai.lzy.util.grpc.GrpcUtils.withIdempotencyKey;
 
 @Singleton
 public class AfterAllocation extends WorkflowJobProvider<TaskState> {
+    private static final int MAX_PREPULL_IMAGES = 3;
 
     private final RenewableJwt credentials;
     private final IamClientConfiguration authConfig;
+    private final SessionImages sessionImages = new SessionImages(10_000, MAX_PREPULL_IMAGES);
 
     protected AfterAllocation(JobService jobService, TaskStateSerializer serializer,
                               JobsOperationDao opDao, ApplicationContext context, ServiceConfig config)
@@ -143,6 +146,8 @@ public class AfterAllocation extends WorkflowJobProvider<TaskState> {
             .setWorkflowName(task.workflowName())
             .setWorkerSubjectName(task.vmId())
             .setWorkerPrivateKey(workerPrivateKey)
+            .addAllPrepullImages(sessionImages.use(task.allocatorSessionId(),
+                task.description().getOperation().getEnv()))
             .build());
 
         var operation = withIdempotencyKey(client, task.id())
@@ -1,13 +1,54 @@
 package ai.lzy.scheduler.jobs;
 
 import ai.lzy.scheduler.models.TaskState;
-import ai.lzy.scheduler.providers.JsonJobSerializer;
+import ai.lzy.scheduler.providers.BinaryJobSerializer;
+import ai.lzy.v1.common.LMO;
 import jakarta.inject.Singleton;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
 
 @Singleton
-public class TaskStateSerializer extends JsonJobSerializer<TaskState> {
+public class TaskStateSerializer extends BinaryJobSerializer<TaskState> {
     protected TaskStateSerializer() {
         super(TaskState.class);
     }
+
+    @Override
+    protected void write(TaskState state, DataOutputStream out) throws IOException {
+        out.writeUTF(state.id());
+        out.writeUTF(state.executionId());
+        out.writeUTF(state.workflowName());
+        out.writeUTF(state.userId());
+        writeNullableString(out, state.allocatorSessionId());
+        writeBytes(out, state.description().toByteArray());
+        writeNullableString(out, state.vmId());
+        writeNullableString(out, state.allocatorOperationId());
+        out.writeByte(state.vmFromCache() == null ? -1 : (state.vmFromCache() ? 1 : 0));
+        out.writeInt(state.workerPort() == null ? -1 : state.workerPort());
+        writeNullableString(out, state.workerHost());
+        writeNullableString(out, state.workerOperationId());
+    }
+
+    @Override
+    protected TaskState read(DataInputStream in) throws IOException {
+        var id = in.readUTF();
+        var executionId = in.readUTF();
+        var workflowName = in.readUTF();
+        var userId = in.readUTF();
+        var allocatorSessionId = readNullableString(in);
+        var description = LMO.TaskDesc.parseFrom(readBytes(in));
+        var vmId = readNullableString(in);
+        var allocatorOperationId = readNullableString(in);
+        var vmFromCache = in.readByte();
+        var workerPort = in.readInt();
+        var workerHost = readNullableString(in);
+        var workerOperationId = readNullableString(in);
+
+        return new TaskState(id, executionId, workflowName, userId, allocatorSessionId, description, vmId,
+            allocatorOperationId, vmFromCache < 0 ? null : vmFromCache == 1, workerPort < 0 ? null : workerPort,
+            workerHost, workerOperationId);
+    }
 }
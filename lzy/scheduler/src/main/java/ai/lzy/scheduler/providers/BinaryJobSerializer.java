@@ -0,0 +1,86 @@
+package ai.lzy.scheduler.providers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * Compact binary serializer, stores base64 of fields written by {@link #write}.
+ * Inputs of jobs created by {@link JsonJobSerializer} before migration to this serializer are still readable.
+ */
+public abstract class BinaryJobSerializer<T> extends JobSerializerBase<T> {
+    private static final byte VERSION = 1;
+
+    private final ObjectMapper legacyMapper = new ObjectMapper().findAndRegisterModules();
+
+    protected BinaryJobSerializer(Class<T> dataClass) {
+        super(dataClass);
+    }
+
+    protected abstract void write(T arg, DataOutputStream out) throws IOException;
+
+    protected abstract T read(DataInputStream in) throws IOException;
+
+    @Override
+    protected String serializeArg(T arg) throws SerializationException {
+        var bytes = new ByteArrayOutputStream(256);
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            write(arg, out);
+        } catch (IOException e) {
+            throw new SerializationException(e);
+        }
+        return Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+
+    @Override
+    protected T deserializeArg(String serializedArg) throws SerializationException {
+        // base64 never starts with '{', so it is json of the previous serializer
+        if (serializedArg.startsWith("{")) {
+            try {
+                return legacyMapper.readValue(serializedArg, dataClass);
+            } catch (IOException e) {
+                throw new SerializationException(e);
+            }
+        }
+
+        try (var in = new DataInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(serializedArg)))) {
+            var version = in.readByte();
+            if (version != VERSION) {
+                throw new SerializationException("Unknown version %s of serialized %s", version, dataClass.getName());
+            }
+            return read(in);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new SerializationException(e);
+        }
+    }
+
+    protected static void writeNullableString(DataOutputStream out, @Nullable String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    @Nullable
+    protected static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    protected static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    protected static byte[] readBytes(DataInputStream in) throws IOException {
+        var value = new byte[in.readInt()];
+        in.readFully(value);
+        return value;
+    }
+}
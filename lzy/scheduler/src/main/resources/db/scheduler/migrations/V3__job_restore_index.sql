@@ -0,0 +1 @@
+CREATE INDEX job_status_id_index ON job (status, id);
@@ -4,8 +4,12 @@ import ai.lzy.longrunning.Operation;
 import ai.lzy.longrunning.OperationsService;
 import ai.lzy.model.db.test.DatabaseTestUtils;
 import ai.lzy.scheduler.JobService;
+import ai.lzy.scheduler.db.JobDao;
 import ai.lzy.scheduler.db.JobsOperationDao;
+import ai.lzy.scheduler.jobs.TaskStateSerializer;
+import ai.lzy.scheduler.models.TaskState;
 import ai.lzy.util.grpc.GrpcUtils;
+import ai.lzy.v1.common.LMO;
 import com.google.rpc.Status;
 import io.micronaut.context.ApplicationContext;
 import io.zonky.test.db.postgres.junit.EmbeddedPostgresRules;
@@ -17,7 +21,12 @@ import org.junit.*;
 import java.sql.SQLException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static ai.lzy.util.grpc.GrpcUtils.newGrpcServer;
 
@@ -186,4 +195,68 @@ public class JobsTest {
         }
     }
 
+    @Test
+    public void testManyJobs() throws Exception {
+        var executed = ConcurrentHashMap.<String>newKeySet();
+        var latch = new CountDownLatch(300);
+        Provider.onExecute = d -> {
+            executed.add(d.a());
+            latch.countDown();
+        };
+
+        var threads = Executors.newFixedThreadPool(10);
+        try {
+            for (int i = 0; i < 300; ++i) {
+                var data = new Provider.Data(String.valueOf(i), "b");
+                var delay = i % 2 == 0 ? null : Duration.ofMillis(100);
+                threads.submit(() -> {
+                    provider.schedule(data, delay);
+                    return null;
+                });
+            }
+            Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+            Assert.assertEquals(300, executed.size());
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRestore() throws Exception {
+        var executed = ConcurrentHashMap.<String>newKeySet();
+        Provider.onExecute = d -> executed.add(d.a());
+
+        for (int i = 0; i < 5; ++i) {
+            provider.schedule(new Provider.Data(String.valueOf(i), "b"), Duration.ofSeconds(2));
+        }
+        service.stop();
+        Assert.assertTrue(executed.isEmpty());
+
+        var latch = new CountDownLatch(5);
+        Provider.onExecute = d -> {
+            executed.add(d.a());
+            latch.countDown();
+        };
+
+        var restored = new JobService(context.getBean(JobDao.class), context);
+        try {
+            Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+            Assert.assertEquals(Set.of("0", "1", "2", "3", "4"), executed);
+        } finally {
+            restored.stop();
+        }
+    }
+
+    @Test
+    public void testTaskStateSerializer() throws Exception {
+        var serializer = context.getBean(TaskStateSerializer.class);
+        var state = new TaskState("task", "exec", "wf", "user", "session",
+            LMO.TaskDesc.newBuilder()
+                .setOperation(LMO.Operation.newBuilder().setName("op").setCommand("echo 42").build())
+                .build(),
+            "vm", null, true, 1234, "host", null);
+
+        var serialized = serializer.serialize(state);
+        Assert.assertEquals(state, serializer.deserialize(serialized));
+    }
 }
@@ -27,11 +27,15 @@ import java.util.Map;
 import java.util.Set;
 import java.util.function.Supplier;
 
+import static ai.lzy.util.grpc.GrpcUtils.addMetrics;
 import static ai.lzy.util.grpc.GrpcUtils.newBlockingClient;
 import static ai.lzy.util.grpc.GrpcUtils.newGrpcChannel;
 import static ai.lzy.util.grpc.GrpcUtils.newGrpcServer;
 
 public class Slots {
+    private static final String APP = "LzySlots";
+    private static final int LOG_SAMPLE_RATE = 10;
+
     private final Path fsRoot;
     private final SlotsService slotsService;
     private final List<SlotsExecutionContext> contexts = new ArrayList<>();  // Guarded by this
@@ -75,7 +79,12 @@ public class Slots {
             accessClient, tokenSupplier, Set.of(LzySlotsApiGrpc.getStartTransferMethod()),
             workflowResource, AuthPermission.WORKFLOW_RUN);
 
-        server = newGrpcServer(slotsApiAddress, auth)
+        // read and startTransfer are called for every transfer, log only some of them
+        var logSampledMethods = Map.of(
+            LzySlotsApiGrpc.getReadMethod().getFullMethodName(), LOG_SAMPLE_RATE,
+            LzySlotsApiGrpc.getStartTransferMethod().getFullMethodName(), LOG_SAMPLE_RATE);
+
+        server = addMetrics(newGrpcServer(slotsApiAddress, auth, logSampledMethods), APP)
             .addService(ServerInterceptors.intercept(
                 slotsService,
                 workflowAccess,
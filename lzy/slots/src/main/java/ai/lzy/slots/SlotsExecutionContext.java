@@ -43,39 +43,55 @@ public class SlotsExecutionContext {
     }
 
     public void beforeExecution() throws Exception {
+        startBeforeExecution().join();
+    }
+
+    /**
+     * Creates all slots, so input slots start binding and loading data in background.
+     * Slots are closed if any of them fails.
+     *
+     * @return future which completes when all slots are ready for execution
+     */
+    public CompletableFuture<Void> startBeforeExecution() throws Exception {
+        final CompletableFuture<?>[] futures;
+
         try {
-            for (LMS.Slot desc : slotDescriptions) {
-                String channelId = slotToChannelMapping.get(desc.getName());  // Name here is slot path on lzy fs.
+            synchronized (this) {
+                for (LMS.Slot desc : slotDescriptions) {
+                    String channelId = slotToChannelMapping.get(desc.getName());  // Name here is slot path on lzy fs.
 
-                var fsPath = Path.of(fsRoot.toString(), desc.getName());
+                    var fsPath = Path.of(fsRoot.toString(), desc.getName());
 
-                if (desc.getDirection() == LMS.Slot.Direction.INPUT) {
-                    var backend = new FileInputBackend(fsPath);
-                    var inputSlot = new InputSlot(backend, desc.getName(), channelId, context);
+                    if (desc.getDirection() == LMS.Slot.Direction.INPUT) {
+                        var backend = new FileInputBackend(fsPath);
+                        var inputSlot = new InputSlot(backend, desc.getName(), channelId, context);
 
-                    slots.add(inputSlot);
-                } else {
-                    var backend = new OutputPipeBackend(fsPath);
-                    var outputSlot = new OutputSlot(backend, desc.getName(), channelId, context);
+                        slots.add(inputSlot);
+                    } else {
+                        var backend = new OutputPipeBackend(fsPath);
+                        var outputSlot = new OutputSlot(backend, desc.getName(), channelId, context);
 
-                    slots.add(outputSlot);
+                        slots.add(outputSlot);
+                    }
                 }
-            }
-
-            final CompletableFuture<?>[] futures;
 
-            synchronized (this) {
                 futures = slots.stream()
                     .map(SlotInternal::beforeExecution)
                     .toArray(CompletableFuture[]::new);
             }
-
-            CompletableFuture.allOf(futures).join();
         } catch (Exception e) {
             LOG.error("Failed to initialize slots", e);
             close();
             throw e;
         }
+
+        return CompletableFuture.allOf(futures)
+            .whenComplete((r, e) -> {
+                if (e != null) {
+                    LOG.error("Failed to initialize slots", e);
+                    close();
+                }
+            });
     }
 
     public void afterExecution() {
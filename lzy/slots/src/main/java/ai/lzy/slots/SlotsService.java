@@ -4,7 +4,6 @@ import ai.lzy.v1.slots.LSA;
 import ai.lzy.v1.slots.LSA.StartTransferRequest;
 import ai.lzy.v1.slots.LSA.StartTransferResponse;
 import ai.lzy.v1.slots.LzySlotsApiGrpc;
-import com.google.protobuf.TextFormat;
 import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import org.apache.logging.log4j.LogManager;
@@ -28,7 +27,7 @@ public class SlotsService extends LzySlotsApiGrpc.LzySlotsApiImplBase {
 
     @Override
     public void read(LSA.ReadDataRequest request, StreamObserver<LSA.ReadDataChunk> responseObserver) {
-        LOG.info("Read request: {}", TextFormat.printer().shortDebugString(request));
+        LOG.info("Read request for slot {} from offset {}", request.getPeerId(), request.getOffset());
 
         var slot = slots.get(request.getPeerId());
         if (slot == null) {
@@ -47,7 +46,8 @@ public class SlotsService extends LzySlotsApiGrpc.LzySlotsApiImplBase {
 
     @Override
     public void startTransfer(StartTransferRequest request, StreamObserver<StartTransferResponse> responseObserver) {
-        LOG.info("Start transfer request: {}", TextFormat.printer().shortDebugString(request));
+        LOG.info("Start transfer {} for slot {} to peer {}", request.getTransferId(), request.getSlotId(),
+            request.getPeer().getPeerId());
 
         var slot = slots.get(request.getSlotId());
         if (slot == null) {
@@ -7,15 +7,39 @@ import io.micronaut.context.annotation.ConfigurationProperties;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.Duration;
+
 @Getter
 @Setter
 @ConfigurationProperties("whiteboard")
 public class AppConfig {
     private String address;
 
+    // max number of finalized whiteboards kept in memory, 0 disables the cache
+    private int finalizedCacheSize = 10_000;
+
+    // finalized whiteboards can be updated through other instances, which invalidate only their own caches
+    private Duration finalizedCacheTtl = Duration.ofMinutes(5);
+
     @ConfigurationBuilder("iam")
     private final IamClientConfiguration iam = new IamClientConfiguration();
 
     @ConfigurationBuilder("database")
     private final DatabaseConfiguration database = new DatabaseConfiguration();
+
+    public enum MetricsKind {
+        Disabled,
+        Logger,
+        Prometheus,
+    }
+
+    @Getter
+    @Setter
+    @ConfigurationProperties("metrics")
+    public static final class MetricsConfig {
+        private MetricsKind kind = MetricsKind.Disabled;
+        private int port = 17080;
+        private String loggerName = "LogMetricReporter";
+        private String loggerLevel = "info";
+    }
 }
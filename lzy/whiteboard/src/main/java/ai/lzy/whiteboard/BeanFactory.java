@@ -2,12 +2,17 @@ package ai.lzy.whiteboard;
 
 import ai.lzy.iam.clients.AccessBindingClient;
 import ai.lzy.iam.clients.AccessClient;
+import ai.lzy.iam.clients.CachingAccessClient;
 import ai.lzy.iam.clients.SubjectServiceClient;
 import ai.lzy.iam.grpc.client.AccessBindingServiceGrpcClient;
 import ai.lzy.iam.grpc.client.AccessServiceGrpcClient;
 import ai.lzy.iam.grpc.client.SubjectServiceGrpcClient;
 import ai.lzy.longrunning.dao.OperationDao;
 import ai.lzy.longrunning.dao.OperationDaoImpl;
+import ai.lzy.metrics.DummyMetricReporter;
+import ai.lzy.metrics.LogMetricReporter;
+import ai.lzy.metrics.MetricReporter;
+import ai.lzy.metrics.PrometheusMetricReporter;
 import ai.lzy.util.auth.credentials.RenewableJwt;
 import ai.lzy.util.grpc.GrpcUtils;
 import ai.lzy.v1.iam.LzyAuthenticateServiceGrpc;
@@ -20,6 +25,7 @@ import io.micronaut.context.annotation.Requires;
 import jakarta.annotation.Nonnull;
 import jakarta.inject.Named;
 import jakarta.inject.Singleton;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -75,10 +81,12 @@ public class BeanFactory {
     @Singleton
     @Named("WhiteboardIamAccessClient")
     public AccessClient iamAccessClient(
+        AppConfig config,
         @Named("WhiteboardIamGrpcChannel") ManagedChannel iamChannel,
         @Named("WhiteboardIamToken") RenewableJwt iamToken)
     {
-        return new AccessServiceGrpcClient(WhiteboardApp.APP, iamChannel, iamToken::get);
+        return CachingAccessClient.wrap(new AccessServiceGrpcClient(WhiteboardApp.APP, iamChannel, iamToken::get),
+            config.getIam());
     }
 
     @Singleton
@@ -90,6 +98,18 @@ public class BeanFactory {
         return new SubjectServiceGrpcClient(WhiteboardApp.APP, iamChannel, iamToken::get);
     }
 
+    @Singleton
+    @Bean(preDestroy = "stop")
+    @Named("WhiteboardMetricReporter")
+    public MetricReporter metricReporter(AppConfig.MetricsConfig config) {
+        return switch (config.getKind()) {
+            case Disabled -> new DummyMetricReporter();
+            case Logger -> new LogMetricReporter(config.getLoggerName(),
+                Level.valueOf(config.getLoggerLevel().toUpperCase()));
+            case Prometheus -> new PrometheusMetricReporter(config.getPort());
+        };
+    }
+
     @Singleton
     @Requires(beans = WhiteboardDataSource.class)
     @Named("WhiteboardOperationDao")
@@ -3,6 +3,7 @@ package ai.lzy.whiteboard;
 import ai.lzy.iam.grpc.client.AuthenticateServiceGrpcClient;
 import ai.lzy.iam.grpc.interceptors.AllowSubjectOnlyInterceptor;
 import ai.lzy.iam.grpc.interceptors.AuthServerInterceptor;
+import ai.lzy.metrics.MetricReporter;
 import ai.lzy.util.grpc.ChannelBuilder;
 import ai.lzy.util.grpc.GrpcHeadersServerInterceptor;
 import ai.lzy.util.grpc.GrpcLogsInterceptor;
@@ -35,16 +36,19 @@ public class WhiteboardApp {
     private final ManagedChannel iamChannel;
     private final ExecutorService workersPool;
     private final Server whiteboardServer;
+    private final MetricReporter metricReporter;
 
     public WhiteboardApp(AppConfig config,
                          @Named("WhiteboardIamGrpcChannel") ManagedChannel iamChannel,
                          @Named("WhiteboardServiceServerExecutor") ExecutorService workersPool,
+                         @Named("WhiteboardMetricReporter") MetricReporter metricReporter,
                          WhiteboardService whiteboardService)
     {
         var address = HostAndPort.fromString(config.getAddress());
 
         this.iamChannel = iamChannel;
         this.workersPool = workersPool;
+        this.metricReporter = metricReporter;
 
         whiteboardServer = createServer(
             address,
@@ -58,6 +62,7 @@ public class WhiteboardApp {
     }
 
     public void start() throws IOException {
+        metricReporter.start();
         whiteboardServer.start();
         LOG.info("Whiteboard server started on {}",
             whiteboardServer.getListenSockets().stream().map(Object::toString).collect(Collectors.joining())
@@ -73,6 +78,7 @@ public class WhiteboardApp {
         whiteboardServer.shutdown();
         workersPool.shutdown();
         iamChannel.shutdown();
+        metricReporter.stop();
     }
 
     public void awaitTermination() throws InterruptedException {
@@ -0,0 +1,35 @@
+package ai.lzy.whiteboard;
+
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+
+@Singleton
+public class WhiteboardMetrics {
+    private static final String WHITEBOARD = "whiteboard";
+
+    public final Counter cacheHits = Counter
+        .build("finalized_cache_hits", "Finalized whiteboards cache hits")
+        .subsystem(WHITEBOARD)
+        .register();
+
+    public final Counter cacheMisses = Counter
+        .build("finalized_cache_misses", "Finalized whiteboards cache misses")
+        .subsystem(WHITEBOARD)
+        .register();
+
+    public final Gauge cacheSize = Gauge
+        .build("finalized_cache_size", "Finalized whiteboards cache size")
+        .subsystem(WHITEBOARD)
+        .register();
+
+    // collectors live in the default registry as long as the bean, the registry itself is never cleared
+    @PreDestroy
+    public void unregister() {
+        CollectorRegistry.defaultRegistry.unregister(cacheHits);
+        CollectorRegistry.defaultRegistry.unregister(cacheMisses);
+        CollectorRegistry.defaultRegistry.unregister(cacheSize);
+    }
+}
@@ -2,6 +2,7 @@ package ai.lzy.whiteboard.access;
 
 import ai.lzy.iam.clients.AccessBindingClient;
 import ai.lzy.iam.clients.AccessClient;
+import ai.lzy.iam.clients.CachingAccessClient;
 import ai.lzy.iam.clients.SubjectServiceClient;
 import ai.lzy.iam.resources.AccessBinding;
 import ai.lzy.iam.resources.AuthPermission;
@@ -34,8 +35,13 @@ public class IamAccessManager implements AccessManager {
     public void addAccess(String userId, String whiteboardId) {
         // TODO: retries
         final var subj = iamSubjectClient.getSubject(userId);
-        iamAccessBindingClient.setAccessBindings(new Whiteboard(whiteboardId),
+        final var whiteboard = new Whiteboard(whiteboardId);
+        iamAccessBindingClient.setAccessBindings(whiteboard,
             List.of(new AccessBinding(Role.LZY_WHITEBOARD_OWNER, subj)));
+        // drop a denial cached before the binding was set
+        if (iamAccessClient instanceof CachingAccessClient caching) {
+            caching.invalidate(whiteboard);
+        }
     }
 
     @Override
@@ -3,8 +3,12 @@ package ai.lzy.whiteboard.grpc;
 import ai.lzy.v1.whiteboard.LWB;
 import ai.lzy.whiteboard.model.Field;
 import ai.lzy.whiteboard.model.Whiteboard;
+import ai.lzy.whiteboard.storage.WhiteboardStorage.ListCursor;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -62,4 +66,31 @@ public class ProtoConverter {
     public static Whiteboard.Storage fromProto(LWB.Storage storage) {
         return new Whiteboard.Storage(storage.getName(), storage.getDescription(), URI.create(storage.getUri()));
     }
+
+    public static String toPageToken(ListCursor cursor) {
+        var token = cursor.createdAt().getEpochSecond() + ":" + cursor.createdAt().getNano() + ":" +
+            cursor.whiteboardId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ListCursor fromPageToken(String pageToken) {
+        final String token;
+        try {
+            token = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page token");
+        }
+
+        var parts = token.split(":", 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid page token");
+        }
+
+        try {
+            var createdAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new ListCursor(createdAt, parts[2]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page token");
+        }
+    }
 }
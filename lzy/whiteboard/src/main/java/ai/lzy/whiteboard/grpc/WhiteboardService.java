@@ -12,11 +12,14 @@ import ai.lzy.v1.whiteboard.LWBS.*;
 import ai.lzy.v1.whiteboard.LzyWhiteboardServiceGrpc;
 import ai.lzy.whiteboard.access.AccessManager;
 import ai.lzy.whiteboard.model.Whiteboard;
+import ai.lzy.whiteboard.storage.WhiteboardCache;
 import ai.lzy.whiteboard.storage.WhiteboardDataSource;
 import ai.lzy.whiteboard.storage.WhiteboardStorage;
+import ai.lzy.whiteboard.storage.WhiteboardStorage.ListCursor;
 import com.google.protobuf.Any;
 import com.google.protobuf.Message;
 import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import jakarta.annotation.Nullable;
 import jakarta.inject.Inject;
@@ -46,9 +49,14 @@ public class WhiteboardService extends LzyWhiteboardServiceGrpc.LzyWhiteboardSer
 
     private static final Logger LOG = LogManager.getLogger(WhiteboardService.class);
 
+    private static final int DEFAULT_LIST_PAGE_SIZE = 100;
+    private static final int DEFAULT_STREAM_PAGE_SIZE = 100;
+    private static final int MAX_LIST_PAGE_SIZE = WhiteboardStorage.LIST_PAGE_SIZE;
+
     private final AccessManager accessManager;
     private final WhiteboardStorage whiteboardStorage;
     private final WhiteboardDataSource dataSource;
+    private final WhiteboardCache whiteboardCache;
 
     private final OperationDao operationDao;
 
@@ -56,11 +64,13 @@ public class WhiteboardService extends LzyWhiteboardServiceGrpc.LzyWhiteboardSer
     public WhiteboardService(AccessManager accessManager,
                              WhiteboardStorage whiteboardStorage,
                              WhiteboardDataSource dataSource,
+                             WhiteboardCache whiteboardCache,
                              @Named("WhiteboardOperationDao") OperationDao operationDao)
     {
         this.accessManager = accessManager;
         this.whiteboardStorage = whiteboardStorage;
         this.dataSource = dataSource;
+        this.whiteboardCache = whiteboardCache;
         this.operationDao = operationDao;
     }
 
@@ -77,15 +87,22 @@ public class WhiteboardService extends LzyWhiteboardServiceGrpc.LzyWhiteboardSer
                 final String errorMessage = "ID is empty";
                 LOG.error("Get whiteboard {} failed, invalid argument: {}", request.getWhiteboardId(), errorMessage);
                 responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(errorMessage).asException());
+                return;
             }
 
             if (!accessManager.checkAccess(userId, whiteboardId)) {
                 LOG.error("Get whiteboard {} failed, permission denied.", request.getWhiteboardId());
                 final String clientErrorMessage = "Whiteboard " + whiteboardId + " not found";
                 responseObserver.onError(Status.NOT_FOUND.withDescription(clientErrorMessage).asException());
+                return;
             }
 
-            final Whiteboard whiteboard = whiteboardStorage.getWhiteboard(whiteboardId, null);
+            Whiteboard whiteboard = whiteboardCache.get(whiteboardId);
+            if (whiteboard == null) {
+                var cacheVersion = whiteboardCache.version();
+                whiteboard = whiteboardStorage.getWhiteboard(whiteboardId, null);
+                whiteboardCache.putLoaded(whiteboard, cacheVersion);
+            }
             responseObserver.onNext(LWBS.GetResponse.newBuilder()
                 .setWhiteboard(ProtoConverter.toProto(whiteboard))
                 .build());
@@ -113,7 +130,121 @@ public class WhiteboardService extends LzyWhiteboardServiceGrpc.LzyWhiteboardSer
         try {
             final var authenticationContext = AuthenticationContext.current();
             final String userId = Objects.requireNonNull(authenticationContext).getSubject().id();
+            final var filter = ListFilter.fromProto(request);
+
+            if (request.getPageSize() <= 0 && request.getPageToken().isBlank()) {
+                Stream<Whiteboard> whiteboards = whiteboardStorage.listWhiteboards(userId, filter.name(),
+                    filter.tags(), filter.createdAtLowerBound(), filter.createdAtUpperBound(), null);
+
+                var response = LWBS.ListResponse.newBuilder()
+                    .addAllWhiteboards(whiteboards.map(ProtoConverter::toProto).toList())
+                    .build();
+                responseObserver.onNext(response);
+                LOG.info("List whiteboards done, {} found", response.getWhiteboardsCount());
+                responseObserver.onCompleted();
+                return;
+            }
+
+            final int pageSize = pageSize(request, DEFAULT_LIST_PAGE_SIZE);
+            final ListCursor cursor = request.getPageToken().isBlank() ? null :
+                ProtoConverter.fromPageToken(request.getPageToken());
+
+            // fetch one extra whiteboard to know whether there is the next page
+            var whiteboards = whiteboardStorage.listWhiteboards(userId, filter.name(), filter.tags(),
+                filter.createdAtLowerBound(), filter.createdAtUpperBound(), cursor, pageSize + 1, null);
+
+            var response = LWBS.ListResponse.newBuilder();
+            if (whiteboards.size() > pageSize) {
+                whiteboards = whiteboards.subList(0, pageSize);
+                response.setNextPageToken(ProtoConverter.toPageToken(
+                    ListCursor.after(whiteboards.get(whiteboards.size() - 1))));
+            }
+            response.addAllWhiteboards(whiteboards.stream().map(ProtoConverter::toProto).toList());
+
+            responseObserver.onNext(response.build());
+            LOG.info("List whiteboards done, {} found", whiteboards.size());
+            responseObserver.onCompleted();
+        } catch (IllegalArgumentException e) {
+            LOG.error("List whiteboards failed, invalid argument: {}", e.getMessage(), e);
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asException());
+        } catch (Exception e) {
+            LOG.error("List whiteboards failed, got exception: {}", e.getMessage(), e);
+            responseObserver.onError(Status.INTERNAL.withCause(e).asException());
+        }
+    }
+
+    @Override
+    public void listStream(LWBS.ListRequest request, StreamObserver<LWBS.ListResponse> responseObserver) {
+        LOG.info("List whiteboards stream");
+
+        var serverCallObserver = (ServerCallStreamObserver<LWBS.ListResponse>) responseObserver;
+        int found = 0;
+
+        try {
+            final var authenticationContext = AuthenticationContext.current();
+            final String userId = Objects.requireNonNull(authenticationContext).getSubject().id();
+            final var filter = ListFilter.fromProto(request);
+
+            final int pageSize = pageSize(request, DEFAULT_STREAM_PAGE_SIZE);
+            ListCursor cursor = request.getPageToken().isBlank() ? null :
+                ProtoConverter.fromPageToken(request.getPageToken());
+
+            while (true) {
+                if (serverCallObserver.isCancelled()) {
+                    LOG.info("List whiteboards stream cancelled by client, {} sent", found);
+                    return;
+                }
+
+                final ListCursor pageCursor = cursor;
+                var whiteboards = withRetries(LOG, () -> whiteboardStorage.listWhiteboards(userId, filter.name(),
+                    filter.tags(), filter.createdAtLowerBound(), filter.createdAtUpperBound(), pageCursor, pageSize,
+                    null));
+                found += whiteboards.size();
+
+                boolean lastPage = whiteboards.size() < pageSize;
+                if (!lastPage) {
+                    cursor = ListCursor.after(whiteboards.get(whiteboards.size() - 1));
+                }
 
+                if (!whiteboards.isEmpty() || found == 0) {
+                    var response = LWBS.ListResponse.newBuilder()
+                        .addAllWhiteboards(whiteboards.stream().map(ProtoConverter::toProto).toList());
+                    if (!lastPage) {
+                        response.setNextPageToken(ProtoConverter.toPageToken(cursor));
+                    }
+                    responseObserver.onNext(response.build());
+                }
+
+                if (lastPage) {
+                    break;
+                }
+            }
+
+            LOG.info("List whiteboards stream done, {} found", found);
+            responseObserver.onCompleted();
+        } catch (IllegalArgumentException e) {
+            LOG.error("List whiteboards stream failed, invalid argument: {}", e.getMessage(), e);
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asException());
+        } catch (Exception e) {
+            LOG.error("List whiteboards stream failed after {} sent, got exception: {}", found, e.getMessage(), e);
+            responseObserver.onError(Status.INTERNAL.withCause(e).asException());
+        }
+    }
+
+    private static int pageSize(LWBS.ListRequest request, int defaultPageSize) {
+        if (request.getPageSize() < 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return request.getPageSize() == 0 ? defaultPageSize : Math.min(request.getPageSize(), MAX_LIST_PAGE_SIZE);
+    }
+
+    private record ListFilter(
+        @Nullable String name,
+        List<String> tags,
+        @Nullable Instant createdAtLowerBound,
+        @Nullable Instant createdAtUpperBound
+    ) {
+        static ListFilter fromProto(LWBS.ListRequest request) {
             @Nullable String name = request.getName().isBlank() ? null : request.getName();
             List<String> tags = request.getTagsList();
             @Nullable Instant createdAtLowerBound = null;
@@ -128,21 +259,7 @@ public class WhiteboardService extends LzyWhiteboardServiceGrpc.LzyWhiteboardSer
                 createdAtUpperBound = ai.lzy.util.grpc.ProtoConverter.fromProto(request.getCreatedTimeBounds().getTo());
             }
 
-            Stream<Whiteboard> whiteboards = whiteboardStorage.listWhiteboards(userId, name, tags,
-                createdAtLowerBound, createdAtUpperBound, null);
-
-            var response = LWBS.ListResponse.newBuilder()
-                .addAllWhiteboards(whiteboards.map(ProtoConverter::toProto).toList())
-                .build();
-            responseObserver.onNext(response);
-            LOG.info("List whiteboards done, {} found", response.getWhiteboardsCount());
-            responseObserver.onCompleted();
-        } catch (IllegalArgumentException e) {
-            LOG.error("List whiteboards failed, invalid argument: {}", e.getMessage(), e);
-            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asException());
-        } catch (Exception e) {
-            LOG.error("List whiteboards failed, got exception: {}", e.getMessage(), e);
-            responseObserver.onError(Status.INTERNAL.withCause(e).asException());
+            return new ListFilter(name, tags, createdAtLowerBound, createdAtUpperBound);
         }
     }
 
@@ -192,12 +309,14 @@ public class WhiteboardService extends LzyWhiteboardServiceGrpc.LzyWhiteboardSer
         LOG.info("Register whiteboard name={}, id={}", whiteboard.getName(), whiteboard.getId());
         try {
             final Instant inserted = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+            final Whiteboard newWhiteboard = ProtoConverter.fromProto(whiteboard);
             withRetries(defaultRetryPolicy(), LOG, () -> whiteboardStorage.registerWhiteboard(
-                userId, ProtoConverter.fromProto(whiteboard), inserted, null)
+                userId, newWhiteboard, inserted, null)
             );
 
             try {
                 accessManager.addAccess(userId, whiteboard.getId());
+                whiteboardCache.put(newWhiteboard);
             } catch (Exception e) {
                 String errorMessage = "Failed to get access to whiteboard for user " + userId;
                 LOG.error("Create whiteboard {} failed, got exception: {}", whiteboard.getName(),
@@ -205,6 +324,7 @@ public class WhiteboardService extends LzyWhiteboardServiceGrpc.LzyWhiteboardSer
                 LOG.info("Undo creating whiteboard {}, id = {}", whiteboard.getName(), whiteboard.getId());
                 withRetries(defaultRetryPolicy(), LOG, () ->
                     whiteboardStorage.deleteWhiteboard(whiteboard.getId(), null));
+                whiteboardCache.invalidate(whiteboard.getId());
                 LOG.info("Undo creating whiteboard {} done", whiteboard.getName());
                 var status = Status.INTERNAL.withCause(e);
 
@@ -335,6 +455,8 @@ public class WhiteboardService extends LzyWhiteboardServiceGrpc.LzyWhiteboardSer
                     final Instant inserted = Instant.now().truncatedTo(ChronoUnit.MILLIS);
                     whiteboardStorage.registerWhiteboard(userId, newWhiteboard, inserted, tx);
                     tx.commit();
+
+                    whiteboardCache.put(newWhiteboard);
                 }
             });
 
@@ -0,0 +1,83 @@
+package ai.lzy.whiteboard.storage;
+
+import ai.lzy.whiteboard.AppConfig;
+import ai.lzy.whiteboard.WhiteboardMetrics;
+import ai.lzy.whiteboard.model.Whiteboard;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.annotation.Nullable;
+import jakarta.inject.Singleton;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Bounded in-memory cache of finalized whiteboards by id.
+ * Writes of this instance go through {@link #put} or {@link #invalidate}, but finalized whiteboards can also
+ * be updated through other instances, so entries expire after the configured TTL.
+ * <p>
+ * Whiteboards read from the storage are cached with {@link #putLoaded} only if there were no writes since
+ * the read started, so a stale read never overwrites a newer write.
+ */
+@Singleton
+public class WhiteboardCache {
+    private static final Logger LOG = LogManager.getLogger(WhiteboardCache.class);
+
+    private final Cache<String, Whiteboard> whiteboards;
+    private final WhiteboardMetrics metrics;
+
+    // number of writes through this cache, guarded by this
+    private long writes = 0;
+
+    public WhiteboardCache(AppConfig config, WhiteboardMetrics metrics) {
+        this.whiteboards = CacheBuilder.newBuilder()
+            .maximumSize(config.getFinalizedCacheSize())
+            .expireAfterWrite(config.getFinalizedCacheTtl())
+            .build();
+        this.metrics = metrics;
+    }
+
+    @Nullable
+    public Whiteboard get(String whiteboardId) {
+        var whiteboard = whiteboards.getIfPresent(whiteboardId);
+        if (whiteboard != null) {
+            metrics.cacheHits.inc();
+        } else {
+            metrics.cacheMisses.inc();
+        }
+        return whiteboard;
+    }
+
+    /**
+     * @return version to pass to {@link #putLoaded} for a whiteboard, which is read from the storage after the call
+     */
+    public synchronized long version() {
+        return writes;
+    }
+
+    public synchronized void put(Whiteboard whiteboard) {
+        writes++;
+        if (whiteboard.status() == Whiteboard.Status.FINALIZED) {
+            whiteboards.put(whiteboard.id(), whiteboard);
+        } else {
+            whiteboards.invalidate(whiteboard.id());
+        }
+        metrics.cacheSize.set(whiteboards.size());
+    }
+
+    public synchronized void putLoaded(Whiteboard whiteboard, long version) {
+        if (version != writes || whiteboard.status() != Whiteboard.Status.FINALIZED) {
+            LOG.debug("Skip caching of whiteboard {} read at version {}, current version {}",
+                whiteboard.id(), version, writes);
+            return;
+        }
+        whiteboards.asMap().putIfAbsent(whiteboard.id(), whiteboard);
+        metrics.cacheSize.set(whiteboards.size());
+    }
+
+    public synchronized void invalidate(String whiteboardId) {
+        LOG.debug("Invalidate cached whiteboard {}", whiteboardId);
+        writes++;
+        whiteboards.invalidate(whiteboardId);
+        metrics.cacheSize.set(whiteboards.size());
+    }
+}
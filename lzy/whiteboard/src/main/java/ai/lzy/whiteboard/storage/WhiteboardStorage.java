@@ -7,11 +7,14 @@ import jakarta.annotation.Nullable;
 
 import java.sql.SQLException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Stream;
 
 public interface WhiteboardStorage {
 
+    int LIST_PAGE_SIZE = 1000;
+
     void registerWhiteboard(String userId, Whiteboard whiteboard, Instant registeredAt,
                             @Nullable TransactionHandle transaction) throws SQLException;
 
@@ -31,8 +34,36 @@ public interface WhiteboardStorage {
         return whiteboard;
     }
 
-    Stream<Whiteboard> listWhiteboards(String userId, @Nullable String whiteboardName, List<String> tags,
-                                       @Nullable Instant createdAtLowerBound, @Nullable Instant createdAtUpperBound,
-                                       @Nullable TransactionHandle transaction) throws SQLException;
+    default Stream<Whiteboard> listWhiteboards(String userId, @Nullable String whiteboardName, List<String> tags,
+                                               @Nullable Instant createdAtLowerBound,
+                                               @Nullable Instant createdAtUpperBound,
+                                               @Nullable TransactionHandle transaction) throws SQLException
+    {
+        final var whiteboards = new ArrayList<Whiteboard>();
+        ListCursor cursor = null;
+        while (true) {
+            final var page = listWhiteboards(userId, whiteboardName, tags, createdAtLowerBound, createdAtUpperBound,
+                cursor, LIST_PAGE_SIZE, transaction);
+            whiteboards.addAll(page);
+            if (page.size() < LIST_PAGE_SIZE) {
+                return whiteboards.stream();
+            }
+            cursor = ListCursor.after(page.get(page.size() - 1));
+        }
+    }
+
+    /**
+     * Lists user's whiteboards ordered by (createdAt, id), starting right after the {@code cursor} position.
+     */
+    List<Whiteboard> listWhiteboards(String userId, @Nullable String whiteboardName, List<String> tags,
+                                     @Nullable Instant createdAtLowerBound, @Nullable Instant createdAtUpperBound,
+                                     @Nullable ListCursor cursor, int limit,
+                                     @Nullable TransactionHandle transaction) throws SQLException;
+
+    record ListCursor(Instant createdAt, String whiteboardId) {
+        public static ListCursor after(Whiteboard whiteboard) {
+            return new ListCursor(whiteboard.createdAt(), whiteboard.id());
+        }
+    }
 
 }
@@ -103,11 +103,11 @@ public class WhiteboardStorageImpl implements WhiteboardStorage {
                     t.tags as tags
                 FROM whiteboards wb
                 INNER JOIN whiteboard_fields f ON wb.whiteboard_id = f.whiteboard_id
-                LEFT JOIN (
-                    SELECT whiteboard_id, ARRAY_AGG(whiteboard_tag) as tags
+                LEFT JOIN LATERAL (
+                    SELECT ARRAY_AGG(whiteboard_tag) as tags
                     FROM whiteboard_tags
-                    GROUP BY whiteboard_id
-                ) t ON wb.whiteboard_id = t.whiteboard_id
+                    WHERE whiteboard_tags.whiteboard_id = wb.whiteboard_id
+                ) t ON TRUE
                 WHERE wb.whiteboard_id = ?
                 """)
             )
@@ -126,48 +126,71 @@ public class WhiteboardStorageImpl implements WhiteboardStorage {
     }
 
     @Override
-    public Stream<Whiteboard> listWhiteboards(String userId, @Nullable String whiteboardName, List<String> tags,
-                                              @Nullable Instant createdAtLowerBound,
-                                              @Nullable Instant createdAtUpperBound,
-                                              @Nullable TransactionHandle transaction) throws SQLException
+    public List<Whiteboard> listWhiteboards(String userId, @Nullable String whiteboardName, List<String> tags,
+                                            @Nullable Instant createdAtLowerBound,
+                                            @Nullable Instant createdAtUpperBound,
+                                            @Nullable ListCursor cursor, int limit,
+                                            @Nullable TransactionHandle transaction) throws SQLException
     {
-        LOG.debug("Listing whiteboards (userId={})", userId);
+        LOG.debug("Listing whiteboards (userId={}, cursor={}, limit={})", userId, cursor, limit);
 
         AtomicInteger index = new AtomicInteger(0);
         List<StatementModifier> statementConditionsSuffixFillers = new ArrayList<>();
-        String statementConditionsSuffix = "WHERE user_id = ?";
+        String statementConditionsSuffix = "WHERE wb.user_id = ?";
         statementConditionsSuffixFillers.add((conn, st) -> {
             st.setString(index.incrementAndGet(), userId);
             return st;
         });
         if (whiteboardName != null) {
-            statementConditionsSuffix += " AND whiteboard_name = ?";
+            statementConditionsSuffix += " AND wb.whiteboard_name = ?";
             statementConditionsSuffixFillers.add((conn, st) -> {
                 st.setString(index.incrementAndGet(), whiteboardName);
                 return st;
             });
         }
         if (!tags.isEmpty()) {
-            statementConditionsSuffix += " AND tags @> ?";
+            // whiteboard must have all requested tags
+            final var distinctTags = new HashSet<>(tags);
+            statementConditionsSuffix += """
+                 AND wb.whiteboard_id IN (
+                    SELECT whiteboard_id
+                    FROM whiteboard_tags
+                    WHERE whiteboard_tag = ANY(?)
+                    GROUP BY whiteboard_id
+                    HAVING COUNT(*) = ?
+                )""";
             statementConditionsSuffixFillers.add((conn, st) -> {
-                st.setArray(index.incrementAndGet(), conn.createArrayOf("varchar", tags.toArray()));
+                st.setArray(index.incrementAndGet(), conn.createArrayOf("varchar", distinctTags.toArray()));
+                st.setInt(index.incrementAndGet(), distinctTags.size());
                 return st;
             });
         }
         if (createdAtLowerBound != null) {
-            statementConditionsSuffix += " AND created_at >= ?";
+            statementConditionsSuffix += " AND wb.created_at >= ?";
             statementConditionsSuffixFillers.add((conn, st) -> {
                 st.setTimestamp(index.incrementAndGet(), Timestamp.from(createdAtLowerBound));
                 return st;
             });
         }
         if (createdAtUpperBound != null) {
-            statementConditionsSuffix += " AND created_at <= ?";
+            statementConditionsSuffix += " AND wb.created_at <= ?";
             statementConditionsSuffixFillers.add((conn, st) -> {
                 st.setTimestamp(index.incrementAndGet(), Timestamp.from(createdAtUpperBound));
                 return st;
             });
         }
+        if (cursor != null) {
+            statementConditionsSuffix += " AND (wb.created_at, wb.whiteboard_id) > (?, ?)";
+            statementConditionsSuffixFillers.add((conn, st) -> {
+                st.setTimestamp(index.incrementAndGet(), Timestamp.from(cursor.createdAt()));
+                st.setString(index.incrementAndGet(), cursor.whiteboardId());
+                return st;
+            });
+        }
+        statementConditionsSuffixFillers.add((conn, st) -> {
+            st.setInt(index.incrementAndGet(), limit);
+            return st;
+        });
 
         final String statementSuffix = statementConditionsSuffix;
         final StatementModifier statementSuffixFiller = statementConditionsSuffixFillers.stream()
@@ -175,6 +198,13 @@ public class WhiteboardStorageImpl implements WhiteboardStorage {
         final List<Whiteboard> whiteboards = new ArrayList<>();
         DbOperation.execute(transaction, dataSource, sqlConnection -> {
             try (final PreparedStatement st = sqlConnection.prepareStatement("""
+                WITH page AS (
+                    SELECT *
+                    FROM whiteboards wb
+                    %s
+                    ORDER BY wb.created_at, wb.whiteboard_id
+                    LIMIT ?
+                )
                 SELECT
                     wb.whiteboard_id,
                     wb.whiteboard_name,
@@ -189,14 +219,15 @@ public class WhiteboardStorageImpl implements WhiteboardStorage {
                     f.field_name as field_name,
                     f.data_scheme as field_data_scheme,
                     t.tags as tags
-                FROM whiteboards wb
+                FROM page wb
                 INNER JOIN whiteboard_fields f ON wb.whiteboard_id = f.whiteboard_id
-                LEFT JOIN (
-                    SELECT whiteboard_id, ARRAY_AGG(whiteboard_tag) as tags
+                LEFT JOIN LATERAL (
+                    SELECT ARRAY_AGG(whiteboard_tag) as tags
                     FROM whiteboard_tags
-                    GROUP BY whiteboard_id
-                ) t ON wb.whiteboard_id = t.whiteboard_id
-                """ + statementSuffix)
+                    WHERE whiteboard_tags.whiteboard_id = wb.whiteboard_id
+                ) t ON TRUE
+                ORDER BY wb.created_at, wb.whiteboard_id
+                """.formatted(statementSuffix))
             )
             {
                 statementSuffixFiller.apply(sqlConnection, st);
@@ -205,9 +236,9 @@ public class WhiteboardStorageImpl implements WhiteboardStorage {
                 throw new SQLException(e);
             }
         });
-        LOG.debug("Listing whiteboards (userId={}) done, {} found",
-            userId, whiteboards.size());
-        return whiteboards.stream();
+        LOG.debug("Listing whiteboards (userId={}, cursor={}, limit={}) done, {} found",
+            userId, cursor, limit, whiteboards.size());
+        return whiteboards;
     }
 
     private void insertWhiteboardInfo(String userId, Whiteboard whiteboard, Instant ts, TransactionHandle transaction)
@@ -284,7 +315,8 @@ public class WhiteboardStorageImpl implements WhiteboardStorage {
     }
 
     private Stream<Whiteboard> parseWhiteboards(ResultSet rs) throws SQLException, JsonProcessingException {
-        Map<String, Whiteboard> whiteboardsById = new HashMap<>();
+        // keeps the order of rows
+        Map<String, Whiteboard> whiteboardsById = new LinkedHashMap<>();
         while (rs.next()) {
             final String whiteboardId = rs.getString("whiteboard_id");
             if (!whiteboardsById.containsKey(whiteboardId)) {
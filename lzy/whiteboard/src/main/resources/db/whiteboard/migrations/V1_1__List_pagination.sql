@@ -0,0 +1,6 @@
+-- keyset pagination of user's whiteboards by (created_at, whiteboard_id)
+CREATE INDEX IF NOT EXISTS whiteboards_user_id_created_at_idx ON whiteboards(user_id, created_at, whiteboard_id);
+
+-- tags filter looks up whiteboards by tag, whiteboard_tags_pkey covers the opposite direction
+DROP INDEX IF EXISTS whiteboard_tags_tag_idx;
+CREATE INDEX IF NOT EXISTS whiteboard_tags_tag_whiteboard_id_idx ON whiteboard_tags(whiteboard_tag, whiteboard_id);
@@ -35,6 +35,7 @@ import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
@@ -433,6 +434,75 @@ public class ApiTest extends IamOnlyWhiteboardContextTests {
         assertEquals(2, listResult.getWhiteboardsCount());
     }
 
+    @Test
+    public void getFinalizedWhiteboardAfterUpdate() {
+        final String id = UUID.randomUUID().toString();
+        final LWBS.RegisterWhiteboardRequest request = genCreateWhiteboardRequest(id,
+            Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        internalWhiteboardClient.registerWhiteboard(request.toBuilder()
+            .setWhiteboard(request.getWhiteboard().toBuilder().setStatus(LWB.Whiteboard.Status.FINALIZED))
+            .build());
+
+        final var getRequest = LWBS.GetRequest.newBuilder().setWhiteboardId(id).build();
+        for (int i = 0; i < 2; ++i) {
+            var whiteboard = internalWhiteboardClient.get(getRequest).getWhiteboard();
+            assertEquals(LWB.Whiteboard.Status.FINALIZED, whiteboard.getStatus());
+            assertEquals("wb-name", whiteboard.getName());
+        }
+
+        internalWhiteboardClient.updateWhiteboard(LWBS.UpdateWhiteboardRequest.newBuilder()
+            .setWhiteboard(LWB.Whiteboard.newBuilder()
+                .setId(id)
+                .setName("new-wb-name")
+                .build())
+            .build());
+
+        var whiteboard = internalWhiteboardClient.get(getRequest).getWhiteboard();
+        assertEquals(LWB.Whiteboard.Status.FINALIZED, whiteboard.getStatus());
+        assertEquals("new-wb-name", whiteboard.getName());
+    }
+
+    @Test
+    public void listWhiteboardsPaginated() {
+        final var requests = new ArrayList<LWBS.RegisterWhiteboardRequest>();
+        final var createdAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        for (int i = 0; i < 5; ++i) {
+            var request = genCreateWhiteboardRequest("wb" + i, createdAt.plusSeconds(i));
+            externalUserWhiteboardClient.registerWhiteboard(request);
+            requests.add(request);
+        }
+
+        var page = externalUserWhiteboardClient.list(LWBS.ListRequest.newBuilder().setPageSize(2).build());
+        assertEquals(List.of(requests.get(0).getWhiteboard(), requests.get(1).getWhiteboard()),
+            page.getWhiteboardsList());
+        Assert.assertFalse(page.getNextPageToken().isEmpty());
+
+        page = externalUserWhiteboardClient.list(LWBS.ListRequest.newBuilder()
+            .setPageSize(2)
+            .setPageToken(page.getNextPageToken())
+            .build());
+        assertEquals(List.of(requests.get(2).getWhiteboard(), requests.get(3).getWhiteboard()),
+            page.getWhiteboardsList());
+
+        page = externalUserWhiteboardClient.list(LWBS.ListRequest.newBuilder()
+            .setPageSize(2)
+            .setPageToken(page.getNextPageToken())
+            .build());
+        assertEquals(List.of(requests.get(4).getWhiteboard()), page.getWhiteboardsList());
+        assertTrue(page.getNextPageToken().isEmpty());
+
+        var streamed = new ArrayList<LWB.Whiteboard>();
+        externalUserWhiteboardClient.listStream(LWBS.ListRequest.newBuilder().setPageSize(2).build())
+            .forEachRemaining(response -> streamed.addAll(response.getWhiteboardsList()));
+        assertEquals(requests.stream().map(LWBS.RegisterWhiteboardRequest::getWhiteboard).toList(), streamed);
+
+        try {
+            externalUserWhiteboardClient.list(LWBS.ListRequest.newBuilder().setPageToken("?invalid?").build());
+            Assert.fail();
+        } catch (StatusRuntimeException e) {
+            assertEquals(Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+        }
+    }
 
     @Test
     public void createWhiteboardIdempotency() {
@@ -16,11 +16,13 @@ import java.net.URI;
 import java.sql.SQLException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class StorageTest {
 
@@ -126,6 +128,36 @@ public class StorageTest {
             Instant.parse("2022-09-01T12:10:00.00Z"), Instant.parse("2022-09-01T12:10:00.00Z"), null).count());
     }
 
+    @Test
+    public void listWhiteboardsPaginated() throws SQLException {
+        final var userId = "uid1";
+        final var createdAt = Instant.parse("2022-09-01T12:00:00.00Z");
+
+        // several whiteboards share the same creation time to check ordering by id
+        for (int i = 0; i < 10; ++i) {
+            final var wb = genWhiteboard("id" + i, "name", Set.of("f"), i % 2 == 0 ? Set.of("even", "all") : Set.of(),
+                createdAt.plusSeconds(i / 3));
+            wbStorage.registerWhiteboard(userId, wb, Instant.now(), null);
+        }
+
+        final var ids = new ArrayList<String>();
+        WhiteboardStorage.ListCursor cursor = null;
+        while (true) {
+            var page = wbStorage.listWhiteboards(userId, null, List.of(), null, null, cursor, 3, null);
+            page.forEach(wb -> ids.add(wb.id()));
+            if (page.size() < 3) {
+                break;
+            }
+            cursor = WhiteboardStorage.ListCursor.after(page.get(page.size() - 1));
+        }
+        Assert.assertEquals(IntStream.range(0, 10).mapToObj(i -> "id" + i).toList(), ids);
+
+        var tagged = wbStorage.listWhiteboards(userId, null, List.of("even", "all"), null, null,
+            new WhiteboardStorage.ListCursor(createdAt.plusSeconds(1), "id4"), 10, null);
+        Assert.assertEquals(List.of("id6", "id8"), tagged.stream().map(Whiteboard::id).toList());
+        Assert.assertEquals(Set.of("even", "all"), tagged.get(0).tags());
+    }
+
     private Whiteboard genWhiteboard(String id, String name, Set<String> fieldNames, Set<String> tags,
                                      Instant createdAt)
     {
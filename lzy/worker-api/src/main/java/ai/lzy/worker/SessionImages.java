@@ -0,0 +1,68 @@
+package ai.lzy.worker;
+
+import ai.lzy.v1.common.LME;
+import ai.lzy.v1.worker.LWS;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Docker images recently used by tasks of allocator sessions. They are sent to workers in
+ * {@link LWS.InitRequest}, so VMs which are reused by the session (e.g. from the allocator cache)
+ * already have images of the next tasks.
+ * <p>
+ * Images are not a part of the VM spec, otherwise VMs allocated for different tasks of the session
+ * would not match each other in the allocator cache.
+ */
+public final class SessionImages {
+    private final int maxSessions;
+    private final int maxImages;
+
+    // sessionId -> images with registry credentials, the most recent last; sessions are in access order
+    private final LinkedHashMap<String, LinkedHashMap<String, LWS.InitRequest.PrepullImage>> sessions;
+
+    public SessionImages(int maxSessions, int maxImages) {
+        this.maxSessions = maxSessions;
+        this.maxImages = maxImages;
+        this.sessions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                Map.Entry<String, LinkedHashMap<String, LWS.InitRequest.PrepullImage>> eldest)
+            {
+                return size() > SessionImages.this.maxSessions;
+            }
+        };
+    }
+
+    /**
+     * Remembers the docker image of the task env in the session.
+     *
+     * @return images to prepull, the most recent first
+     */
+    public synchronized List<LWS.InitRequest.PrepullImage> use(String sessionId, LME.EnvSpec env) {
+        var images = sessions.computeIfAbsent(sessionId, x -> new LinkedHashMap<>());
+        var image = env.getDockerImage();
+        if (!image.isBlank()) {
+            var prepullImage = LWS.InitRequest.PrepullImage.newBuilder()
+                .setImage(image);
+            if (env.hasDockerCredentials()) {
+                prepullImage.setCredentials(env.getDockerCredentials());
+            }
+
+            images.remove(image);
+            images.put(image, prepullImage.build());
+            var it = images.values().iterator();
+            while (images.size() > maxImages) {
+                it.next();
+                it.remove();
+            }
+        }
+
+        var result = new ArrayList<>(images.values());
+        Collections.reverse(result);
+        return result;
+    }
+}
@@ -11,6 +11,7 @@ import ai.lzy.env.base.DockerEnvironment;
 import ai.lzy.env.base.ProcessEnvironment;
 import ai.lzy.v1.common.LME;
 import ai.lzy.v1.common.LME.LocalModule;
+import ai.lzy.v1.worker.LWS;
 import com.github.dockerjava.core.DefaultDockerClientConfig;
 import com.github.dockerjava.core.DockerClientConfig;
 import com.google.common.annotations.VisibleForTesting;
@@ -31,8 +32,11 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -42,10 +46,15 @@ public class EnvironmentFactory {
     private static final Logger LOG = LogManager.getLogger(EnvironmentFactory.class);
     private static final String RESOURCES_PATH = "/tmp/resources/";
     private static final AtomicBoolean INSTALL_ENV = new AtomicBoolean(true);
-
+    private static final int PREPULL_CONCURRENCY = 2;
 
     private final HashMap<String, DockerEnvironment> createdContainers = new HashMap<>();
     private final ProcessEnvironment localProcessEnv = new ProcessEnvironment();
+    private final ExecutorService prepullExecutor = Executors.newFixedThreadPool(PREPULL_CONCURRENCY, r -> {
+        var thread = new Thread(r, "image-prepull");
+        thread.setDaemon(true);
+        return thread;
+    });
     private static Supplier<AuxEnvironment> envForTests = null;
 
     private final boolean hasGpu;
@@ -194,6 +203,38 @@ public class EnvironmentFactory {
         return auxEnv;
     }
 
+    /**
+     * Pulls docker images likely needed by the session in background, at most {@link #PREPULL_CONCURRENCY}
+     * images at once. Environments created meanwhile wait for in-flight pulls of their images.
+     */
+    public void prepullImages(List<LWS.InitRequest.PrepullImage> images) {
+        if (envForTests != null || !INSTALL_ENV.get()) {
+            return;
+        }
+
+        for (var prepullImage : images) {
+            var image = prepullImage.getImage();
+            if (Strings.isBlank(image)) {
+                continue;
+            }
+
+            prepullExecutor.submit(() -> {
+                LOG.info("Prepull docker image {}", image);
+                var config = DockerEnvDescription.newBuilder()
+                    .withImage(image)
+                    .withDockerClientConfig(getDockerConfig(
+                        prepullImage.hasCredentials() ? prepullImage.getCredentials() : null))
+                    .build();
+
+                try (var env = new DockerEnvironment(config)) {
+                    env.prepullImage();
+                } catch (Exception e) {
+                    LOG.warn("Cannot prepull docker image {}: {}", image, e.getMessage());
+                }
+            });
+        }
+    }
+
     private static Environment.LzyProcess completedCondaProcess() {
         return new Environment.LzyProcess() {
             @Override
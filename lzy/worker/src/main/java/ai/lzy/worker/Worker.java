@@ -1,6 +1,7 @@
 package ai.lzy.worker;
 
 import ai.lzy.allocator.AllocatorAgent;
+import ai.lzy.common.StartupTimer;
 import ai.lzy.model.utils.FreePortFinder;
 import ai.lzy.util.kafka.KafkaConfig;
 import io.grpc.Server;
@@ -58,8 +59,10 @@ public class Worker {
     private final ApplicationContext context;
 
     public Worker(ApplicationContext context, ServiceConfig config, @Named("WorkerServer") Server server,
-                  @Named("AllocatorAgent") AllocatorAgent allocatorAgent)
+                  @Named("AllocatorAgent") AllocatorAgent allocatorAgent, StartupTimer startupTimer)
     {
+        startupTimer.phase("beans");
+
         this.context = context;
         this.server = server;
         this.allocatorAgent = allocatorAgent;
@@ -73,6 +76,7 @@ public class Worker {
             LOG.error(e);
             throw new RuntimeException(e);
         }
+        startupTimer.phase("grpc-server");
 
         try {
             allocatorAgent.start(Map.of(
@@ -82,7 +86,10 @@ public class Worker {
         } catch (AllocatorAgent.RegisterException e) {
             throw new RuntimeException(e);
         }
+        startupTimer.phase("allocator-register");
+
         LOG.info("Worker inited");
+        LOG.info(startupTimer.report());
     }
 
     public void stop() {
@@ -188,6 +195,7 @@ public class Worker {
                                                       int gpuCount, KafkaConfig kafka, @Nullable String fsPort,
                                                       @Nullable String apiPort, @Nullable String httpPort)
     {
+        var startupTimer = new StartupTimer("Worker-" + vmId);
         final String fsRoot;
 
         if (SELECT_RANDOM_VALUES.get()) {
@@ -231,7 +239,13 @@ public class Worker {
         properties.put("micronaut.server.port", httpPort);
         properties.put("micronaut.server.netty.access-logger.enabled", "true");
 
-        return Micronaut.build(new String[]{}).properties(properties).start();
+        var ctx = Micronaut.build(new String[]{})
+            .properties(properties)
+            .singletons(startupTimer)
+            .start();
+        startupTimer.phase("context");
+
+        return ctx;
     }
 
     public static void selectRandomValues(boolean val) {
@@ -23,6 +23,7 @@ import ai.lzy.v1.longrunning.LongRunning;
 import ai.lzy.v1.worker.LWS;
 import ai.lzy.v1.worker.WorkerApiGrpc;
 import com.google.common.net.HostAndPort;
+import com.google.protobuf.util.Durations;
 import io.grpc.ManagedChannel;
 import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
@@ -39,6 +40,7 @@ import java.nio.file.Path;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.locks.LockSupport;
 
 import static ai.lzy.logs.LogUtils.withLoggingContext;
@@ -165,21 +167,43 @@ public class WorkerApiImpl extends WorkerApiGrpc.WorkerApiImplBase {
         );
 
         try (logs) {
+            var timings = LWS.ExecuteResponse.Timings.newBuilder();
+            var slotsContext = slots.context("", request.getExecutionId(), tid, op.getSlotsList(), slotAssignments);
+
+            // input slots are loaded while environment is being installed
+            final CompletableFuture<Void> slotsReady;
+            try {
+                LOG.info("Binding slots...");
+                slotsReady = slotsContext.startBeforeExecution();
+            } catch (Exception e) {
+                LOG.error("Error while binding slots", e);
+                return LWS.ExecuteResponse.newBuilder()
+                    .setRc(ReturnCodes.INTERNAL_ERROR.getRc())
+                    .setDescription("Internal error")
+                    .build();
+            }
+
             LOG.info("Configure worker...");
 
             final AuxEnvironment env;
+            var envStartedAt = System.nanoTime();
 
             try {
                 env = envFactory.create(config.getMountPoint(), op.getEnv(), config.getMountPoint(), logs);
+                timings.setEnvInstall(since(envStartedAt));
             } catch (Environment.InstallationException e) {
                 LOG.error("Unable to install environment", e);
+                slotsContext.close();
 
                 return LWS.ExecuteResponse.newBuilder()
                     .setRc(ReturnCodes.ENVIRONMENT_INSTALLATION_ERROR.getRc())
                     .setDescription(e.getMessage())
+                    .setTimings(timings.setEnvInstall(since(envStartedAt)))
                     .build();
             } catch (Exception e) {
                 LOG.error("Error while preparing env", e);
+                slotsContext.close();
+
                 return LWS.ExecuteResponse.newBuilder()
                     .setRc(ReturnCodes.INTERNAL_ERROR.getRc())
                     .setDescription("Internal error")
@@ -188,32 +212,42 @@ public class WorkerApiImpl extends WorkerApiGrpc.WorkerApiImplBase {
 
             LOG.info("Executing task...");
 
-            var slotsContext = slots.context("", request.getExecutionId(), tid, op.getSlotsList(), slotAssignments);
-
             try {
                 var exec = new Execution(op.getCommand(), "");
 
                 LOG.info("Waiting for slots...");
-                slotsContext.beforeExecution();
+                var slotsWaitStartedAt = System.nanoTime();
+                slotsReady.join();
+                timings.setSlotsWait(since(slotsWaitStartedAt));
 
+                var execStartedAt = System.nanoTime();
                 exec.start(env);
 
                 logs.stdout.log(exec.process().out());
                 logs.stderr.log(exec.process().err());
 
                 final int rc = exec.waitFor();
+                timings.setExec(since(execStartedAt));
+
                 final String message;
 
                 if (rc == 0) {
                     message = "Success";
+
+                    var uploadStartedAt = System.nanoTime();
                     slotsContext.afterExecution();
+                    timings.setOutputsUpload(since(uploadStartedAt));
                 } else {
                     message = "Error while executing command on worker. See your stdout/stderr to see more info.";
                 }
 
+                LOG.info("Task {} finished with rc {}, timings: {}", tid, rc,
+                    ProtoPrinter.printer().shortDebugString(timings));
+
                 return LWS.ExecuteResponse.newBuilder()
                     .setRc(rc)
                     .setDescription(message)
+                    .setTimings(timings)
                     .build();
 
             } catch (Exception e) {
@@ -226,6 +260,10 @@ public class WorkerApiImpl extends WorkerApiGrpc.WorkerApiImplBase {
         }
     }
 
+    private static com.google.protobuf.Duration since(long startedAtNanos) {
+        return Durations.fromNanos(System.nanoTime() - startedAtNanos);
+    }
+
     @Override
     public synchronized void init(LWS.InitRequest request, StreamObserver<LWS.InitResponse> response) {
         var owner = this.owner;
@@ -281,6 +319,8 @@ public class WorkerApiImpl extends WorkerApiGrpc.WorkerApiImplBase {
             }
         }
 
+        envFactory.prepullImages(request.getPrepullImagesList());
+
         response.onNext(LWS.InitResponse.getDefaultInstance());
         response.onCompleted();
     }
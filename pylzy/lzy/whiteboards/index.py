@@ -35,6 +35,7 @@ RETRY_CONFIG = RetryConfig(
     max_backoff_ms=10000
 )
 CHANNEL: Optional[Channel] = None
+QUERY_PAGE_SIZE = 100
 
 
 @atexit.register
@@ -81,7 +82,7 @@ class RemoteWhiteboardIndexClient(WhiteboardIndexClient):
         ))
         return resp.whiteboard
 
-    # TODO (tomato): add fair pagination and retries
+    # TODO (tomato): add retries
     async def query(
         self,
         name: Optional[str] = None,
@@ -102,18 +103,26 @@ class RemoteWhiteboardIndexClient(WhiteboardIndexClient):
         else:
             to = None
 
-        resp: ListResponse = await self.__stub.List(
-            ListRequest(
-                name=name if name else "",
-                tags=tags,
-                createdTimeBounds=TimeBounds(
-                    from_=from_,
-                    to=to
+        page_token = ""
+        while True:
+            resp: ListResponse = await self.__stub.List(
+                ListRequest(
+                    name=name if name else "",
+                    tags=tags,
+                    createdTimeBounds=TimeBounds(
+                        from_=from_,
+                        to=to
+                    ),
+                    pageSize=QUERY_PAGE_SIZE,
+                    pageToken=page_token
                 )
             )
-        )
-        for wb in resp.whiteboards:
-            yield wb
+            for wb in resp.whiteboards:
+                yield wb
+
+            if not resp.nextPageToken:
+                break
+            page_token = resp.nextPageToken
 
     @retry(config=RETRY_CONFIG, action_name="registering whiteboard")
     async def register(self, wb: Whiteboard) -> None:
@@ -0,0 +1,54 @@
+package ai.lzy.common;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Measures durations of sequential application startup phases to track cold-start regressions.
+ * Each {@link #phase} call completes the phase started by the previous call (or by the timer creation).
+ */
+public final class StartupTimer {
+    private final String app;
+    private final Duration jvmUptime;
+    private final long startNanos;
+    private long lastNanos;
+    private final Map<String, Duration> phases = new LinkedHashMap<>();
+
+    public StartupTimer(String app) {
+        this.app = app;
+        this.jvmUptime = Duration.ofMillis(ManagementFactory.getRuntimeMXBean().getUptime());
+        this.startNanos = System.nanoTime();
+        this.lastNanos = startNanos;
+    }
+
+    public synchronized Duration phase(String name) {
+        var now = System.nanoTime();
+        var duration = Duration.ofNanos(now - lastNanos);
+        phases.merge(name, duration, Duration::plus);
+        lastNanos = now;
+        return duration;
+    }
+
+    public synchronized Duration total() {
+        return Duration.ofNanos(lastNanos - startNanos);
+    }
+
+    public synchronized Map<String, Duration> phases() {
+        return Map.copyOf(phases);
+    }
+
+    public synchronized String report() {
+        return "%s started in %d ms (jvm uptime before start %d ms): %s".formatted(app, total().toMillis(),
+            jvmUptime.toMillis(), phases.entrySet().stream()
+                .map(e -> e.getKey() + " " + e.getValue().toMillis() + " ms")
+                .collect(Collectors.joining(", ")));
+    }
+
+    @Override
+    public String toString() {
+        return report();
+    }
+}
@@ -7,6 +7,8 @@ public class DatabaseConfiguration {
     private int minPoolSize;
     private int maxPoolSize;
     private boolean enabled;
+    // skip Flyway when the applied schema version is not older than the latest local migration file
+    private boolean fastStart = false;
 
     public String getUrl() {
         return url;
@@ -57,6 +59,14 @@ public class DatabaseConfiguration {
         return this;
     }
 
+    public boolean isFastStart() {
+        return fastStart;
+    }
+
+    public void setFastStart(boolean fastStart) {
+        this.fastStart = fastStart;
+    }
+
     @Override
     public String toString() {
         return "DatabaseConfiguration{" +
@@ -65,6 +75,7 @@ public class DatabaseConfiguration {
                ", minPoolSize=" + minPoolSize +
                ", maxPoolSize=" + maxPoolSize +
                ", enabled=" + enabled +
+               ", fastStart=" + fastStart +
                '}';
     }
 }
@@ -2,15 +2,38 @@ package ai.lzy.model.db;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.mchange.v2.c3p0.ComboPooledDataSource;
+import jakarta.annotation.Nullable;
 import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationVersion;
 
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.function.Consumer;
+import java.util.jar.JarEntry;
+import java.util.regex.Pattern;
 
 public abstract class StorageImpl implements Storage {
+    private static final Logger LOG = LogManager.getLogger(StorageImpl.class);
+
     private static final String VALIDATION_QUERY_SQL = "select 1";
+    private static final String LATEST_APPLIED_VERSION_SQL = """
+        SELECT version
+        FROM flyway_schema_history
+        WHERE success AND version IS NOT NULL
+        ORDER BY installed_rank DESC
+        LIMIT 1""";
+    private static final String CLASSPATH_PREFIX = "classpath:";
+    private static final Pattern MIGRATION_FILE_PATTERN = Pattern.compile("V([0-9._]+)__.*\\.sql");
 
     private final ComboPooledDataSource dataSource;
     private volatile Consumer<Storage> onClose = null;
@@ -31,7 +54,95 @@ public abstract class StorageImpl implements Storage {
             .dataSource(dbConfig.getUrl(), dbConfig.getUsername(), dbConfig.getPassword())
             .locations(migrationsPath)
             .load();
+
+        var startNanos = System.nanoTime();
+        if (dbConfig.isFastStart() && isSchemaUpToDate(migrationsPath)) {
+            LOG.info("Database schema at {} is up to date, skip migration ({} ms)",
+                migrationsPath, Duration.ofNanos(System.nanoTime() - startNanos).toMillis());
+            return;
+        }
+
         flyway.migrate();
+        LOG.info("Database schema at {} migrated in {} ms",
+            migrationsPath, Duration.ofNanos(System.nanoTime() - startNanos).toMillis());
+    }
+
+    /**
+     * Compares the latest applied schema version with the latest local migration file name.
+     * Neither migration scripts nor their checksums are read, so edits of already applied migrations
+     * are not detected until the next full migrate.
+     */
+    private boolean isSchemaUpToDate(String migrationsPath) {
+        try {
+            var local = latestLocalVersion(migrationsPath);
+            if (local == null) {
+                return false;
+            }
+
+            MigrationVersion applied;
+            try (var conn = dataSource.getConnection();
+                 var st = conn.prepareStatement(LATEST_APPLIED_VERSION_SQL);
+                 var rs = st.executeQuery())
+            {
+                if (!rs.next()) {
+                    return false;
+                }
+                applied = MigrationVersion.fromVersion(rs.getString(1));
+            }
+
+            LOG.debug("Database schema at {}: applied version {}, local version {}", migrationsPath, applied, local);
+            return applied.compareTo(local) >= 0;
+        } catch (Exception e) {
+            LOG.info("Cannot check database schema version at {}, migrate: {}", migrationsPath, e.getMessage());
+            return false;
+        }
+    }
+
+    @Nullable
+    private static MigrationVersion latestLocalVersion(String migrationsPath) throws IOException, URISyntaxException {
+        if (!migrationsPath.startsWith(CLASSPATH_PREFIX)) {
+            return null;
+        }
+
+        var dir = migrationsPath.substring(CLASSPATH_PREFIX.length());
+        var names = new ArrayList<String>();
+        var resources = StorageImpl.class.getClassLoader().getResources(dir);
+        while (resources.hasMoreElements()) {
+            var url = resources.nextElement();
+            switch (url.getProtocol()) {
+                case "file" -> {
+                    try (var files = Files.list(Path.of(url.toURI()))) {
+                        files.forEach(f -> names.add(f.getFileName().toString()));
+                    }
+                }
+                case "jar" -> {
+                    var connection = (JarURLConnection) url.openConnection();
+                    connection.setUseCaches(false);
+                    try (var jar = connection.getJarFile()) {
+                        var prefix = connection.getEntryName() + "/";
+                        jar.stream()
+                            .map(JarEntry::getName)
+                            .filter(name -> name.startsWith(prefix) && name.indexOf('/', prefix.length()) < 0)
+                            .forEach(name -> names.add(name.substring(prefix.length())));
+                    }
+                }
+                default -> {
+                    return null;
+                }
+            }
+        }
+
+        MigrationVersion latest = null;
+        for (var name : names) {
+            var matcher = MIGRATION_FILE_PATTERN.matcher(name);
+            if (matcher.matches()) {
+                var version = MigrationVersion.fromVersion(matcher.group(1));
+                if (latest == null || version.compareTo(latest) > 0) {
+                    latest = version;
+                }
+            }
+        }
+        return latest;
     }
 
     @Override
@@ -0,0 +1,242 @@
+package ai.lzy.util.grpc;
+
+import ai.lzy.util.grpc.GrpcUtils.RetryConfig;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.StatusRuntimeException;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Histogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static ai.lzy.util.grpc.GrpcUtils.IS_RETRIES_ENABLED;
+
+/**
+ * Non-blocking client facade over gRPC future stubs.
+ * <p>
+ * Retries use the same {@link RetryConfig} and backoff as {@link GrpcUtils#withRetries}, but next attempts are
+ * scheduled on a shared timer instead of parking the calling thread. Number of calls in flight to the target
+ * is limited, calls over the limit are queued and started when previous calls complete.
+ */
+public final class AsyncGrpcClient {
+    private static final Logger LOG = LogManager.getLogger(AsyncGrpcClient.class);
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        var thread = new Thread(r, "grpc-async-retry-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // targets are not used as labels, there can be too many of them (e.g. one per slot address)
+    private static final Counter RETRIES = Counter
+        .build("retries", "Retries of async grpc calls")
+        .subsystem("grpc_async_client")
+        .labelNames("method")
+        .register();
+
+    private static final Histogram RETRY_DELAYS = Histogram
+        .build("retry_delays", "Delays before retries of async grpc calls (seconds)")
+        .subsystem("grpc_async_client")
+        .labelNames("method")
+        .buckets(0.1, 0.25, 0.5, 1.0, 2.5, 5.0, 10.0, 30.0)
+        .register();
+
+    private static final Counter HEDGES = Counter
+        .build("hedges", "Hedged attempts of async grpc calls")
+        .subsystem("grpc_async_client")
+        .labelNames("method")
+        .register();
+
+    private final String target;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+    public AsyncGrpcClient(String target, int maxInFlight) {
+        this.target = target;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public int pending() {
+        return pending.size();
+    }
+
+    /**
+     * Starts the call and retries it on retryable errors
+     *
+     * @param method name of the method for logs and metrics
+     * @param call   starts new attempt, usually it is a method of a future stub
+     */
+    public <T> CompletableFuture<T> call(String method, RetryConfig config, Supplier<ListenableFuture<T>> call) {
+        var request = new Request<>(method, config, call);
+        request.startChain();
+        return request.result;
+    }
+
+    /**
+     * Same as {@link #call}, but if the call is not completed within {@code hedgeDelay}, starts one more
+     * independent attempt and returns the first successful result. Only for idempotent calls.
+     */
+    public <T> CompletableFuture<T> hedgedCall(String method, RetryConfig config, Duration hedgeDelay,
+                                               Supplier<ListenableFuture<T>> call)
+    {
+        var request = new Request<>(method, config, call);
+        request.startChain();
+        TIMER.schedule(() -> {
+            if (!request.result.isDone()) {
+                LOG.debug("Call {}::{} is not completed in {} ms, start hedged attempt",
+                    target, method, hedgeDelay.toMillis());
+                HEDGES.labels(method).inc();
+                request.startChain();
+            }
+        }, hedgeDelay.toMillis(), TimeUnit.MILLISECONDS);
+        return request.result;
+    }
+
+    private void submit(Runnable start) {
+        pending.add(start);
+        drain();
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        drain();
+    }
+
+    private void drain() {
+        while (!pending.isEmpty()) {
+            var current = inFlight.get();
+            if (current >= maxInFlight) {
+                return;
+            }
+            if (!inFlight.compareAndSet(current, current + 1)) {
+                continue;
+            }
+
+            var start = pending.poll();
+            if (start == null) {
+                inFlight.decrementAndGet();
+                continue;
+            }
+            start.run();
+        }
+    }
+
+    private final class Request<T> {
+        private final String method;
+        private final RetryConfig config;
+        private final Supplier<ListenableFuture<T>> call;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final Set<ListenableFuture<T>> attempts = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger activeChains = new AtomicInteger(0);
+
+        private Request(String method, RetryConfig config, Supplier<ListenableFuture<T>> call) {
+            this.method = method;
+            this.config = config;
+            this.call = call;
+
+            // cancel the rest attempts of hedged call
+            result.whenComplete((r, e) -> attempts.forEach(attempt -> attempt.cancel(false)));
+        }
+
+        void startChain() {
+            activeChains.incrementAndGet();
+            attempt(1, 0L);
+        }
+
+        private void attempt(int attempt, long prevDelayMs) {
+            submit(() -> {
+                if (result.isDone()) {
+                    release();
+                    return;
+                }
+
+                final ListenableFuture<T> future;
+                try {
+                    future = call.get();
+                } catch (RuntimeException e) {
+                    release();
+                    onFailure(attempt, prevDelayMs, e);
+                    return;
+                }
+
+                attempts.add(future);
+                Futures.addCallback(future, new FutureCallback<>() {
+                    @Override
+                    public void onSuccess(T value) {
+                        attempts.remove(future);
+                        release();
+                        result.complete(value);
+                    }
+
+                    @Override
+                    public void onFailure(Throwable t) {
+                        attempts.remove(future);
+                        release();
+                        Request.this.onFailure(attempt, prevDelayMs, t);
+                    }
+                }, MoreExecutors.directExecutor());
+            });
+        }
+
+        private void onFailure(int attempt, long prevDelayMs, Throwable t) {
+            if (result.isDone()) {
+                return;
+            }
+
+            if (!(t instanceof StatusRuntimeException e) || !config.isRetryable().test(e)) {
+                LOG.error("Got not retryable error while executing {}::{}: {}", target, method, t.getMessage());
+                failChain(t);
+                return;
+            }
+
+            boolean retry = IS_RETRIES_ENABLED.get();
+            if (retry && config.count() != 0) {
+                retry = attempt <= config.count();
+            }
+
+            if (!retry) {
+                LOG.error("Got retryable error while executing {}::{}, but retry count exceeded: {}",
+                    target, method, e.getMessage());
+                failChain(e);
+                return;
+            }
+
+            var delayMs = attempt == 1
+                ? config.initialBackoff().toMillis()
+                : Math.min(config.maxBackoff().toMillis(), (long) (prevDelayMs * config.backoffMultiplayer()));
+
+            LOG.warn("Got retryable error while executing {}::{}, retry after {} ms: {}",
+                target, method, delayMs, e.getMessage());
+            RETRIES.labels(method).inc();
+            RETRY_DELAYS.labels(method).observe(delayMs / 1000.0);
+
+            TIMER.schedule(() -> attempt(attempt + 1, delayMs), delayMs, TimeUnit.MILLISECONDS);
+        }
+
+        private void failChain(Throwable t) {
+            // hedged call fails only when all its chains failed
+            if (activeChains.decrementAndGet() == 0) {
+                result.completeExceptionally(t);
+            }
+        }
+    }
+}
@@ -6,21 +6,48 @@ import io.grpc.ForwardingServerCallListener.SimpleForwardingServerCallListener;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.UUID;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class GrpcLogsInterceptor {
     private static final Logger SERVER_LOG = LogManager.getLogger("GrpcServer");
     private static final Logger CLIENT_LOG = LogManager.getLogger("GrpcClient");
 
+    // call ids are needed only to match requests and responses in logs, so unique within the process is enough
+    private static final AtomicLong CALL_IDS = new AtomicLong(0);
+
     public static ServerInterceptor server() {
+        return server(Map.of());
+    }
+
+    /**
+     * @param sampledMethods full method name -> N, only every N-th call of the method is logged
+     */
+    public static ServerInterceptor server(Map<String, Integer> sampledMethods) {
+        var sampleCounters = new ConcurrentHashMap<String, AtomicLong>();
+
         return new ServerInterceptor() {
             @Override
             public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
                                                                          ServerCallHandler<ReqT, RespT> next)
             {
-                var callId = UUID.randomUUID().toString();
+                if (!SERVER_LOG.isDebugEnabled()) {
+                    return next.startCall(call, headers);
+                }
+
                 var methodName = call.getMethodDescriptor().getFullMethodName();
 
+                var sampleRate = sampledMethods.get(methodName);
+                if (sampleRate != null && sampleRate > 1) {
+                    var counter = sampleCounters.computeIfAbsent(methodName, m -> new AtomicLong(0));
+                    if (counter.getAndIncrement() % sampleRate != 0) {
+                        return next.startCall(call, headers);
+                    }
+                }
+
+                var callId = Long.toHexString(CALL_IDS.incrementAndGet());
+
                 var grpcServerCall = new ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT>(call) {
                     @Override
                     public void sendMessage(RespT message) {
@@ -56,6 +83,10 @@ public class GrpcLogsInterceptor {
             public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
                                                                        CallOptions callOptions, Channel next)
             {
+                if (!CLIENT_LOG.isDebugEnabled()) {
+                    return next.newCall(method, callOptions);
+                }
+
                 var methodName = method.getFullMethodName();
                 return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
                     @Override
@@ -1,5 +1,6 @@
 package ai.lzy.util.grpc;
 
+import ai.lzy.metrics.MetricsGrpcInterceptor;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.net.HostAndPort;
 import io.grpc.ManagedChannel;
@@ -10,12 +11,14 @@ import io.grpc.StatusRuntimeException;
 import io.grpc.netty.NettyServerBuilder;
 import io.grpc.protobuf.services.ProtoReflectionService;
 import io.grpc.stub.AbstractBlockingStub;
+import io.grpc.stub.AbstractFutureStub;
 import jakarta.annotation.Nullable;
 import org.apache.logging.log4j.Logger;
 
 import java.net.InetSocketAddress;
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.LockSupport;
@@ -56,10 +59,29 @@ public final class GrpcUtils {
         }
     }
 
+    public static <T extends AbstractFutureStub<T>> T newFutureClient(T stub, String name,
+                                                                      @Nullable Supplier<String> token)
+    {
+        if (token != null) {
+            return stub.withInterceptors(
+                GrpcLogsInterceptor.client(name),
+                ClientHeaderInterceptor.authorization(token),
+                ClientHeaderInterceptor.all(COMMON_CLIENT_HEADERS));
+        } else {
+            return stub.withInterceptors(
+                GrpcLogsInterceptor.client(name),
+                ClientHeaderInterceptor.all(COMMON_CLIENT_HEADERS));
+        }
+    }
+
     public static <T extends AbstractBlockingStub<T>> T withIdempotencyKey(T stub, String idempotencyKey) {
         return stub.withInterceptors(ClientHeaderInterceptor.idempotencyKey(() -> idempotencyKey));
     }
 
+    public static <T extends AbstractFutureStub<T>> T withIdempotencyKey(T stub, String idempotencyKey) {
+        return stub.withInterceptors(ClientHeaderInterceptor.idempotencyKey(() -> idempotencyKey));
+    }
+
     public static <T extends AbstractBlockingStub<T>> T withTimeout(T stub, Duration timeout) {
         return stub.withInterceptors(DeadlineClientInterceptor.fromDuration(timeout));
     }
@@ -90,19 +112,38 @@ public final class GrpcUtils {
             .addService(ProtoReflectionService.newInstance());
     }
 
+    /**
+     * Registers both the calls/messages interceptor and the bytes tracer, either one alone reports partial data
+     */
+    public static NettyServerBuilder addMetrics(NettyServerBuilder builder, String app) {
+        return builder
+            .intercept(MetricsGrpcInterceptor.server(app))
+            .addStreamTracerFactory(MetricsGrpcInterceptor.serverTracer(app));
+    }
+
     public static NettyServerBuilder intercept(NettyServerBuilder builder,
                                                @Nullable ServerInterceptor authInterceptor)
+    {
+        return intercept(builder, authInterceptor, Map.of());
+    }
+
+    /**
+     * @param logSampledMethods full method name -> N, only every N-th call of the method is logged
+     */
+    public static NettyServerBuilder intercept(NettyServerBuilder builder,
+                                               @Nullable ServerInterceptor authInterceptor,
+                                               Map<String, Integer> logSampledMethods)
     {
         if (authInterceptor != null) {
             return builder
                 .intercept(authInterceptor)
-                .intercept(GrpcLogsInterceptor.server())
+                .intercept(GrpcLogsInterceptor.server(logSampledMethods))
                 .intercept(RequestIdInterceptor.forward())
                 .intercept(RemoteAddressInterceptor.create())
                 .intercept(GrpcHeadersServerInterceptor.create());
         } else {
             return builder
-                .intercept(GrpcLogsInterceptor.server())
+                .intercept(GrpcLogsInterceptor.server(logSampledMethods))
                 .intercept(RequestIdInterceptor.forward())
                 .intercept(RemoteAddressInterceptor.create())
                 .intercept(GrpcHeadersServerInterceptor.create());
@@ -113,6 +154,16 @@ public final class GrpcUtils {
         return newGrpcServer(address.getHost(), address.getPort(), authInterceptor);
     }
 
+    public static NettyServerBuilder newGrpcServer(HostAndPort address, @Nullable ServerInterceptor authInterceptor,
+                                                   Map<String, Integer> logSampledMethods)
+    {
+        return intercept(
+            addReflection(
+                addKeepAlive(
+                    NettyServerBuilder.forAddress(new InetSocketAddress(address.getHost(), address.getPort())))),
+            authInterceptor, logSampledMethods);
+    }
+
     public static NettyServerBuilder newGrpcServer(String host, int port, @Nullable ServerInterceptor authInterceptor) {
         return intercept(
             addReflection(
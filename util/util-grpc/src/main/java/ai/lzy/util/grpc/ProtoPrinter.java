@@ -1,5 +1,6 @@
 package ai.lzy.util.grpc;
 
+import ai.lzy.logs.LogUtils;
 import ai.lzy.v1.validation.LV;
 import com.google.protobuf.*;
 import org.apache.logging.log4j.LogManager;
@@ -53,6 +54,14 @@ public class ProtoPrinter {
             this.sensitiveExtension = sensitiveExtension;
         }
 
+        /**
+         * Like {@link #shortDebugString(MessageOrBuilder)}, but the message is printed only when the returned
+         * object is converted to string, so it can be passed to a logger without checking the log level.
+         */
+        public Object lazyShortDebugString(MessageOrBuilder message) {
+            return LogUtils.lazy(() -> shortDebugString(message));
+        }
+
         /**
          * Return a new Printer instance with the specified escape mode.
          *
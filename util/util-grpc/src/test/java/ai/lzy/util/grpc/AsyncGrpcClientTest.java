@@ -0,0 +1,124 @@
+package ai.lzy.util.grpc;
+
+import ai.lzy.util.grpc.GrpcUtils.RetryConfig;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AsyncGrpcClientTest {
+    private static final RetryConfig RETRY_CONFIG = new RetryConfig(
+        3, e -> GrpcUtils.retryableStatusCode(e.getStatus()), Duration.ofMillis(10), Duration.ofMillis(50), 2.0);
+
+    @Test
+    public void retryUntilSuccess() throws Exception {
+        var client = new AsyncGrpcClient("test", 10);
+        var attempts = new AtomicInteger(0);
+
+        var result = client.call("retryUntilSuccess", RETRY_CONFIG, () -> attempts.incrementAndGet() < 3
+            ? Futures.immediateFailedFuture(Status.UNAVAILABLE.asRuntimeException())
+            : Futures.immediateFuture("ok"));
+
+        Assert.assertEquals("ok", result.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(3, attempts.get());
+        Assert.assertEquals(0, client.inFlight());
+    }
+
+    @Test
+    public void notRetryableError() throws Exception {
+        var client = new AsyncGrpcClient("test", 10);
+        var attempts = new AtomicInteger(0);
+
+        var result = client.call("notRetryableError", RETRY_CONFIG, () -> {
+            attempts.incrementAndGet();
+            return Futures.immediateFailedFuture(Status.INVALID_ARGUMENT.asRuntimeException());
+        });
+
+        var e = Assert.assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(Status.Code.INVALID_ARGUMENT, ((StatusRuntimeException) e.getCause()).getStatus().getCode());
+        Assert.assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void retryCountExceeded() throws Exception {
+        var client = new AsyncGrpcClient("test", 10);
+        var attempts = new AtomicInteger(0);
+
+        var result = client.call("retryCountExceeded", RETRY_CONFIG, () -> {
+            attempts.incrementAndGet();
+            return Futures.immediateFailedFuture(Status.UNAVAILABLE.asRuntimeException());
+        });
+
+        Assert.assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(RETRY_CONFIG.count() + 1, attempts.get());
+    }
+
+    @Test
+    public void concurrencyLimit() throws Exception {
+        var client = new AsyncGrpcClient("test", 2);
+        var calls = new ArrayList<SettableFuture<Integer>>();
+        var results = new ArrayList<CompletableFuture<Integer>>();
+        for (int i = 0; i < 5; ++i) {
+            results.add(client.call("concurrencyLimit", RETRY_CONFIG, () -> {
+                var call = SettableFuture.<Integer>create();
+                calls.add(call);
+                return call;
+            }));
+        }
+
+        Assert.assertEquals(2, calls.size());
+        Assert.assertEquals(2, client.inFlight());
+        Assert.assertEquals(3, client.pending());
+
+        for (int i = 0; i < 5; ++i) {
+            calls.get(i).set(i);
+            Assert.assertEquals(i, (int) results.get(i).get(5, TimeUnit.SECONDS));
+        }
+
+        Assert.assertEquals(5, calls.size());
+        Assert.assertEquals(0, client.inFlight());
+        Assert.assertEquals(0, client.pending());
+    }
+
+    @Test
+    public void hedgedCall() throws Exception {
+        var client = new AsyncGrpcClient("test", 10);
+        var calls = new ArrayList<SettableFuture<String>>();
+
+        var result = client.hedgedCall("hedgedCall", RETRY_CONFIG, Duration.ofMillis(50), () -> {
+            var call = SettableFuture.<String>create();
+            synchronized (calls) {
+                calls.add(call);
+            }
+            return call;
+        });
+
+        var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (sizeOf(calls) < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(2, sizeOf(calls));
+
+        calls.get(1).set("hedged");
+        Assert.assertEquals("hedged", result.get(5, TimeUnit.SECONDS));
+        // slow attempt is cancelled
+        Assert.assertTrue(calls.get(0).isCancelled());
+        Assert.assertEquals(0, client.inFlight());
+    }
+
+    private static int sizeOf(List<?> list) {
+        synchronized (list) {
+            return list.size();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package ai.lzy.util.grpc;
+
+import ai.lzy.test.ValidationTest.TestMessage;
+import io.grpc.CallOptions;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+import io.grpc.Server;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.NettyServerBuilder;
+import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.ServerCalls;
+import io.prometheus.client.CollectorRegistry;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class GrpcMetricsTest {
+    private static final String APP = "GrpcMetricsTest";
+    private static final int STREAM_RESPONSES = 3;
+
+    private static final MethodDescriptor<TestMessage, TestMessage> UNARY_METHOD =
+        method("ai.lzy.test.MetricsTest/Unary", MethodType.UNARY);
+    private static final MethodDescriptor<TestMessage, TestMessage> STREAM_METHOD =
+        method("ai.lzy.test.MetricsTest/Stream", MethodType.SERVER_STREAMING);
+
+    private final CountDownLatch streamStarted = new CountDownLatch(1);
+    private final CountDownLatch streamFinish = new CountDownLatch(1);
+    private Server server;
+    private ManagedChannel channel;
+
+    @Before
+    public void before() throws Exception {
+        var service = ServerServiceDefinition.builder("ai.lzy.test.MetricsTest")
+            .addMethod(UNARY_METHOD, ServerCalls.asyncUnaryCall((request, response) -> {
+                response.onNext(request.toBuilder().setField2("response").build());
+                response.onCompleted();
+            }))
+            .addMethod(STREAM_METHOD, ServerCalls.asyncServerStreamingCall((request, response) -> {
+                for (int i = 0; i < STREAM_RESPONSES; ++i) {
+                    response.onNext(request.toBuilder().setField3(i).build());
+                }
+                streamStarted.countDown();
+                try {
+                    streamFinish.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                response.onCompleted();
+            }))
+            .build();
+
+        server = GrpcUtils.addMetrics(NettyServerBuilder.forAddress(new InetSocketAddress("localhost", 0)), APP)
+            .addService(service)
+            .build()
+            .start();
+        channel = NettyChannelBuilder.forAddress("localhost", server.getPort())
+            .usePlaintext()
+            .build();
+    }
+
+    @After
+    public void after() throws Exception {
+        streamFinish.countDown();
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void unary() {
+        var method = "test.MetricsTest/Unary";
+        var request = TestMessage.newBuilder().setField1("request").build();
+
+        var response = ClientCalls.blockingUnaryCall(channel, UNARY_METHOD, CallOptions.DEFAULT, request);
+
+        Assert.assertEquals(1.0, metric("grpc_requests", method), 0.0);
+        Assert.assertEquals(1.0, metric("grpc_request_messages", method), 0.0);
+        Assert.assertEquals(1.0, metric("grpc_response_messages", method), 0.0);
+        Assert.assertEquals(request.getSerializedSize(), metric("grpc_request_bytes", method), 0.0);
+        Assert.assertEquals(response.getSerializedSize(), metric("grpc_response_bytes", method), 0.0);
+        Assert.assertEquals(0.0, metric("grpc_inflight", method), 0.0);
+    }
+
+    @Test
+    public void serverStreaming() throws Exception {
+        var method = "test.MetricsTest/Stream";
+        var request = TestMessage.newBuilder().setField1("request").build();
+
+        var responses = ClientCalls.blockingServerStreamingCall(channel, STREAM_METHOD, CallOptions.DEFAULT, request);
+        Assert.assertTrue(streamStarted.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1.0, metric("grpc_inflight", method), 0.0);
+
+        streamFinish.countDown();
+        var received = new ArrayList<TestMessage>();
+        responses.forEachRemaining(received::add);
+        Assert.assertEquals(STREAM_RESPONSES, received.size());
+
+        Assert.assertEquals(1.0, metric("grpc_requests", method), 0.0);
+        Assert.assertEquals(1.0, metric("grpc_request_messages", method), 0.0);
+        Assert.assertEquals(STREAM_RESPONSES, metric("grpc_response_messages", method), 0.0);
+        Assert.assertEquals(request.getSerializedSize(), metric("grpc_request_bytes", method), 0.0);
+        Assert.assertEquals(received.stream().mapToInt(TestMessage::getSerializedSize).sum(),
+            metric("grpc_response_bytes", method), 0.0);
+        Assert.assertEquals(0.0, metric("grpc_inflight", method), 0.0);
+    }
+
+    private static double metric(String name, String method) {
+        var value = CollectorRegistry.defaultRegistry.getSampleValue(
+            name, new String[] {"app", "method"}, new String[] {APP + "_server", method});
+        return value == null ? 0.0 : value;
+    }
+
+    private static MethodDescriptor<TestMessage, TestMessage> method(String fullName, MethodType type) {
+        return MethodDescriptor.<TestMessage, TestMessage>newBuilder()
+            .setFullMethodName(fullName)
+            .setType(type)
+            .setRequestMarshaller(ProtoUtils.marshaller(TestMessage.getDefaultInstance()))
+            .setResponseMarshaller(ProtoUtils.marshaller(TestMessage.getDefaultInstance()))
+            .build();
+    }
+}
@@ -34,4 +34,15 @@ public class ProtoPrinterTest {
             printer.shortDebugString(msg));
     }
 
+    @Test
+    public void testLazy() {
+        var msg = ValidationTest.TestMessage.newBuilder()
+            .setField1("field1")
+            .setField2("field2")
+            .build();
+
+        var lazy = ProtoPrinter.safePrinter().lazyShortDebugString(msg);
+        Assert.assertEquals(ProtoPrinter.safePrinter().shortDebugString(msg), lazy.toString());
+        Assert.assertSame(lazy.toString(), lazy.toString());
+    }
 }
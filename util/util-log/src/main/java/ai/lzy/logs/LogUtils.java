@@ -19,4 +19,25 @@ public final class LogUtils {
             return f.get();
         }
     }
+
+    /**
+     * Object for log arguments which is formatted only when it is actually logged, at most once
+     */
+    public static Object lazy(Supplier<String> message) {
+        return new Object() {
+            private String value;
+
+            @Override
+            public String toString() {
+                if (value == null) {
+                    value = message.get();
+                }
+                return value;
+            }
+        };
+    }
+
+    public static Object lazyFormat(String format, Object... args) {
+        return lazy(() -> format.formatted(args));
+    }
 }
@@ -9,6 +9,10 @@ public final class MetricsGrpcInterceptor {
 
     private static final RequestMetrics requestMetrics = new RequestMetrics("grpc");
 
+    /**
+     * Counts calls, messages and durations of the server calls.
+     * Message bytes are counted by {@link #serverTracer}, which must be registered on the same server.
+     */
     public static ServerInterceptor server(String app) {
         return new ServerInterceptor() {
             @Override
@@ -20,20 +24,17 @@ public final class MetricsGrpcInterceptor {
                 final var rm = requestMetrics.begin(app + "_server", methodName);
 
                 return new ForwardingServerCallListener<>() {
-                    private ReqT request;
-                    private RespT response;
-
                     private final ServerCall.Listener<ReqT> delegate = next.startCall(
                         new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
                             @Override
                             public void sendMessage(RespT message) {
-                                response = message;
+                                rm.responseMessage();
                                 super.sendMessage(message);
                             }
 
                             @Override
                             public void close(Status status, Metadata trailers) {
-                                endRequest(rm, status, request, response);
+                                rm.end(status.getCode().toString());
                                 super.close(status, trailers);
                             }
                         }, headers);
@@ -45,7 +46,7 @@ public final class MetricsGrpcInterceptor {
 
                     @Override
                     public void onMessage(ReqT message) {
-                        request = message;
+                        rm.requestMessage();
                         super.onMessage(message);
                     }
 
@@ -57,10 +58,44 @@ public final class MetricsGrpcInterceptor {
                         } catch (Throwable e) {
                             LOG.error("Unexpected exception while executing method <{}_server> {}: {}",
                                 app, fullMethodName, e.getMessage(), e);
-                            endRequest(rm, Status.fromThrowable(e), request, response);
+                            rm.end(Status.fromThrowable(e).getCode().toString());
                             throw e;
                         }
                     }
+
+                    @Override
+                    public void onCancel() {
+                        rm.end(Status.Code.CANCELLED.toString());
+                        super.onCancel();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Counts serialized bytes of the server calls messages.
+     * Sizes are reported by the transport, so messages are not measured once more.
+     */
+    public static ServerStreamTracer.Factory serverTracer(String app) {
+        return new ServerStreamTracer.Factory() {
+            @Override
+            public ServerStreamTracer newServerStreamTracer(String fullMethodName, Metadata headers) {
+                final var methodName = getMethodName(fullMethodName);
+                return new ServerStreamTracer() {
+                    @Override
+                    public void inboundUncompressedSize(long bytes) {
+                        if (bytes >= 0) {
+                            requestMetrics.requestBytes(app + "_server", methodName, bytes);
+                        }
+                    }
+
+                    @Override
+                    public void outboundUncompressedSize(long bytes) {
+                        if (bytes >= 0) {
+                            requestMetrics.responseBytes(app + "_server", methodName, bytes);
+                        }
+                    }
                 };
             }
         };
@@ -74,22 +109,45 @@ public final class MetricsGrpcInterceptor {
             {
                 var rm = requestMetrics.begin(app + "_client", getMethodName(method.getFullMethodName()));
 
-                return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
-                    private ReqT request;
-                    private RespT response;
+                // message sizes are reported by the transport, one tracer per stream (attempt)
+                var tracerFactory = new ClientStreamTracer.Factory() {
+                    @Override
+                    public ClientStreamTracer newClientStreamTracer(ClientStreamTracer.StreamInfo info,
+                                                                    Metadata headers)
+                    {
+                        return new ClientStreamTracer() {
+                            @Override
+                            public void outboundUncompressedSize(long bytes) {
+                                if (bytes >= 0) {
+                                    rm.requestBytes(bytes);
+                                }
+                            }
 
+                            @Override
+                            public void inboundUncompressedSize(long bytes) {
+                                if (bytes >= 0) {
+                                    rm.responseBytes(bytes);
+                                }
+                            }
+                        };
+                    }
+                };
+
+                return new ForwardingClientCall.SimpleForwardingClientCall<>(
+                    next.newCall(method, callOptions.withStreamTracerFactory(tracerFactory)))
+                {
                     @Override
                     public void start(ClientCall.Listener<RespT> rl, Metadata headers) {
                         super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(rl) {
                             @Override
                             public void onClose(Status status, Metadata trailers) {
-                                endRequest(rm, status, request, response);
+                                rm.end(status.getCode().toString());
                                 super.onClose(status, trailers);
                             }
 
                             @Override
                             public void onMessage(RespT message) {
-                                response = message;
+                                rm.responseMessage();
                                 super.onMessage(message);
                             }
                         }, headers);
@@ -97,7 +155,7 @@ public final class MetricsGrpcInterceptor {
 
                     @Override
                     public void sendMessage(ReqT message) {
-                        request = message;
+                        rm.requestMessage();
                         super.sendMessage(message);
                     }
                 };
@@ -111,15 +169,4 @@ public final class MetricsGrpcInterceptor {
         }
         return fullMethodName;
     }
-
-    private static void endRequest(RequestMetrics.Request rm, Status status, Object request, Object response) {
-        var requestSize = messageSize(request);
-        var responseSize = messageSize(response);
-        rm.end(status.getCode().toString(), requestSize, responseSize);
-    }
-
-    private static int messageSize(Object message) {
-        // return message instanceof AbstractMessage ? ((AbstractMessage) message).getSerializedSize() : 0;
-        return 0;
-    }
 }
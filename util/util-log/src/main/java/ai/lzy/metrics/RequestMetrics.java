@@ -1,8 +1,11 @@
 package ai.lzy.metrics;
 
 import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
 import io.prometheus.client.Histogram;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public final class RequestMetrics {
     private final Counter requests;
     private final Counter requestsWithStatus;
@@ -10,6 +13,12 @@ public final class RequestMetrics {
     private final Counter statuses;
     private final Histogram requestSize;
     private final Histogram responseSize;
+    private final Gauge inflight;
+    private final Counter requestMessages;
+    private final Counter responseMessages;
+    private final Counter requestBytes;
+    private final Counter responseBytes;
+    private final Histogram timeToFirstResponse;
 
     public RequestMetrics(String subsystem) {
         this.requests = Counter
@@ -25,7 +34,7 @@ public final class RequestMetrics {
             .register();
 
         this.durations = Histogram
-            .build("durations", "Durations histogram (seconds)")
+            .build("durations", "Durations histogram, stream lifetime for streaming calls (seconds)")
             .subsystem(subsystem)
             .labelNames("app", "method")
             .buckets(0.001, 0.0025, 0.005, 0.0075, 0.01, 0.025, 0.05, 0.075, 0.1, 0.25, 0.5, 0.75, 1.0, 2.5, 5.0, 7.5,
@@ -39,44 +48,121 @@ public final class RequestMetrics {
             .register();
 
         this.requestSize = Histogram
-            .build("requestSize", "Request package size")
+            .build("requestSize", "Request message size")
             .subsystem(subsystem)
             .labelNames("app", "method")
             .exponentialBuckets(1024, 2, 10)
             .register();
 
         this.responseSize = Histogram
-            .build("responseSize", "Response package size")
+            .build("responseSize", "Response message size")
             .subsystem(subsystem)
             .labelNames("app", "method")
             .exponentialBuckets(1024, 2, 10)
             .register();
+
+        this.inflight = Gauge
+            .build("inflight", "Calls in flight")
+            .subsystem(subsystem)
+            .labelNames("app", "method")
+            .register();
+
+        this.requestMessages = Counter
+            .build("request_messages", "Request messages counter")
+            .subsystem(subsystem)
+            .labelNames("app", "method")
+            .register();
+
+        this.responseMessages = Counter
+            .build("response_messages", "Response messages counter")
+            .subsystem(subsystem)
+            .labelNames("app", "method")
+            .register();
+
+        this.requestBytes = Counter
+            .build("request_bytes", "Request messages bytes counter")
+            .subsystem(subsystem)
+            .labelNames("app", "method")
+            .register();
+
+        this.responseBytes = Counter
+            .build("response_bytes", "Response messages bytes counter")
+            .subsystem(subsystem)
+            .labelNames("app", "method")
+            .register();
+
+        this.timeToFirstResponse = Histogram
+            .build("time_to_first_response", "Time from call start to the first response message (seconds)")
+            .subsystem(subsystem)
+            .labelNames("app", "method")
+            .buckets(0.001, 0.0025, 0.005, 0.0075, 0.01, 0.025, 0.05, 0.075, 0.1, 0.25, 0.5, 0.75, 1.0, 2.5, 5.0, 7.5,
+                10.0, 25.0, 50.0, 75.0, 100.0)
+            .register();
     }
 
     public Request begin(String app, String method) {
         return new Request(app, method);
     }
 
+    /**
+     * For transport level hooks, which see message sizes but not the call itself
+     */
+    public void requestBytes(String app, String method, long size) {
+        requestBytes.labels(app, method).inc(size);
+        requestSize.labels(app, method).observe(size);
+    }
+
+    public void responseBytes(String app, String method, long size) {
+        responseBytes.labels(app, method).inc(size);
+        responseSize.labels(app, method).observe(size);
+    }
+
     public final class Request {
         private final String app;
         private final String method;
+        private final long startNanos;
         private final Histogram.Timer timer;
+        private final AtomicBoolean firstResponse = new AtomicBoolean(true);
+        private final AtomicBoolean ended = new AtomicBoolean(false);
 
         private Request(String app, String method) {
             this.app = app;
             this.method = method;
+            this.startNanos = System.nanoTime();
             this.timer = durations.labels(app, method).startTimer();
             requests.labels(app, method).inc();
+            inflight.labels(app, method).inc();
         }
 
-        public void end(String status, int requestSize, int responseSize) {
+        public void requestMessage() {
+            requestMessages.labels(app, method).inc();
+        }
+
+        public void responseMessage() {
+            if (firstResponse.compareAndSet(true, false)) {
+                timeToFirstResponse.labels(app, method).observe((System.nanoTime() - startNanos) / 1e9);
+            }
+            responseMessages.labels(app, method).inc();
+        }
+
+        public void requestBytes(long size) {
+            RequestMetrics.this.requestBytes(app, method, size);
+        }
+
+        public void responseBytes(long size) {
+            RequestMetrics.this.responseBytes(app, method, size);
+        }
+
+        public void end(String status) {
+            if (!ended.compareAndSet(false, true)) {
+                return;
+            }
+
             timer.close();
+            inflight.labels(app, method).dec();
 
             requestsWithStatus.labels(app, method, status).inc();
             statuses.labels(app, method, status).inc();
-
-            RequestMetrics.this.requestSize.labels(app, method).observe(requestSize);
-            RequestMetrics.this.responseSize.labels(app, method).observe(responseSize);
         }
     }
 }